@@ -0,0 +1,125 @@
+package com.github.sbugat.rundeckmonitor;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import com.github.sbugat.rundeckmonitor.configuration.RundeckMonitorConfiguration;
+
+/**
+ * Delay before the next refresh of a RunDeck server, depending on its last refreshes.
+ *
+ * <ul>
+ * <li>while the server is unreachable: exponential backoff from the refresh delay with jitter, so several monitors don't retry at the same time</li>
+ * <li>while late executions exist: the late refresh delay</li>
+ * <li>when no execution has run for a while: the idle refresh delay</li>
+ * <li>otherwise: the refresh delay</li>
+ * </ul>
+ *
+ * @author Sylvain Bugat
+ *
+ */
+public final class AdaptiveRefreshDelay {
+
+	/** Maximum backoff exponent, higher exponents always reach the maximum backoff delay. */
+	private static final int MAXIMUM_BACKOFF_EXPONENT = 20;
+
+	/** Normal delay between 2 refreshes in milliseconds. */
+	private final long refreshDelay;
+
+	/** Delay between 2 refreshes while late executions exist in milliseconds. */
+	private final long lateRefreshDelay;
+
+	/** Delay between 2 refreshes when the server is idle in milliseconds. */
+	private final long idleRefreshDelay;
+
+	/** Time without any running or new failed execution before the server is considered idle in nanoseconds. */
+	private final long idleThreshold;
+
+	/** Maximum delay between 2 refreshes while the server is unreachable in milliseconds. */
+	private final long maximumBackoffDelay;
+
+	/** Number of consecutive failed refreshes. */
+	private int consecutiveFailures;
+
+	/** Time of the last refresh with running or new failed executions (System.nanoTime() based). */
+	private long lastActivityTime = System.nanoTime();
+
+	/**
+	 * Copy the refresh delays of the configuration.
+	 *
+	 * @param rundeckMonitorConfiguration configuration of the server
+	 */
+	public AdaptiveRefreshDelay(final RundeckMonitorConfiguration rundeckMonitorConfiguration) {
+
+		this(TimeUnit.SECONDS.toMillis(rundeckMonitorConfiguration.getRefreshDelay()), TimeUnit.SECONDS.toMillis(rundeckMonitorConfiguration.getLateRefreshDelay()), TimeUnit.SECONDS.toMillis(rundeckMonitorConfiguration.getIdleRefreshDelay()), TimeUnit.SECONDS.toMillis(rundeckMonitorConfiguration.getIdleThreshold()),
+				TimeUnit.SECONDS.toMillis(rundeckMonitorConfiguration.getMaximumBackoffDelay()));
+	}
+
+	/**
+	 * Set the refresh delays, the late refresh delay is at most the refresh delay, the idle and maximum backoff delays are at least the refresh delay.
+	 *
+	 * @param refreshDelayArg normal delay between 2 refreshes in milliseconds
+	 * @param lateRefreshDelayArg delay between 2 refreshes while late executions exist in milliseconds
+	 * @param idleRefreshDelayArg delay between 2 refreshes when the server is idle in milliseconds
+	 * @param idleThresholdArg time without any running or new failed execution before the server is considered idle in milliseconds
+	 * @param maximumBackoffDelayArg maximum delay between 2 refreshes while the server is unreachable in milliseconds
+	 */
+	AdaptiveRefreshDelay(final long refreshDelayArg, final long lateRefreshDelayArg, final long idleRefreshDelayArg, final long idleThresholdArg, final long maximumBackoffDelayArg) {
+
+		refreshDelay = refreshDelayArg;
+		lateRefreshDelay = Math.min(refreshDelay, lateRefreshDelayArg);
+		idleRefreshDelay = Math.max(refreshDelay, idleRefreshDelayArg);
+		idleThreshold = TimeUnit.MILLISECONDS.toNanos(idleThresholdArg);
+		maximumBackoffDelay = Math.max(refreshDelay, maximumBackoffDelayArg);
+	}
+
+	/**
+	 * Record a successful refresh.
+	 *
+	 * @param activity true if running or new failed executions were found
+	 */
+	public void refreshSucceeded(final boolean activity) {
+
+		consecutiveFailures = 0;
+		if (activity) {
+			lastActivityTime = System.nanoTime();
+		}
+	}
+
+	/**
+	 * Record a failed refresh.
+	 */
+	public void refreshFailed() {
+
+		if (consecutiveFailures < MAXIMUM_BACKOFF_EXPONENT) {
+			consecutiveFailures++;
+		}
+	}
+
+	/**
+	 * Compute the delay before the next refresh.
+	 *
+	 * @param lateJobs true if late executions were found by the last successful refresh
+	 * @return delay in milliseconds
+	 */
+	public long getNextDelay(final boolean lateJobs) {
+
+		if (consecutiveFailures > 0) {
+
+			// Exponential backoff with equal jitter: between the half and the full backoff delay
+			final long backoffDelay = Math.min(maximumBackoffDelay, refreshDelay << (consecutiveFailures - 1));
+			final long halfBackoffDelay = backoffDelay / 2;
+			return halfBackoffDelay + ThreadLocalRandom.current().nextLong(backoffDelay - halfBackoffDelay + 1);
+		}
+
+		if (lateJobs) {
+			return lateRefreshDelay;
+		}
+
+		if (System.nanoTime() - lastActivityTime > idleThreshold) {
+			return idleRefreshDelay;
+		}
+
+		return refreshDelay;
+	}
+}
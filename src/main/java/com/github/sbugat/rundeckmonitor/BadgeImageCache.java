@@ -0,0 +1,139 @@
+package com.github.sbugat.rundeckmonitor;
+
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics2D;
+import java.awt.Image;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.swing.ImageIcon;
+
+import org.slf4j.ext.XLogger;
+import org.slf4j.ext.XLoggerFactory;
+
+/**
+ * Bounded cache of the tray icon images with a count badge, each image and count pair is rendered once.
+ *
+ * @author Sylvain Bugat
+ *
+ */
+public final class BadgeImageCache {
+
+	/** SLF4J XLogger. */
+	private static final XLogger LOG = XLoggerFactory.getXLogger(BadgeImageCache.class);
+
+	/** Maximum number of rendered images kept. */
+	private static final int MAX_CACHED_IMAGES = 16;
+
+	/** Load factor of the cache map. */
+	private static final float CACHE_LOAD_FACTOR = 0.75f;
+
+	/** Highest count displayed, greater counts are displayed with a plus sign. */
+	private static final int MAX_DISPLAYED_COUNT = 9;
+
+	/** Suffix of a count greater than the highest displayed count. */
+	private static final String COUNT_OVERFLOW_SUFFIX = "+"; //$NON-NLS-1$
+
+	/** Badge diameter relative to the image height. */
+	private static final float BADGE_SIZE_RATIO = 0.55f;
+
+	/** Font size relative to the badge diameter. */
+	private static final float FONT_SIZE_RATIO = 0.8f;
+
+	/** Badge background color, contrasting with all state colors. */
+	private static final Color BADGE_COLOR = Color.DARK_GRAY;
+
+	/** Badge text color. */
+	private static final Color BADGE_TEXT_COLOR = Color.WHITE;
+
+	/** Rendered images by base image and count, least recently used first. */
+	private final Map<List<Object>, Image> badgeImages = new LinkedHashMap<List<Object>, Image>(MAX_CACHED_IMAGES, CACHE_LOAD_FACTOR, true) {
+
+		/** Serial version UID. */
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(final Map.Entry<List<Object>, Image> eldest) {
+			return size() > MAX_CACHED_IMAGES;
+		}
+	};
+
+	/**
+	 * Get an image with a count badge, rendered only the first time.
+	 *
+	 * @param baseImage image to badge
+	 * @param count count to display, no badge if it is not positive
+	 * @return base image or a cached badged image
+	 */
+	public synchronized Image getImage(final Image baseImage, final int count) {
+
+		if (count <= 0) {
+			return baseImage;
+		}
+
+		final List<Object> key = Arrays.<Object> asList(baseImage, Integer.valueOf(Math.min(count, MAX_DISPLAYED_COUNT + 1)));
+		Image badgeImage = badgeImages.get(key);
+		if (null == badgeImage) {
+			badgeImage = render(baseImage, count);
+			badgeImages.put(key, badgeImage);
+		}
+
+		return badgeImage;
+	}
+
+	/**
+	 * Draw the count badge in the lower right corner of a copy of an image.
+	 *
+	 * @param baseImage image to badge
+	 * @param count positive count to display
+	 * @return new badged image
+	 */
+	private static Image render(final Image baseImage, final int count) {
+
+		LOG.entry(baseImage, count);
+
+		// Wait for the image to be loaded to get its size
+		final Image loadedImage = new ImageIcon(baseImage).getImage();
+		final int width = loadedImage.getWidth(null);
+		final int height = loadedImage.getHeight(null);
+
+		final String text;
+		if (count > MAX_DISPLAYED_COUNT) {
+			text = MAX_DISPLAYED_COUNT + COUNT_OVERFLOW_SUFFIX;
+		}
+		else {
+			text = String.valueOf(count);
+		}
+
+		final BufferedImage badgeImage = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+		final Graphics2D graphics = badgeImage.createGraphics();
+		try {
+			graphics.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+			graphics.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+			graphics.drawImage(loadedImage, 0, 0, null);
+
+			final int diameter = Math.round(height * BADGE_SIZE_RATIO);
+			graphics.setFont(new Font(Font.SANS_SERIF, Font.BOLD, Math.round(diameter * FONT_SIZE_RATIO)));
+			final FontMetrics fontMetrics = graphics.getFontMetrics();
+			final int badgeWidth = Math.max(diameter, fontMetrics.stringWidth(text) + fontMetrics.getDescent() * 2);
+
+			graphics.setColor(BADGE_COLOR);
+			graphics.fillRoundRect(width - badgeWidth, height - diameter, badgeWidth, diameter, diameter, diameter);
+
+			graphics.setColor(BADGE_TEXT_COLOR);
+			graphics.drawString(text, width - badgeWidth + (badgeWidth - fontMetrics.stringWidth(text)) / 2, height - diameter + (diameter - fontMetrics.getHeight()) / 2 + fontMetrics.getAscent());
+		}
+		finally {
+			graphics.dispose();
+		}
+
+		LOG.exit();
+		return badgeImage;
+	}
+}
@@ -0,0 +1,250 @@
+package com.github.sbugat.rundeckmonitor;
+
+import java.util.Arrays;
+
+/**
+ * Set of Rundeck execution identifiers with a fixed capacity.
+ *
+ * Identifiers are stored as primitive longs in an open addressing hash table, insertion order is kept in a ring buffer: when the set is full, adding a new identifier evicts the oldest one. Memory usage does not depend on the number of executions seen.
+ *
+ * @author Sylvain Bugat
+ *
+ */
+public final class BoundedExecutionIdSet {
+
+	/** Marker of an empty slot in the hash table, Rundeck execution identifiers are always positive. */
+	private static final long EMPTY_SLOT = Long.MIN_VALUE;
+
+	/** Multiplier used to spread identifiers in the hash table (golden ratio). */
+	private static final long HASH_MULTIPLIER = 0x9E3779B97F4A7C15L;
+
+	/** Number of bits in an integer. */
+	private static final int INTEGER_BITS = 32;
+
+	/** Identifiers in insertion order. */
+	private long[] ring;
+
+	/** Index of the oldest identifier in the ring buffer. */
+	private int head;
+
+	/** Number of identifiers in the set. */
+	private int size;
+
+	/** Hash table of the identifiers, its size is a power of 2 at least twice the capacity. */
+	private long[] table;
+
+	/** Mask to get a table index from a hash. */
+	private int mask;
+
+	/**
+	 * Initialize an empty set.
+	 *
+	 * @param capacityArg maximum number of identifiers kept
+	 */
+	public BoundedExecutionIdSet(final int capacityArg) {
+
+		allocate(capacityArg);
+	}
+
+	/**
+	 * Check if an execution identifier is in the set.
+	 *
+	 * @param executionId execution identifier
+	 * @return true if the identifier is known
+	 */
+	public boolean contains(final long executionId) {
+
+		return indexOf(executionId) >= 0;
+	}
+
+	/**
+	 * Add an execution identifier, the oldest identifier is evicted if the set is full.
+	 *
+	 * @param executionId execution identifier to add
+	 * @return true if the identifier was not already in the set
+	 */
+	public boolean add(final long executionId) {
+
+		if (EMPTY_SLOT == executionId) {
+			throw new IllegalArgumentException(String.valueOf(executionId));
+		}
+
+		if (contains(executionId)) {
+			return false;
+		}
+
+		if (size == ring.length) {
+
+			// Evict the oldest identifier
+			removeFromTable(ring[head]);
+			ring[head] = executionId;
+			head = (head + 1) % ring.length;
+		}
+		else {
+
+			ring[(head + size) % ring.length] = executionId;
+			size++;
+		}
+
+		int index = slot(executionId);
+		while (EMPTY_SLOT != table[index]) {
+			index = (index + 1) & mask;
+		}
+		table[index] = executionId;
+
+		return true;
+	}
+
+	/**
+	 * Remove all identifiers.
+	 */
+	public void clear() {
+
+		Arrays.fill(table, EMPTY_SLOT);
+		head = 0;
+		size = 0;
+	}
+
+	/**
+	 * Return the number of identifiers in the set.
+	 *
+	 * @return number of identifiers
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Return the maximum number of identifiers kept.
+	 *
+	 * @return capacity of the set
+	 */
+	public int capacity() {
+		return ring.length;
+	}
+
+	/**
+	 * Copy the identifiers in insertion order.
+	 *
+	 * @return identifiers, oldest first
+	 */
+	public long[] toArray() {
+
+		final long[] executionIds = new long[size];
+		for (int i = 0; i < size; i++) {
+			executionIds[i] = ring[(head + i) % ring.length];
+		}
+
+		return executionIds;
+	}
+
+	/**
+	 * Change the capacity of the set, the newest identifiers are kept.
+	 *
+	 * @param capacityArg new maximum number of identifiers kept
+	 */
+	public void resize(final int capacityArg) {
+
+		if (capacityArg == ring.length) {
+			return;
+		}
+
+		final long[] oldRing = ring;
+		final int oldHead = head;
+		final int oldSize = size;
+
+		allocate(capacityArg);
+
+		for (int i = Math.max(0, oldSize - capacityArg); i < oldSize; i++) {
+			add(oldRing[(oldHead + i) % oldRing.length]);
+		}
+	}
+
+	/**
+	 * Allocate empty ring buffer and hash table.
+	 *
+	 * @param capacityArg maximum number of identifiers kept
+	 */
+	private void allocate(final int capacityArg) {
+
+		if (capacityArg <= 0) {
+			throw new IllegalArgumentException(String.valueOf(capacityArg));
+		}
+
+		ring = new long[capacityArg];
+		table = new long[Integer.highestOneBit(capacityArg) << 2];
+		mask = table.length - 1;
+		clear();
+	}
+
+	/**
+	 * Get the table index of an identifier.
+	 *
+	 * @param executionId identifier to find
+	 * @return index in the table or -1 if the identifier is not in the set
+	 */
+	private int indexOf(final long executionId) {
+
+		int index = slot(executionId);
+		while (EMPTY_SLOT != table[index]) {
+
+			if (executionId == table[index]) {
+				return index;
+			}
+			index = (index + 1) & mask;
+		}
+
+		return -1;
+	}
+
+	/**
+	 * Remove an identifier from the hash table and shift back the following colliding identifiers.
+	 *
+	 * @param executionId identifier to remove
+	 */
+	private void removeFromTable(final long executionId) {
+
+		int freeIndex = indexOf(executionId);
+		if (freeIndex < 0) {
+			return;
+		}
+
+		int index = freeIndex;
+		while (true) {
+
+			index = (index + 1) & mask;
+			if (EMPTY_SLOT == table[index]) {
+				break;
+			}
+
+			// Move the identifier if its natural slot is not cyclically between the free slot and its current slot
+			final int naturalIndex = slot(table[index]);
+			final boolean move;
+			if (freeIndex <= index) {
+				move = naturalIndex <= freeIndex || naturalIndex > index;
+			}
+			else {
+				move = naturalIndex <= freeIndex && naturalIndex > index;
+			}
+
+			if (move) {
+				table[freeIndex] = table[index];
+				freeIndex = index;
+			}
+		}
+
+		table[freeIndex] = EMPTY_SLOT;
+	}
+
+	/**
+	 * Compute the natural table index of an identifier.
+	 *
+	 * @param executionId identifier
+	 * @return natural index in the table
+	 */
+	private int slot(final long executionId) {
+
+		final long hash = executionId * HASH_MULTIPLIER;
+		return (int) (hash ^ (hash >>> INTEGER_BITS)) & mask;
+	}
+}
@@ -0,0 +1,455 @@
+package com.github.sbugat.rundeckmonitor;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.slf4j.ext.XLogger;
+import org.slf4j.ext.XLoggerFactory;
+
+import com.github.sbugat.rundeckmonitor.configuration.RundeckMonitorConfiguration;
+import com.github.sbugat.rundeckmonitor.tools.HashTools;
+
+/**
+ * Append-only journal of the known executions of a server, to resume after a restart without alerting again on already seen executions.
+ *
+ * The journal is a header followed by fixed size records: a type and a long value, either a known failed execution identifier, a known late execution identifier, the completion time watermark of the failed executions or the high-water mark of the failed executions of a project. The high-water mark of a project is written as 2 records: the project identified by a hash of its name, then its completion time. Records of a refresh are written in one batch. When the journal holds too many records compared to the known executions, it is compacted: the known executions are written in a new file which replaces the journal.
+ *
+ * A journal error only disables the journal, the monitor keeps working in memory.
+ *
+ * @author Sylvain Bugat
+ *
+ */
+public final class ExecutionJournal {
+
+	/** SLF4J XLogger. */
+	private static final XLogger LOG = XLoggerFactory.getXLogger(ExecutionJournal.class);
+
+	/** Prefix of the journal files, next to the configuration file. */
+	private static final String JOURNAL_FILE_PREFIX = "rundeckMonitor-"; //$NON-NLS-1$
+
+	/** Suffix of the journal files. */
+	private static final String JOURNAL_FILE_SUFFIX = ".journal"; //$NON-NLS-1$
+
+	/** Suffix of the temporary file written by the compaction. */
+	private static final String COMPACTION_FILE_SUFFIX = ".tmp"; //$NON-NLS-1$
+
+	/** Number of characters of the server URL hash in the file name. */
+	private static final int FILE_NAME_HASH_LENGTH = 16;
+
+	/** Header of the journal: "RMJ" and the format version 2. */
+	private static final int JOURNAL_HEADER = 0x524D4A02;
+
+	/** Header of the journals without the project high-water marks: "RMJ" and the format version 1, they are rewritten with the current header. */
+	private static final int LEGACY_JOURNAL_HEADER = 0x524D4A01;
+
+	/** Size of the header in bytes. */
+	private static final int HEADER_SIZE = Integer.SIZE / Byte.SIZE;
+
+	/** Size of a record in bytes: type and value. */
+	private static final int RECORD_SIZE = 1 + Long.SIZE / Byte.SIZE;
+
+	/** Record type of a known failed execution. */
+	private static final byte FAILED_EXECUTION_RECORD = 1;
+
+	/** Record type of a known late execution. */
+	private static final byte LATE_EXECUTION_RECORD = 2;
+
+	/** Record type of the failed executions completion time watermark. */
+	private static final byte WATERMARK_RECORD = 3;
+
+	/** Record type of a project identified by the hash of its name, followed by its high-water mark record. */
+	private static final byte PROJECT_RECORD = 4;
+
+	/** Record type of the high-water mark of the last project record. */
+	private static final byte PROJECT_HIGH_WATER_MARK_RECORD = 5;
+
+	/** Ratio of records to known executions triggering a compaction. */
+	private static final int COMPACTION_RATIO = 4;
+
+	/** Number of records buffered before a forced write. */
+	private static final int BUFFERED_RECORDS = 256;
+
+	/** Journal file. */
+	private final Path journalFile;
+
+	/** Known failed executions replayed from and written to the journal. */
+	private final BoundedExecutionIdSet knownFailedExecutionIds;
+
+	/** Known late executions replayed from and written to the journal. */
+	private final BoundedExecutionIdSet knownLateExecutionIds;
+
+	/** Completion time of the newest failed execution seen by project name hash. */
+	private final Map<Long, Long> projectHighWaterMarks = new HashMap<>();
+
+	/** Records not written yet. */
+	private final ByteBuffer pendingRecords = ByteBuffer.allocate(BUFFERED_RECORDS * RECORD_SIZE);
+
+	/** Channel appending to the journal, null if the journal is disabled. */
+	private FileChannel journalChannel;
+
+	/** Number of records in the journal file. */
+	private long recordCount;
+
+	/** Completion time of the newest failed execution seen, 0 if none. */
+	private long watermark;
+
+	/** Flag indicating if known executions were replayed from an existing journal. */
+	private boolean resumed;
+
+	/**
+	 * Open the journal of a server and replay it into the known executions sets.
+	 *
+	 * @param serverConfiguration configuration of the server
+	 * @param knownFailedExecutionIdsArg known failed executions to fill and journal
+	 * @param knownLateExecutionIdsArg known late executions to fill and journal
+	 */
+	public ExecutionJournal(final RundeckMonitorConfiguration serverConfiguration, final BoundedExecutionIdSet knownFailedExecutionIdsArg, final BoundedExecutionIdSet knownLateExecutionIdsArg) {
+
+		this(Paths.get(JOURNAL_FILE_PREFIX + HashTools.sha256Hex(serverConfiguration.getRundeckUrl()).substring(0, FILE_NAME_HASH_LENGTH) + JOURNAL_FILE_SUFFIX), knownFailedExecutionIdsArg, knownLateExecutionIdsArg);
+	}
+
+	/**
+	 * Open a journal file and replay it into the known executions sets.
+	 *
+	 * @param journalFileArg journal file
+	 * @param knownFailedExecutionIdsArg known failed executions to fill and journal
+	 * @param knownLateExecutionIdsArg known late executions to fill and journal
+	 */
+	ExecutionJournal(final Path journalFileArg, final BoundedExecutionIdSet knownFailedExecutionIdsArg, final BoundedExecutionIdSet knownLateExecutionIdsArg) {
+
+		journalFile = journalFileArg;
+		knownFailedExecutionIds = knownFailedExecutionIdsArg;
+		knownLateExecutionIds = knownLateExecutionIdsArg;
+
+		try {
+			replay();
+		}
+		catch (final IOException | RuntimeException e) {
+
+			LOG.warn("Execution journal {} disabled", journalFile, e); //$NON-NLS-1$
+			close();
+		}
+	}
+
+	/**
+	 * Check if the known executions were replayed from an existing journal.
+	 *
+	 * @return true if the monitor resumes after a previous run
+	 */
+	public synchronized boolean isResumed() {
+		return resumed;
+	}
+
+	/**
+	 * Get the completion time of the newest failed execution seen.
+	 *
+	 * @return completion time watermark in milliseconds, 0 if no failed execution has been seen
+	 */
+	public synchronized long getWatermark() {
+		return watermark;
+	}
+
+	/**
+	 * Get the completion time of the newest failed execution seen on a project.
+	 *
+	 * @param project Rundeck project
+	 * @return high-water mark in milliseconds, null if no failed execution has been seen on this project
+	 */
+	public synchronized Date getProjectHighWaterMark(final String project) {
+
+		final Long highWaterMark = projectHighWaterMarks.get(Long.valueOf(HashTools.sha256Long(project)));
+		if (null == highWaterMark) {
+			return null;
+		}
+
+		return new Date(highWaterMark.longValue());
+	}
+
+	/**
+	 * Journal a new known failed execution.
+	 *
+	 * @param executionId identifier of the execution added to the known failed executions
+	 */
+	public synchronized void addFailedExecution(final long executionId) {
+		append(FAILED_EXECUTION_RECORD, executionId);
+	}
+
+	/**
+	 * Journal a new known late execution.
+	 *
+	 * @param executionId identifier of the execution added to the known late executions
+	 */
+	public synchronized void addLateExecution(final long executionId) {
+		append(LATE_EXECUTION_RECORD, executionId);
+	}
+
+	/**
+	 * Journal a new completion time watermark if it is newer than the current one.
+	 *
+	 * @param completionTime completion time of a seen failed execution
+	 */
+	public synchronized void updateWatermark(final long completionTime) {
+
+		if (completionTime > watermark) {
+			watermark = completionTime;
+			append(WATERMARK_RECORD, completionTime);
+		}
+	}
+
+	/**
+	 * Journal a new high-water mark of a project if it is newer than the current one.
+	 *
+	 * @param project Rundeck project
+	 * @param highWaterMark completion date of the newest failed execution seen on the project
+	 */
+	public synchronized void updateProjectHighWaterMark(final String project, final Date highWaterMark) {
+
+		final Long projectKey = Long.valueOf(HashTools.sha256Long(project));
+		final Long currentHighWaterMark = projectHighWaterMarks.get(projectKey);
+		if (null != currentHighWaterMark && highWaterMark.getTime() <= currentHighWaterMark.longValue()) {
+			return;
+		}
+
+		projectHighWaterMarks.put(projectKey, Long.valueOf(highWaterMark.getTime()));
+
+		// The project and its high-water mark are written in the same batch
+		if (pendingRecords.remaining() < 2 * RECORD_SIZE) {
+			flush();
+		}
+		append(PROJECT_RECORD, projectKey.longValue());
+		append(PROJECT_HIGH_WATER_MARK_RECORD, highWaterMark.getTime());
+	}
+
+	/**
+	 * Write the pending records in one batch and compact the journal if needed.
+	 */
+	public synchronized void flush() {
+
+		if (null == journalChannel) {
+			pendingRecords.clear();
+			return;
+		}
+
+		try {
+			if (recordCount > COMPACTION_RATIO * (long) (knownFailedExecutionIds.capacity() + knownLateExecutionIds.capacity())) {
+				compact();
+			}
+			else {
+				writePendingRecords();
+			}
+		}
+		catch (final IOException | RuntimeException e) {
+
+			LOG.warn("Execution journal {} writing error, journal disabled", journalFile, e); //$NON-NLS-1$
+			close();
+		}
+	}
+
+	/**
+	 * Write the pending records and close the journal, next records are ignored.
+	 */
+	public synchronized void close() {
+
+		if (null == journalChannel) {
+			return;
+		}
+
+		try {
+			writePendingRecords();
+			journalChannel.close();
+		}
+		catch (final IOException e) {
+			LOG.warn("Execution journal {} closing error", journalFile, e); //$NON-NLS-1$
+		}
+		journalChannel = null;
+	}
+
+	/**
+	 * Buffer a record, the buffer is written when it is full.
+	 *
+	 * @param type record type
+	 * @param value record value
+	 */
+	private void append(final byte type, final long value) {
+
+		if (null == journalChannel) {
+			return;
+		}
+
+		if (!pendingRecords.hasRemaining()) {
+			flush();
+		}
+
+		pendingRecords.put(type).putLong(value);
+	}
+
+	/**
+	 * Read the existing journal into the known executions and open it for appending, a truncated last record is dropped.
+	 *
+	 * @throws IOException if the journal cannot be read or created
+	 */
+	private void replay() throws IOException {
+
+		if (!Files.exists(journalFile)) {
+
+			// First run with this server
+			openNewJournal(journalFile);
+			return;
+		}
+
+		journalChannel = FileChannel.open(journalFile, StandardOpenOption.READ, StandardOpenOption.WRITE);
+		final ByteBuffer journalContent = ByteBuffer.allocate((int) journalChannel.size());
+		while (journalContent.hasRemaining() && journalChannel.read(journalContent) >= 0) {
+			// Read the whole journal
+		}
+		journalContent.flip();
+
+		final int header;
+		if (journalContent.remaining() < HEADER_SIZE) {
+			header = 0;
+		}
+		else {
+			header = journalContent.getInt();
+		}
+
+		if (JOURNAL_HEADER != header && LEGACY_JOURNAL_HEADER != header) {
+
+			LOG.warn("Invalid execution journal {}, starting a new journal", journalFile); //$NON-NLS-1$
+			journalChannel.close();
+			openNewJournal(journalFile);
+			return;
+		}
+
+		Long projectKey = null;
+		while (journalContent.remaining() >= RECORD_SIZE) {
+
+			final byte type = journalContent.get();
+			final long value = journalContent.getLong();
+			if (FAILED_EXECUTION_RECORD == type) {
+				knownFailedExecutionIds.add(value);
+			}
+			else if (LATE_EXECUTION_RECORD == type) {
+				knownLateExecutionIds.add(value);
+			}
+			else if (WATERMARK_RECORD == type) {
+				watermark = Math.max(watermark, value);
+			}
+			else if (PROJECT_RECORD == type) {
+				projectKey = Long.valueOf(value);
+			}
+			else if (PROJECT_HIGH_WATER_MARK_RECORD == type) {
+
+				// A high-water mark without its project is ignored
+				if (null != projectKey) {
+
+					final Long highWaterMark = projectHighWaterMarks.get(projectKey);
+					if (null == highWaterMark || value > highWaterMark.longValue()) {
+						projectHighWaterMarks.put(projectKey, Long.valueOf(value));
+					}
+				}
+				projectKey = null;
+			}
+			else {
+
+				// Unknown record: the end of the journal is corrupted
+				journalContent.position(journalContent.position() - RECORD_SIZE);
+				break;
+			}
+			recordCount++;
+		}
+
+		// Drop any partially written record before appending
+		journalChannel.truncate(HEADER_SIZE + recordCount * RECORD_SIZE);
+		journalChannel.position(HEADER_SIZE + recordCount * RECORD_SIZE);
+		resumed = true;
+
+		LOG.info("Execution journal {} replayed: {} records, {} known failed and {} known late executions, {} projects", journalFile, Long.valueOf(recordCount), Integer.valueOf(knownFailedExecutionIds.size()), Integer.valueOf(knownLateExecutionIds.size()), Integer.valueOf(projectHighWaterMarks.size())); //$NON-NLS-1$
+
+		// Previous format: rewrite the journal with the current header before appending new records
+		if (LEGACY_JOURNAL_HEADER == header) {
+			compact();
+		}
+	}
+
+	/**
+	 * Write the known executions, the watermark and the project high-water marks in a new journal which replaces the current one.
+	 *
+	 * @throws IOException if the new journal cannot be written
+	 */
+	private void compact() throws IOException {
+
+		pendingRecords.clear();
+		journalChannel.close();
+		journalChannel = null;
+
+		final Path compactedFile = Paths.get(journalFile.toString() + COMPACTION_FILE_SUFFIX);
+		openNewJournal(compactedFile);
+		for (final long executionId : knownFailedExecutionIds.toArray()) {
+			append(FAILED_EXECUTION_RECORD, executionId);
+		}
+		for (final long executionId : knownLateExecutionIds.toArray()) {
+			append(LATE_EXECUTION_RECORD, executionId);
+		}
+		if (watermark > 0) {
+			append(WATERMARK_RECORD, watermark);
+		}
+		for (final Map.Entry<Long, Long> projectHighWaterMark : projectHighWaterMarks.entrySet()) {
+
+			if (pendingRecords.remaining() < 2 * RECORD_SIZE) {
+				writePendingRecords();
+			}
+			append(PROJECT_RECORD, projectHighWaterMark.getKey().longValue());
+			append(PROJECT_HIGH_WATER_MARK_RECORD, projectHighWaterMark.getValue().longValue());
+		}
+		writePendingRecords();
+		journalChannel.force(false);
+		journalChannel.close();
+
+		// Readers never see a partially compacted journal
+		Files.move(compactedFile, journalFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		journalChannel = FileChannel.open(journalFile, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+
+		LOG.debug("Execution journal {} compacted to {} records", journalFile, Long.valueOf(recordCount)); //$NON-NLS-1$
+	}
+
+	/**
+	 * Create an empty journal with its header and open it for appending.
+	 *
+	 * @param file journal file to create or replace
+	 * @throws IOException if the journal cannot be created
+	 */
+	private void openNewJournal(final Path file) throws IOException {
+
+		journalChannel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+		final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+		header.putInt(JOURNAL_HEADER).flip();
+		while (header.hasRemaining()) {
+			journalChannel.write(header);
+		}
+		recordCount = 0;
+	}
+
+	/**
+	 * Write the buffered records.
+	 *
+	 * @throws IOException if the records cannot be written
+	 */
+	private void writePendingRecords() throws IOException {
+
+		pendingRecords.flip();
+		recordCount += pendingRecords.remaining() / RECORD_SIZE;
+		while (pendingRecords.hasRemaining()) {
+			journalChannel.write(pendingRecords);
+		}
+		pendingRecords.clear();
+	}
+}
@@ -0,0 +1,247 @@
+package com.github.sbugat.rundeckmonitor;
+
+import java.awt.BorderLayout;
+import java.awt.Font;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.util.concurrent.ExecutionException;
+
+import javax.swing.JButton;
+import javax.swing.JFrame;
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import javax.swing.JScrollPane;
+import javax.swing.JTextArea;
+import javax.swing.SwingWorker;
+import javax.swing.Timer;
+import javax.swing.WindowConstants;
+
+import org.slf4j.ext.XLogger;
+import org.slf4j.ext.XLoggerFactory;
+
+/**
+ * Lightweight preview of the end of the output of an execution, a running execution is tailed until it is completed or the frame is closed.
+ *
+ * @author Sylvain Bugat
+ *
+ */
+public final class ExecutionOutputDialog {
+
+	/** SLF4J XLogger. */
+	private static final XLogger LOG = XLoggerFactory.getXLogger(ExecutionOutputDialog.class);
+
+	/** Frame title prefix. */
+	private static final String FRAME_TITLE_PREFIX = "RundeckMonitor output: "; //$NON-NLS-1$
+
+	/** Frame width. */
+	private static final int FRAME_WIDTH = 800;
+
+	/** Frame height. */
+	private static final int FRAME_HEIGHT = 500;
+
+	/** Delay between 2 reads of a running execution in milliseconds. */
+	private static final int TAIL_DELAY = 2_000;
+
+	/** One kilobyte in bytes. */
+	private static final int ONE_KILOBYTE = 1_024;
+
+	/** Status while loading. */
+	private static final String LOADING_STATUS = "Loading..."; //$NON-NLS-1$
+
+	/** Status while the execution is running. */
+	private static final String RUNNING_STATUS = "Execution running, following the output"; //$NON-NLS-1$
+
+	/** Status when the execution is completed. */
+	private static final String COMPLETED_STATUS = "Execution completed"; //$NON-NLS-1$
+
+	/** Status suffix when the beginning of the output is not displayed. */
+	private static final String TRUNCATED_STATUS_SUFFIX = ", only the end of the output is displayed"; //$NON-NLS-1$
+
+	/** Status prefix of a loading error. */
+	private static final String ERROR_STATUS_PREFIX = "Loading error: "; //$NON-NLS-1$
+
+	/** Displayed execution. */
+	private final JobExecutionInfo jobExecutionInfo;
+
+	/** End of the output of the execution, only used by the loading task. */
+	private final ExecutionOutputTail executionOutputTail;
+
+	/** Displayed frame. */
+	private final JFrame frame;
+
+	/** Displayed output. */
+	private final JTextArea outputTextArea = new JTextArea();
+
+	/** Loading status. */
+	private final JLabel statusLabel = new JLabel(LOADING_STATUS);
+
+	/** Timer of the next read of a running execution. */
+	private final Timer tailTimer;
+
+	/**
+	 * Display the end of the output of an execution and start reading it.
+	 *
+	 * @param rundeckMonitorTrayIcon tray icon opening the execution in the browser
+	 * @param executionOutputSource source of the execution output
+	 * @param jobExecutionInfoArg execution to display
+	 * @param tailSize number of KB of the output displayed
+	 */
+	public ExecutionOutputDialog(final RundeckMonitorTrayIcon rundeckMonitorTrayIcon, final ExecutionOutputSource executionOutputSource, final JobExecutionInfo jobExecutionInfoArg, final int tailSize) {
+
+		jobExecutionInfo = jobExecutionInfoArg;
+		executionOutputTail = new ExecutionOutputTail(executionOutputSource, jobExecutionInfo, tailSize * ONE_KILOBYTE);
+
+		outputTextArea.setEditable(false);
+		outputTextArea.setFont(new Font(Font.MONOSPACED, Font.PLAIN, outputTextArea.getFont().getSize()));
+
+		tailTimer = new Timer(TAIL_DELAY, new ActionListener() {
+
+			@Override
+			@SuppressWarnings("synthetic-access")
+			public void actionPerformed(final ActionEvent e) {
+				read();
+			}
+		});
+		tailTimer.setRepeats(false);
+
+		// The full Rundeck page stays available
+		final JButton openBrowserButton = new JButton("Open in Rundeck"); //$NON-NLS-1$
+		openBrowserButton.addActionListener(new ActionListener() {
+
+			@Override
+			@SuppressWarnings("synthetic-access")
+			public void actionPerformed(final ActionEvent e) {
+				rundeckMonitorTrayIcon.openBrowser(jobExecutionInfo);
+			}
+		});
+
+		final JPanel southPanel = new JPanel(new BorderLayout());
+		southPanel.add(statusLabel, BorderLayout.CENTER);
+		southPanel.add(openBrowserButton, BorderLayout.EAST);
+
+		frame = new JFrame();
+		frame.setTitle(FRAME_TITLE_PREFIX + RundeckMonitorTrayIcon.originPrefix(jobExecutionInfo) + jobExecutionInfo.getDescription());
+		frame.setDefaultCloseOperation(WindowConstants.DISPOSE_ON_CLOSE);
+		frame.getContentPane().add(new JScrollPane(outputTextArea), BorderLayout.CENTER);
+		frame.getContentPane().add(southPanel, BorderLayout.SOUTH);
+		frame.setSize(FRAME_WIDTH, FRAME_HEIGHT);
+		frame.setLocationRelativeTo(null);
+		frame.setVisible(true);
+
+		read();
+	}
+
+	/**
+	 * Check if the frame is still displayed.
+	 *
+	 * @return true if the frame has not been closed
+	 */
+	public boolean isDisplayed() {
+		return frame.isDisplayable();
+	}
+
+	/**
+	 * Check if the frame displays an execution.
+	 *
+	 * @param otherJobExecutionInfo execution to check
+	 * @return true if the same execution of the same server is displayed
+	 */
+	public boolean isDisplaying(final JobExecutionInfo otherJobExecutionInfo) {
+		return jobExecutionInfo.getExecutionId().equals(otherJobExecutionInfo.getExecutionId()) && jobExecutionInfo.getRundeckUrl().equals(otherJobExecutionInfo.getRundeckUrl());
+	}
+
+	/**
+	 * Bring the frame to the front.
+	 */
+	public void toFront() {
+		frame.toFront();
+	}
+
+	/**
+	 * Read the next entries of the output in background, then display them and schedule the next read while the execution is running.
+	 */
+	private void read() {
+
+		if (!isDisplayed()) {
+			return;
+		}
+
+		new SwingWorker<String, Void>() {
+
+			/** Error of this read. */
+			private String error;
+
+			/** Flag indicating if more entries are already available. */
+			private boolean moreAvailable;
+
+			@Override
+			@SuppressWarnings("synthetic-access")
+			protected String doInBackground() {
+
+				try {
+					moreAvailable = executionOutputTail.read();
+				}
+				catch (final RuntimeException e) {
+
+					// Read again from the same offset after the tail delay
+					LOG.warn("Execution output loading error", e); //$NON-NLS-1$
+					error = e.getMessage();
+				}
+
+				return executionOutputTail.getText();
+			}
+
+			@Override
+			@SuppressWarnings("synthetic-access")
+			protected void done() {
+
+				try {
+					final String text = get();
+					if (!text.equals(outputTextArea.getText())) {
+						outputTextArea.setText(text);
+						outputTextArea.setCaretPosition(text.length());
+					}
+				}
+				catch (final InterruptedException | ExecutionException e) {
+					LOG.warn("Execution output loading interrupted", e); //$NON-NLS-1$
+					error = e.getMessage();
+				}
+
+				updateStatus(error);
+
+				if (moreAvailable) {
+					read();
+				}
+				else if (!executionOutputTail.isCompleted() && isDisplayed()) {
+					tailTimer.restart();
+				}
+			}
+		}.execute();
+	}
+
+	/**
+	 * Display the reading status.
+	 *
+	 * @param error error of the last read, null if it succeeded
+	 */
+	private void updateStatus(final String error) {
+
+		final String status;
+		if (null != error) {
+			status = ERROR_STATUS_PREFIX + error;
+		}
+		else if (executionOutputTail.isCompleted()) {
+			status = COMPLETED_STATUS;
+		}
+		else {
+			status = RUNNING_STATUS;
+		}
+
+		if (executionOutputTail.isTruncated()) {
+			statusLabel.setText(status + TRUNCATED_STATUS_SUFFIX);
+		}
+		else {
+			statusLabel.setText(status);
+		}
+	}
+}
@@ -0,0 +1,22 @@
+package com.github.sbugat.rundeckmonitor;
+
+import org.rundeck.api.domain.RundeckOutput;
+
+/**
+ * Offset based access to the output of the executions of the monitored Rundeck servers.
+ *
+ * @author Sylvain Bugat
+ *
+ */
+public interface ExecutionOutputSource {
+
+	/**
+	 * Call Rundeck rest API to get the output entries of an execution from an offset of its log.
+	 *
+	 * @param jobExecutionInfo displayed execution
+	 * @param offset byte offset in the log of the first entry to get
+	 * @param maxLines maximum number of entries to get
+	 * @return output entries with the offset of the next entries
+	 */
+	RundeckOutput getExecutionOutput(JobExecutionInfo jobExecutionInfo, long offset, int maxLines);
+}
@@ -0,0 +1,164 @@
+package com.github.sbugat.rundeckmonitor;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+import org.rundeck.api.domain.RundeckOutput;
+import org.rundeck.api.domain.RundeckOutputEntry;
+
+/**
+ * End of the output of an execution, read incrementally from the last offset.
+ *
+ * The first read only downloads the last bytes of the log, the next reads only download the entries written since the previous read. Lines are kept in a buffer bounded by its number of characters, the oldest lines are dropped.
+ *
+ * @author Sylvain Bugat
+ *
+ */
+public final class ExecutionOutputTail {
+
+	/** Maximum number of entries downloaded by a call. */
+	private static final int MAX_LINES_PER_CALL = 500;
+
+	/** Separator of the displayed lines. */
+	private static final char LINE_SEPARATOR = '\n';
+
+	/** Source of the execution output. */
+	private final ExecutionOutputSource executionOutputSource;
+
+	/** Execution to read. */
+	private final JobExecutionInfo jobExecutionInfo;
+
+	/** Maximum number of characters of the buffered lines and number of bytes read at the end of the log. */
+	private final int tailSize;
+
+	/** Last lines of the output, oldest first. */
+	private final Deque<String> lines = new ArrayDeque<>();
+
+	/** Number of characters of the buffered lines with their separators. */
+	private int length;
+
+	/** Offset in the log of the next entries to read, -1 before the first read. */
+	private long offset = -1;
+
+	/** Flag indicating if the execution is completed and its whole output is read. */
+	private boolean completed;
+
+	/** Flag indicating if the beginning of the output has been skipped or dropped. */
+	private boolean truncated;
+
+	/**
+	 * Initialize an empty tail.
+	 *
+	 * @param executionOutputSourceArg source of the execution output
+	 * @param jobExecutionInfoArg execution to read
+	 * @param tailSizeArg maximum number of characters kept, must be positive
+	 */
+	public ExecutionOutputTail(final ExecutionOutputSource executionOutputSourceArg, final JobExecutionInfo jobExecutionInfoArg, final int tailSizeArg) {
+
+		executionOutputSource = executionOutputSourceArg;
+		jobExecutionInfo = jobExecutionInfoArg;
+		tailSize = tailSizeArg;
+	}
+
+	/**
+	 * Read the next entries of the output.
+	 *
+	 * @return true if more entries are already available, false if the next read must wait: the execution is completed, its whole log is read or the offset has not advanced
+	 */
+	public boolean read() {
+
+		if (completed) {
+			return false;
+		}
+
+		// Start near the end of the log, the size is given by a one line call
+		if (offset < 0) {
+
+			final RundeckOutput firstOutput = executionOutputSource.getExecutionOutput(jobExecutionInfo, 0, 1);
+			if (firstOutput.getTotalSize() > tailSize) {
+				offset = firstOutput.getTotalSize() - tailSize;
+				truncated = true;
+			}
+			else {
+				offset = 0;
+			}
+		}
+
+		final RundeckOutput rundeckOutput = executionOutputSource.getExecutionOutput(jobExecutionInfo, offset, MAX_LINES_PER_CALL);
+		if (null != rundeckOutput.getLogEntries()) {
+			for (final RundeckOutputEntry rundeckOutputEntry : rundeckOutput.getLogEntries()) {
+				addLine(rundeckOutputEntry);
+			}
+		}
+
+		// A log not written yet can be reported bigger than the readable entries: same offset returned again
+		final long previousOffset = offset;
+		offset = Math.max(offset, rundeckOutput.getOffset());
+		completed = Boolean.TRUE.equals(rundeckOutput.isCompleted());
+
+		return !completed && offset > previousOffset && offset < rundeckOutput.getTotalSize();
+	}
+
+	/**
+	 * Check if the execution is completed and its whole output is read.
+	 *
+	 * @return true if there is nothing more to read
+	 */
+	public boolean isCompleted() {
+		return completed;
+	}
+
+	/**
+	 * Check if the beginning of the output is not displayed.
+	 *
+	 * @return true if the beginning of the output has been skipped or dropped
+	 */
+	public boolean isTruncated() {
+		return truncated;
+	}
+
+	/**
+	 * Get the buffered lines.
+	 *
+	 * @return last lines of the output separated by new lines
+	 */
+	public String getText() {
+
+		final StringBuilder text = new StringBuilder(length);
+		for (final String line : lines) {
+			text.append(line).append(LINE_SEPARATOR);
+		}
+
+		return text.toString();
+	}
+
+	/**
+	 * Add an entry at the end of the buffer and drop the oldest lines beyond the maximum number of characters.
+	 *
+	 * @param rundeckOutputEntry output entry to add
+	 */
+	private void addLine(final RundeckOutputEntry rundeckOutputEntry) {
+
+		final StringBuilder line = new StringBuilder();
+		if (null != rundeckOutputEntry.getTime()) {
+			line.append(rundeckOutputEntry.getTime()).append(' ');
+		}
+		if (null != rundeckOutputEntry.getMessage()) {
+			line.append(rundeckOutputEntry.getMessage());
+		}
+
+		// Only the end of a line longer than the buffer is kept
+		if (line.length() >= tailSize) {
+			line.delete(0, line.length() - tailSize + 1);
+			truncated = true;
+		}
+
+		lines.addLast(line.toString());
+		length += line.length() + 1;
+
+		while (length > tailSize) {
+			length -= lines.pollFirst().length() + 1;
+			truncated = true;
+		}
+	}
+}
@@ -0,0 +1,196 @@
+package com.github.sbugat.rundeckmonitor;
+
+import java.awt.BorderLayout;
+import java.awt.Component;
+import java.awt.event.AdjustmentEvent;
+import java.awt.event.AdjustmentListener;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.util.List;
+
+import javax.swing.DefaultListCellRenderer;
+import javax.swing.JFrame;
+import javax.swing.JLabel;
+import javax.swing.JList;
+import javax.swing.JScrollPane;
+import javax.swing.ListSelectionModel;
+import javax.swing.WindowConstants;
+
+import org.apache.commons.lang.time.FastDateFormat;
+
+/**
+ * Scrollable list of the failed executions beyond the menu items, further pages are downloaded when the end of the list is displayed.
+ *
+ * @author Sylvain Bugat
+ *
+ */
+public final class FailedExecutionsDialog {
+
+	/** Frame title. */
+	private static final String FRAME_TITLE = "RundeckMonitor failed jobs"; //$NON-NLS-1$
+
+	/** Frame width. */
+	private static final int FRAME_WIDTH = 600;
+
+	/** Frame height. */
+	private static final int FRAME_HEIGHT = 400;
+
+	/** Number of rows downloaded at each request. */
+	private static final int PAGE_SIZE = 50;
+
+	/** Number of not yet displayed rows under which the next page is requested. */
+	private static final int PRELOAD_ROWS = 10;
+
+	/** Number of clicks to open an execution. */
+	private static final int OPEN_CLICK_COUNT = 2;
+
+	/** Status while loading. */
+	private static final String LOADING_STATUS = "Loading..."; //$NON-NLS-1$
+
+	/** Status suffix when some failed executions are loaded. */
+	private static final String LOADED_STATUS_SUFFIX = " failed jobs loaded, scroll down for more"; //$NON-NLS-1$
+
+	/** Status suffix when all failed executions are loaded. */
+	private static final String COMPLETE_STATUS_SUFFIX = " failed jobs"; //$NON-NLS-1$
+
+	/** Status prefix of a loading error. */
+	private static final String ERROR_STATUS_PREFIX = "Loading error: "; //$NON-NLS-1$
+
+	/** Displayed frame. */
+	private final JFrame frame;
+
+	/** List of the failed executions. */
+	private final JList<JobExecutionInfo> failedExecutionsList;
+
+	/** Lazily loaded failed executions. */
+	private final FailedExecutionsListModel failedExecutionsListModel;
+
+	/** Loading status. */
+	private final JLabel statusLabel = new JLabel(LOADING_STATUS);
+
+	/**
+	 * Display the failed executions of all monitored projects and load the first page.
+	 *
+	 * @param rundeckMonitorTrayIcon tray icon opening the selected executions
+	 * @param failedExecutionsSources sources of the monitored projects
+	 * @param dateFormat format of the starting dates
+	 */
+	public FailedExecutionsDialog(final RundeckMonitorTrayIcon rundeckMonitorTrayIcon, final List<FailedExecutionsSource> failedExecutionsSources, final String dateFormat) {
+
+		failedExecutionsListModel = new FailedExecutionsListModel(failedExecutionsSources, PAGE_SIZE, new Runnable() {
+
+			@Override
+			@SuppressWarnings("synthetic-access")
+			public void run() {
+
+				updateStatus();
+
+				// After an error, the next page is only requested again by a scroll
+				if (null == failedExecutionsListModel.getLoadingError()) {
+					loadMoreIfNeeded();
+				}
+			}
+		});
+
+		failedExecutionsList = new JList<>(failedExecutionsListModel);
+		failedExecutionsList.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+
+		// Fixed height cells: only the visible rows are rendered
+		failedExecutionsList.setFixedCellHeight(failedExecutionsList.getFontMetrics(failedExecutionsList.getFont()).getHeight() + 2);
+
+		final FastDateFormat dateFormatter = FastDateFormat.getInstance(dateFormat);
+		failedExecutionsList.setCellRenderer(new DefaultListCellRenderer() {
+
+			/** Serial version UID. */
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			public Component getListCellRendererComponent(final JList<?> list, final Object value, final int index, final boolean isSelected, final boolean cellHasFocus) {
+
+				final JobExecutionInfo jobExecutionInfo = (JobExecutionInfo) value;
+				final String text = dateFormatter.format(jobExecutionInfo.getStartedAtTime()) + ": " + RundeckMonitorTrayIcon.originPrefix(jobExecutionInfo) + jobExecutionInfo.getDescription(); //$NON-NLS-1$
+				return super.getListCellRendererComponent(list, text, index, isSelected, cellHasFocus);
+			}
+		});
+
+		failedExecutionsList.addMouseListener(new MouseAdapter() {
+
+			@Override
+			@SuppressWarnings("synthetic-access")
+			public void mouseClicked(final MouseEvent e) {
+
+				if (OPEN_CLICK_COUNT == e.getClickCount() && null != failedExecutionsList.getSelectedValue()) {
+					rundeckMonitorTrayIcon.openExecution(failedExecutionsList.getSelectedValue());
+				}
+			}
+		});
+
+		final JScrollPane scrollPane = new JScrollPane(failedExecutionsList);
+		scrollPane.getVerticalScrollBar().addAdjustmentListener(new AdjustmentListener() {
+
+			@Override
+			@SuppressWarnings("synthetic-access")
+			public void adjustmentValueChanged(final AdjustmentEvent e) {
+				loadMoreIfNeeded();
+			}
+		});
+
+		frame = new JFrame();
+		frame.setTitle(FRAME_TITLE);
+		frame.setDefaultCloseOperation(WindowConstants.DISPOSE_ON_CLOSE);
+		frame.getContentPane().add(scrollPane, BorderLayout.CENTER);
+		frame.getContentPane().add(statusLabel, BorderLayout.SOUTH);
+		frame.setSize(FRAME_WIDTH, FRAME_HEIGHT);
+		frame.setLocationRelativeTo(null);
+		frame.setVisible(true);
+
+		failedExecutionsListModel.loadMore();
+	}
+
+	/**
+	 * Check if the frame is still displayed.
+	 *
+	 * @return true if the frame has not been closed
+	 */
+	public boolean isDisplayed() {
+		return frame.isDisplayable();
+	}
+
+	/**
+	 * Bring the frame to the front.
+	 */
+	public void toFront() {
+		frame.toFront();
+	}
+
+	/**
+	 * Request the next page when the last displayed row is near the end of the loaded rows.
+	 */
+	private void loadMoreIfNeeded() {
+
+		if (failedExecutionsListModel.isLoading() || failedExecutionsListModel.isComplete()) {
+			return;
+		}
+
+		if (failedExecutionsList.getLastVisibleIndex() >= failedExecutionsListModel.getSize() - PRELOAD_ROWS) {
+			statusLabel.setText(LOADING_STATUS);
+			failedExecutionsListModel.loadMore();
+		}
+	}
+
+	/**
+	 * Display the loading status.
+	 */
+	private void updateStatus() {
+
+		if (null != failedExecutionsListModel.getLoadingError()) {
+			statusLabel.setText(ERROR_STATUS_PREFIX + failedExecutionsListModel.getLoadingError());
+		}
+		else if (failedExecutionsListModel.isComplete()) {
+			statusLabel.setText(failedExecutionsListModel.getSize() + COMPLETE_STATUS_SUFFIX);
+		}
+		else {
+			statusLabel.setText(failedExecutionsListModel.getSize() + LOADED_STATUS_SUFFIX);
+		}
+	}
+}
@@ -0,0 +1,19 @@
+package com.github.sbugat.rundeckmonitor;
+
+import java.util.List;
+
+/**
+ * Provider of the failed executions sources of all monitored projects, to browse more failed executions than displayed in the menu.
+ *
+ * @author Sylvain Bugat
+ *
+ */
+public interface FailedExecutionsHistory {
+
+	/**
+	 * Get the failed executions sources of the currently monitored projects.
+	 *
+	 * @return one source per monitored project of each server
+	 */
+	List<FailedExecutionsSource> getFailedExecutionsSources();
+}
@@ -0,0 +1,239 @@
+package com.github.sbugat.rundeckmonitor;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+
+import javax.swing.AbstractListModel;
+import javax.swing.SwingWorker;
+
+import org.slf4j.ext.XLogger;
+import org.slf4j.ext.XLoggerFactory;
+
+/**
+ * List model of the failed executions of all monitored projects, newest first, loaded page by page on demand.
+ *
+ * Each project is read with its own offset and at most one page of each project is buffered, projects are merged by starting date. Pages are downloaded in background and only when more rows are requested.
+ *
+ * @author Sylvain Bugat
+ *
+ */
+public final class FailedExecutionsListModel extends AbstractListModel<JobExecutionInfo> {
+
+	/** Serial version UID. */
+	private static final long serialVersionUID = 1L;
+
+	/** SLF4J XLogger. */
+	private static final XLogger LOG = XLoggerFactory.getXLogger(FailedExecutionsListModel.class);
+
+	/** Number of rows loaded at each request and page size of the Rundeck calls. */
+	private final int pageSize;
+
+	/** Read position of each project, only used by the loading task. */
+	private final transient List<SourceCursor> sourceCursors = new ArrayList<>();
+
+	/** Listener called on the event dispatch thread after each load. */
+	private final transient Runnable loadListener;
+
+	/** Loaded executions, only used on the event dispatch thread. */
+	private final transient List<JobExecutionInfo> executions = new ArrayList<>();
+
+	/** Flag indicating if a load is running. */
+	private boolean loading;
+
+	/** Flag indicating if all failed executions are loaded. */
+	private boolean complete;
+
+	/** Error of the last load, null if it succeeded. */
+	private String loadingError;
+
+	/**
+	 * Initialize an empty model.
+	 *
+	 * @param failedExecutionsSources sources of the monitored projects
+	 * @param pageSizeArg number of rows loaded at each request
+	 * @param loadListenerArg listener called on the event dispatch thread after each load
+	 */
+	public FailedExecutionsListModel(final List<FailedExecutionsSource> failedExecutionsSources, final int pageSizeArg, final Runnable loadListenerArg) {
+
+		pageSize = pageSizeArg;
+		loadListener = loadListenerArg;
+		for (final FailedExecutionsSource failedExecutionsSource : failedExecutionsSources) {
+			sourceCursors.add(new SourceCursor(failedExecutionsSource));
+		}
+	}
+
+	@Override
+	public int getSize() {
+		return executions.size();
+	}
+
+	@Override
+	public JobExecutionInfo getElementAt(final int index) {
+		return executions.get(index);
+	}
+
+	/**
+	 * Check if a load is running.
+	 *
+	 * @return true while loading
+	 */
+	public boolean isLoading() {
+		return loading;
+	}
+
+	/**
+	 * Check if all failed executions are loaded.
+	 *
+	 * @return true if there is nothing more to load
+	 */
+	public boolean isComplete() {
+		return complete;
+	}
+
+	/**
+	 * Get the error of the last load.
+	 *
+	 * @return error message or null if the last load succeeded
+	 */
+	public String getLoadingError() {
+		return loadingError;
+	}
+
+	/**
+	 * Load the next page of rows in background, does nothing if a load is running or if everything is loaded.
+	 */
+	public void loadMore() {
+
+		if (loading || complete) {
+			return;
+		}
+
+		loading = true;
+		new SwingWorker<List<JobExecutionInfo>, Void>() {
+
+			/** Error of this load. */
+			private String error;
+
+			/** Flag indicating if the sources are exhausted. */
+			private boolean exhausted;
+
+			@Override
+			@SuppressWarnings("synthetic-access")
+			protected List<JobExecutionInfo> doInBackground() {
+
+				final List<JobExecutionInfo> rows = new ArrayList<>(pageSize);
+				try {
+					exhausted = nextRows(rows);
+				}
+				catch (final RuntimeException e) {
+
+					// Keep the rows merged before the error, the failed page is requested again by the next load
+					LOG.warn("Failed executions loading error", e); //$NON-NLS-1$
+					error = e.getMessage();
+				}
+
+				return rows;
+			}
+
+			@Override
+			@SuppressWarnings("synthetic-access")
+			protected void done() {
+
+				try {
+					final List<JobExecutionInfo> rows = get();
+					if (!rows.isEmpty()) {
+						final int firstIndex = executions.size();
+						executions.addAll(rows);
+						fireIntervalAdded(FailedExecutionsListModel.this, firstIndex, executions.size() - 1);
+					}
+					loadingError = error;
+					complete = exhausted;
+				}
+				catch (final InterruptedException | ExecutionException e) {
+					LOG.warn("Failed executions loading interrupted", e); //$NON-NLS-1$
+					loadingError = e.getMessage();
+				}
+
+				loading = false;
+				loadListener.run();
+			}
+		}.execute();
+	}
+
+	/**
+	 * Merge the next newest rows of all projects, called by the loading task.
+	 *
+	 * @param rows list to fill with up to one page of rows
+	 * @return true if all projects are exhausted
+	 */
+	private boolean nextRows(final List<JobExecutionInfo> rows) {
+
+		while (rows.size() < pageSize) {
+
+			SourceCursor newestCursor = null;
+			for (final SourceCursor sourceCursor : sourceCursors) {
+
+				if (sourceCursor.buffer.isEmpty() && !sourceCursor.exhausted) {
+					sourceCursor.fetch(pageSize);
+				}
+
+				if (!sourceCursor.buffer.isEmpty() && (null == newestCursor || sourceCursor.buffer.peekFirst().getStartedAtTime() > newestCursor.buffer.peekFirst().getStartedAtTime())) {
+					newestCursor = sourceCursor;
+				}
+			}
+
+			if (null == newestCursor) {
+				return true;
+			}
+			rows.add(newestCursor.buffer.pollFirst());
+		}
+
+		return false;
+	}
+
+	/**
+	 * Read position in the failed executions of one project.
+	 *
+	 * @author Sylvain Bugat
+	 *
+	 */
+	private static final class SourceCursor {
+
+		/** Failed executions of the project. */
+		private final FailedExecutionsSource failedExecutionsSource;
+
+		/** Downloaded executions not merged yet. */
+		private final Deque<JobExecutionInfo> buffer = new ArrayDeque<>();
+
+		/** Number of downloaded executions. */
+		private long offset;
+
+		/** Flag indicating if the last page has been downloaded. */
+		private boolean exhausted;
+
+		/**
+		 * Copy the source of the project.
+		 *
+		 * @param failedExecutionsSourceArg failed executions of the project
+		 */
+		private SourceCursor(final FailedExecutionsSource failedExecutionsSourceArg) {
+			failedExecutionsSource = failedExecutionsSourceArg;
+		}
+
+		/**
+		 * Download the next page of the project.
+		 *
+		 * @param pageSize maximum number of executions to download
+		 */
+		private void fetch(final int pageSize) {
+
+			final List<JobExecutionInfo> page = failedExecutionsSource.getFailedExecutions(offset, pageSize);
+			offset += page.size();
+			buffer.addAll(page);
+			exhausted = page.size() < pageSize;
+		}
+	}
+}
@@ -0,0 +1,21 @@
+package com.github.sbugat.rundeckmonitor;
+
+import java.util.List;
+
+/**
+ * Paged access to the failed executions of one project of a Rundeck server, newest first.
+ *
+ * @author Sylvain Bugat
+ *
+ */
+public interface FailedExecutionsSource {
+
+	/**
+	 * Call Rundeck rest API to get a page of failed executions.
+	 *
+	 * @param offset number of failed executions to skip
+	 * @param max maximum number of failed executions to return
+	 * @return failed executions, fewer than the maximum if there is no more failed execution
+	 */
+	List<JobExecutionInfo> getFailedExecutions(long offset, int max);
+}
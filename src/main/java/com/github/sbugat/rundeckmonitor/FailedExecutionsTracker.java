@@ -0,0 +1,206 @@
+package com.github.sbugat.rundeckmonitor;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.rundeck.api.domain.RundeckExecution;
+import org.rundeck.api.util.PagedResults;
+import org.slf4j.ext.XLogger;
+import org.slf4j.ext.XLoggerFactory;
+
+import com.github.sbugat.rundeckmonitor.tools.RundeckHttpTransport;
+
+/**
+ * Keep the last failed executions of a project and update them incrementally.
+ *
+ * The newest completion date seen is kept as a high-water mark, next updates only ask Rundeck for the failed executions completed after it and merge them into the in-memory list. The first update always downloads the whole window of failed executions, a high-water mark of a previous run is only kept if it is newer than the downloaded executions.
+ *
+ * @author Sylvain Bugat
+ *
+ */
+public final class FailedExecutionsTracker {
+
+	/** SLF4J XLogger. */
+	private static final XLogger LOG = XLoggerFactory.getXLogger(FailedExecutionsTracker.class);
+
+	/** Newest completed executions first, then the highest identifier first. */
+	static final Comparator<RundeckExecution> NEWEST_FIRST_COMPARATOR = new Comparator<RundeckExecution>() {
+
+		@Override
+		public int compare(final RundeckExecution execution1, final RundeckExecution execution2) {
+
+			final int dateComparison = Long.compare(completionTime(execution2), completionTime(execution1));
+			if (0 != dateComparison) {
+				return dateComparison;
+			}
+
+			return Long.compare(execution2.getId().longValue(), execution1.getId().longValue());
+		}
+	};
+
+	/** Name of the Rundeck project to track. */
+	private final String project;
+
+	/** Maximum number of kept failed executions. */
+	private final int maximumExecutions;
+
+	/** Incremental mode flag, if false all failed executions are downloaded at each update. */
+	private final boolean incremental;
+
+	/** Last failed executions, newest first, read by the monitor thread while an update can be pending. */
+	private volatile List<RundeckExecution> failedExecutions = Collections.emptyList();
+
+	/** High-water mark of a previous run, null if none. */
+	private final Date previousCompletionDate;
+
+	/** High-water mark: completion date of the newest failed execution seen, null before the first update, read by the monitor thread after an update. */
+	private volatile Date lastCompletionDate;
+
+	/**
+	 * Copy arguments into a new tracker without any known failed execution.
+	 *
+	 * @param projectArg Rundeck project to track
+	 * @param maximumExecutionsArg number of failed executions to keep
+	 * @param incrementalArg true to only download failed executions newer than the last seen one
+	 * @param previousCompletionDateArg high-water mark of a previous run, null if none
+	 */
+	public FailedExecutionsTracker(final String projectArg, final int maximumExecutionsArg, final boolean incrementalArg, final Date previousCompletionDateArg) {
+
+		project = projectArg;
+		maximumExecutions = maximumExecutionsArg;
+		incremental = incrementalArg;
+		previousCompletionDate = previousCompletionDateArg;
+	}
+
+	/**
+	 * Call Rundeck rest API to update the last failed executions.
+	 *
+	 * @param rundeckHttpTransport transport of the Rundeck calls
+	 * @return last failed executions, newest first
+	 */
+	public List<RundeckExecution> update(final RundeckHttpTransport rundeckHttpTransport) {
+
+		LOG.entry(rundeckHttpTransport);
+
+		if (!incremental || null == lastCompletionDate) {
+
+			// Full download of the last failed executions
+			final PagedResults<RundeckExecution> lastFailedJobs = rundeckHttpTransport.getFailedExecutions(project, null, maximumExecutions, null);
+
+			merge(lastFailedJobs.getResults(), Collections.<RundeckExecution> emptyList());
+		}
+		else {
+
+			// Only download failed executions completed since the high-water mark, the begin filter is inclusive so already known executions are ignored
+			final Set<Long> knownExecutionIds = new HashSet<>();
+			for (final RundeckExecution rundeckExecution : failedExecutions) {
+				knownExecutionIds.add(rundeckExecution.getId());
+			}
+
+			final List<RundeckExecution> newFailedExecutions = new ArrayList<>();
+			long offset = 0;
+			while (newFailedExecutions.size() < maximumExecutions) {
+
+				final PagedResults<RundeckExecution> page = rundeckHttpTransport.getFailedExecutions(project, lastCompletionDate, maximumExecutions, Long.valueOf(offset));
+
+				for (final RundeckExecution rundeckExecution : page.getResults()) {
+
+					if (!knownExecutionIds.contains(rundeckExecution.getId())) {
+						newFailedExecutions.add(rundeckExecution);
+					}
+				}
+
+				offset += page.getCount();
+				if (0 == page.getCount() || offset >= page.getTotal()) {
+					break;
+				}
+			}
+
+			LOG.debug("{} new failed executions since {} on project {}", newFailedExecutions.size(), lastCompletionDate, project); //$NON-NLS-1$
+			if (!newFailedExecutions.isEmpty()) {
+				merge(newFailedExecutions, failedExecutions);
+			}
+		}
+
+		LOG.exit(failedExecutions);
+		return failedExecutions;
+	}
+
+	/**
+	 * Return the last failed executions downloaded by the last update.
+	 *
+	 * @return last failed executions, newest first
+	 */
+	public List<RundeckExecution> getFailedExecutions() {
+		return failedExecutions;
+	}
+
+	/**
+	 * Return the high-water mark updated by the last update.
+	 *
+	 * @return completion date of the newest failed execution seen, null before the first update
+	 */
+	public Date getLastCompletionDate() {
+		return lastCompletionDate;
+	}
+
+	/**
+	 * Merge new failed executions with the already known ones, keep the newest ones and update the high-water mark.
+	 *
+	 * @param newFailedExecutions downloaded failed executions
+	 * @param knownFailedExecutions already known failed executions
+	 */
+	private void merge(final List<RundeckExecution> newFailedExecutions, final List<RundeckExecution> knownFailedExecutions) {
+
+		final List<RundeckExecution> mergedExecutions = new ArrayList<>(newFailedExecutions.size() + knownFailedExecutions.size());
+		mergedExecutions.addAll(newFailedExecutions);
+		mergedExecutions.addAll(knownFailedExecutions);
+		Collections.sort(mergedExecutions, NEWEST_FIRST_COMPARATOR);
+
+		if (mergedExecutions.size() > maximumExecutions) {
+			failedExecutions = Collections.unmodifiableList(new ArrayList<>(mergedExecutions.subList(0, maximumExecutions)));
+		}
+		else {
+			failedExecutions = Collections.unmodifiableList(mergedExecutions);
+		}
+
+		for (final RundeckExecution rundeckExecution : newFailedExecutions) {
+
+			if (null == lastCompletionDate || completionTime(rundeckExecution) > lastCompletionDate.getTime()) {
+				lastCompletionDate = new Date(completionTime(rundeckExecution));
+			}
+		}
+
+		// Failed executions seen by a previous run are not downloaded again
+		if (null != previousCompletionDate && (null == lastCompletionDate || previousCompletionDate.after(lastCompletionDate))) {
+			lastCompletionDate = previousCompletionDate;
+		}
+
+		// No failed execution at all, start the incremental mode from the epoch
+		if (null == lastCompletionDate) {
+			lastCompletionDate = new Date(0);
+		}
+	}
+
+	/**
+	 * Get the completion time of an execution or its starting time if it is not available.
+	 *
+	 * @param rundeckExecution execution to use
+	 * @return completion time of the execution
+	 */
+	static long completionTime(final RundeckExecution rundeckExecution) {
+
+		if (null != rundeckExecution.getEndedAt()) {
+			return rundeckExecution.getEndedAt().getTime();
+		}
+		if (null != rundeckExecution.getStartedAt()) {
+			return rundeckExecution.getStartedAt().getTime();
+		}
+		return 0L;
+	}
+}
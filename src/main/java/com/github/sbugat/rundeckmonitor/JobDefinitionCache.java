@@ -0,0 +1,137 @@
+package com.github.sbugat.rundeckmonitor;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.rundeck.api.domain.RundeckJob;
+
+/**
+ * Definitions of the jobs of a server by job identifier, to display the executions with their job group without any call per execution.
+ *
+ * The definitions of a project are loaded in bulk from its job list and replaced when they are older than the time to live. An unknown job, created since the last load, triggers an earlier reload of its project, at most once per minimum reload delay.
+ *
+ * @author Sylvain Bugat
+ *
+ */
+public final class JobDefinitionCache {
+
+	/** Minimum delay between 2 loads of the job list of a project, even if an unknown job is found or the last load failed. */
+	private static final long MINIMUM_RELOAD_DELAY = TimeUnit.MINUTES.toNanos(1);
+
+	/** Time to live of the definitions of a project in nanoseconds, 0 if the job lists are never loaded. */
+	private long timeToLive;
+
+	/** Job definitions of all the loaded projects by job identifier. */
+	private final Map<String, RundeckJob> jobDefinitions = new HashMap<>();
+
+	/** Last load time of the job list of each project (System.nanoTime() based). */
+	private final Map<String, Long> projectLoadTimes = new HashMap<>();
+
+	/** Projects with an unknown job or a failed load to reload before the time to live. */
+	private final Set<String> projectsToReload = new HashSet<>();
+
+	/**
+	 * Initialize an empty cache.
+	 *
+	 * @param timeToLiveArg time to live of the definitions of a project in seconds, 0 to never load the job lists
+	 */
+	public JobDefinitionCache(final int timeToLiveArg) {
+		setTimeToLive(timeToLiveArg);
+	}
+
+	/**
+	 * Change the time to live of the definitions, used by the next loads.
+	 *
+	 * @param timeToLiveArg time to live of the definitions of a project in seconds, 0 to never load the job lists
+	 */
+	public synchronized void setTimeToLive(final int timeToLiveArg) {
+		timeToLive = TimeUnit.SECONDS.toNanos(timeToLiveArg);
+	}
+
+	/**
+	 * Check if the job list of a project needs to be loaded.
+	 *
+	 * @param project Rundeck project
+	 * @param now current time (System.nanoTime() based)
+	 * @return true if the project has never been loaded, if its definitions are expired or if it has an unknown job
+	 */
+	public synchronized boolean isReloadNeeded(final String project, final long now) {
+
+		if (0 == timeToLive) {
+			return false;
+		}
+
+		final Long loadTime = projectLoadTimes.get(project);
+		if (null == loadTime) {
+			return true;
+		}
+
+		final long elapsedTime = now - loadTime.longValue();
+		return elapsedTime >= timeToLive || projectsToReload.contains(project) && elapsedTime >= MINIMUM_RELOAD_DELAY;
+	}
+
+	/**
+	 * Replace the definitions of a project by its loaded job list.
+	 *
+	 * @param project Rundeck project
+	 * @param rundeckJobs all the jobs of the project
+	 * @param loadTime time of the job list call (System.nanoTime() based)
+	 */
+	public synchronized void update(final String project, final List<RundeckJob> rundeckJobs, final long loadTime) {
+
+		// Remove the deleted jobs of the project
+		final Iterator<RundeckJob> iterator = jobDefinitions.values().iterator();
+		while (iterator.hasNext()) {
+
+			if (project.equals(iterator.next().getProject())) {
+				iterator.remove();
+			}
+		}
+
+		for (final RundeckJob rundeckJob : rundeckJobs) {
+
+			// Old API versions return the jobs without their project
+			if (null == rundeckJob.getProject()) {
+				rundeckJob.setProject(project);
+			}
+			jobDefinitions.put(rundeckJob.getId(), rundeckJob);
+		}
+
+		projectLoadTimes.put(project, Long.valueOf(loadTime));
+		projectsToReload.remove(project);
+	}
+
+	/**
+	 * Keep the current definitions of a project after a failed load, the load is retried after the minimum reload delay.
+	 *
+	 * @param project Rundeck project
+	 * @param loadTime time of the failed job list call (System.nanoTime() based)
+	 */
+	public synchronized void loadFailed(final String project, final long loadTime) {
+
+		projectLoadTimes.put(project, Long.valueOf(loadTime));
+		projectsToReload.add(project);
+	}
+
+	/**
+	 * Get the definition of a job, an unknown job triggers a reload of its project.
+	 *
+	 * @param project Rundeck project of the job
+	 * @param jobId job identifier
+	 * @return definition of the job or null if it is not loaded yet
+	 */
+	public synchronized RundeckJob getJobDefinition(final String project, final String jobId) {
+
+		final RundeckJob rundeckJob = jobDefinitions.get(jobId);
+		if (null == rundeckJob && null != project) {
+			projectsToReload.add(project);
+		}
+
+		return rundeckJob;
+	}
+}
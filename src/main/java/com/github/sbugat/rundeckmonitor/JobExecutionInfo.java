@@ -13,8 +13,14 @@ public final class JobExecutionInfo {
 	/** RunDeck execution id. */
 	private final Long executionId;
 
-	/** RunDeck start job date. */
-	private final Date startedAt;
+	/** RunDeck start job date in milliseconds, kept as a primitive to avoid defensive copies. */
+	private final long startedAt;
+
+	/** URL of the RunDeck server of the execution. */
+	private final String rundeckUrl;
+
+	/** RunDeck server and/or project of the execution, null if only one project of one server is monitored. */
+	private final String origin;
 
 	/** Rundeck job description. */
 	private final String description;
@@ -30,13 +36,32 @@ public final class JobExecutionInfo {
 	 *
 	 * @param executionIdArg RunDeck identifier of the execution
 	 * @param startedAtArg starting date of the execution
+	 * @param rundeckUrlArg URL of the RunDeck server of the execution
+	 * @param originArg server and/or project of the execution to display, null to hide it
 	 * @param descriptionArg description of the execution
 	 * @param longExecutionArg flag to indicate if it's a long execution
 	 * @param newJobArg flag to indicate if this execution is already known
 	 */
-	public JobExecutionInfo(final Long executionIdArg, final Date startedAtArg, final String descriptionArg, final boolean longExecutionArg, final boolean newJobArg) {
+	public JobExecutionInfo(final Long executionIdArg, final Date startedAtArg, final String rundeckUrlArg, final String originArg, final String descriptionArg, final boolean longExecutionArg, final boolean newJobArg) {
+		this(executionIdArg, startedAtArg.getTime(), rundeckUrlArg, originArg, descriptionArg, longExecutionArg, newJobArg);
+	}
+
+	/**
+	 * Constructor to copy all arguments into new JobExecutionInfo object.
+	 *
+	 * @param executionIdArg RunDeck identifier of the execution
+	 * @param startedAtArg starting date of the execution in milliseconds
+	 * @param rundeckUrlArg URL of the RunDeck server of the execution
+	 * @param originArg server and/or project of the execution to display, null to hide it
+	 * @param descriptionArg description of the execution
+	 * @param longExecutionArg flag to indicate if it's a long execution
+	 * @param newJobArg flag to indicate if this execution is already known
+	 */
+	private JobExecutionInfo(final Long executionIdArg, final long startedAtArg, final String rundeckUrlArg, final String originArg, final String descriptionArg, final boolean longExecutionArg, final boolean newJobArg) {
 		executionId = executionIdArg;
-		startedAt = new Date(startedAtArg.getTime());
+		startedAt = startedAtArg;
+		rundeckUrl = rundeckUrlArg;
+		origin = originArg;
 		description = descriptionArg;
 		longExecution = longExecutionArg;
 		newJob = newJobArg;
@@ -57,7 +82,34 @@ public final class JobExecutionInfo {
 	 * @return RunDeck execution starting date
 	 */
 	public Date getStartedAt() {
-		return new Date(startedAt.getTime());
+		return new Date(startedAt);
+	}
+
+	/**
+	 * Return the RunDeck execution starting date without allocating a copy.
+	 *
+	 * @return RunDeck execution starting date in milliseconds
+	 */
+	public long getStartedAtTime() {
+		return startedAt;
+	}
+
+	/**
+	 * Return the URL of the RunDeck server of the execution.
+	 *
+	 * @return RunDeck server URL
+	 */
+	public String getRundeckUrl() {
+		return rundeckUrl;
+	}
+
+	/**
+	 * Return the RunDeck server and/or project of the execution.
+	 *
+	 * @return RunDeck server and/or project or null if only one project of one server is monitored
+	 */
+	public String getOrigin() {
+		return origin;
 	}
 
 	/**
@@ -86,4 +138,18 @@ public final class JobExecutionInfo {
 	public boolean isNewJob() {
 		return newJob;
 	}
+
+	/**
+	 * Return a copy of this execution marked as already known, to display it again without a new alert.
+	 *
+	 * @return copy of this execution information with the new execution flag disabled
+	 */
+	public JobExecutionInfo toKnownJob() {
+
+		if (!newJob) {
+			return this;
+		}
+
+		return new JobExecutionInfo(executionId, startedAt, rundeckUrl, origin, description, longExecution, false);
+	}
 }
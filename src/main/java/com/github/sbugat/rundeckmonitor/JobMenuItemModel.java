@@ -0,0 +1,102 @@
+package com.github.sbugat.rundeckmonitor;
+
+/**
+ * Rendered content of a failed/late job menu item, compared with the displayed one to only update the changed parts of the menu item.
+ *
+ * @author Sylvain Bugat
+ *
+ */
+public final class JobMenuItemModel {
+
+	/**
+	 * Highlight of a menu item.
+	 */
+	public enum Highlight {
+
+		/** Already known execution: plain font. */
+		NONE,
+		/** New failed execution since the last alert reset: bold font and failed icon. */
+		NEW_FAILED,
+		/** New late execution since the last alert reset: bold font and late icon. */
+		NEW_LATE
+	}
+
+	/** Label of the menu item. */
+	private final String text;
+
+	/** Message of the new job alert, the label without the long execution marker. */
+	private final String message;
+
+	/** Tooltip of the menu item. */
+	private final String toolTipText;
+
+	/** Highlight of the menu item. */
+	private final Highlight highlight;
+
+	/**
+	 * Copy the rendered content.
+	 *
+	 * @param textArg label of the menu item
+	 * @param messageArg message of the new job alert
+	 * @param toolTipTextArg tooltip of the menu item
+	 * @param highlightArg highlight of the menu item
+	 */
+	public JobMenuItemModel(final String textArg, final String messageArg, final String toolTipTextArg, final Highlight highlightArg) {
+
+		text = textArg;
+		message = messageArg;
+		toolTipText = toolTipTextArg;
+		highlight = highlightArg;
+	}
+
+	/**
+	 * Return the same rendered content with another highlight.
+	 *
+	 * @param highlightArg new highlight
+	 * @return this model if the highlight is the same, a new model otherwise
+	 */
+	public JobMenuItemModel withHighlight(final Highlight highlightArg) {
+
+		if (highlight == highlightArg) {
+			return this;
+		}
+
+		return new JobMenuItemModel(text, message, toolTipText, highlightArg);
+	}
+
+	/**
+	 * Return the label of the menu item.
+	 *
+	 * @return label
+	 */
+	public String getText() {
+		return text;
+	}
+
+	/**
+	 * Return the message of the new job alert.
+	 *
+	 * @return alert message
+	 */
+	public String getMessage() {
+		return message;
+	}
+
+	/**
+	 * Return the tooltip of the menu item.
+	 *
+	 * @return tooltip
+	 */
+	public String getToolTipText() {
+		return toolTipText;
+	}
+
+	/**
+	 * Return the highlight of the menu item.
+	 *
+	 * @return highlight
+	 */
+	public Highlight getHighlight() {
+		return highlight;
+	}
+}
@@ -4,32 +4,41 @@ import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.PrintWriter;
 import java.io.StringWriter;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Paths;
 import java.util.ArrayList;
-import java.util.Date;
-import java.util.LinkedHashSet;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
-import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 import javax.swing.JOptionPane;
+import javax.swing.SwingUtilities;
 
+import org.rundeck.api.RundeckApiException;
 import org.rundeck.api.RundeckApiException.RundeckApiLoginException;
 import org.rundeck.api.RundeckApiException.RundeckApiTokenException;
-import org.rundeck.api.RundeckClient;
-import org.rundeck.api.domain.RundeckExecution;
-import org.rundeck.api.domain.RundeckExecution.ExecutionStatus;
-import org.rundeck.api.domain.RundeckProject;
-import org.rundeck.api.query.ExecutionQuery;
-import org.rundeck.api.util.PagedResults;
+import org.rundeck.api.domain.RundeckOutput;
 import org.slf4j.ext.XLogger;
 import org.slf4j.ext.XLoggerFactory;
 
+import com.github.sbugat.rundeckmonitor.configuration.ConfigurationFileWatcher;
 import com.github.sbugat.rundeckmonitor.configuration.InvalidPropertyException;
 import com.github.sbugat.rundeckmonitor.configuration.MissingPropertyException;
 import com.github.sbugat.rundeckmonitor.configuration.RundeckMonitorConfiguration;
 import com.github.sbugat.rundeckmonitor.configuration.UnknownProjectException;
+import com.github.sbugat.rundeckmonitor.history.ExecutionHistoryStore;
+import com.github.sbugat.rundeckmonitor.statistics.JobDurationEstimator;
+import com.github.sbugat.rundeckmonitor.statistics.JobStatisticsEngine;
+import com.github.sbugat.rundeckmonitor.tools.DaemonThreadFactory;
 import com.github.sbugat.rundeckmonitor.tools.EnvironmentTools;
 import com.github.sbugat.rundeckmonitor.tools.InvalidRundeckVersion;
-import com.github.sbugat.rundeckmonitor.tools.RundeckClientTools;
 import com.github.sbugat.rundeckmonitor.tools.SystemTools;
 import com.github.sbugat.rundeckmonitor.wizard.InterfaceType;
 import com.github.sbugat.rundeckmonitor.wizard.RundeckMonitorConfigurationWizard;
@@ -40,7 +49,7 @@ import com.github.sbugat.rundeckmonitor.wizard.RundeckMonitorConfigurationWizard
  * @author Sylvain Bugat
  *
  */
-public final class RundeckMonitor implements Runnable {
+public final class RundeckMonitor implements Runnable, FailedExecutionsHistory, ExecutionOutputSource {
 
 	/** SLF4J XLogger. */
 	private static final XLogger LOG = XLoggerFactory.getXLogger(RundeckMonitor.class);
@@ -48,71 +57,91 @@ public final class RundeckMonitor implements Runnable {
 	/** One second in mille-seconds. */
 	private static final long ONE_SECOND = 1_000L;
 
+	/** Idle time before a Rundeck call thread is stopped. */
+	private static final long RUNDECK_CALL_THREAD_KEEP_ALIVE_SECONDS = 60L;
+
+	/** Newest started executions first, to merge the failed executions of several servers. */
+	private static final Comparator<JobExecutionInfo> NEWEST_STARTED_FIRST_COMPARATOR = new Comparator<JobExecutionInfo>() {
+
+		@Override
+		public int compare(final JobExecutionInfo jobExecutionInfo1, final JobExecutionInfo jobExecutionInfo2) {
+			return Long.compare(jobExecutionInfo2.getStartedAtTime(), jobExecutionInfo1.getStartedAtTime());
+		}
+	};
+
+	/** Maximum wait for a configuration file change before checking again, changes are signaled as soon as they are detected. */
+	private static final long CONFIGURATION_CHANGE_TIMEOUT = 60_000L;
+
+	/** Directory of the local execution history, next to the configuration file. */
+	private static final String HISTORY_DIRECTORY = "rundeckMonitor-history"; //$NON-NLS-1$
+
 	/** Version checker instance. */
 	private final VersionChecker versionChecker;
 
+	/** Watcher of the configuration file changes. */
+	private final ConfigurationFileWatcher configurationFileWatcher;
+
 	/** Configuration of the rundeck monitor with default values if some properties are missing or are empty. */
 	private final RundeckMonitorConfiguration rundeckMonitorConfiguration;
 
-	/** Time zone difference between local machine and rundeck server to correctly detect late execution. */
-	private long dateDelta;
-
-	/** Rundeck client API used to interact with rundeck rest API. */
-	private RundeckClient rundeckClient;
-
 	/** Tray icon and his menu for updating jobs and state displayed. */
 	private final RundeckMonitorTrayIcon rundeckMonitorTrayIcon;
 
-	/** Current state (failed job/long process/disconnected) of the rundeck monitor. */
-	private final RundeckMonitorState rundeckMonitorState = new RundeckMonitorState();
+	/** Publisher of the current state (failed job/long process/disconnected) of the rundeck monitor, aggregated state of all servers. */
+	private final RundeckMonitorStatePublisher rundeckMonitorStatePublisher = new RundeckMonitorStatePublisher();
+
+	/** Monitors of the configured Rundeck servers. */
+	private volatile List<RundeckServerMonitor> serverMonitors = Collections.emptyList();
+
+	/** Local history of the failed and late executions of all servers. */
+	private final ExecutionHistoryStore executionHistoryStore = new ExecutionHistoryStore(Paths.get(HISTORY_DIRECTORY));
+
+	/** Statistics of the jobs of all servers. */
+	private final JobStatisticsEngine jobStatisticsEngine = new JobStatisticsEngine();
+
+	/** Late thresholds of the jobs of all servers learned from their durations. */
+	private final JobDurationEstimator jobDurationEstimator = new JobDurationEstimator();
+
+	/** Bounded executor shared by all servers and projects to call Rundeck rest API concurrently, calls are queued when all threads are busy. */
+	private final ThreadPoolExecutor rundeckCallExecutor;
 
-	/** Set for all known late execution identifiers. */
-	private final Set<Long> knownLateExecutionIds = new LinkedHashSet<>();
-	/** Set for all known failed execution identifiers. */
-	private final Set<Long> knownFailedExecutionIds = new LinkedHashSet<>();
+	/** Bounded scheduler refreshing each server independently with its own adaptive delay, a slow server does not delay the others. */
+	private final ScheduledThreadPoolExecutor serverRefreshScheduler;
 
 	/**
-	 * Initialize the rundeck monitor, load configuration and try to connect to the configured rundeck.
+	 * Initialize the rundeck monitor, check the configuration and display the tray icon in connecting state, the connection to the configured rundeck servers is done by the monitor thread.
 	 *
 	 * @param rundeckMonitorConfigurationArg rundeck monitor loaded configuration
 	 * @param versionCheckerArg optionaly launched automatic version checker
+	 * @param configurationFileWatcherArg watcher of the configuration file changes
 	 *
-	 * @throws IOException in case of loading configuration error
 	 * @throws InvalidPropertyException in case of loading configuration property error
 	 * @throws MissingPropertyException in case of loading configuration property error
-	 * @throws UnknownProjectException in case of unknown RunDeck project
-	 * @throws InvalidRundeckVersion if the Rundeck version is not supported
 	 */
-	public RundeckMonitor(final RundeckMonitorConfiguration rundeckMonitorConfigurationArg, final VersionChecker versionCheckerArg) throws IOException, MissingPropertyException, InvalidPropertyException, UnknownProjectException, InvalidRundeckVersion {
+	public RundeckMonitor(final RundeckMonitorConfiguration rundeckMonitorConfigurationArg, final VersionChecker versionCheckerArg, final ConfigurationFileWatcher configurationFileWatcherArg) throws MissingPropertyException, InvalidPropertyException {
 
 		LOG.entry();
 
 		versionChecker = versionCheckerArg;
+		configurationFileWatcher = configurationFileWatcherArg;
 		rundeckMonitorConfiguration = rundeckMonitorConfigurationArg;
 
-		// Configuration checking and initialize a new Rundeck client
-		initRundeckClient();
+		rundeckCallExecutor = new ThreadPoolExecutor(rundeckMonitorConfiguration.getWorkerThreads(), rundeckMonitorConfiguration.getWorkerThreads(), RUNDECK_CALL_THREAD_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(), new DaemonThreadFactory("RundeckMonitor-call")); //$NON-NLS-1$
+		rundeckCallExecutor.allowCoreThreadTimeOut(true);
+		serverRefreshScheduler = new ScheduledThreadPoolExecutor(rundeckMonitorConfiguration.getWorkerThreads(), new DaemonThreadFactory("RundeckMonitor-server")); //$NON-NLS-1$
+
+		// Configuration checking before displaying anything, Rundeck servers are connected in background
+		rundeckMonitorConfiguration.verifyConfiguration();
 
 		// Initialize the tray icon
 		if (EnvironmentTools.isWindows() && InterfaceType.SWING.name().equals(rundeckMonitorConfiguration.getInterfaceType())) {
-			rundeckMonitorTrayIcon = new RundeckMonitorSwingTrayIcon(rundeckMonitorConfiguration, rundeckMonitorState);
+			rundeckMonitorTrayIcon = new RundeckMonitorSwingTrayIcon(rundeckMonitorConfiguration, rundeckMonitorStatePublisher, this, jobStatisticsEngine, this);
 		}
 		else {
-			rundeckMonitorTrayIcon = new RundeckMonitorAWTTrayIcon(rundeckMonitorConfiguration, rundeckMonitorState);
-		}
-
-		try {
-			// Initialize and update the rundeck monitor failed/late jobs
-			updateRundeckHistory(true);
-
-			// Clean any temporary downloaded jar
-			versionChecker.cleanOldAndTemporaryJar();
-		}
-		catch (final Exception e) {
-			rundeckMonitorTrayIcon.disposeTrayIcon();
-			LOG.exit(e);
-			throw e;
+			rundeckMonitorTrayIcon = new RundeckMonitorAWTTrayIcon(rundeckMonitorConfiguration, rundeckMonitorStatePublisher, jobStatisticsEngine, this);
 		}
+		rundeckMonitorStatePublisher.subscribe(rundeckMonitorTrayIcon);
+		LOG.info("Tray icon displayed {} ms after startup", Long.valueOf(ManagementFactory.getRuntimeMXBean().getUptime())); //$NON-NLS-1$
 
 		LOG.exit();
 	}
@@ -136,22 +165,17 @@ public final class RundeckMonitor implements Runnable {
 		// Configuration checking and initialize a new Rundeck client
 		initRundeckClient();
 
-		// Time-zone delta between srundeck server and the computer where rundeck monitor is running
-		dateDelta = rundeckClient.getSystemInfo().getDate().getTime() - new Date().getTime();
-
 		// Reinit monitor state
-		rundeckMonitorState.setFailedJobs(false);
-		rundeckMonitorState.setLateJobs(false);
-		rundeckMonitorState.setDisconnected(false);
+		rundeckMonitorStatePublisher.set(RundeckMonitorState.INITIAL);
 
 		// Initialize and update the rundeck monitor failed/late jobs
-		updateRundeckHistory(true);
+		initRundeckHistory();
 
 		LOG.exit();
 	}
 
 	/**
-	 * Check the configuration and initialize a new rundeck client.
+	 * Check the configuration and initialize a new rundeck client for each server.
 	 *
 	 * @throws MissingPropertyException when check configuration
 	 * @throws InvalidPropertyException when check configuration
@@ -163,94 +187,253 @@ public final class RundeckMonitor implements Runnable {
 		// Configuration checking
 		rundeckMonitorConfiguration.verifyConfiguration();
 
-		// Initialize the rundeck client with the API version
-		rundeckClient = RundeckClientTools.buildRundeckClient(rundeckMonitorConfiguration);
+		// Resize the shared executors
+		resizeExecutor(rundeckCallExecutor, rundeckMonitorConfiguration.getWorkerThreads());
+		serverRefreshScheduler.setCorePoolSize(rundeckMonitorConfiguration.getWorkerThreads());
+
+		// Old history segments are deleted at startup and at each configuration change
+		executionHistoryStore.setRetentionDays(rundeckMonitorConfiguration.getHistoryRetention());
 
-		// Check if the configured project exists
-		boolean existingProject = false;
-		for (final RundeckProject rundeckProject : rundeckClient.getProjects()) {
+		// Job statistics start from the local history at startup, then they are only updated by the refreshes
+		jobStatisticsEngine.replayHistory(executionHistoryStore);
+		jobDurationEstimator.setLateQuantile(rundeckMonitorConfiguration.getLateQuantile());
 
-			if (rundeckMonitorConfiguration.getRundeckProject().equals(rundeckProject.getName())) {
-				existingProject = true;
+		final List<RundeckMonitorConfiguration> serverConfigurations = rundeckMonitorConfiguration.getServerConfigurations();
+		final boolean multipleServers = serverConfigurations.size() > 1;
+
+		// Initialize a monitor for each server, pending refreshes use the previous configuration
+		final List<RundeckServerMonitor> newServerMonitors = new ArrayList<>();
+		for (final RundeckMonitorConfiguration serverConfiguration : serverConfigurations) {
+
+			newServerMonitors.add(new RundeckServerMonitor(serverConfiguration, multipleServers, getServerMonitor(RundeckServerMonitor.getServerName(serverConfiguration)), executionHistoryStore, jobStatisticsEngine, jobDurationEstimator));
+		}
+
+		if (multipleServers) {
+			connectServers(newServerMonitors);
+		}
+		else {
+			// Only one server: connection errors are initialization errors
+			newServerMonitors.get(0).connect();
+		}
+
+		// Scheduled refreshes of the previous servers are ignored
+		final List<RundeckServerMonitor> previousServerMonitors = serverMonitors;
+		serverMonitors = newServerMonitors;
+		for (final RundeckServerMonitor previousServerMonitor : previousServerMonitors) {
+			previousServerMonitor.close();
+		}
+	}
+
+	/**
+	 * Connect several servers concurrently on the refresh scheduler and wait for all connections, a slow or unreachable server does not delay the others.
+	 *
+	 * An unreachable server stays disconnected and is connected again by its scheduled refreshes.
+	 *
+	 * @param newServerMonitors servers to connect
+	 * @throws UnknownProjectException if a configured project is unknown
+	 * @throws InvalidRundeckVersion if the Rundeck version is not supported
+	 */
+	private void connectServers(final List<RundeckServerMonitor> newServerMonitors) throws UnknownProjectException, InvalidRundeckVersion {
+
+		final List<Future<Void>> serverConnections = new ArrayList<>();
+		for (final RundeckServerMonitor serverMonitor : newServerMonitors) {
+			serverConnections.add(serverRefreshScheduler.submit(newServerConnection(serverMonitor)));
+		}
+
+		Throwable configurationError = null;
+		for (int i = 0; i < serverConnections.size(); i++) {
+
+			try {
+				serverConnections.get(i).get();
+			}
+			catch (final ExecutionException e) {
+
+				// Configuration errors are reported once all connections are done
+				if (e.getCause() instanceof UnknownProjectException || e.getCause() instanceof InvalidRundeckVersion) {
+					if (null == configurationError) {
+						configurationError = e.getCause();
+					}
+				}
+				else {
+					LOG.warn("Rundeck server {} connection error", newServerMonitors.get(i).getServerName(), e.getCause()); //$NON-NLS-1$
+				}
+			}
+			catch (final InterruptedException e) {
+
+				Thread.currentThread().interrupt();
+				LOG.error("Waiting interrupted", e); //$NON-NLS-1$
 				break;
 			}
 		}
 
-		if (!existingProject) {
+		if (configurationError instanceof UnknownProjectException) {
+			throw (UnknownProjectException) configurationError;
+		}
+		if (configurationError instanceof InvalidRundeckVersion) {
+			throw (InvalidRundeckVersion) configurationError;
+		}
+	}
+
+	/**
+	 * Create a connection task of a server.
+	 *
+	 * @param serverMonitor server to connect
+	 * @return connection task
+	 */
+	private static Callable<Void> newServerConnection(final RundeckServerMonitor serverMonitor) {
+
+		return new Callable<Void>() {
+
+			@Override
+			public Void call() throws UnknownProjectException, InvalidRundeckVersion {
+
+				serverMonitor.connect();
+				return null;
+			}
+		};
+	}
+
+	/**
+	 * Get the monitor of a server of the current configuration.
+	 *
+	 * @param serverName name of the server
+	 * @return monitor of the server or null if the server is not monitored
+	 */
+	private RundeckServerMonitor getServerMonitor(final String serverName) {
+
+		for (final RundeckServerMonitor serverMonitor : serverMonitors) {
+
+			if (serverMonitor.getServerName().equals(serverName)) {
+				return serverMonitor;
+			}
+		}
+
+		return null;
+	}
 
-			final UnknownProjectException exception = new UnknownProjectException(rundeckMonitorConfiguration.getRundeckProject());
-			LOG.error("Error unknown project: {}", rundeckMonitorConfiguration.getRundeckProject()); //$NON-NLS-1$
-			LOG.exit(exception);
-			throw exception;
+	@Override
+	public List<FailedExecutionsSource> getFailedExecutionsSources() {
+
+		final List<FailedExecutionsSource> failedExecutionsSources = new ArrayList<>();
+		for (final RundeckServerMonitor serverMonitor : serverMonitors) {
+			failedExecutionsSources.addAll(serverMonitor.getFailedExecutionsSources());
 		}
 
-		// Time-zone delta between srundeck server and the computer where rundeck monitor is running
-		dateDelta = rundeckClient.getSystemInfo().getDate().getTime() - new Date().getTime();
+		return failedExecutionsSources;
+	}
+
+	@Override
+	public RundeckOutput getExecutionOutput(final JobExecutionInfo jobExecutionInfo, final long offset, final int maxLines) {
+
+		for (final RundeckServerMonitor serverMonitor : serverMonitors) {
+
+			if (serverMonitor.isServerOf(jobExecutionInfo)) {
+				return serverMonitor.getExecutionOutput(jobExecutionInfo.getExecutionId().longValue(), offset, maxLines);
+			}
+		}
+
+		throw new RundeckApiException("Rundeck server " + jobExecutionInfo.getRundeckUrl() + " is no longer monitored"); //$NON-NLS-1$ //$NON-NLS-2$
 	}
 
 	/**
-	 * Check if the configuration file has been modified and reload it if needed.
+	 * Change the disconnected flag of the monitor state.
 	 *
-	 * @param lastConfigurationUpdateDate last configuration update date
-	 * @return true if the configuration has been reloaded, false otherwise
+	 * @param disconnected new disconnected flag
 	 */
-	private boolean checkNewConfiguration(final Date lastConfigurationUpdateDate) {
+	private void setDisconnected(final boolean disconnected) {
 
-		LOG.entry(lastConfigurationUpdateDate);
+		rundeckMonitorStatePublisher.update(new RundeckMonitorStatePublisher.StateUpdate() {
 
-		Date lastConfigurationDate = lastConfigurationUpdateDate;
+			@Override
+			public RundeckMonitorState apply(final RundeckMonitorState rundeckMonitorState) {
+				return rundeckMonitorState.withDisconnected(disconnected);
+			}
+		});
+	}
 
-		if (RundeckMonitorConfiguration.propertiesFileUpdated(lastConfigurationDate)) {
+	/**
+	 * Wait for a modification of the configuration file and reload it if needed.
+	 *
+	 * @param timeoutMilliseconds maximum time to wait for a modification
+	 * @throws InterruptedException if the wait is interrupted
+	 */
+	private void checkNewConfiguration(final long timeoutMilliseconds) throws InterruptedException {
 
-			// Wait until configuration is reloaded or exit
-			while (true) {
+		LOG.entry(timeoutMilliseconds);
 
-				if (RundeckMonitorConfiguration.propertiesFileUpdated(lastConfigurationDate)) {
-					// reload the configuration
-					try {
-						reloadConfiguration();
-						rundeckMonitorTrayIcon.reloadConfiguration();
+		if (configurationFileWatcher.awaitChange(timeoutMilliseconds)) {
+			applyConfiguration(true);
+		}
 
-						// Set the tray icon as reconnected
-						rundeckMonitorState.setDisconnected(false);
-						rundeckMonitorTrayIcon.updateTrayIcon();
-						LOG.exit(true);
-						return true;
-					}
-					catch (final IOException | MissingPropertyException | InvalidPropertyException | UnknownProjectException | RuntimeException | InvalidRundeckVersion e) {
+		LOG.exit();
+	}
 
-						// Set the tray icon as disconnected
-						rundeckMonitorState.setDisconnected(true);
-						rundeckMonitorTrayIcon.updateTrayIcon();
+	/**
+	 * Connect to the Rundeck servers and display their jobs or reload the configuration, until it succeeds or the user exits.
+	 *
+	 * @param reloadArg true to reload the configuration file, false for the initial connection with the loaded configuration
+	 * @throws InterruptedException if the wait of a configuration file update is interrupted
+	 */
+	private void applyConfiguration(final boolean reloadArg) throws InterruptedException {
 
-						if (handleStartupException(e, false)) {
+		LOG.entry(reloadArg);
 
-							new RundeckMonitorConfigurationWizard(rundeckMonitorConfiguration, true);
-							lastConfigurationDate = new Date();
-						}
-						// Dispose tray icon and exit
-						else {
-							rundeckMonitorTrayIcon.disposeTrayIcon();
-							SystemTools.exit(SystemTools.EXIT_CODE_ERROR);
+		boolean reload = reloadArg;
+
+		// Wait until configuration is loaded or exit
+		while (true) {
+
+			try {
+				if (reload) {
+
+					reloadConfiguration();
+					SwingUtilities.invokeLater(new Runnable() {
+
+						@Override
+						@SuppressWarnings("synthetic-access")
+						public void run() {
+							rundeckMonitorTrayIcon.reloadConfiguration();
 						}
-					}
+					});
 				}
+				else {
 
-				// Wait 1s
-				try {
+					// Configuration checking and initialize a new Rundeck client
+					initRundeckClient();
 
-					Thread.sleep(ONE_SECOND);
+					// Initialize and update the rundeck monitor failed/late jobs
+					initRundeckHistory();
 				}
-				catch (final InterruptedException e) {
 
-					// Nothing to do
-					LOG.error("Waiting interrupted", e); //$NON-NLS-1$
+				// Set the tray icon as connected
+				setDisconnected(false);
+				LOG.exit();
+				return;
+			}
+			catch (final IOException | MissingPropertyException | InvalidPropertyException | UnknownProjectException | RuntimeException | InvalidRundeckVersion e) {
+
+				// Set the tray icon as disconnected
+				setDisconnected(true);
+
+				if (handleStartupException(e, false)) {
+
+					new RundeckMonitorConfigurationWizard(rundeckMonitorConfiguration, true);
+				}
+				// Dispose tray icon and exit
+				else {
+					rundeckMonitorTrayIcon.disposeTrayIcon();
+					SystemTools.exit(SystemTools.EXIT_CODE_ERROR);
 				}
 			}
-		}
 
-		LOG.exit(false);
-		return false;
+			// Wait until the configuration file is updated
+			while (!configurationFileWatcher.awaitChange(CONFIGURATION_CHANGE_TIMEOUT)) {
+				LOG.debug("Waiting for a configuration file update"); //$NON-NLS-1$
+			}
+
+			// The updated configuration file is loaded by the next attempt
+			reload = true;
+		}
 	}
 
 	/**
@@ -261,18 +444,25 @@ public final class RundeckMonitor implements Runnable {
 
 		LOG.entry();
 
-		Date lastConfigurationUpdateDate = new Date();
+		try {
+			// Connect the Rundeck servers and display the first jobs, the tray icon is already displayed
+			applyConfiguration(false);
+		}
+		catch (final InterruptedException e) {
 
-		while (true) {
-			try {
+			LOG.error("Initial connection interrupted", e); //$NON-NLS-1$
+			LOG.exit();
+			return;
+		}
+		LOG.info("Rundeck servers state displayed {} ms after startup", Long.valueOf(ManagementFactory.getRuntimeMXBean().getUptime())); //$NON-NLS-1$
 
-				if (checkNewConfiguration(lastConfigurationUpdateDate)) {
-					lastConfigurationUpdateDate = new Date();
-				}
+		// Clean any temporary downloaded jar
+		versionChecker.cleanOldAndTemporaryJar();
 
-				// Update the tray icon menu
-				updateRundeckHistory(false);
+		while (true) {
+			try {
 
+				// Servers are refreshed by the scheduler, only check the version checker and wait for a configuration change
 				if (versionChecker.isversionCheckerDisabled()) {
 
 					rundeckMonitorConfiguration.disableVersionChecker();
@@ -289,20 +479,17 @@ public final class RundeckMonitor implements Runnable {
 					SystemTools.exit(SystemTools.EXIT_CODE_OK);
 				}
 
-				try {
-					Thread.sleep(rundeckMonitorConfiguration.getRefreshDelay() * ONE_SECOND);
-				}
-				catch (final Exception e) {
+				checkNewConfiguration(rundeckMonitorConfiguration.getRefreshDelay() * ONE_SECOND);
+			}
+			catch (final InterruptedException e) {
 
-					// Nothing to do
-					LOG.error("Waiting interrupted", e); //$NON-NLS-1$
-				}
+				// Nothing to do
+				LOG.error("Waiting interrupted", e); //$NON-NLS-1$
 			}
-			// If an exception is catch, consider the monitor as disconnected
+			// Servers connection state is updated by their refreshes, only log the error
 			catch (final IOException | RuntimeException e) {
 
-				rundeckMonitorState.setDisconnected(true);
-				rundeckMonitorTrayIcon.updateTrayIcon();
+				LOG.error("Rundeck monitor main loop error", e); //$NON-NLS-1$
 
 				try {
 
@@ -318,88 +505,220 @@ public final class RundeckMonitor implements Runnable {
 	}
 
 	/**
-	 * Call Rundeck rest API and update the monitor state and displayed jobs if there are new failed/late jobs.
+	 * Refresh all connected servers and wait for the end of the refreshes to initialize the monitor state and displayed jobs, then schedule the next refresh of each server.
 	 *
-	 * @param init boolean to indicate if it's the first call to this method for the monitor initialization
+	 * @throws UnknownProjectException if a configured project is unknown
+	 * @throws InvalidRundeckVersion if the Rundeck version is not supported
 	 */
-	private void updateRundeckHistory(final boolean init) {
+	private void initRundeckHistory() throws UnknownProjectException, InvalidRundeckVersion {
+
+		LOG.entry();
+
+		final List<RundeckServerMonitor> currentServerMonitors = serverMonitors;
+
+		// Only one server: refresh errors are initialization errors
+		if (1 == currentServerMonitors.size()) {
+
+			final RundeckServerMonitor serverMonitor = currentServerMonitors.get(0);
+			try {
+				serverMonitor.refresh(rundeckCallExecutor);
+			}
+			finally {
+				publishServerExecutions(serverMonitor);
+			}
+		}
+		else {
+
+			// A server not connected at initialization is only connected again by its scheduled refreshes
+			final List<Future<?>> serverRefreshes = new ArrayList<>();
+			for (final RundeckServerMonitor serverMonitor : currentServerMonitors) {
+				if (serverMonitor.isConnected()) {
+					serverRefreshes.add(serverRefreshScheduler.submit(newServerRefresh(serverMonitor, false)));
+				}
+			}
 
-		LOG.entry(init);
+			for (final Future<?> serverRefresh : serverRefreshes) {
 
-		// call Rundeck rest API
-		final ExecutionQuery executionQuery = ExecutionQuery.builder().project(rundeckMonitorConfiguration.getRundeckProject()).status(ExecutionStatus.FAILED).build();
-		final PagedResults<RundeckExecution> lastFailedJobs = rundeckClient.getExecutions(executionQuery, Long.valueOf(rundeckMonitorConfiguration.getFailedJobNumber()), null);
+				try {
+					serverRefresh.get();
+				}
+				catch (final ExecutionException e) {
+					LOG.error("Rundeck server refresh error", e); //$NON-NLS-1$
+				}
+				catch (final InterruptedException e) {
+
+					Thread.currentThread().interrupt();
+					LOG.error("Waiting interrupted", e); //$NON-NLS-1$
+					break;
+				}
+			}
 
-		final List<RundeckExecution> currentExecutions = rundeckClient.getRunningExecutions(rundeckMonitorConfiguration.getRundeckProject());
+			// At least one server must be reachable
+			if (serverRefreshes.isEmpty() || rundeckMonitorStatePublisher.getState().isDisconnected()) {
 
-		// Rundeck calls are OK
-		rundeckMonitorState.setDisconnected(false);
+				final RundeckApiException exception = new RundeckApiException("No reachable Rundeck server"); //$NON-NLS-1$
+				LOG.exit(exception);
+				throw exception;
+			}
+		}
 
-		final Date currentTime = new Date();
+		for (final RundeckServerMonitor serverMonitor : currentServerMonitors) {
+			scheduleServerRefresh(serverMonitor);
+		}
+
+		LOG.exit();
+	}
 
-		final List<JobExecutionInfo> listJobExecutionInfo = new ArrayList<>();
+	/**
+	 * Schedule the next refresh of a server after its adaptive delay.
+	 *
+	 * @param serverMonitor server to refresh
+	 */
+	private void scheduleServerRefresh(final RundeckServerMonitor serverMonitor) {
 
-		boolean lateExecutionFound = false;
+		final long nextRefreshDelay = serverMonitor.getNextRefreshDelay();
+		LOG.debug("Next refresh of Rundeck server {} in {}ms", serverMonitor.getServerName(), nextRefreshDelay); //$NON-NLS-1$
+		serverRefreshScheduler.schedule(newServerRefresh(serverMonitor, true), nextRefreshDelay, TimeUnit.MILLISECONDS);
+	}
 
-		// Scan runnings jobs to detect if they are late
-		for (final RundeckExecution rundeckExecution : currentExecutions) {
+	/**
+	 * Create a refresh task of a server, the monitor state and displayed jobs are updated at the end of the refresh.
+	 *
+	 * @param serverMonitor server to refresh
+	 * @param scheduleNext true to schedule the next refresh of the server at the end of this one
+	 * @return refresh task
+	 */
+	private Runnable newServerRefresh(final RundeckServerMonitor serverMonitor, final boolean scheduleNext) {
 
-			if (currentTime.getTime() - rundeckExecution.getStartedAt().getTime() + dateDelta > rundeckMonitorConfiguration.getLateThreshold() * ONE_SECOND) {
+		return new Runnable() {
 
-				lateExecutionFound = true;
+			@Override
+			@SuppressWarnings("synthetic-access")
+			public void run() {
 
-				final boolean newLongExecution = !knownLateExecutionIds.contains(rundeckExecution.getId());
-				if (newLongExecution) {
-					knownLateExecutionIds.add(rundeckExecution.getId());
+				// The server is no longer monitored since a configuration reload
+				if (!serverMonitors.contains(serverMonitor)) {
+					return;
 				}
 
-				final String jobName;
-				if (null != rundeckExecution.getJob()) {
-					jobName = rundeckExecution.getJob().getName();
+				try {
+					serverMonitor.refresh(rundeckCallExecutor);
 				}
-				else {
-					jobName = rundeckExecution.getDescription();
+				catch (final UnknownProjectException | InvalidRundeckVersion | RuntimeException e) {
+					LOG.warn("Rundeck server {} refresh error", serverMonitor.getServerName(), e); //$NON-NLS-1$
+				}
+
+				publishServerExecutions(serverMonitor);
+
+				if (scheduleNext) {
+					scheduleServerRefresh(serverMonitor);
 				}
-				listJobExecutionInfo.add(new JobExecutionInfo(rundeckExecution.getId(), rundeckExecution.getStartedAt(), jobName, true, newLongExecution));
 			}
+		};
+	}
+
+	/**
+	 * Update the monitor state and displayed jobs with the last refresh of a server and the last known executions of the other servers.
+	 *
+	 * @param refreshedServerMonitor refreshed server
+	 */
+	private synchronized void publishServerExecutions(final RundeckServerMonitor refreshedServerMonitor) {
+
+		LOG.entry(refreshedServerMonitor);
+
+		// Ignore the refresh of a server of a previous configuration
+		final List<RundeckServerMonitor> currentServerMonitors = serverMonitors;
+		if (!currentServerMonitors.contains(refreshedServerMonitor)) {
+			LOG.exit();
+			return;
 		}
 
-		rundeckMonitorState.setLateJobs(lateExecutionFound);
+		refreshedServerMonitor.takeRefreshedExecutions();
 
-		// Add all lasts failed jobs to the list
-		for (final RundeckExecution rundeckExecution : lastFailedJobs.getResults()) {
+		// Recent failures of the top failing jobs are read from the history by the refresh thread, not by the event dispatch thread
+		jobStatisticsEngine.updateRecentFailures(executionHistoryStore, RundeckMonitorTrayIcon.TOP_FAILING_JOBS_DISPLAYED, System.currentTimeMillis());
 
-			final boolean newFailedJob = !knownFailedExecutionIds.contains(rundeckExecution.getId());
-			if (newFailedJob) {
+		final List<JobExecutionInfo> lateExecutions = new ArrayList<>();
+		final List<JobExecutionInfo> failedExecutions = new ArrayList<>();
+		final List<String> disconnectedServers = new ArrayList<>();
+		boolean lateJobs = false;
+		boolean failedJobsOutdated = false;
+		boolean lateJobsOutdated = false;
 
-				rundeckMonitorState.setFailedJobs(true);
-				knownFailedExecutionIds.add(rundeckExecution.getId());
-			}
+		// Aggregate the state of all servers, disconnected servers keep their last known executions
+		for (final RundeckServerMonitor serverMonitor : currentServerMonitors) {
 
-			final String jobName;
-			if (null != rundeckExecution.getJob()) {
-				jobName = rundeckExecution.getJob().getName();
-			}
-			else {
-				jobName = rundeckExecution.getDescription();
+			final RundeckMonitorState serverState = serverMonitor.getServerState();
+			if (serverState.isDisconnected()) {
+				disconnectedServers.add(serverMonitor.getServerName());
 			}
-			listJobExecutionInfo.add(new JobExecutionInfo(rundeckExecution.getId(), rundeckExecution.getStartedAt(), jobName, false, newFailedJob && !init));
+			lateJobs |= serverState.isLateJobs();
+			failedJobsOutdated |= serverState.isFailedJobsOutdated();
+			lateJobsOutdated |= serverState.isLateJobsOutdated();
+
+			lateExecutions.addAll(serverMonitor.getLateExecutions());
+			failedExecutions.addAll(serverMonitor.getFailedExecutions());
 		}
 
-		// Display failed/late jobs on the trayIcon menu
-		rundeckMonitorTrayIcon.updateExecutionIdsList(listJobExecutionInfo);
+		// Keep the newest failed executions of all servers
+		if (currentServerMonitors.size() > 1) {
 
-		if (init) {
+			Collections.sort(failedExecutions, NEWEST_STARTED_FIRST_COMPARATOR);
+			if (failedExecutions.size() > rundeckMonitorConfiguration.getFailedJobNumber()) {
+				failedExecutions.subList(rundeckMonitorConfiguration.getFailedJobNumber(), failedExecutions.size()).clear();
+			}
+		}
 
-			rundeckMonitorState.setFailedJobs(false);
+		// The monitor is disconnected only if all servers are disconnected
+		final boolean disconnected = disconnectedServers.size() == currentServerMonitors.size();
+		if (disconnected) {
+			disconnectedServers.clear();
 		}
 
-		// Update the tray icon color
-		rundeckMonitorTrayIcon.updateTrayIcon();
+		// Display failed/late jobs on the trayIcon menu, new executions are only alerted once
+		final List<JobExecutionInfo> listJobExecutionInfo = new ArrayList<>(lateExecutions);
+		listJobExecutionInfo.addAll(failedExecutions);
+		final List<JobExecutionInfo> newExecutions = new ArrayList<>();
+		for (final JobExecutionInfo jobExecutionInfo : listJobExecutionInfo.subList(0, Math.min(listJobExecutionInfo.size(), rundeckMonitorConfiguration.getFailedJobNumber()))) {
+			if (jobExecutionInfo.isNewJob()) {
+				newExecutions.add(jobExecutionInfo);
+			}
+		}
+
+		// The failed jobs flag stays set until the alert reset
+		final boolean newFailedJobs = refreshedServerMonitor.getServerState().isFailedJobs();
+		final RundeckMonitorState aggregatedState = new RundeckMonitorState(false, lateJobs, disconnected, failedJobsOutdated, lateJobsOutdated, disconnectedServers, listJobExecutionInfo);
+		rundeckMonitorStatePublisher.publish(new RundeckMonitorStatePublisher.StateUpdate() {
+
+			@Override
+			public RundeckMonitorState apply(final RundeckMonitorState rundeckMonitorState) {
+				return aggregatedState.withFailedJobs(newFailedJobs || rundeckMonitorState.isFailedJobs());
+			}
+		}, newExecutions);
+		refreshedServerMonitor.markExecutionsDisplayed();
 
 		LOG.exit();
 	}
 
+	/**
+	 * Change the number of threads of an executor.
+	 *
+	 * @param executor executor to resize
+	 * @param threads new number of threads
+	 */
+	private static void resizeExecutor(final ThreadPoolExecutor executor, final int threads) {
+
+		// The maximum size must never be lower than the core size
+		if (threads > executor.getMaximumPoolSize()) {
+			executor.setMaximumPoolSize(threads);
+			executor.setCorePoolSize(threads);
+		}
+		else {
+			executor.setCorePoolSize(threads);
+			executor.setMaximumPoolSize(threads);
+		}
+	}
+
 	/**
 	 * Rundeck launcher exception handler, display an error message based on the argument exception.
 	 *
@@ -488,6 +807,9 @@ public final class RundeckMonitor implements Runnable {
 
 		LOG.entry((Object[]) args);
 
+		// Watch the configuration file before the wizard can create it
+		final ConfigurationFileWatcher configurationFileWatcher = new ConfigurationFileWatcher(RundeckMonitorConfiguration.RUNDECK_MONITOR_PROPERTIES_FILE);
+
 		// Launch the configuration wizard if there is no configuration file
 		if (!RundeckMonitorConfiguration.propertiesFileExists()) {
 			LOG.info("Launching configuration wizard"); //$NON-NLS-1$
@@ -498,7 +820,7 @@ public final class RundeckMonitor implements Runnable {
 		while (!RundeckMonitorConfiguration.propertiesFileExists()) {
 
 			try {
-				Thread.sleep(ONE_SECOND);
+				configurationFileWatcher.awaitChange(CONFIGURATION_CHANGE_TIMEOUT);
 			}
 			catch (final InterruptedException e) {
 				LOG.error("Waiting interrupted", e); //$NON-NLS-1$
@@ -517,11 +839,12 @@ public final class RundeckMonitor implements Runnable {
 
 			try {
 
-				// Configuration loading
+				// Configuration loading, the loaded file is up to date
+				configurationFileWatcher.discardChanges();
 				rundeckMonitorConfiguration.loadConfigurationPropertieFile();
 
 				// Start the main thread
-				new Thread(new RundeckMonitor(rundeckMonitorConfiguration, versionChecker)).start();
+				new Thread(new RundeckMonitor(rundeckMonitorConfiguration, versionChecker, configurationFileWatcher)).start();
 
 				if (rundeckMonitorConfiguration.isVersionCheckerEnabled()) {
 					// Start the version checker thread
@@ -532,7 +855,7 @@ public final class RundeckMonitor implements Runnable {
 				// Monitor and Version started without exception, end the launch thread
 				return;
 			}
-			catch (final IOException | MissingPropertyException | InvalidPropertyException | UnknownProjectException | RuntimeException | InvalidRundeckVersion e) {
+			catch (final IOException | MissingPropertyException | InvalidPropertyException | RuntimeException e) {
 
 				LOG.error("Rundeck Monitor startup error:", e); //$NON-NLS-1$
 				if (!handleStartupException(e, true)) {
@@ -540,9 +863,7 @@ public final class RundeckMonitor implements Runnable {
 				}
 			}
 
-			// Date the current time and launch the configuration wizard
-			final Date systemDate = new Date();
-
+			// Launch the configuration wizard
 			new RundeckMonitorConfigurationWizard(rundeckMonitorConfiguration, true);
 
 			// Wait until the configuration file is updated
@@ -550,12 +871,11 @@ public final class RundeckMonitor implements Runnable {
 			while (!configurationFileUpdated) {
 
 				try {
-					Thread.sleep(ONE_SECOND);
+					configurationFileUpdated = configurationFileWatcher.awaitChange(CONFIGURATION_CHANGE_TIMEOUT);
 				}
 				catch (final InterruptedException e) {
 					LOG.error("Waiting interrupted", e); //$NON-NLS-1$
 				}
-				configurationFileUpdated = RundeckMonitorConfiguration.propertiesFileUpdated(systemDate);
 			}
 		}
 	}
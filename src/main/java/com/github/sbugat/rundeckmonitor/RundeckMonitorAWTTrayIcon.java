@@ -2,6 +2,7 @@ package com.github.sbugat.rundeckmonitor;
 
 import java.awt.AWTException;
 import java.awt.Font;
+import java.awt.Menu;
 import java.awt.MenuItem;
 import java.awt.PopupMenu;
 import java.awt.TrayIcon;
@@ -13,7 +14,8 @@ import java.awt.event.WindowEvent;
 import java.awt.event.WindowFocusListener;
 import java.io.PrintWriter;
 import java.io.StringWriter;
-import java.text.SimpleDateFormat;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -22,9 +24,8 @@ import java.util.Map.Entry;
 import javax.swing.JDialog;
 import javax.swing.JOptionPane;
 
-import org.apache.commons.lang.StringUtils;
-
 import com.github.sbugat.rundeckmonitor.configuration.RundeckMonitorConfiguration;
+import com.github.sbugat.rundeckmonitor.statistics.JobStatisticsEngine;
 import com.github.sbugat.rundeckmonitor.tools.SystemTools;
 
 /**
@@ -44,17 +45,28 @@ public final class RundeckMonitorAWTTrayIcon extends RundeckMonitorTrayIcon {
 	/** MenuItem for lasts late/failed jobs. */
 	private final Map<MenuItem, JobExecutionInfo> failedMenuItems = new LinkedHashMap<>();
 
+	/** Model currently displayed by each failed/late job menu item. */
+	private final Map<MenuItem, JobMenuItemModel> displayedMenuItems = new HashMap<>();
+
+	/** Menu of the most failing jobs statistics. */
+	private final Menu topFailingJobsMenu = new Menu(TOP_FAILING_JOBS_MENU);
+
+	/** Statistics currently displayed by the top failing jobs menu. */
+	private List<String> displayedTopFailingJobs = Collections.emptyList();
+
 	/**
 	 * Initialize the tray icon for the rundeckMonitor if the OS is compatible with it.
 	 *
 	 * @param rundeckMonitorConfigurationArg loaded configuration
-	 * @param rundeckMonitorStateArg state of the rundeck monitor
+	 * @param rundeckMonitorStatePublisherArg publisher of the state snapshots of the rundeck monitor
+	 * @param jobStatisticsEngineArg statistics of the jobs displayed in the tooltip and the menu
+	 * @param executionOutputSourceArg source of the output of the executions displayed in the preview
 	 */
-	public RundeckMonitorAWTTrayIcon(final RundeckMonitorConfiguration rundeckMonitorConfigurationArg, final RundeckMonitorState rundeckMonitorStateArg) {
+	public RundeckMonitorAWTTrayIcon(final RundeckMonitorConfiguration rundeckMonitorConfigurationArg, final RundeckMonitorStatePublisher rundeckMonitorStatePublisherArg, final JobStatisticsEngine jobStatisticsEngineArg, final ExecutionOutputSource executionOutputSourceArg) {
 
-		super(rundeckMonitorConfigurationArg, rundeckMonitorStateArg);
+		super(rundeckMonitorConfigurationArg, rundeckMonitorStatePublisherArg, jobStatisticsEngineArg, executionOutputSourceArg);
 
-		// Action listener to get job execution detail on the rundeck URL
+		// Action listener to preview the job execution output or open it on the rundeck URL
 		menuListener = new ActionListener() {
 
 			@Override
@@ -63,7 +75,7 @@ public final class RundeckMonitorAWTTrayIcon extends RundeckMonitorTrayIcon {
 
 				if (MenuItem.class.isInstance(e.getSource())) {
 
-					openBrowser(failedMenuItems.get(e.getSource()));
+					openExecution(failedMenuItems.get(e.getSource()));
 				}
 			}
 		};
@@ -74,7 +86,6 @@ public final class RundeckMonitorAWTTrayIcon extends RundeckMonitorTrayIcon {
 			@Override
 			@SuppressWarnings("synthetic-access")
 			public void actionPerformed(final ActionEvent e) {
-				rundeckMonitorState.setFailedJobs(false);
 
 				// Reset all failed icon
 				for (final Entry<MenuItem, JobExecutionInfo> entry : failedMenuItems.entrySet()) {
@@ -85,11 +96,13 @@ public final class RundeckMonitorAWTTrayIcon extends RundeckMonitorTrayIcon {
 					}
 				}
 
-				// Clear all new failed jobs
-				newLateProcess.clear();
-				newFailedProcess.clear();
+				// Displayed menu items are no longer highlighted
+				for (final Entry<MenuItem, JobMenuItemModel> entry : displayedMenuItems.entrySet()) {
+					entry.setValue(entry.getValue().withHighlight(JobMenuItemModel.Highlight.NONE));
+				}
 
-				updateTrayIcon();
+				// Clear all new failed jobs
+				resetAlert();
 			}
 		};
 
@@ -104,6 +117,10 @@ public final class RundeckMonitorAWTTrayIcon extends RundeckMonitorTrayIcon {
 			failedItem.addActionListener(menuListener);
 		}
 
+		// Statistics of the most failing jobs, filled at each refresh
+		topFailingJobsMenu.setEnabled(false);
+		popupMenu.add(topFailingJobsMenu);
+
 		popupMenu.addSeparator();
 
 		final MenuItem reinitItem = new MenuItem("Reset alert"); //$NON-NLS-1$
@@ -132,8 +149,8 @@ public final class RundeckMonitorAWTTrayIcon extends RundeckMonitorTrayIcon {
 		final RundeckMonitorAWTListenerAdapter listenerAdapter = new RundeckMonitorAWTListenerAdapter(hiddenDialog);
 		hiddenDialog.addWindowFocusListener(listenerAdapter);
 
-		// Add the icon to the system tray
-		trayIcon = new TrayIcon(IMAGE_OK, rundeckMonitorConfiguration.getRundeckMonitorName(), popupMenu);
+		// Add the icon to the system tray, displayed as connecting until the first refresh
+		trayIcon = new TrayIcon(IMAGE_DISCONNECTED, rundeckMonitorConfiguration.getRundeckMonitorName() + CONNECTING_MARKER, popupMenu);
 		trayIcon.setImageAutoSize(true);
 
 		trayIcon.addMouseListener(listenerAdapter);
@@ -157,13 +174,14 @@ public final class RundeckMonitorAWTTrayIcon extends RundeckMonitorTrayIcon {
 	 * @param listJobExecutionInfo list of failed and late jobs informations
 	 */
 	@Override
-	public void updateExecutionIdsList(final List<JobExecutionInfo> listJobExecutionInfo) {
+	void updateExecutionIdsList(final List<JobExecutionInfo> listJobExecutionInfo) {
 
+		final List<JobMenuItemModel> models = buildMenuItemModels(listJobExecutionInfo, failedMenuItems.size());
 		int i = 0;
 
 		for (final Entry<MenuItem, JobExecutionInfo> entry : failedMenuItems.entrySet()) {
 
-			if (i >= listJobExecutionInfo.size()) {
+			if (i >= models.size()) {
 				break;
 			}
 
@@ -171,41 +189,24 @@ public final class RundeckMonitorAWTTrayIcon extends RundeckMonitorTrayIcon {
 			final MenuItem menuItem = entry.getKey();
 
 			entry.setValue(jobExecutionInfo);
-			final SimpleDateFormat formatter = new SimpleDateFormat(rundeckMonitorConfiguration.getDateFormat());
-			final String longExecution;
-			if (jobExecutionInfo.isLongExecution()) {
-				longExecution = LONG_EXECUTION_MARKER;
-			}
-			else {
-				longExecution = StringUtils.EMPTY;
-			}
-			final String message = formatter.format(jobExecutionInfo.getStartedAt()) + ": " + jobExecutionInfo.getDescription(); //$NON-NLS-1$
-			menuItem.setLabel(message + longExecution);
 
-			if (jobExecutionInfo.isNewJob()) {
+			// Only update the changed parts of the menu item
+			final JobMenuItemModel model = models.get(i).withHighlight(getHighlight(jobExecutionInfo));
+			final JobMenuItemModel displayedModel = displayedMenuItems.put(menuItem, model);
 
-				if (jobExecutionInfo.isLongExecution()) {
-					trayIcon.displayMessage(NEW_LONG_EXECUTION_ALERT, message, TrayIcon.MessageType.WARNING);
-					newLateProcess.add(jobExecutionInfo.getExecutionId());
-				}
-				else {
-					trayIcon.displayMessage(NEW_FAILED_JOB_ALERT, message, TrayIcon.MessageType.ERROR);
-					newFailedProcess.add(jobExecutionInfo.getExecutionId());
-				}
+			if (null == displayedModel || !displayedModel.getText().equals(model.getText())) {
+				menuItem.setLabel(model.getText());
 			}
 
 			// Check if the font of the menuItem exists
-			final Font menuItemFont = entry.getKey().getFont();
-			if (null != menuItemFont) {
-				// Mark failed and late jobs with an icon and bold menuitem
-				if (newFailedProcess.contains(jobExecutionInfo.getExecutionId())) {
-					menuItem.setFont(menuItemFont.deriveFont(Font.BOLD));
-				}
-				else if (newLateProcess.contains(jobExecutionInfo.getExecutionId())) {
-					menuItem.setFont(menuItemFont.deriveFont(Font.BOLD));
+			final Font menuItemFont = menuItem.getFont();
+			if (null != menuItemFont && (null == displayedModel || displayedModel.getHighlight() != model.getHighlight())) {
+				// Mark failed and late jobs with a bold menuitem
+				if (JobMenuItemModel.Highlight.NONE == model.getHighlight()) {
+					menuItem.setFont(menuItemFont.deriveFont(Font.PLAIN));
 				}
 				else {
-					menuItem.setFont(menuItemFont.deriveFont(Font.PLAIN));
+					menuItem.setFont(menuItemFont.deriveFont(Font.BOLD));
 				}
 			}
 
@@ -213,6 +214,26 @@ public final class RundeckMonitorAWTTrayIcon extends RundeckMonitorTrayIcon {
 		}
 	}
 
+	/**
+	 * Update the top failing jobs menu if the statistics have changed.
+	 *
+	 * @param topFailingJobsTexts statistics of the most failing jobs, most failing first
+	 */
+	@Override
+	void updateTopFailingJobs(final List<String> topFailingJobsTexts) {
+
+		if (topFailingJobsTexts.equals(displayedTopFailingJobs)) {
+			return;
+		}
+
+		topFailingJobsMenu.removeAll();
+		for (final String topFailingJobText : topFailingJobsTexts) {
+			topFailingJobsMenu.add(new MenuItem(topFailingJobText));
+		}
+		topFailingJobsMenu.setEnabled(!topFailingJobsTexts.isEmpty());
+		displayedTopFailingJobs = topFailingJobsTexts;
+	}
+
 	/**
 	 * Called when configuration is reloaded, clear all menu items and reinitialize action listeners.
 	 */
@@ -226,6 +247,7 @@ public final class RundeckMonitorAWTTrayIcon extends RundeckMonitorTrayIcon {
 		}
 
 		failedMenuItems.clear();
+		displayedMenuItems.clear();
 
 		// Add all new menu items to the popup menu
 		for (int i = 0; i < rundeckMonitorConfiguration.getFailedJobNumber(); i++) {
@@ -1,21 +1,62 @@
 package com.github.sbugat.rundeckmonitor;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
 /**
- * Class containing the current state of the monitor.
+ * Immutable snapshot of the state of the monitor, a new snapshot is created for each change.
  *
  * @author Sylvain Bugat
  *
  */
 public final class RundeckMonitorState {
 
+	/** Initial state: connected without any failed or late job. */
+	public static final RundeckMonitorState INITIAL = new RundeckMonitorState(false, false, false, false, false, Collections.<String> emptyList(), Collections.<JobExecutionInfo> emptyList());
+
 	/** Failed jobs flag. */
-	private boolean failedJobs;
+	private final boolean failedJobs;
 
 	/** Late/long jobs flag. */
-	private boolean lateJobs;
+	private final boolean lateJobs;
 
 	/** Disconnected flag. */
-	private boolean disconnected;
+	private final boolean disconnected;
+
+	/** Failed jobs not refreshed by the last update flag. */
+	private final boolean failedJobsOutdated;
+
+	/** Late/long jobs not refreshed by the last update flag. */
+	private final boolean lateJobsOutdated;
+
+	/** Names of the disconnected RunDeck servers when only some of the monitored servers are disconnected. */
+	private final List<String> disconnectedServers;
+
+	/** Displayed late and failed executions. */
+	private final List<JobExecutionInfo> executions;
+
+	/**
+	 * Copy the state.
+	 *
+	 * @param failedJobsArg failed flag
+	 * @param lateJobsArg long/late flag
+	 * @param disconnectedArg disconnected flag
+	 * @param failedJobsOutdatedArg outdated failed jobs flag
+	 * @param lateJobsOutdatedArg outdated long/late jobs flag
+	 * @param disconnectedServersArg names of the disconnected RunDeck servers
+	 * @param executionsArg displayed late and failed executions
+	 */
+	public RundeckMonitorState(final boolean failedJobsArg, final boolean lateJobsArg, final boolean disconnectedArg, final boolean failedJobsOutdatedArg, final boolean lateJobsOutdatedArg, final List<String> disconnectedServersArg, final List<JobExecutionInfo> executionsArg) {
+
+		failedJobs = failedJobsArg;
+		lateJobs = lateJobsArg;
+		disconnected = disconnectedArg;
+		failedJobsOutdated = failedJobsOutdatedArg;
+		lateJobsOutdated = lateJobsOutdatedArg;
+		disconnectedServers = Collections.unmodifiableList(new ArrayList<>(disconnectedServersArg));
+		executions = Collections.unmodifiableList(new ArrayList<>(executionsArg));
+	}
 
 	/**
 	 * Get the failed flag.
@@ -27,12 +68,18 @@ public final class RundeckMonitorState {
 	}
 
 	/**
-	 * Set the failed flag.
+	 * Copy this state with another failed flag.
 	 *
 	 * @param failedJobsArg failed flag
+	 * @return this state if the flag is the same, a new state otherwise
 	 */
-	public void setFailedJobs(final boolean failedJobsArg) {
-		failedJobs = failedJobsArg;
+	public RundeckMonitorState withFailedJobs(final boolean failedJobsArg) {
+
+		if (failedJobs == failedJobsArg) {
+			return this;
+		}
+
+		return new RundeckMonitorState(failedJobsArg, lateJobs, disconnected, failedJobsOutdated, lateJobsOutdated, disconnectedServers, executions);
 	}
 
 	/**
@@ -44,15 +91,6 @@ public final class RundeckMonitorState {
 		return lateJobs;
 	}
 
-	/**
-	 * Set the long/late flag.
-	 *
-	 * @param lateJobsArg long/late flag
-	 */
-	public void setLateJobs(final boolean lateJobsArg) {
-		lateJobs = lateJobsArg;
-	}
-
 	/**
 	 * Get the disconnected flag.
 	 *
@@ -63,11 +101,53 @@ public final class RundeckMonitorState {
 	}
 
 	/**
-	 * Set the disconnected state.
+	 * Copy this state with another disconnected flag.
 	 *
 	 * @param disconnectedArg disconnected state
+	 * @return this state if the flag is the same, a new state otherwise
 	 */
-	public void setDisconnected(final boolean disconnectedArg) {
-		disconnected = disconnectedArg;
+	public RundeckMonitorState withDisconnected(final boolean disconnectedArg) {
+
+		if (disconnected == disconnectedArg) {
+			return this;
+		}
+
+		return new RundeckMonitorState(failedJobs, lateJobs, disconnectedArg, failedJobsOutdated, lateJobsOutdated, disconnectedServers, executions);
+	}
+
+	/**
+	 * Get the outdated failed jobs flag.
+	 *
+	 * @return true if the failed jobs were not refreshed by the last update
+	 */
+	public boolean isFailedJobsOutdated() {
+		return failedJobsOutdated;
+	}
+
+	/**
+	 * Get the outdated long/late jobs flag.
+	 *
+	 * @return true if the running jobs were not refreshed by the last update
+	 */
+	public boolean isLateJobsOutdated() {
+		return lateJobsOutdated;
+	}
+
+	/**
+	 * Get the names of the disconnected servers.
+	 *
+	 * @return unmodifiable names of the disconnected RunDeck servers, empty if all servers are connected
+	 */
+	public List<String> getDisconnectedServers() {
+		return disconnectedServers;
+	}
+
+	/**
+	 * Get the displayed executions.
+	 *
+	 * @return unmodifiable list of the late executions followed by the failed executions
+	 */
+	public List<JobExecutionInfo> getExecutions() {
+		return executions;
 	}
 }
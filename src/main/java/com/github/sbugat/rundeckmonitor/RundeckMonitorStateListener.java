@@ -0,0 +1,20 @@
+package com.github.sbugat.rundeckmonitor;
+
+import java.util.List;
+
+/**
+ * Listener of the monitor state snapshots, always called on the event dispatch thread.
+ *
+ * @author Sylvain Bugat
+ *
+ */
+public interface RundeckMonitorStateListener {
+
+	/**
+	 * Apply the last state snapshot, intermediate snapshots published since the previous call are skipped.
+	 *
+	 * @param rundeckMonitorState last state snapshot
+	 * @param newExecutions new failed/late executions to alert published since the previous call, none is skipped
+	 */
+	void stateChanged(RundeckMonitorState rundeckMonitorState, List<JobExecutionInfo> newExecutions);
+}
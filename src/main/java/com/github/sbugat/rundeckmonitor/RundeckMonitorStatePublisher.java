@@ -0,0 +1,173 @@
+package com.github.sbugat.rundeckmonitor;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.swing.SwingUtilities;
+
+import org.slf4j.ext.XLogger;
+import org.slf4j.ext.XLoggerFactory;
+
+/**
+ * Publisher of the monitor state snapshots from the refresh threads to the listeners on the event dispatch thread.
+ *
+ * Snapshots are swapped atomically, the listeners are called once per event dispatch thread turn with the last snapshot: a burst of changes, like during a configuration reload, is applied only once.
+ *
+ * @author Sylvain Bugat
+ *
+ */
+public final class RundeckMonitorStatePublisher {
+
+	/** SLF4J XLogger. */
+	private static final XLogger LOG = XLoggerFactory.getXLogger(RundeckMonitorStatePublisher.class);
+
+	/**
+	 * Change of the state, applied to the current snapshot.
+	 */
+	public interface StateUpdate {
+
+		/**
+		 * Compute the new snapshot from the current one, can be called several times if another thread has changed the state.
+		 *
+		 * @param rundeckMonitorState current snapshot
+		 * @return new snapshot or the current one if nothing has changed
+		 */
+		RundeckMonitorState apply(RundeckMonitorState rundeckMonitorState);
+	}
+
+	/** Current state snapshot. */
+	private final AtomicReference<RundeckMonitorState> state = new AtomicReference<>(RundeckMonitorState.INITIAL);
+
+	/** New executions to alert not given to the listeners yet. */
+	private final Queue<JobExecutionInfo> newExecutions = new ConcurrentLinkedQueue<>();
+
+	/** Subscribed listeners. */
+	private final List<RundeckMonitorStateListener> listeners = new CopyOnWriteArrayList<>();
+
+	/** Flag indicating if a dispatch to the listeners is already scheduled on the event dispatch thread. */
+	private final AtomicBoolean dispatchScheduled = new AtomicBoolean();
+
+	/** Task dispatching the last snapshot to the listeners. */
+	private final Runnable dispatcher = new Runnable() {
+
+		@Override
+		@SuppressWarnings("synthetic-access")
+		public void run() {
+			dispatch();
+		}
+	};
+
+	/** Last snapshot given to the listeners, only used on the event dispatch thread. */
+	private RundeckMonitorState dispatchedState;
+
+	/**
+	 * Get the current state snapshot.
+	 *
+	 * @return current snapshot
+	 */
+	public RundeckMonitorState getState() {
+		return state.get();
+	}
+
+	/**
+	 * Subscribe a listener to the next snapshots.
+	 *
+	 * @param listener listener to call on the event dispatch thread
+	 */
+	public void subscribe(final RundeckMonitorStateListener listener) {
+		listeners.add(listener);
+	}
+
+	/**
+	 * Replace the current snapshot.
+	 *
+	 * @param rundeckMonitorState new snapshot
+	 */
+	public void set(final RundeckMonitorState rundeckMonitorState) {
+
+		if (state.getAndSet(rundeckMonitorState) != rundeckMonitorState) {
+			scheduleDispatch();
+		}
+	}
+
+	/**
+	 * Atomically change the current snapshot.
+	 *
+	 * @param stateUpdate change to apply
+	 * @return new snapshot
+	 */
+	public RundeckMonitorState update(final StateUpdate stateUpdate) {
+
+		return publish(stateUpdate, Collections.<JobExecutionInfo> emptyList());
+	}
+
+	/**
+	 * Atomically change the current snapshot and add new executions to alert.
+	 *
+	 * @param stateUpdate change to apply
+	 * @param newExecutionsArg new failed/late executions to alert
+	 * @return new snapshot
+	 */
+	public RundeckMonitorState publish(final StateUpdate stateUpdate, final Collection<JobExecutionInfo> newExecutionsArg) {
+
+		newExecutions.addAll(newExecutionsArg);
+
+		RundeckMonitorState currentState;
+		RundeckMonitorState newState;
+		do {
+			currentState = state.get();
+			newState = stateUpdate.apply(currentState);
+		}
+		while (!state.compareAndSet(currentState, newState));
+
+		if (newState != currentState || !newExecutionsArg.isEmpty()) {
+			scheduleDispatch();
+		}
+
+		return newState;
+	}
+
+	/**
+	 * Schedule a dispatch to the listeners if none is pending.
+	 */
+	private void scheduleDispatch() {
+
+		if (dispatchScheduled.compareAndSet(false, true)) {
+			SwingUtilities.invokeLater(dispatcher);
+		}
+	}
+
+	/**
+	 * Give the last snapshot and the new executions to the listeners, on the event dispatch thread.
+	 */
+	private void dispatch() {
+
+		// Changes published from now schedule another dispatch
+		dispatchScheduled.set(false);
+
+		final List<JobExecutionInfo> executionsToAlert = new ArrayList<>();
+		JobExecutionInfo jobExecutionInfo = newExecutions.poll();
+		while (null != jobExecutionInfo) {
+			executionsToAlert.add(jobExecutionInfo);
+			jobExecutionInfo = newExecutions.poll();
+		}
+
+		final RundeckMonitorState currentState = state.get();
+		if (currentState == dispatchedState && executionsToAlert.isEmpty()) {
+			return;
+		}
+		dispatchedState = currentState;
+
+		LOG.debug("Dispatching monitor state with {} new executions", Integer.valueOf(executionsToAlert.size())); //$NON-NLS-1$
+		for (final RundeckMonitorStateListener listener : listeners) {
+			listener.stateChanged(currentState, executionsToAlert);
+		}
+	}
+}
@@ -11,21 +11,21 @@ import java.awt.event.WindowEvent;
 import java.awt.event.WindowFocusListener;
 import java.io.PrintWriter;
 import java.io.StringWriter;
-import java.text.SimpleDateFormat;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 
+import javax.swing.JMenu;
 import javax.swing.JMenuItem;
 import javax.swing.JOptionPane;
 import javax.swing.JPopupMenu;
 
-import org.apache.commons.lang.StringUtils;
-
 import com.github.sbugat.rundeckmonitor.configuration.RundeckMonitorConfiguration;
+import com.github.sbugat.rundeckmonitor.statistics.JobStatisticsEngine;
 import com.github.sbugat.rundeckmonitor.tools.SystemTools;
-import com.github.sbugat.rundeckmonitor.wizard.JobTabRedirection;
 
 /**
  * Swing tray icon management class.
@@ -41,17 +41,37 @@ public final class RundeckMonitorSwingTrayIcon extends RundeckMonitorTrayIcon {
 	/** MenuItem for lasts late/failed jobs. */
 	private final Map<JMenuItem, JobExecutionInfo> failedMenuItems = new LinkedHashMap<>();
 
+	/** Provider of the failed executions of the monitored projects. */
+	private final FailedExecutionsHistory failedExecutionsHistory;
+
+	/** Last opened failed executions list, null if never opened. */
+	private FailedExecutionsDialog failedExecutionsDialog;
+
+	/** Model currently displayed by each failed/late job menu item. */
+	private final Map<JMenuItem, JobMenuItemModel> displayedMenuItems = new HashMap<>();
+
+	/** Menu of the most failing jobs statistics. */
+	private final JMenu topFailingJobsMenu = new JMenu(TOP_FAILING_JOBS_MENU);
+
+	/** Statistics currently displayed by the top failing jobs menu. */
+	private List<String> displayedTopFailingJobs = Collections.emptyList();
+
 	/**
 	 * Initialize the tray icon for the rundeckMonitor if the OS is compatible with it.
 	 *
 	 * @param rundeckMonitorConfigurationArg loaded configuration
-	 * @param rundeckMonitorStateArg state of the rundeck monitor
+	 * @param rundeckMonitorStatePublisherArg publisher of the state snapshots of the rundeck monitor
+	 * @param failedExecutionsHistoryArg provider of the failed executions of the monitored projects
+	 * @param jobStatisticsEngineArg statistics of the jobs displayed in the tooltip and the menu
+	 * @param executionOutputSourceArg source of the output of the executions displayed in the preview
 	 */
-	public RundeckMonitorSwingTrayIcon(final RundeckMonitorConfiguration rundeckMonitorConfigurationArg, final RundeckMonitorState rundeckMonitorStateArg) {
+	public RundeckMonitorSwingTrayIcon(final RundeckMonitorConfiguration rundeckMonitorConfigurationArg, final RundeckMonitorStatePublisher rundeckMonitorStatePublisherArg, final FailedExecutionsHistory failedExecutionsHistoryArg, final JobStatisticsEngine jobStatisticsEngineArg, final ExecutionOutputSource executionOutputSourceArg) {
 
-		super(rundeckMonitorConfigurationArg, rundeckMonitorStateArg);
+		super(rundeckMonitorConfigurationArg, rundeckMonitorStatePublisherArg, jobStatisticsEngineArg, executionOutputSourceArg);
 
-		// Action listener to get job execution detail on the rundeck URL
+		failedExecutionsHistory = failedExecutionsHistoryArg;
+
+		// Action listener to preview the job execution output or open it on the rundeck URL
 		menuListener = new ActionListener() {
 
 			@Override
@@ -60,7 +80,7 @@ public final class RundeckMonitorSwingTrayIcon extends RundeckMonitorTrayIcon {
 
 				if (JMenuItem.class.isInstance(e.getSource())) {
 
-					openBrowser(failedMenuItems.get(e.getSource()));
+					openExecution(failedMenuItems.get(e.getSource()));
 				}
 			}
 		};
@@ -71,7 +91,6 @@ public final class RundeckMonitorSwingTrayIcon extends RundeckMonitorTrayIcon {
 			@Override
 			@SuppressWarnings("synthetic-access")
 			public void actionPerformed(final ActionEvent e) {
-				rundeckMonitorState.setFailedJobs(false);
 
 				// Reset all failed icon
 				for (final Entry<JMenuItem, JobExecutionInfo> entry : failedMenuItems.entrySet()) {
@@ -81,11 +100,13 @@ public final class RundeckMonitorSwingTrayIcon extends RundeckMonitorTrayIcon {
 					menuItem.setFont(menuItem.getFont().deriveFont(Font.PLAIN));
 				}
 
-				// Clear all new failed jobs
-				newLateProcess.clear();
-				newFailedProcess.clear();
+				// Displayed menu items are no longer highlighted
+				for (final Entry<JMenuItem, JobMenuItemModel> entry : displayedMenuItems.entrySet()) {
+					entry.setValue(entry.getValue().withHighlight(JobMenuItemModel.Highlight.NONE));
+				}
 
-				updateTrayIcon();
+				// Clear all new failed jobs
+				resetAlert();
 			}
 		};
 
@@ -102,6 +123,28 @@ public final class RundeckMonitorSwingTrayIcon extends RundeckMonitorTrayIcon {
 			failedItem.addActionListener(menuListener);
 		}
 
+		// Scrollable list of all failed jobs
+		final JMenuItem moreFailedJobsItem = new JMenuItem("More failed jobs..."); //$NON-NLS-1$
+		popupMenu.add(moreFailedJobsItem);
+		moreFailedJobsItem.addActionListener(new ActionListener() {
+
+			@Override
+			@SuppressWarnings("synthetic-access")
+			public void actionPerformed(final ActionEvent e) {
+
+				if (null != failedExecutionsDialog && failedExecutionsDialog.isDisplayed()) {
+					failedExecutionsDialog.toFront();
+				}
+				else {
+					failedExecutionsDialog = new FailedExecutionsDialog(RundeckMonitorSwingTrayIcon.this, failedExecutionsHistory.getFailedExecutionsSources(), rundeckMonitorConfiguration.getDateFormat());
+				}
+			}
+		});
+
+		// Statistics of the most failing jobs, filled at each refresh
+		topFailingJobsMenu.setEnabled(false);
+		popupMenu.add(topFailingJobsMenu);
+
 		popupMenu.addSeparator();
 
 		final JMenuItem reinitItem = new JMenuItem("Reset alert"); //$NON-NLS-1$
@@ -125,8 +168,8 @@ public final class RundeckMonitorSwingTrayIcon extends RundeckMonitorTrayIcon {
 		popupMenu.add(exitItem);
 		exitItem.addActionListener(exitListener);
 
-		// Add the icon to the system tray
-		trayIcon = new TrayIcon(IMAGE_OK, rundeckMonitorConfiguration.getRundeckMonitorName());
+		// Add the icon to the system tray, displayed as connecting until the first refresh
+		trayIcon = new TrayIcon(IMAGE_DISCONNECTED, rundeckMonitorConfiguration.getRundeckMonitorName() + CONNECTING_MARKER);
 		trayIcon.setImageAutoSize(true);
 
 		trayIcon.addMouseListener(new MouseAdapter() {
@@ -193,13 +236,14 @@ public final class RundeckMonitorSwingTrayIcon extends RundeckMonitorTrayIcon {
 	 * @param listJobExecutionInfo list of failed and late jobs informations
 	 */
 	@Override
-	public void updateExecutionIdsList(final List<JobExecutionInfo> listJobExecutionInfo) {
+	void updateExecutionIdsList(final List<JobExecutionInfo> listJobExecutionInfo) {
 
+		final List<JobMenuItemModel> models = buildMenuItemModels(listJobExecutionInfo, failedMenuItems.size());
 		int i = 0;
 
 		for (final Entry<JMenuItem, JobExecutionInfo> entry : failedMenuItems.entrySet()) {
 
-			if (i >= listJobExecutionInfo.size()) {
+			if (i >= models.size()) {
 				break;
 			}
 
@@ -207,58 +251,59 @@ public final class RundeckMonitorSwingTrayIcon extends RundeckMonitorTrayIcon {
 			final JMenuItem jMenuItem = entry.getKey();
 
 			entry.setValue(jobExecutionInfo);
-			final SimpleDateFormat formatter = new SimpleDateFormat(rundeckMonitorConfiguration.getDateFormat());
-			final String longExecution;
-			if (jobExecutionInfo.isLongExecution()) {
-				longExecution = LONG_EXECUTION_MARKER;
-			}
-			else {
-				longExecution = StringUtils.EMPTY;
-			}
-			final String message = formatter.format(jobExecutionInfo.getStartedAt()) + ": " + jobExecutionInfo.getDescription(); //$NON-NLS-1$
-			jMenuItem.setText(message + longExecution);
 
-			// Add tooltip
-			final JobTabRedirection jobTabRedirection;
+			// Only update the changed parts of the menu item
+			final JobMenuItemModel model = models.get(i).withHighlight(getHighlight(jobExecutionInfo));
+			final JobMenuItemModel displayedModel = displayedMenuItems.put(jMenuItem, model);
 
-			if (jobExecutionInfo.isLongExecution()) {
-				jobTabRedirection = JobTabRedirection.SUMMARY;
+			if (null == displayedModel || !displayedModel.getText().equals(model.getText())) {
+				jMenuItem.setText(model.getText());
 			}
-			else {
-				jobTabRedirection = JobTabRedirection.valueOf(rundeckMonitorConfiguration.getJobTabRedirection());
+			if (null == displayedModel || !displayedModel.getToolTipText().equals(model.getToolTipText())) {
+				jMenuItem.setToolTipText(model.getToolTipText());
 			}
-			jMenuItem.setToolTipText("Open " + rundeckMonitorConfiguration.getRundeckUrl() + RUNDECK_JOB_EXECUTION_URL + jobTabRedirection.getAccessUrlPrefix() + '/' + jobExecutionInfo.getExecutionId() + jobTabRedirection.getAccessUrlSuffix()); //$NON-NLS-1$
 
-			if (jobExecutionInfo.isNewJob()) {
+			// Mark failed and late jobs with an icon and bold menuitem
+			if (null == displayedModel || displayedModel.getHighlight() != model.getHighlight()) {
 
-				if (jobExecutionInfo.isLongExecution()) {
-					trayIcon.displayMessage(NEW_LONG_EXECUTION_ALERT, message, TrayIcon.MessageType.WARNING);
-					newLateProcess.add(jobExecutionInfo.getExecutionId());
+				if (JobMenuItemModel.Highlight.NEW_FAILED == model.getHighlight()) {
+					jMenuItem.setFont(jMenuItem.getFont().deriveFont(Font.BOLD));
+					jMenuItem.setIcon(ICON_KO_SMALL);
+				}
+				else if (JobMenuItemModel.Highlight.NEW_LATE == model.getHighlight()) {
+					jMenuItem.setFont(jMenuItem.getFont().deriveFont(Font.BOLD));
+					jMenuItem.setIcon(ICON_LATE_SMALL);
 				}
 				else {
-					trayIcon.displayMessage(NEW_FAILED_JOB_ALERT, message, TrayIcon.MessageType.ERROR);
-					newFailedProcess.add(jobExecutionInfo.getExecutionId());
+					jMenuItem.setFont(jMenuItem.getFont().deriveFont(Font.PLAIN));
+					jMenuItem.setIcon(null);
 				}
 			}
 
-			// Mark failed and late jobs with an icon and bold menuitem
-			if (newFailedProcess.contains(jobExecutionInfo.getExecutionId())) {
-				jMenuItem.setFont(entry.getKey().getFont().deriveFont(Font.BOLD));
-				jMenuItem.setIcon(ICON_KO_SMALL);
-			}
-			else if (newLateProcess.contains(jobExecutionInfo.getExecutionId())) {
-				jMenuItem.setFont(entry.getKey().getFont().deriveFont(Font.BOLD));
-				jMenuItem.setIcon(ICON_LATE_SMALL);
-			}
-			else {
-				jMenuItem.setFont(entry.getKey().getFont().deriveFont(Font.PLAIN));
-				jMenuItem.setIcon(null);
-			}
-
 			i++;
 		}
 	}
 
+	/**
+	 * Update the top failing jobs menu if the statistics have changed.
+	 *
+	 * @param topFailingJobsTexts statistics of the most failing jobs, most failing first
+	 */
+	@Override
+	void updateTopFailingJobs(final List<String> topFailingJobsTexts) {
+
+		if (topFailingJobsTexts.equals(displayedTopFailingJobs)) {
+			return;
+		}
+
+		topFailingJobsMenu.removeAll();
+		for (final String topFailingJobText : topFailingJobsTexts) {
+			topFailingJobsMenu.add(new JMenuItem(topFailingJobText));
+		}
+		topFailingJobsMenu.setEnabled(!topFailingJobsTexts.isEmpty());
+		displayedTopFailingJobs = topFailingJobsTexts;
+	}
+
 	/**
 	 * Called when configuration is reloaded, clear all menu items and reinitialize action listeners.
 	 */
@@ -272,6 +317,7 @@ public final class RundeckMonitorSwingTrayIcon extends RundeckMonitorTrayIcon {
 		}
 
 		failedMenuItems.clear();
+		displayedMenuItems.clear();
 
 		// Add all new menu items to the popup menu
 		for (int i = 0; i < rundeckMonitorConfiguration.getFailedJobNumber(); i++) {
@@ -14,9 +14,11 @@ import java.io.PrintWriter;
 import java.io.StringWriter;
 import java.net.URI;
 import java.net.URISyntaxException;
-import java.util.HashSet;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Set;
+import java.util.Map;
 
 import javax.swing.Icon;
 import javax.swing.ImageIcon;
@@ -25,10 +27,14 @@ import javax.swing.JOptionPane;
 import javax.swing.UIManager;
 import javax.swing.UnsupportedLookAndFeelException;
 
+import org.apache.commons.lang.StringUtils;
+import org.apache.commons.lang.time.FastDateFormat;
 import org.slf4j.ext.XLogger;
 import org.slf4j.ext.XLoggerFactory;
 
 import com.github.sbugat.rundeckmonitor.configuration.RundeckMonitorConfiguration;
+import com.github.sbugat.rundeckmonitor.statistics.JobStatistics;
+import com.github.sbugat.rundeckmonitor.statistics.JobStatisticsEngine;
 import com.github.sbugat.rundeckmonitor.tools.SystemTools;
 import com.github.sbugat.rundeckmonitor.wizard.JobTabRedirection;
 import com.github.sbugat.rundeckmonitor.wizard.RundeckMonitorConfigurationWizard;
@@ -39,7 +45,7 @@ import com.github.sbugat.rundeckmonitor.wizard.RundeckMonitorConfigurationWizard
  * @author Sylvain Bugat
  *
  */
-public abstract class RundeckMonitorTrayIcon {
+public abstract class RundeckMonitorTrayIcon implements RundeckMonitorStateListener {
 
 	/** SLF4J XLogger. */
 	private static final XLogger LOG = XLoggerFactory.getXLogger(RundeckMonitor.class);
@@ -62,6 +68,42 @@ public abstract class RundeckMonitorTrayIcon {
 	/** Alert message when a new long execution is detected. */
 	static final String NEW_LONG_EXECUTION_ALERT = "New long execution"; //$NON-NLS-1$
 
+	/** Tooltip marker when the failed jobs were not refreshed. */
+	private static final String FAILED_JOBS_OUTDATED_MARKER = " - failed jobs not refreshed"; //$NON-NLS-1$
+
+	/** Tooltip marker when the running jobs were not refreshed. */
+	private static final String LATE_JOBS_OUTDATED_MARKER = " - running jobs not refreshed"; //$NON-NLS-1$
+
+	/** Tooltip marker prefix of a disconnected server. */
+	private static final String SERVER_DISCONNECTED_MARKER_PREFIX = " - "; //$NON-NLS-1$
+
+	/** Tooltip marker until the first connection to the Rundeck servers. */
+	static final String CONNECTING_MARKER = " - connecting..."; //$NON-NLS-1$
+
+	/** Tooltip marker suffix of a disconnected server. */
+	private static final String SERVER_DISCONNECTED_MARKER_SUFFIX = " disconnected"; //$NON-NLS-1$
+
+	/** Tooltip marker of the most failing job. */
+	private static final String MOST_FAILING_JOB_MARKER = " - most failing job: "; //$NON-NLS-1$
+
+	/** Title of the top failing jobs menu. */
+	static final String TOP_FAILING_JOBS_MENU = "Top failing jobs"; //$NON-NLS-1$
+
+	/** Number of jobs in the top failing jobs menu. */
+	static final int TOP_FAILING_JOBS_DISPLAYED = 10;
+
+	/** Percentage marker. */
+	private static final String PERCENT_MARKER = "%"; //$NON-NLS-1$
+
+	/** One minute in milliseconds. */
+	private static final long ONE_MINUTE = 60_000L;
+
+	/** One hour in milliseconds. */
+	private static final long ONE_HOUR = 3_600_000L;
+
+	/** One day in milliseconds. */
+	private static final long ONE_DAY = 86_400_000L;
+
 	/** OK image. */
 	static final Image IMAGE_OK = Toolkit.getDefaultToolkit().getImage(RundeckMonitorTrayIcon.class.getClassLoader().getResource("OK.png")); //$NON-NLS-1$
 	/** WARNING image when a job seems to be blocked. */
@@ -72,8 +114,8 @@ public abstract class RundeckMonitorTrayIcon {
 	static final Icon ICON_KO_SMALL = new ImageIcon(Toolkit.getDefaultToolkit().getImage(RundeckMonitorTrayIcon.class.getClassLoader().getResource("KO_SMALL.png"))); //$NON-NLS-1$
 	/** KO image when a job has failed and a job seems to be blocked. */
 	private static final Image IMAGE_KO_LATE = Toolkit.getDefaultToolkit().getImage(RundeckMonitorTrayIcon.class.getClassLoader().getResource("KO_LATE.png")); //$NON-NLS-1$
-	/** Disconnected from rundeck image. */
-	private static final Image IMAGE_DISCONNECTED = Toolkit.getDefaultToolkit().getImage(RundeckMonitorTrayIcon.class.getClassLoader().getResource("DISCONNECTED.png")); //$NON-NLS-1$
+	/** Disconnected from rundeck image, also displayed while connecting. */
+	static final Image IMAGE_DISCONNECTED = Toolkit.getDefaultToolkit().getImage(RundeckMonitorTrayIcon.class.getClassLoader().getResource("DISCONNECTED.png")); //$NON-NLS-1$
 
 	/** System tray. */
 	final SystemTray tray;
@@ -102,27 +144,53 @@ public abstract class RundeckMonitorTrayIcon {
 	/** Date format to use for printing the Job start date. */
 	final RundeckMonitorConfiguration rundeckMonitorConfiguration;
 
-	/** Current state of the trayIcon. */
-	final RundeckMonitorState rundeckMonitorState;
+	/** Publisher of the state snapshots of the monitor. */
+	final RundeckMonitorStatePublisher rundeckMonitorStatePublisher;
+
+	/** Statistics of the jobs of all servers. */
+	private final JobStatisticsEngine jobStatisticsEngine;
+
+	/** Source of the output of the executions of all servers. */
+	private final ExecutionOutputSource executionOutputSource;
 
-	/** Already known late/long process. */
-	final Set<Long> newLateProcess = new HashSet<>();
+	/** Last opened output preview, null if never opened. */
+	private ExecutionOutputDialog executionOutputDialog;
 
-	/** Already known failed process. */
-	final Set<Long> newFailedProcess = new HashSet<>();
+	/** New late/long process since the last alert reset, for each RunDeck server URL. */
+	private final Map<String, BoundedExecutionIdSet> newLateProcess = new HashMap<>();
+
+	/** New failed process since the last alert reset, for each RunDeck server URL. */
+	private final Map<String, BoundedExecutionIdSet> newFailedProcess = new HashMap<>();
+
+	/** Rate limited notifications of the new executions. */
+	private final TrayNotifier trayNotifier = new TrayNotifier();
+
+	/** Tray icon images with the count of new failed and late executions. */
+	private final BadgeImageCache badgeImageCache = new BadgeImageCache();
+
+	/** Thread-safe formatter of the job start dates, rebuilt only when the configured date format changes. */
+	private FastDateFormat dateFormatter;
+
+	/** Models of the displayed executions by execution key, formatted once while the execution stays displayed. */
+	private Map<String, JobMenuItemModel> menuItemModels = new HashMap<>();
 
 	/**
 	 * Initialize the tray icon for the rundeckMonitor if the OS is compatible with it.
 	 *
 	 * @param rundeckMonitorConfigurationArg loaded configuration
-	 * @param rundeckMonitorStateArg state of the rundeck monitor
+	 * @param rundeckMonitorStatePublisherArg publisher of the state snapshots of the rundeck monitor
+	 * @param jobStatisticsEngineArg statistics of the jobs displayed in the tooltip and the menu
+	 * @param executionOutputSourceArg source of the output of the executions displayed in the preview
 	 */
-	public RundeckMonitorTrayIcon(final RundeckMonitorConfiguration rundeckMonitorConfigurationArg, final RundeckMonitorState rundeckMonitorStateArg) {
+	public RundeckMonitorTrayIcon(final RundeckMonitorConfiguration rundeckMonitorConfigurationArg, final RundeckMonitorStatePublisher rundeckMonitorStatePublisherArg, final JobStatisticsEngine jobStatisticsEngineArg, final ExecutionOutputSource executionOutputSourceArg) {
 
-		LOG.entry(rundeckMonitorConfigurationArg, rundeckMonitorStateArg);
+		LOG.entry(rundeckMonitorConfigurationArg, rundeckMonitorStatePublisherArg);
 
 		rundeckMonitorConfiguration = rundeckMonitorConfigurationArg;
-		rundeckMonitorState = rundeckMonitorStateArg;
+		rundeckMonitorStatePublisher = rundeckMonitorStatePublisherArg;
+		jobStatisticsEngine = jobStatisticsEngineArg;
+		executionOutputSource = executionOutputSourceArg;
+		dateFormatter = FastDateFormat.getInstance(rundeckMonitorConfiguration.getDateFormat());
 
 		if (SystemTray.isSupported()) {
 
@@ -213,54 +281,196 @@ public abstract class RundeckMonitorTrayIcon {
 		}
 	}
 
+	/**
+	 * Alert the new executions and apply the state snapshot to the menu and the tray icon, on the event dispatch thread.
+	 *
+	 * @param rundeckMonitorState last state snapshot
+	 * @param newExecutions new failed/late executions to alert
+	 */
+	@Override
+	public final void stateChanged(final RundeckMonitorState rundeckMonitorState, final List<JobExecutionInfo> newExecutions) {
+
+		LOG.entry(rundeckMonitorState, newExecutions);
+
+		// New executions are notified in one summary
+		final List<String> failedMessages = new ArrayList<>();
+		final List<String> lateMessages = new ArrayList<>();
+		for (final JobExecutionInfo jobExecutionInfo : newExecutions) {
+
+			final String message = getMenuItemModel(jobExecutionInfo, menuItemModelKey(jobExecutionInfo)).getMessage();
+			if (jobExecutionInfo.isLongExecution()) {
+				lateMessages.add(message);
+			}
+			else {
+				failedMessages.add(message);
+			}
+			addNewExecution(jobExecutionInfo);
+		}
+		trayNotifier.notify(trayIcon, failedMessages, lateMessages);
+
+		updateExecutionIdsList(rundeckMonitorState.getExecutions());
+
+		final List<JobStatistics> topFailingJobs = jobStatisticsEngine.getTopFailingJobs(TOP_FAILING_JOBS_DISPLAYED);
+		final List<String> topFailingJobsTexts = new ArrayList<>(topFailingJobs.size());
+		for (final JobStatistics jobStatistics : topFailingJobs) {
+			topFailingJobsTexts.add(formatJobStatistics(jobStatistics));
+		}
+		updateTopFailingJobs(topFailingJobsTexts);
+
+		updateTrayIcon(rundeckMonitorState, topFailingJobs);
+
+		LOG.exit();
+	}
+
 	/**
 	 * Update the list of failed/late jobs.
 	 *
 	 * @param listJobExecutionInfo list of failed and late jobs informations
 	 */
-	public abstract void updateExecutionIdsList(final List<JobExecutionInfo> listJobExecutionInfo);
+	abstract void updateExecutionIdsList(final List<JobExecutionInfo> listJobExecutionInfo);
+
+	/**
+	 * Update the top failing jobs menu.
+	 *
+	 * @param topFailingJobsTexts statistics of the most failing jobs, most failing first
+	 */
+	abstract void updateTopFailingJobs(final List<String> topFailingJobsTexts);
 
 	/**
-	 * Update the image of the tray icon.
+	 * Update the image and the tooltip of the tray icon.
+	 *
+	 * @param rundeckMonitorState state snapshot to display
+	 * @param topFailingJobs statistics of the most failing jobs, most failing first
 	 */
-	public final void updateTrayIcon() {
+	private void updateTrayIcon(final RundeckMonitorState rundeckMonitorState, final List<JobStatistics> topFailingJobs) {
 
 		LOG.entry();
 
+		final Image image;
 		if (rundeckMonitorState.isDisconnected()) {
-			trayIcon.setImage(IMAGE_DISCONNECTED);
+			image = IMAGE_DISCONNECTED;
 		}
-		else if (rundeckMonitorState.isFailedJobs()) {
+		else {
+			final Image baseImage;
+			if (rundeckMonitorState.isFailedJobs()) {
 
-			if (rundeckMonitorState.isLateJobs()) {
-				trayIcon.setImage(IMAGE_KO_LATE);
+				if (rundeckMonitorState.isLateJobs()) {
+					baseImage = IMAGE_KO_LATE;
+				}
+				else {
+					baseImage = IMAGE_KO;
+				}
+			}
+			else if (rundeckMonitorState.isLateJobs()) {
+				baseImage = IMAGE_LATE;
 			}
 			else {
-				trayIcon.setImage(IMAGE_KO);
+				baseImage = IMAGE_OK;
 			}
+
+			image = badgeImageCache.getImage(baseImage, countNewFailedExecutions() + countLateExecutions(rundeckMonitorState));
 		}
-		else if (rundeckMonitorState.isLateJobs()) {
-			trayIcon.setImage(IMAGE_LATE);
+
+		// Avoid repainting the same image
+		if (image != trayIcon.getImage()) {
+			trayIcon.setImage(image);
 		}
-		else {
-			trayIcon.setImage(IMAGE_OK);
+
+		// Indicate a partial refresh in the tooltip
+		final StringBuilder toolTip = new StringBuilder(rundeckMonitorConfiguration.getRundeckMonitorName());
+		if (!rundeckMonitorState.isDisconnected()) {
+
+			if (rundeckMonitorState.isFailedJobsOutdated()) {
+				toolTip.append(FAILED_JOBS_OUTDATED_MARKER);
+			}
+			if (rundeckMonitorState.isLateJobsOutdated()) {
+				toolTip.append(LATE_JOBS_OUTDATED_MARKER);
+			}
+			for (final String disconnectedServer : rundeckMonitorState.getDisconnectedServers()) {
+				toolTip.append(SERVER_DISCONNECTED_MARKER_PREFIX).append(disconnectedServer).append(SERVER_DISCONNECTED_MARKER_SUFFIX);
+			}
+			if (!topFailingJobs.isEmpty()) {
+				toolTip.append(MOST_FAILING_JOB_MARKER).append(topFailingJobs.get(0).getJobName()).append(" (").append(topFailingJobs.get(0).getFailureCount()).append(')'); //$NON-NLS-1$
+			}
+		}
+
+		if (!toolTip.toString().equals(trayIcon.getToolTip())) {
+			trayIcon.setToolTip(toolTip.toString());
 		}
 
 		LOG.exit();
 	}
 
 	/**
-	 * Called when configuration is reloaded, clear all known process and reinitialize the tooltip.
+	 * Count the new failed executions since the last alert reset.
+	 *
+	 * @return number of new failed executions of all servers
+	 */
+	private int countNewFailedExecutions() {
+
+		int count = 0;
+		for (final BoundedExecutionIdSet serverNewProcess : newFailedProcess.values()) {
+			count += serverNewProcess.size();
+		}
+
+		return count;
+	}
+
+	/**
+	 * Count the displayed late executions.
+	 *
+	 * @param rundeckMonitorState state snapshot to display
+	 * @return number of late executions of all servers
+	 */
+	private static int countLateExecutions(final RundeckMonitorState rundeckMonitorState) {
+
+		int count = 0;
+		for (final JobExecutionInfo jobExecutionInfo : rundeckMonitorState.getExecutions()) {
+			if (jobExecutionInfo.isLongExecution()) {
+				count++;
+			}
+		}
+
+		return count;
+	}
+
+	/**
+	 * Alert reset: clear the new executions and the failed jobs flag of the state.
+	 */
+	final void resetAlert() {
+
+		clearNewExecutions();
+
+		rundeckMonitorStatePublisher.update(new RundeckMonitorStatePublisher.StateUpdate() {
+
+			@Override
+			public RundeckMonitorState apply(final RundeckMonitorState rundeckMonitorState) {
+				return rundeckMonitorState.withFailedJobs(false);
+			}
+		});
+	}
+
+	/**
+	 * Called on the event dispatch thread when configuration is reloaded, clear all known process and display the current state again.
 	 */
 	public void reloadConfiguration() {
 
 		LOG.entry();
 
-		newLateProcess.clear();
-		newFailedProcess.clear();
+		clearNewExecutions();
+
+		if (!dateFormatter.getPattern().equals(rundeckMonitorConfiguration.getDateFormat())) {
+			dateFormatter = FastDateFormat.getInstance(rundeckMonitorConfiguration.getDateFormat());
+		}
+
+		// Date format, job tab redirection and displayed origins may have changed
+		menuItemModels = new HashMap<>();
 
 		trayIcon.setToolTip(rundeckMonitorConfiguration.getRundeckMonitorName());
 
+		// Menu items have been recreated
+		stateChanged(rundeckMonitorStatePublisher.getState(), Collections.<JobExecutionInfo> emptyList());
+
 		LOG.exit();
 	}
 
@@ -270,10 +480,248 @@ public abstract class RundeckMonitorTrayIcon {
 	public final void disposeTrayIcon() {
 
 		LOG.entry();
+		trayNotifier.close();
 		tray.remove(trayIcon);
 		LOG.exit();
 	}
 
+	/**
+	 * Format the statistics of a job for the top failing jobs menu.
+	 *
+	 * @param jobStatistics statistics of the job
+	 * @return job name, failures, recent failures, failure rate, mean time between failures and mean time to recovery
+	 */
+	static String formatJobStatistics(final JobStatistics jobStatistics) {
+
+		final StringBuilder text = new StringBuilder(jobStatistics.getJobName());
+		text.append(": ").append(jobStatistics.getFailureCount()).append(" failures"); //$NON-NLS-1$ //$NON-NLS-2$
+		if (jobStatistics.getRecentFailureCount() >= 0) {
+			text.append(" (").append(jobStatistics.getRecentFailureCount()).append(" in the last 24h)"); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+		if (jobStatistics.getFailureRate() >= 0) {
+			text.append(", ").append(jobStatistics.getFailureRate()).append(PERCENT_MARKER).append(" of the observed executions"); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+		if (jobStatistics.getMeanTimeBetweenFailures() >= 0) {
+			text.append(", MTBF ").append(formatDuration(jobStatistics.getMeanTimeBetweenFailures())); //$NON-NLS-1$
+		}
+		if (jobStatistics.getMeanTimeToRecovery() >= 0) {
+			text.append(", recovery ").append(formatDuration(jobStatistics.getMeanTimeToRecovery())); //$NON-NLS-1$
+		}
+		if (jobStatistics.isFailing()) {
+			text.append(" - still failing"); //$NON-NLS-1$
+		}
+
+		return text.toString();
+	}
+
+	/**
+	 * Format a duration with its 2 most significant units.
+	 *
+	 * @param duration duration in milliseconds
+	 * @return duration in days and hours, hours and minutes or minutes
+	 */
+	static String formatDuration(final long duration) {
+
+		if (duration >= ONE_DAY) {
+			return duration / ONE_DAY + "d " + duration % ONE_DAY / ONE_HOUR + 'h'; //$NON-NLS-1$
+		}
+		if (duration >= ONE_HOUR) {
+			return duration / ONE_HOUR + "h " + duration % ONE_HOUR / ONE_MINUTE + "min"; //$NON-NLS-1$ //$NON-NLS-2$
+		}
+
+		return duration / ONE_MINUTE + "min"; //$NON-NLS-1$
+	}
+
+	/**
+	 * Get the server and/or project tag to display before the job description.
+	 *
+	 * @param jobExecutionInfo displayed job execution
+	 * @return server and/or project between brackets or an empty string if only one project of one server is monitored
+	 */
+	static String originPrefix(final JobExecutionInfo jobExecutionInfo) {
+
+		if (null == jobExecutionInfo.getOrigin()) {
+			return StringUtils.EMPTY;
+		}
+
+		return '[' + jobExecutionInfo.getOrigin() + "] "; //$NON-NLS-1$
+	}
+
+	/**
+	 * Get the models of the executions to display, an execution already displayed by the last update reuses its model without formatting it again.
+	 *
+	 * @param listJobExecutionInfo list of failed and late jobs informations
+	 * @param maxItems number of menu items
+	 * @return models of the displayed executions without highlight, in the same order
+	 */
+	final List<JobMenuItemModel> buildMenuItemModels(final List<JobExecutionInfo> listJobExecutionInfo, final int maxItems) {
+
+		final int displayedItems = Math.min(listJobExecutionInfo.size(), maxItems);
+		final List<JobMenuItemModel> models = new ArrayList<>(displayedItems);
+		final Map<String, JobMenuItemModel> newMenuItemModels = new HashMap<>();
+
+		for (int i = 0; i < displayedItems; i++) {
+
+			final JobExecutionInfo jobExecutionInfo = listJobExecutionInfo.get(i);
+			final String key = menuItemModelKey(jobExecutionInfo);
+
+			final JobMenuItemModel model = getMenuItemModel(jobExecutionInfo, key);
+			newMenuItemModels.put(key, model);
+			models.add(model);
+		}
+
+		// Executions no longer displayed are forgotten
+		menuItemModels = newMenuItemModels;
+
+		return models;
+	}
+
+	/**
+	 * Get the model of an execution, formatted only if it is not already displayed or alerted.
+	 *
+	 * @param jobExecutionInfo execution to display
+	 * @param key key of the execution
+	 * @return model of the execution without highlight
+	 */
+	private JobMenuItemModel getMenuItemModel(final JobExecutionInfo jobExecutionInfo, final String key) {
+
+		JobMenuItemModel model = menuItemModels.get(key);
+		if (null == model) {
+			model = buildMenuItemModel(jobExecutionInfo);
+			menuItemModels.put(key, model);
+		}
+
+		return model;
+	}
+
+	/**
+	 * Build the key of an execution in the model cache.
+	 *
+	 * @param jobExecutionInfo execution to display
+	 * @return key unique by server, execution and long execution flag
+	 */
+	private static String menuItemModelKey(final JobExecutionInfo jobExecutionInfo) {
+		return jobExecutionInfo.getRundeckUrl() + '/' + jobExecutionInfo.getExecutionId() + '/' + jobExecutionInfo.isLongExecution();
+	}
+
+	/**
+	 * Format the label, alert message and tooltip of an execution.
+	 *
+	 * @param jobExecutionInfo displayed execution
+	 * @return model of the execution without highlight
+	 */
+	private JobMenuItemModel buildMenuItemModel(final JobExecutionInfo jobExecutionInfo) {
+
+		final String message = dateFormatter.format(jobExecutionInfo.getStartedAtTime()) + ": " + originPrefix(jobExecutionInfo) + jobExecutionInfo.getDescription(); //$NON-NLS-1$
+
+		final String text;
+		final JobTabRedirection jobTabRedirection;
+		if (jobExecutionInfo.isLongExecution()) {
+			text = message + LONG_EXECUTION_MARKER;
+			jobTabRedirection = JobTabRedirection.SUMMARY;
+		}
+		else {
+			text = message;
+			jobTabRedirection = JobTabRedirection.valueOf(rundeckMonitorConfiguration.getJobTabRedirection());
+		}
+
+		final String toolTipText = "Open " + jobExecutionInfo.getRundeckUrl() + RUNDECK_JOB_EXECUTION_URL + jobTabRedirection.getAccessUrlPrefix() + '/' + jobExecutionInfo.getExecutionId() + jobTabRedirection.getAccessUrlSuffix(); //$NON-NLS-1$
+
+		return new JobMenuItemModel(text, message, toolTipText, JobMenuItemModel.Highlight.NONE);
+	}
+
+	/**
+	 * Get the highlight of a displayed execution.
+	 *
+	 * @param jobExecutionInfo displayed execution
+	 * @return highlight of the execution menu item
+	 */
+	final JobMenuItemModel.Highlight getHighlight(final JobExecutionInfo jobExecutionInfo) {
+
+		if (isNewFailedExecution(jobExecutionInfo)) {
+			return JobMenuItemModel.Highlight.NEW_FAILED;
+		}
+		if (isNewLateExecution(jobExecutionInfo)) {
+			return JobMenuItemModel.Highlight.NEW_LATE;
+		}
+
+		return JobMenuItemModel.Highlight.NONE;
+	}
+
+	/**
+	 * Mark an execution as new until the next alert reset.
+	 *
+	 * @param jobExecutionInfo new failed or late execution
+	 */
+	final void addNewExecution(final JobExecutionInfo jobExecutionInfo) {
+
+		final Map<String, BoundedExecutionIdSet> newProcess;
+		if (jobExecutionInfo.isLongExecution()) {
+			newProcess = newLateProcess;
+		}
+		else {
+			newProcess = newFailedProcess;
+		}
+
+		BoundedExecutionIdSet serverNewProcess = newProcess.get(jobExecutionInfo.getRundeckUrl());
+		if (null == serverNewProcess) {
+			serverNewProcess = new BoundedExecutionIdSet(rundeckMonitorConfiguration.getFailedJobNumber() + rundeckMonitorConfiguration.getKnownExecutionRetention());
+			newProcess.put(jobExecutionInfo.getRundeckUrl(), serverNewProcess);
+		}
+		serverNewProcess.add(jobExecutionInfo.getExecutionId().longValue());
+	}
+
+	/**
+	 * Check if a failed execution is new since the last alert reset.
+	 *
+	 * @param jobExecutionInfo displayed execution
+	 * @return true if it is a new failed execution
+	 */
+	final boolean isNewFailedExecution(final JobExecutionInfo jobExecutionInfo) {
+
+		final BoundedExecutionIdSet serverNewProcess = newFailedProcess.get(jobExecutionInfo.getRundeckUrl());
+		return null != serverNewProcess && serverNewProcess.contains(jobExecutionInfo.getExecutionId().longValue());
+	}
+
+	/**
+	 * Check if a late execution is new since the last alert reset.
+	 *
+	 * @param jobExecutionInfo displayed execution
+	 * @return true if it is a new late execution
+	 */
+	final boolean isNewLateExecution(final JobExecutionInfo jobExecutionInfo) {
+
+		final BoundedExecutionIdSet serverNewProcess = newLateProcess.get(jobExecutionInfo.getRundeckUrl());
+		return null != serverNewProcess && serverNewProcess.contains(jobExecutionInfo.getExecutionId().longValue());
+	}
+
+	/**
+	 * Forget all new executions of all servers.
+	 */
+	final void clearNewExecutions() {
+
+		newLateProcess.clear();
+		newFailedProcess.clear();
+	}
+
+	/**
+	 * Open a job execution: preview the end of its output, or open it in the default browser if the preview is disabled.
+	 *
+	 * @param jobExecutionInfo the job execution to open
+	 */
+	final void openExecution(final JobExecutionInfo jobExecutionInfo) {
+
+		if (0 == rundeckMonitorConfiguration.getOutputTailSize()) {
+			openBrowser(jobExecutionInfo);
+		}
+		else if (null != executionOutputDialog && executionOutputDialog.isDisplayed() && executionOutputDialog.isDisplaying(jobExecutionInfo)) {
+			executionOutputDialog.toFront();
+		}
+		else {
+			executionOutputDialog = new ExecutionOutputDialog(this, executionOutputSource, jobExecutionInfo, rundeckMonitorConfiguration.getOutputTailSize());
+		}
+	}
+
 	/**
 	 * Open a browser page using the default browser to a job execution.
 	 *
@@ -292,7 +740,7 @@ public abstract class RundeckMonitorTrayIcon {
 		}
 
 		try {
-			final String uRI = rundeckMonitorConfiguration.getRundeckUrl() + RUNDECK_JOB_EXECUTION_URL + jobTabRedirection.getAccessUrlPrefix() + '/' + jobExecutionInfo.getExecutionId() + jobTabRedirection.getAccessUrlSuffix();
+			final String uRI = jobExecutionInfo.getRundeckUrl() + RUNDECK_JOB_EXECUTION_URL + jobTabRedirection.getAccessUrlPrefix() + '/' + jobExecutionInfo.getExecutionId() + jobTabRedirection.getAccessUrlSuffix();
 			LOG.info("Open execution with URL: {}", uRI); //$NON-NLS-1$
 			final URI executionURI = new URI(uRI);
 			desktop.browse(executionURI);
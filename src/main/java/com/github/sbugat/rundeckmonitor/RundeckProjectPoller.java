@@ -0,0 +1,276 @@
+package com.github.sbugat.rundeckmonitor;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.rundeck.api.RundeckApiException;
+import org.rundeck.api.domain.RundeckExecution;
+import org.slf4j.ext.XLogger;
+import org.slf4j.ext.XLoggerFactory;
+
+import com.github.sbugat.rundeckmonitor.tools.RundeckHttpTransport;
+
+/**
+ * Poll the failed and running executions of one Rundeck project.
+ *
+ * Calls are submitted to an executor shared by all the monitored projects, a call still pending since the previous refresh is awaited again instead of being duplicated. The job list is only loaded when the job definitions of the project need a reload, a refresh never waits for it. The completed executions are only downloaded to confirm the status of executions no longer running.
+ *
+ * @author Sylvain Bugat
+ *
+ */
+public final class RundeckProjectPoller {
+
+	/** SLF4J XLogger. */
+	private static final XLogger LOG = XLoggerFactory.getXLogger(RundeckProjectPoller.class);
+
+	/** Maximum number of completed executions downloaded to confirm the status of the executions no longer running. */
+	private static final int MAX_COMPLETED_EXECUTIONS = 200;
+
+	/** Name of the polled Rundeck project. */
+	private final String project;
+
+	/** Last failed executions of the project, incrementally updated. */
+	private final FailedExecutionsTracker failedExecutionsTracker;
+
+	/** Pending or last call getting the failed executions. */
+	private Future<List<RundeckExecution>> failedExecutionsCall;
+
+	/** Pending or last call getting the running executions. */
+	private Future<List<RundeckExecution>> runningExecutionsCall;
+
+	/** Pending or last call getting the completed executions, null if no execution status needs to be confirmed. */
+	private Future<List<RundeckExecution>> completedExecutionsCall;
+
+	/** Pending or last call loading the job list into the job definitions. */
+	private Future<?> jobListCall;
+
+	/** Last running executions successfully downloaded. */
+	private List<RundeckExecution> lastRunningExecutions = Collections.emptyList();
+
+	/**
+	 * Initialize a poller without any known execution.
+	 *
+	 * @param projectArg Rundeck project to poll
+	 * @param maximumExecutionsArg number of failed executions to keep
+	 * @param incrementalArg true to only download failed executions newer than the last seen one
+	 * @param previousCompletionDate high-water mark of the failed executions of a previous run, null if none
+	 */
+	public RundeckProjectPoller(final String projectArg, final int maximumExecutionsArg, final boolean incrementalArg, final Date previousCompletionDate) {
+
+		project = projectArg;
+		failedExecutionsTracker = new FailedExecutionsTracker(projectArg, maximumExecutionsArg, incrementalArg, previousCompletionDate);
+	}
+
+	/**
+	 * Submit the failed and running executions calls if they are not still pending, the completed executions call if executions are no longer running and the job list call if the job definitions of the project need a reload.
+	 *
+	 * @param executor executor shared by all projects
+	 * @param rundeckHttpTransport transport of the Rundeck calls
+	 * @param jobDefinitionCache job definitions of the server
+	 * @param completedSince minimum completion date of the executions no longer running, null if there is none
+	 */
+	public void submitCalls(final ExecutorService executor, final RundeckHttpTransport rundeckHttpTransport, final JobDefinitionCache jobDefinitionCache, final Date completedSince) {
+
+		if (null == failedExecutionsCall || failedExecutionsCall.isDone()) {
+			failedExecutionsCall = executor.submit(new Callable<List<RundeckExecution>>() {
+
+				@Override
+				@SuppressWarnings("synthetic-access")
+				public List<RundeckExecution> call() {
+					// Only new failed executions are downloaded in incremental mode
+					return tagProject(failedExecutionsTracker.update(rundeckHttpTransport));
+				}
+			});
+		}
+
+		if (null == runningExecutionsCall || runningExecutionsCall.isDone()) {
+			runningExecutionsCall = executor.submit(new Callable<List<RundeckExecution>>() {
+
+				@Override
+				@SuppressWarnings("synthetic-access")
+				public List<RundeckExecution> call() {
+					return tagProject(rundeckHttpTransport.getRunningExecutions(project));
+				}
+			});
+		}
+
+		if (null == completedExecutionsCall || completedExecutionsCall.isDone()) {
+
+			if (null == completedSince) {
+				completedExecutionsCall = null;
+			}
+			else {
+				completedExecutionsCall = executor.submit(new Callable<List<RundeckExecution>>() {
+
+					@Override
+					@SuppressWarnings("synthetic-access")
+					public List<RundeckExecution> call() {
+						return tagProject(rundeckHttpTransport.getCompletedExecutions(project, completedSince, MAX_COMPLETED_EXECUTIONS));
+					}
+				});
+			}
+		}
+
+		if ((null == jobListCall || jobListCall.isDone()) && jobDefinitionCache.isReloadNeeded(project, System.nanoTime())) {
+			jobListCall = executor.submit(new Runnable() {
+
+				@Override
+				@SuppressWarnings("synthetic-access")
+				public void run() {
+					loadJobDefinitions(rundeckHttpTransport, jobDefinitionCache);
+				}
+			});
+		}
+	}
+
+	/**
+	 * Wait for the failed executions call until the deadline.
+	 *
+	 * @param deadline deadline of the call (System.nanoTime() based)
+	 * @return last failed executions, newest first
+	 * @throws RundeckApiException if the call failed, was interrupted or is still pending at the deadline
+	 */
+	public List<RundeckExecution> awaitFailedExecutions(final long deadline) {
+
+		return awaitRundeckCall(failedExecutionsCall, deadline);
+	}
+
+	/**
+	 * Wait for the running executions call until the deadline.
+	 *
+	 * @param deadline deadline of the call (System.nanoTime() based)
+	 * @return running executions
+	 * @throws RundeckApiException if the call failed, was interrupted or is still pending at the deadline
+	 */
+	public List<RundeckExecution> awaitRunningExecutions(final long deadline) {
+
+		lastRunningExecutions = awaitRundeckCall(runningExecutionsCall, deadline);
+		return lastRunningExecutions;
+	}
+
+	/**
+	 * Wait for the completed executions call until the deadline.
+	 *
+	 * @param deadline deadline of the call (System.nanoTime() based)
+	 * @return last completed executions with their status, empty if no execution status needs to be confirmed
+	 * @throws RundeckApiException if the call failed, was interrupted or is still pending at the deadline
+	 */
+	public List<RundeckExecution> awaitCompletedExecutions(final long deadline) {
+
+		if (null == completedExecutionsCall) {
+			return Collections.emptyList();
+		}
+
+		return awaitRundeckCall(completedExecutionsCall, deadline);
+	}
+
+	/**
+	 * Return the failed executions downloaded by the last successful call.
+	 *
+	 * @return last failed executions, newest first
+	 */
+	public List<RundeckExecution> getFailedExecutions() {
+		return failedExecutionsTracker.getFailedExecutions();
+	}
+
+	/**
+	 * Return the high-water mark of the failed executions updated by the last successful call.
+	 *
+	 * @return completion date of the newest failed execution seen, null before the first call
+	 */
+	public Date getLastCompletionDate() {
+		return failedExecutionsTracker.getLastCompletionDate();
+	}
+
+	/**
+	 * Return the running executions downloaded by the last successful call.
+	 *
+	 * @return last running executions
+	 */
+	public List<RundeckExecution> getRunningExecutions() {
+		return lastRunningExecutions;
+	}
+
+	/**
+	 * Return the name of the polled project.
+	 *
+	 * @return Rundeck project name
+	 */
+	public String getProject() {
+		return project;
+	}
+
+	/**
+	 * Load the job list of the project into the job definitions, the current definitions are kept if the call fails.
+	 *
+	 * @param rundeckHttpTransport transport of the Rundeck calls
+	 * @param jobDefinitionCache job definitions of the server
+	 */
+	private void loadJobDefinitions(final RundeckHttpTransport rundeckHttpTransport, final JobDefinitionCache jobDefinitionCache) {
+
+		final long loadTime = System.nanoTime();
+		try {
+			jobDefinitionCache.update(project, rundeckHttpTransport.getJobs(project), loadTime);
+		}
+		catch (final RuntimeException e) {
+			LOG.warn("Job list call error on project {}", project, e); //$NON-NLS-1$
+			jobDefinitionCache.loadFailed(project, loadTime);
+		}
+	}
+
+	/**
+	 * Set the project of executions returned without it by old API versions.
+	 *
+	 * @param rundeckExecutions downloaded executions
+	 * @return the same executions
+	 */
+	private List<RundeckExecution> tagProject(final List<RundeckExecution> rundeckExecutions) {
+
+		for (final RundeckExecution rundeckExecution : rundeckExecutions) {
+
+			if (null == rundeckExecution.getProject()) {
+				rundeckExecution.setProject(project);
+			}
+		}
+
+		return rundeckExecutions;
+	}
+
+	/**
+	 * Wait for the result of a Rundeck call until the deadline.
+	 *
+	 * @param rundeckCall pending Rundeck call
+	 * @param deadline deadline of the call (System.nanoTime() based)
+	 * @return result of the call
+	 * @throws RundeckApiException if the call failed, was interrupted or is still pending at the deadline
+	 */
+	private static List<RundeckExecution> awaitRundeckCall(final Future<List<RundeckExecution>> rundeckCall, final long deadline) {
+
+		try {
+			return rundeckCall.get(Math.max(0L, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+		}
+		catch (final TimeoutException e) {
+			throw new RundeckApiException("Rundeck call deadline exceeded", e); //$NON-NLS-1$
+		}
+		catch (final ExecutionException e) {
+
+			// Rethrow the Rundeck client exception to keep its type
+			if (RuntimeException.class.isInstance(e.getCause())) {
+				throw (RuntimeException) e.getCause();
+			}
+			throw new RundeckApiException("Rundeck call error", e.getCause()); //$NON-NLS-1$
+		}
+		catch (final InterruptedException e) {
+
+			Thread.currentThread().interrupt();
+			throw new RundeckApiException("Rundeck call interrupted", e); //$NON-NLS-1$
+		}
+	}
+}
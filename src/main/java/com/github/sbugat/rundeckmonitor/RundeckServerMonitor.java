@@ -0,0 +1,936 @@
+package com.github.sbugat.rundeckmonitor;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.rundeck.api.RundeckApiException;
+import org.rundeck.api.domain.RundeckExecution;
+import org.rundeck.api.domain.RundeckExecution.ExecutionStatus;
+import org.rundeck.api.domain.RundeckJob;
+import org.rundeck.api.domain.RundeckOutput;
+import org.rundeck.api.domain.RundeckProject;
+import org.rundeck.api.domain.RundeckSystemInfo;
+import org.slf4j.ext.XLogger;
+import org.slf4j.ext.XLoggerFactory;
+
+import com.github.sbugat.rundeckmonitor.configuration.RundeckMonitorConfiguration;
+import com.github.sbugat.rundeckmonitor.configuration.UnknownProjectException;
+import com.github.sbugat.rundeckmonitor.history.ExecutionHistoryStore;
+import com.github.sbugat.rundeckmonitor.history.HistoryRecord;
+import com.github.sbugat.rundeckmonitor.history.HistoryRecordType;
+import com.github.sbugat.rundeckmonitor.statistics.JobDurationEstimator;
+import com.github.sbugat.rundeckmonitor.statistics.JobStatisticsEngine;
+import com.github.sbugat.rundeckmonitor.tools.ClockSkewEstimator;
+import com.github.sbugat.rundeckmonitor.tools.InvalidRundeckVersion;
+import com.github.sbugat.rundeckmonitor.tools.RundeckClientTools;
+import com.github.sbugat.rundeckmonitor.tools.RundeckHandshake;
+import com.github.sbugat.rundeckmonitor.tools.RundeckHandshakeCache;
+import com.github.sbugat.rundeckmonitor.tools.RundeckHttpTransport;
+
+/**
+ * Monitor of one RunDeck server: its own client, API version, time-zone delta and project pollers.
+ *
+ * Each refresh computes the late and failed executions of the server, they are displayed by the {@link RundeckMonitor} with the executions of the other servers.
+ *
+ * @author Sylvain Bugat
+ *
+ */
+public final class RundeckServerMonitor {
+
+	/** SLF4J XLogger. */
+	private static final XLogger LOG = XLoggerFactory.getXLogger(RundeckServerMonitor.class);
+
+	/** One second in mille-seconds. */
+	private static final long ONE_SECOND = 1_000L;
+
+	/** API version of the first handshake call, supported by all Rundeck versions. */
+	private static final int MINIMAL_API_VERSION = 1;
+
+	/** Margin of the minimum completion date of the executions no longer running in mille-seconds, covers the clock difference estimation error. */
+	private static final long COMPLETION_DATE_MARGIN = 60_000L;
+
+	/** Configuration of this server. */
+	private final RundeckMonitorConfiguration serverConfiguration;
+
+	/** Flag to tag the executions with the server name. */
+	private final boolean multipleServers;
+
+	/** Transport of the Rundeck calls of this server, null until connected. */
+	private volatile RundeckHttpTransport rundeckHttpTransport;
+
+	/** Clock difference between local machine and this server to correctly detect late execution, updated by each response. */
+	private final ClockSkewEstimator clockSkewEstimator;
+
+	/** Definitions of the jobs of this server, to display the executions with their job group. */
+	private final JobDefinitionCache jobDefinitionCache;
+
+	/** Pollers of the monitored projects of this server. */
+	private volatile List<RundeckProjectPoller> projectPollers = Collections.emptyList();
+
+	/** Set for the last known late execution identifiers. */
+	private final BoundedExecutionIdSet knownLateExecutionIds;
+	/** Set for the last known failed execution identifiers. */
+	private final BoundedExecutionIdSet knownFailedExecutionIds;
+
+	/** Journal of the known executions, kept across restarts. */
+	private final ExecutionJournal executionJournal;
+
+	/** Local history of the executions, shared by all servers. */
+	private final ExecutionHistoryStore executionHistoryStore;
+
+	/** Statistics of the jobs, shared by all servers. */
+	private final JobStatisticsEngine jobStatisticsEngine;
+
+	/** Late thresholds of the jobs learned from their durations, shared by all servers. */
+	private final JobDurationEstimator jobDurationEstimator;
+
+	/** Executions running at the last complete refresh by identifier. */
+	private Map<Long, RundeckExecution> lastRunningExecutions = Collections.emptyMap();
+
+	/** Server time of the last complete refresh. */
+	private long lastRunningTime;
+
+	/** Executions no longer running at the last complete refresh, their status is confirmed by the next refresh. */
+	private List<CompletedExecution> completedExecutions = Collections.emptyList();
+
+	/** Flag indicating if the known executions come from a previous run or configuration, the first refresh then alerts on unseen failed executions. */
+	private final boolean resumed;
+
+	/** Flag indicating if the known executions and the journal are used by the monitor of a reloaded configuration, guarded by this monitor. */
+	private boolean stateTransferred;
+
+	/** Flag indicating if this server monitor is closed, guarded by this monitor. */
+	private boolean closed;
+
+	/** Flag indicating if the failed executions trackers of the next connection get the high-water marks of the journal, only after a restart. */
+	private boolean highWaterMarksReplayed;
+
+	/** Flag indicating if the first refresh is done, the first refresh does not alert on already failed executions. */
+	private boolean initialized;
+
+	/** State of this server, the failed jobs flag indicates new failed executions found by the last refresh. */
+	private volatile RundeckMonitorState serverState = RundeckMonitorState.INITIAL.withDisconnected(true);
+
+	/** Late executions found by the last refresh, not displayed yet. */
+	private List<JobExecutionInfo> refreshedLateExecutions;
+
+	/** Failed executions found by the last refresh, not displayed yet. */
+	private List<JobExecutionInfo> refreshedFailedExecutions;
+
+	/** Displayed late executions of this server. */
+	private List<JobExecutionInfo> lateExecutions = Collections.emptyList();
+
+	/** Displayed failed executions of this server. */
+	private List<JobExecutionInfo> failedExecutions = Collections.emptyList();
+
+	/** Delay before the next refresh of this server. */
+	private final AdaptiveRefreshDelay adaptiveRefreshDelay;
+
+	/**
+	 * Initialize a disconnected server monitor.
+	 *
+	 * @param serverConfigurationArg configuration of the server
+	 * @param multipleServersArg true if several servers are monitored
+	 * @param previousServerMonitor monitor of the same server before the configuration reload to keep its known executions if the URL is the same, can be null
+	 * @param executionHistoryStoreArg local history recording the new failed, succeeded and late executions
+	 * @param jobStatisticsEngineArg statistics of the jobs updated with the new failed and succeeded executions
+	 * @param jobDurationEstimatorArg late thresholds of the jobs learned from the succeeded executions
+	 */
+	public RundeckServerMonitor(final RundeckMonitorConfiguration serverConfigurationArg, final boolean multipleServersArg, final RundeckServerMonitor previousServerMonitor, final ExecutionHistoryStore executionHistoryStoreArg, final JobStatisticsEngine jobStatisticsEngineArg, final JobDurationEstimator jobDurationEstimatorArg) {
+
+		serverConfiguration = serverConfigurationArg;
+		multipleServers = multipleServersArg;
+		executionHistoryStore = executionHistoryStoreArg;
+		jobStatisticsEngine = jobStatisticsEngineArg;
+		jobDurationEstimator = jobDurationEstimatorArg;
+
+		final int knownExecutionsCapacity = serverConfiguration.getFailedJobNumber() + serverConfiguration.getKnownExecutionRetention();
+		if (null == previousServerMonitor || !previousServerMonitor.serverConfiguration.getRundeckUrl().equals(serverConfiguration.getRundeckUrl())) {
+
+			// Known executions of a previous run are replayed from the journal of the server
+			knownLateExecutionIds = new BoundedExecutionIdSet(knownExecutionsCapacity);
+			knownFailedExecutionIds = new BoundedExecutionIdSet(knownExecutionsCapacity);
+			executionJournal = new ExecutionJournal(serverConfiguration, knownFailedExecutionIds, knownLateExecutionIds);
+			resumed = executionJournal.isResumed();
+			highWaterMarksReplayed = resumed;
+			clockSkewEstimator = new ClockSkewEstimator();
+			jobDefinitionCache = new JobDefinitionCache(serverConfiguration.getJobCacheTimeToLive());
+		}
+		else {
+			// Hand over the state after the in-flight refresh of the previous monitor, it does not refresh anymore
+			synchronized (previousServerMonitor) {
+
+				// Keep the known executions within the new visible window and retention
+				knownLateExecutionIds = previousServerMonitor.knownLateExecutionIds;
+				knownFailedExecutionIds = previousServerMonitor.knownFailedExecutionIds;
+				knownLateExecutionIds.resize(knownExecutionsCapacity);
+				knownFailedExecutionIds.resize(knownExecutionsCapacity);
+				executionJournal = previousServerMonitor.executionJournal;
+				resumed = true;
+				clockSkewEstimator = previousServerMonitor.clockSkewEstimator;
+				jobDefinitionCache = previousServerMonitor.jobDefinitionCache;
+				jobDefinitionCache.setTimeToLive(serverConfiguration.getJobCacheTimeToLive());
+				lastRunningExecutions = previousServerMonitor.lastRunningExecutions;
+				lastRunningTime = previousServerMonitor.lastRunningTime;
+				completedExecutions = previousServerMonitor.completedExecutions;
+				previousServerMonitor.stateTransferred = true;
+			}
+		}
+
+		adaptiveRefreshDelay = new AdaptiveRefreshDelay(serverConfiguration);
+	}
+
+	/**
+	 * Initialize a new transport with the maximum supported API version and check the configured projects.
+	 *
+	 * The API version and the projects of a previous connection with the same server settings are reused, the connection is then checked with only one call. All the handshake calls use the transport timeouts.
+	 *
+	 * @throws UnknownProjectException if a configured project is unknown
+	 * @throws InvalidRundeckVersion if the Rundeck version is not supported
+	 */
+	public void connect() throws UnknownProjectException, InvalidRundeckVersion {
+
+		LOG.entry();
+
+		final RundeckHandshake cachedHandshake = RundeckHandshakeCache.get(serverConfiguration);
+		RundeckHttpTransport newRundeckHttpTransport = null;
+		boolean connected = false;
+
+		try {
+			int rundeckAPIVersion = 0;
+			String rundeckVersion = null;
+			Set<String> existingProjects = null;
+			RundeckSystemInfo systemInfo = null;
+			long systemInfoRequestTime = 0;
+			long systemInfoResponseTime = 0;
+
+			// Same server settings as a previous connection: reuse the negotiated API version, one call checks the connection, the authentication and the Rundeck version
+			if (null != cachedHandshake) {
+
+				newRundeckHttpTransport = new RundeckHttpTransport(serverConfiguration, cachedHandshake.getRundeckAPIVersion(), clockSkewEstimator);
+				try {
+					systemInfoRequestTime = System.currentTimeMillis();
+					systemInfo = newRundeckHttpTransport.getSystemInfo();
+					systemInfoResponseTime = System.currentTimeMillis();
+				}
+				catch (final RuntimeException e) {
+
+					RundeckHandshakeCache.invalidate(serverConfiguration);
+					throw e;
+				}
+
+				rundeckVersion = systemInfo.getVersion();
+				if (cachedHandshake.getRundeckVersion().equals(rundeckVersion)) {
+
+					rundeckAPIVersion = cachedHandshake.getRundeckAPIVersion();
+					existingProjects = cachedHandshake.getExistingProjects();
+				}
+				else {
+
+					LOG.info("Rundeck version of {} changed from {} to {}, negotiate the API version again", serverConfiguration.getRundeckUrl(), cachedHandshake.getRundeckVersion(), rundeckVersion); //$NON-NLS-1$
+					RundeckHandshakeCache.invalidate(serverConfiguration);
+					newRundeckHttpTransport.close();
+					newRundeckHttpTransport = null;
+				}
+			}
+
+			// Full handshake: test the connection with API version 1 and negotiate the API version
+			if (null == newRundeckHttpTransport) {
+
+				try (final RundeckHttpTransport minimalRundeckHttpTransport = new RundeckHttpTransport(serverConfiguration, MINIMAL_API_VERSION, clockSkewEstimator)) {
+
+					systemInfoRequestTime = System.currentTimeMillis();
+					systemInfo = minimalRundeckHttpTransport.getSystemInfo();
+					systemInfoResponseTime = System.currentTimeMillis();
+				}
+				rundeckVersion = systemInfo.getVersion();
+				rundeckAPIVersion = RundeckClientTools.negotiateRundeckAPIVersion(rundeckVersion, serverConfiguration);
+				newRundeckHttpTransport = new RundeckHttpTransport(serverConfiguration, rundeckAPIVersion, clockSkewEstimator);
+			}
+
+			// List the projects only if a configured project is not known yet
+			if (null == existingProjects || !existingProjects.containsAll(serverConfiguration.getRundeckProjects())) {
+
+				existingProjects = new HashSet<>();
+				for (final RundeckProject rundeckProject : newRundeckHttpTransport.getProjects()) {
+					existingProjects.add(rundeckProject.getName());
+				}
+			}
+			RundeckHandshakeCache.put(serverConfiguration, new RundeckHandshake(rundeckVersion, rundeckAPIVersion, existingProjects));
+			LOG.info("Connection and authentication OK using API version {} to Rundeck version:{}", rundeckAPIVersion, rundeckVersion); //$NON-NLS-1$
+
+			// Check if all the configured projects exist
+			for (final String projectName : serverConfiguration.getRundeckProjects()) {
+
+				if (!existingProjects.contains(projectName)) {
+
+					LOG.error("Error unknown project: {} on server {}", projectName, serverConfiguration.getRundeckUrl()); //$NON-NLS-1$
+					throw new UnknownProjectException(projectName);
+				}
+			}
+
+			// Time-zone delta between rundeck server and the computer where rundeck monitor is running, refined by the next responses
+			clockSkewEstimator.addSample(systemInfo.getDate().getTime(), systemInfoRequestTime, systemInfoResponseTime);
+			connected = true;
+		}
+		catch (final RuntimeException | UnknownProjectException | InvalidRundeckVersion e) {
+
+			LOG.exit(e);
+			throw e;
+		}
+		finally {
+
+			// Connections of a failed handshake are not kept
+			if (!connected && null != newRundeckHttpTransport) {
+				newRundeckHttpTransport.close();
+			}
+		}
+
+		// Start the executions tracking of each project with a full download, the high-water marks of the previous run after a restart are the minimum start of the next incremental downloads
+		final List<RundeckProjectPoller> newProjectPollers = new ArrayList<>();
+		for (final String projectName : serverConfiguration.getRundeckProjects()) {
+
+			Date previousCompletionDate = null;
+			if (highWaterMarksReplayed) {
+				previousCompletionDate = executionJournal.getProjectHighWaterMark(projectName);
+			}
+			newProjectPollers.add(new RundeckProjectPoller(projectName, serverConfiguration.getFailedJobNumber(), serverConfiguration.isIncrementalPollingEnabled(), previousCompletionDate));
+		}
+		projectPollers = newProjectPollers;
+		highWaterMarksReplayed = false;
+
+		// Refresh calls use the kept alive connections of the handshake
+		if (null != rundeckHttpTransport) {
+			rundeckHttpTransport.close();
+		}
+		rundeckHttpTransport = newRundeckHttpTransport;
+		initialized = false;
+
+		LOG.exit();
+	}
+
+	/**
+	 * Check if this server is connected, a disconnected server is connected by its next refresh.
+	 *
+	 * @return true if the transport of the Rundeck calls is initialized
+	 */
+	public boolean isConnected() {
+		return null != rundeckHttpTransport;
+	}
+
+	/**
+	 * Call Rundeck rest API of all projects of this server and compute its late and failed executions, the server is connected first if needed.
+	 *
+	 * Refreshes of a server monitor are serialized, a closed monitor or a monitor whose state is used by a reloaded configuration is not refreshed anymore.
+	 *
+	 * @param rundeckCallExecutor bounded executor shared by all servers and projects
+	 * @throws UnknownProjectException if a configured project is unknown
+	 * @throws InvalidRundeckVersion if the Rundeck version is not supported
+	 */
+	public synchronized void refresh(final ExecutorService rundeckCallExecutor) throws UnknownProjectException, InvalidRundeckVersion {
+
+		LOG.entry(rundeckCallExecutor);
+
+		// The known executions are no longer owned by this monitor
+		if (closed || stateTransferred) {
+			LOG.exit();
+			return;
+		}
+
+		try {
+			refreshExecutions(rundeckCallExecutor);
+		}
+		catch (final RuntimeException | UnknownProjectException | InvalidRundeckVersion e) {
+
+			serverState = serverState.withDisconnected(true).withFailedJobs(false);
+			adaptiveRefreshDelay.refreshFailed();
+			LOG.exit(e);
+			throw e;
+		}
+
+		LOG.exit();
+	}
+
+	/**
+	 * Call Rundeck rest API of all projects of this server and compute its late and failed executions.
+	 *
+	 * @param rundeckCallExecutor bounded executor shared by all servers and projects
+	 * @throws UnknownProjectException if a configured project is unknown
+	 * @throws InvalidRundeckVersion if the Rundeck version is not supported
+	 */
+	private void refreshExecutions(final ExecutorService rundeckCallExecutor) throws UnknownProjectException, InvalidRundeckVersion {
+
+		if (null == rundeckHttpTransport) {
+			connect();
+		}
+
+		final boolean init = !initialized;
+
+		// Call Rundeck rest API of all projects concurrently on the shared executor, the status of the executions no longer running is confirmed by one call per project
+		final RundeckHttpTransport transport = rundeckHttpTransport;
+		final Map<String, Date> completedSinceDates = getCompletedSinceDates();
+		for (final RundeckProjectPoller projectPoller : projectPollers) {
+			projectPoller.submitCalls(rundeckCallExecutor, transport, jobDefinitionCache, completedSinceDates.get(projectPoller.getProject()));
+		}
+
+		// All calls share the same deadline
+		final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(serverConfiguration.getCallDeadline());
+
+		RuntimeException callException = null;
+		boolean callSucceeded = false;
+		boolean failedJobsOutdated = false;
+		boolean lateJobsOutdated = false;
+
+		final List<RundeckExecution> lastFailedJobs = new ArrayList<>();
+		final List<RundeckExecution> currentExecutions = new ArrayList<>();
+		final Map<Long, RundeckExecution> completedStatuses = new HashMap<>();
+		final Set<String> unconfirmedProjects = new HashSet<>();
+
+		// Partial result: use the last known executions for the stale parts
+		for (final RundeckProjectPoller projectPoller : projectPollers) {
+
+			try {
+				lastFailedJobs.addAll(projectPoller.awaitFailedExecutions(deadline));
+				callSucceeded = true;
+
+				if (null != projectPoller.getLastCompletionDate()) {
+					executionJournal.updateProjectHighWaterMark(projectPoller.getProject(), projectPoller.getLastCompletionDate());
+				}
+			}
+			catch (final RuntimeException e) {
+				LOG.warn("Failed executions call error on project {}", projectPoller.getProject(), e); //$NON-NLS-1$
+				callException = e;
+				failedJobsOutdated = true;
+				lastFailedJobs.addAll(projectPoller.getFailedExecutions());
+			}
+
+			try {
+				currentExecutions.addAll(projectPoller.awaitRunningExecutions(deadline));
+				callSucceeded = true;
+			}
+			catch (final RuntimeException e) {
+				LOG.warn("Running executions call error on project {}", projectPoller.getProject(), e); //$NON-NLS-1$
+				callException = e;
+				lateJobsOutdated = true;
+				currentExecutions.addAll(projectPoller.getRunningExecutions());
+			}
+
+			// Executions without a confirmed status are not recorded as succeeded
+			try {
+				for (final RundeckExecution rundeckExecution : projectPoller.awaitCompletedExecutions(deadline)) {
+					completedStatuses.put(rundeckExecution.getId(), rundeckExecution);
+				}
+			}
+			catch (final RuntimeException e) {
+				LOG.warn("Completed executions call error on project {}", projectPoller.getProject(), e); //$NON-NLS-1$
+				unconfirmedProjects.add(projectPoller.getProject());
+			}
+		}
+
+		LOG.debug("Server {}: {} requests sent, {} connections opened, {} reused", getServerName(), transport.getRequestCount(), transport.getOpenedConnectionCount(), transport.getReusedConnectionCount()); //$NON-NLS-1$
+
+		// No result at all or incomplete initialization: the server is disconnected
+		if (null != callException && (!callSucceeded || init)) {
+			throw callException;
+		}
+
+		// Keep the newest failed executions of all projects
+		Collections.sort(lastFailedJobs, FailedExecutionsTracker.NEWEST_FIRST_COMPARATOR);
+		if (lastFailedJobs.size() > serverConfiguration.getFailedJobNumber()) {
+			lastFailedJobs.subList(serverConfiguration.getFailedJobNumber(), lastFailedJobs.size()).clear();
+		}
+
+		final Date currentTime = new Date();
+		final long dateDelta = clockSkewEstimator.getSkew();
+
+		final List<JobExecutionInfo> newLateExecutions = new ArrayList<>();
+		final long watermark = executionJournal.getWatermark();
+
+		// Scan runnings jobs to detect if they are late
+		for (final RundeckExecution rundeckExecution : currentExecutions) {
+
+			if (currentTime.getTime() - rundeckExecution.getStartedAt().getTime() + dateDelta > getLateThreshold(rundeckExecution)) {
+
+				final boolean newLongExecution = knownLateExecutionIds.add(rundeckExecution.getId().longValue());
+				if (newLongExecution) {
+					executionJournal.addLateExecution(rundeckExecution.getId().longValue());
+					executionHistoryStore.record(toHistoryRecord(HistoryRecordType.LATE, rundeckExecution.getStartedAt().getTime(), rundeckExecution));
+				}
+				newLateExecutions.add(new JobExecutionInfo(rundeckExecution.getId(), rundeckExecution.getStartedAt(), serverConfiguration.getRundeckUrl(), getDisplayedOrigin(rundeckExecution), getJobName(rundeckExecution), true, newLongExecution));
+			}
+		}
+
+		final List<JobExecutionInfo> newFailedExecutions = new ArrayList<>();
+		boolean newFailedJobFound = false;
+
+		// Add all lasts failed jobs to the list
+		for (final RundeckExecution rundeckExecution : lastFailedJobs) {
+
+			final boolean unknownFailedJob = knownFailedExecutionIds.add(rundeckExecution.getId().longValue());
+			final long completionTime = FailedExecutionsTracker.completionTime(rundeckExecution);
+			if (unknownFailedJob) {
+				executionJournal.addFailedExecution(rundeckExecution.getId().longValue());
+				executionHistoryStore.record(toHistoryRecord(HistoryRecordType.FAILED, completionTime, rundeckExecution));
+				jobStatisticsEngine.recordFailure(getJobKey(rundeckExecution), getJobName(rundeckExecution), completionTime);
+			}
+
+			// The first refresh only alerts on unseen executions completed since the last refresh of a previous run
+			final boolean newFailedJob = unknownFailedJob && (!init || resumed && completionTime >= watermark);
+			executionJournal.updateWatermark(completionTime);
+			newFailedJobFound |= newFailedJob;
+			newFailedExecutions.add(new JobExecutionInfo(rundeckExecution.getId(), rundeckExecution.getStartedAt(), serverConfiguration.getRundeckUrl(), getDisplayedOrigin(rundeckExecution), getJobName(rundeckExecution), false, newFailedJob));
+		}
+
+		// Completed executions are only detected with up to date failed and running executions
+		if (!failedJobsOutdated && !lateJobsOutdated) {
+			detectSucceededExecutions(currentExecutions, currentTime.getTime() + dateDelta, completedStatuses, unconfirmedProjects);
+		}
+
+		// Rundeck calls are OK
+		serverState = new RundeckMonitorState(newFailedJobFound, !newLateExecutions.isEmpty(), false, failedJobsOutdated, lateJobsOutdated, Collections.<String> emptyList(), Collections.<JobExecutionInfo> emptyList());
+
+		adaptiveRefreshDelay.refreshSucceeded(!currentExecutions.isEmpty() || newFailedJobFound);
+
+		refreshedLateExecutions = newLateExecutions;
+		refreshedFailedExecutions = newFailedExecutions;
+		initialized = true;
+
+		// Known executions of this refresh are written in one batch
+		executionJournal.flush();
+		executionHistoryStore.flush();
+	}
+
+	/**
+	 * Close the connections of this server, a pending refresh fails. The journal is also closed after the pending refresh if it is not used by the monitor of a reloaded configuration.
+	 */
+	public void close() {
+
+		if (null != rundeckHttpTransport) {
+			rundeckHttpTransport.close();
+		}
+
+		synchronized (this) {
+
+			closed = true;
+			if (!stateTransferred) {
+				executionJournal.close();
+			}
+		}
+	}
+
+	/**
+	 * Replace the displayed executions by the executions found by the last refresh if any.
+	 */
+	public void takeRefreshedExecutions() {
+
+		if (null != refreshedLateExecutions) {
+			lateExecutions = refreshedLateExecutions;
+			failedExecutions = refreshedFailedExecutions;
+			refreshedLateExecutions = null;
+			refreshedFailedExecutions = null;
+		}
+	}
+
+	/**
+	 * Mark the displayed executions as already known to not alert on them again when they are displayed with the executions of other servers.
+	 */
+	public void markExecutionsDisplayed() {
+
+		lateExecutions = toKnownJobs(lateExecutions);
+		failedExecutions = toKnownJobs(failedExecutions);
+	}
+
+	/**
+	 * Compute the delay before the next refresh of this server: backoff while unreachable, faster while late executions exist and slower when idle.
+	 *
+	 * @return delay in milliseconds
+	 */
+	public long getNextRefreshDelay() {
+		return adaptiveRefreshDelay.getNextDelay(serverState.isLateJobs());
+	}
+
+	/**
+	 * Return the displayed late executions of this server.
+	 *
+	 * @return late executions
+	 */
+	public List<JobExecutionInfo> getLateExecutions() {
+		return lateExecutions;
+	}
+
+	/**
+	 * Return the displayed failed executions of this server, newest first.
+	 *
+	 * @return failed executions
+	 */
+	public List<JobExecutionInfo> getFailedExecutions() {
+		return failedExecutions;
+	}
+
+	/**
+	 * Return the state of this server.
+	 *
+	 * @return state of the last refresh
+	 */
+	public RundeckMonitorState getServerState() {
+		return serverState;
+	}
+
+	/**
+	 * Get a failed executions source for each monitored project of this server.
+	 *
+	 * @return failed executions sources, empty if the server has never been connected
+	 */
+	public List<FailedExecutionsSource> getFailedExecutionsSources() {
+
+		final List<FailedExecutionsSource> failedExecutionsSources = new ArrayList<>();
+		for (final RundeckProjectPoller projectPoller : projectPollers) {
+
+			final String project = projectPoller.getProject();
+			failedExecutionsSources.add(new FailedExecutionsSource() {
+
+				@Override
+				@SuppressWarnings("synthetic-access")
+				public List<JobExecutionInfo> getFailedExecutions(final long offset, final int max) {
+					return getFailedExecutionsPage(project, offset, max);
+				}
+			});
+		}
+
+		return failedExecutionsSources;
+	}
+
+	/**
+	 * Call Rundeck rest API to get a page of failed executions of a project.
+	 *
+	 * @param project monitored project
+	 * @param offset number of failed executions to skip
+	 * @param max maximum number of failed executions to return
+	 * @return failed executions, newest first
+	 */
+	private List<JobExecutionInfo> getFailedExecutionsPage(final String project, final long offset, final int max) {
+
+		LOG.entry(project, offset, max);
+
+		final RundeckHttpTransport currentRundeckHttpTransport = rundeckHttpTransport;
+		if (null == currentRundeckHttpTransport) {
+			final RundeckApiException exception = new RundeckApiException("Rundeck server " + getServerName() + " is not connected"); //$NON-NLS-1$
+			LOG.exit(exception);
+			throw exception;
+		}
+
+		final List<RundeckExecution> page = currentRundeckHttpTransport.getFailedExecutions(project, null, max, Long.valueOf(offset)).getResults();
+		final List<JobExecutionInfo> failedExecutionsPage = new ArrayList<>(page.size());
+		for (final RundeckExecution rundeckExecution : page) {
+			failedExecutionsPage.add(new JobExecutionInfo(rundeckExecution.getId(), rundeckExecution.getStartedAt(), serverConfiguration.getRundeckUrl(), getDisplayedOrigin(rundeckExecution), getJobName(rundeckExecution), false, false));
+		}
+
+		LOG.exit(failedExecutionsPage.size());
+		return failedExecutionsPage;
+	}
+
+	/**
+	 * Call Rundeck rest API to get the output entries of an execution of this server from an offset of its log.
+	 *
+	 * @param executionId execution identifier
+	 * @param offset byte offset in the log of the first entry to get
+	 * @param maxLines maximum number of entries to get
+	 * @return output entries with the offset of the next entries
+	 */
+	public RundeckOutput getExecutionOutput(final long executionId, final long offset, final int maxLines) {
+
+		LOG.entry(executionId, offset, maxLines);
+
+		final RundeckHttpTransport currentRundeckHttpTransport = rundeckHttpTransport;
+		if (null == currentRundeckHttpTransport) {
+			final RundeckApiException exception = new RundeckApiException("Rundeck server " + getServerName() + " is not connected"); //$NON-NLS-1$
+			LOG.exit(exception);
+			throw exception;
+		}
+
+		final RundeckOutput rundeckOutput = currentRundeckHttpTransport.getExecutionOutput(executionId, offset, maxLines);
+		LOG.exit(rundeckOutput);
+		return rundeckOutput;
+	}
+
+	/**
+	 * Check if an execution belongs to this server.
+	 *
+	 * @param jobExecutionInfo displayed execution
+	 * @return true if the execution comes from the URL of this server
+	 */
+	public boolean isServerOf(final JobExecutionInfo jobExecutionInfo) {
+		return serverConfiguration.getRundeckUrl().equals(jobExecutionInfo.getRundeckUrl());
+	}
+
+	/**
+	 * Return the name of this server.
+	 *
+	 * @return server name or its URL if the server has no name
+	 */
+	public String getServerName() {
+		return getServerName(serverConfiguration);
+	}
+
+	/**
+	 * Return the name of a server.
+	 *
+	 * @param serverConfigurationArg configuration of the server
+	 * @return server name or its URL if the server has no name
+	 */
+	public static String getServerName(final RundeckMonitorConfiguration serverConfigurationArg) {
+
+		if (null == serverConfigurationArg.getServerName()) {
+			return serverConfigurationArg.getRundeckUrl();
+		}
+
+		return serverConfigurationArg.getServerName();
+	}
+
+	/**
+	 * Get the server and/or project to display with an execution.
+	 *
+	 * @param rundeckExecution execution to display
+	 * @return server and/or project of the execution or null if only one project of one server is monitored
+	 */
+	private String getDisplayedOrigin(final RundeckExecution rundeckExecution) {
+
+		if (multipleServers) {
+
+			if (projectPollers.size() > 1) {
+				return getServerName() + '/' + rundeckExecution.getProject();
+			}
+			return getServerName();
+		}
+
+		if (projectPollers.size() > 1) {
+			return rundeckExecution.getProject();
+		}
+
+		return null;
+	}
+
+	/**
+	 * Get the displayed name of the job of an execution, with the group of the job definition if it is loaded.
+	 *
+	 * @param rundeckExecution execution to display
+	 * @return job group and name or execution description for an ad-hoc execution
+	 */
+	private String getJobName(final RundeckExecution rundeckExecution) {
+
+		if (null != rundeckExecution.getJob()) {
+
+			final RundeckJob jobDefinition = jobDefinitionCache.getJobDefinition(rundeckExecution.getProject(), rundeckExecution.getJob().getId());
+			if (null != jobDefinition) {
+				return jobDefinition.getFullName();
+			}
+			return rundeckExecution.getJob().getFullName();
+		}
+
+		return rundeckExecution.getDescription();
+	}
+
+	/**
+	 * Get the minimum completion date of the executions no longer running of each project.
+	 *
+	 * @return minimum completion dates by project, projects without execution to confirm are absent
+	 */
+	private Map<String, Date> getCompletedSinceDates() {
+
+		final Map<String, Date> completedSinceDates = new HashMap<>();
+		for (final CompletedExecution completedExecution : completedExecutions) {
+
+			// The execution has completed after the last refresh seeing it running
+			final long completedSince = completedExecution.getLastRunningTime() - COMPLETION_DATE_MARGIN;
+			final Date projectCompletedSince = completedSinceDates.get(completedExecution.getRundeckExecution().getProject());
+			if (null == projectCompletedSince || completedSince < projectCompletedSince.getTime()) {
+				completedSinceDates.put(completedExecution.getRundeckExecution().getProject(), new Date(completedSince));
+			}
+		}
+
+		return completedSinceDates;
+	}
+
+	/**
+	 * Check if a completed execution has succeeded with a known duration.
+	 *
+	 * @param completedStatus completed execution downloaded with its status, null if not found
+	 * @return true if the execution has succeeded with start and end dates
+	 */
+	static boolean isConfirmedSuccess(final RundeckExecution completedStatus) {
+		return null != completedStatus && ExecutionStatus.SUCCEEDED == completedStatus.getStatus() && null != completedStatus.getStartedAt() && null != completedStatus.getEndedAt();
+	}
+
+	/**
+	 * Record the executions no longer running since the previous refresh and confirmed as succeeded, then keep the executions no longer running at this refresh for the next one.
+	 *
+	 * Executions starting and completing between 2 refreshes are not observed. An execution no longer running is only checked by the next refresh: the failed executions call of this refresh can be done just before its failure. Only the executions whose succeeded status and end date are confirmed by the completed executions call are recorded with their end date, the executions of a project whose call failed are checked again by the next refresh.
+	 *
+	 * @param currentExecutions executions running at this refresh
+	 * @param serverTime current time of the server
+	 * @param completedStatuses executions completed since the previous refresh with their status by identifier
+	 * @param unconfirmedProjects projects whose completed executions call failed
+	 */
+	private void detectSucceededExecutions(final List<RundeckExecution> currentExecutions, final long serverTime, final Map<Long, RundeckExecution> completedStatuses, final Set<String> unconfirmedProjects) {
+
+		final List<CompletedExecution> newCompletedExecutions = new ArrayList<>();
+		for (final CompletedExecution completedExecution : completedExecutions) {
+
+			final RundeckExecution rundeckExecution = completedExecution.getRundeckExecution();
+			final RundeckExecution completedStatus = completedStatuses.get(rundeckExecution.getId());
+			if (isConfirmedSuccess(completedStatus)) {
+
+				final long completionTime = completedStatus.getEndedAt().getTime();
+				executionHistoryStore.record(toHistoryRecord(HistoryRecordType.SUCCEEDED, completionTime, rundeckExecution));
+				jobStatisticsEngine.recordSuccess(getJobKey(rundeckExecution), getJobName(rundeckExecution), completionTime);
+
+				// Ad-hoc executions have no comparable durations
+				if (null != rundeckExecution.getJob()) {
+					jobDurationEstimator.recordDuration(rundeckExecution.getJob().getId(), completionTime - completedStatus.getStartedAt().getTime());
+				}
+			}
+			else if (null == completedStatus) {
+
+				// The completed executions call of its project failed: check it again at the next refresh
+				if (unconfirmedProjects.contains(rundeckExecution.getProject())) {
+					newCompletedExecutions.add(completedExecution);
+				}
+				else {
+					LOG.debug("Status of the completed execution {} not found, it is not recorded", rundeckExecution.getId()); //$NON-NLS-1$
+				}
+			}
+		}
+
+		final Map<Long, RundeckExecution> runningExecutions = new HashMap<>();
+		for (final RundeckExecution rundeckExecution : currentExecutions) {
+			runningExecutions.put(rundeckExecution.getId(), rundeckExecution);
+		}
+
+		for (final RundeckExecution rundeckExecution : lastRunningExecutions.values()) {
+
+			if (!runningExecutions.containsKey(rundeckExecution.getId()) && !knownFailedExecutionIds.contains(rundeckExecution.getId().longValue())) {
+				newCompletedExecutions.add(new CompletedExecution(rundeckExecution, lastRunningTime));
+			}
+		}
+
+		lastRunningExecutions = runningExecutions;
+		lastRunningTime = serverTime;
+		completedExecutions = newCompletedExecutions;
+	}
+
+	/**
+	 * Get the late threshold of a running execution: a quantile of the durations of its job, the Rundeck average duration of its job or the global late threshold.
+	 *
+	 * @param rundeckExecution running execution
+	 * @return duration after which the execution is late in milliseconds
+	 */
+	private long getLateThreshold(final RundeckExecution rundeckExecution) {
+
+		if (null == rundeckExecution.getJob()) {
+			return jobDurationEstimator.getLateThreshold(null, 0, serverConfiguration.getLateThreshold() * ONE_SECOND);
+		}
+
+		return jobDurationEstimator.getLateThreshold(rundeckExecution.getJob().getId(), rundeckExecution.getJob().getAverageDuration(), serverConfiguration.getLateThreshold() * ONE_SECOND);
+	}
+
+	/**
+	 * Build the history record of an execution.
+	 *
+	 * @param type failed or late execution type
+	 * @param time completion time of a failed execution or start time of a late execution
+	 * @param rundeckExecution execution to record
+	 * @return history record of the execution
+	 */
+	private HistoryRecord toHistoryRecord(final HistoryRecordType type, final long time, final RundeckExecution rundeckExecution) {
+
+		String jobId = null;
+		if (null != rundeckExecution.getJob()) {
+			jobId = rundeckExecution.getJob().getId();
+		}
+
+		return new HistoryRecord(type, time, rundeckExecution.getId().longValue(), getServerName(), rundeckExecution.getProject(), jobId, getJobName(rundeckExecution));
+	}
+
+	/**
+	 * Get the key of the job of an execution in the statistics.
+	 *
+	 * @param rundeckExecution execution
+	 * @return job identifier or execution description for an ad-hoc execution
+	 */
+	private static String getJobKey(final RundeckExecution rundeckExecution) {
+
+		if (null != rundeckExecution.getJob()) {
+			return rundeckExecution.getJob().getId();
+		}
+
+		return rundeckExecution.getDescription();
+	}
+
+	/**
+	 * Copy executions as already known executions.
+	 *
+	 * @param jobExecutionInfos executions to copy
+	 * @return copied executions without new execution flag
+	 */
+	private static List<JobExecutionInfo> toKnownJobs(final List<JobExecutionInfo> jobExecutionInfos) {
+
+		final List<JobExecutionInfo> knownJobExecutionInfos = new ArrayList<>(jobExecutionInfos.size());
+		for (final JobExecutionInfo jobExecutionInfo : jobExecutionInfos) {
+			knownJobExecutionInfos.add(jobExecutionInfo.toKnownJob());
+		}
+
+		return knownJobExecutionInfos;
+	}
+
+	/**
+	 * Execution no longer running with the last time it was observed running, its status is confirmed by the next refresh.
+	 *
+	 * @author Sylvain Bugat
+	 *
+	 */
+	private static final class CompletedExecution {
+
+		/** Last running state of the execution. */
+		private final RundeckExecution rundeckExecution;
+
+		/** Server time of the last refresh which found the execution running. */
+		private final long lastRunningTime;
+
+		/**
+		 * Copy the execution and the last time it was running.
+		 *
+		 * @param rundeckExecutionArg last running state of the execution
+		 * @param lastRunningTimeArg server time of the last refresh which found the execution running
+		 */
+		private CompletedExecution(final RundeckExecution rundeckExecutionArg, final long lastRunningTimeArg) {
+			rundeckExecution = rundeckExecutionArg;
+			lastRunningTime = lastRunningTimeArg;
+		}
+
+		/**
+		 * Get the last running state of the execution.
+		 *
+		 * @return execution
+		 */
+		private RundeckExecution getRundeckExecution() {
+			return rundeckExecution;
+		}
+
+		/**
+		 * Get the time the execution was last observed running.
+		 *
+		 * @return server time in milliseconds
+		 */
+		private long getLastRunningTime() {
+			return lastRunningTime;
+		}
+	}
+}
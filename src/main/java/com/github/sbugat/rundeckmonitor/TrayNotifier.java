@@ -0,0 +1,272 @@
+package com.github.sbugat.rundeckmonitor;
+
+import java.awt.TrayIcon;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.ext.XLogger;
+import org.slf4j.ext.XLoggerFactory;
+
+import com.github.sbugat.rundeckmonitor.tools.DaemonThreadFactory;
+import com.github.sbugat.rundeckmonitor.tools.TokenBucket;
+
+/**
+ * Notification pipeline of the new failed and late executions.
+ *
+ * All new executions of an update are grouped in one summary message, messages are rate limited by a token bucket: when no token is available, new executions are added to the next summary. Messages are displayed by a dedicated thread so a slow notification system never blocks the monitor.
+ *
+ * @author Sylvain Bugat
+ *
+ */
+public final class TrayNotifier {
+
+	/** SLF4J XLogger. */
+	private static final XLogger LOG = XLoggerFactory.getXLogger(TrayNotifier.class);
+
+	/** Maximum number of messages displayed in a row. */
+	private static final int NOTIFICATION_BURST = 3;
+
+	/** Time to allow a new message after a burst in milliseconds. */
+	private static final long NOTIFICATION_REFILL_PERIOD = 30_000L;
+
+	/** Maximum number of executions listed in a summary. */
+	private static final int MAX_SUMMARY_LINES = 5;
+
+	/** Label of new failed executions in a summary title. */
+	private static final String NEW_FAILED_JOBS_LABEL = " new failed job"; //$NON-NLS-1$
+
+	/** Label of new long executions in a summary title. */
+	private static final String NEW_LONG_EXECUTIONS_LABEL = " new long execution"; //$NON-NLS-1$
+
+	/** Plural suffix of the labels. */
+	private static final String PLURAL_SUFFIX = "s"; //$NON-NLS-1$
+
+	/** Separator of the counts in a summary title. */
+	private static final String TITLE_SEPARATOR = ", "; //$NON-NLS-1$
+
+	/** Prefix of the number of executions not listed in a summary. */
+	private static final String MORE_EXECUTIONS_PREFIX = "... and "; //$NON-NLS-1$
+
+	/** Suffix of the number of executions not listed in a summary. */
+	private static final String MORE_EXECUTIONS_SUFFIX = " more"; //$NON-NLS-1$
+
+	/** Thread displaying the messages. */
+	private final ScheduledExecutorService notificationExecutor = Executors.newSingleThreadScheduledExecutor(new DaemonThreadFactory("RundeckMonitor-notification")); //$NON-NLS-1$
+
+	/** Rate limiter of the messages. */
+	private final TokenBucket tokenBucket;
+
+	/** Messages of the new failed executions not notified yet, only used by the notification thread. */
+	private final List<String> pendingFailedMessages = new ArrayList<>();
+
+	/** Messages of the new late executions not notified yet, only used by the notification thread. */
+	private final List<String> pendingLateMessages = new ArrayList<>();
+
+	/** Display of the pending messages, only used by the notification thread. */
+	private MessageDisplay pendingMessageDisplay;
+
+	/** Flag indicating if a summary is waiting for a token, only used by the notification thread. */
+	private boolean summaryScheduled;
+
+	/** Task displaying the pending summary when a token is available. */
+	private final Runnable scheduledSummary = new Runnable() {
+
+		@Override
+		@SuppressWarnings("synthetic-access")
+		public void run() {
+
+			summaryScheduled = false;
+			displaySummary();
+		}
+	};
+
+	/**
+	 * Initialize a notifier allowing a burst of 3 messages, then one message every 30 seconds.
+	 */
+	public TrayNotifier() {
+		this(NOTIFICATION_BURST, NOTIFICATION_REFILL_PERIOD);
+	}
+
+	/**
+	 * Initialize a notifier with its rate limit.
+	 *
+	 * @param notificationBurst maximum number of messages displayed in a row
+	 * @param notificationRefillPeriod time to allow a new message after a burst in milliseconds
+	 */
+	TrayNotifier(final int notificationBurst, final long notificationRefillPeriod) {
+		tokenBucket = new TokenBucket(notificationBurst, notificationRefillPeriod);
+	}
+
+	/**
+	 * Queue the new executions of an update, they are notified in one summary.
+	 *
+	 * @param trayIcon tray icon displaying the messages
+	 * @param failedMessages messages of the new failed executions
+	 * @param lateMessages messages of the new late executions
+	 */
+	public void notify(final TrayIcon trayIcon, final List<String> failedMessages, final List<String> lateMessages) {
+
+		if (failedMessages.isEmpty() && lateMessages.isEmpty()) {
+			return;
+		}
+
+		notify(new MessageDisplay() {
+
+			@Override
+			public void displayMessage(final String caption, final String text, final TrayIcon.MessageType messageType) {
+				trayIcon.displayMessage(caption, text, messageType);
+			}
+		}, failedMessages, lateMessages);
+	}
+
+	/**
+	 * Queue the new executions of an update on a display, they are notified in one summary.
+	 *
+	 * @param messageDisplay display of the messages
+	 * @param failedMessages messages of the new failed executions
+	 * @param lateMessages messages of the new late executions
+	 */
+	void notify(final MessageDisplay messageDisplay, final List<String> failedMessages, final List<String> lateMessages) {
+
+		if (failedMessages.isEmpty() && lateMessages.isEmpty()) {
+			return;
+		}
+
+		final List<String> failedMessagesCopy = new ArrayList<>(failedMessages);
+		final List<String> lateMessagesCopy = new ArrayList<>(lateMessages);
+		notificationExecutor.execute(new Runnable() {
+
+			@Override
+			@SuppressWarnings("synthetic-access")
+			public void run() {
+
+				pendingMessageDisplay = messageDisplay;
+				pendingFailedMessages.addAll(failedMessagesCopy);
+				pendingLateMessages.addAll(lateMessagesCopy);
+
+				// A summary waiting for a token includes these executions
+				if (!summaryScheduled) {
+					displaySummary();
+				}
+			}
+		});
+	}
+
+	/**
+	 * Stop the notification thread, pending messages are lost.
+	 */
+	public void close() {
+		notificationExecutor.shutdownNow();
+	}
+
+	/**
+	 * Display the pending executions in one message if a token is available, or wait for the next token.
+	 */
+	private void displaySummary() {
+
+		if (pendingFailedMessages.isEmpty() && pendingLateMessages.isEmpty()) {
+			return;
+		}
+
+		if (!tokenBucket.tryAcquire()) {
+
+			final long delay = tokenBucket.getDelayUntilNextToken();
+			LOG.debug("Notification rate limit reached, {} failed and {} late executions delayed by {} ms", Integer.valueOf(pendingFailedMessages.size()), Integer.valueOf(pendingLateMessages.size()), Long.valueOf(delay)); //$NON-NLS-1$
+			summaryScheduled = true;
+			notificationExecutor.schedule(scheduledSummary, delay, TimeUnit.MILLISECONDS);
+			return;
+		}
+
+		final int failedCount = pendingFailedMessages.size();
+		final int lateCount = pendingLateMessages.size();
+
+		// A single execution keeps the original alert
+		final String title;
+		if (1 == failedCount + lateCount) {
+
+			if (1 == failedCount) {
+				title = RundeckMonitorTrayIcon.NEW_FAILED_JOB_ALERT;
+			}
+			else {
+				title = RundeckMonitorTrayIcon.NEW_LONG_EXECUTION_ALERT;
+			}
+		}
+		else {
+			final StringBuilder titleBuilder = new StringBuilder();
+			appendCount(titleBuilder, failedCount, NEW_FAILED_JOBS_LABEL);
+			if (failedCount > 0 && lateCount > 0) {
+				titleBuilder.append(TITLE_SEPARATOR);
+			}
+			appendCount(titleBuilder, lateCount, NEW_LONG_EXECUTIONS_LABEL);
+			title = titleBuilder.toString();
+		}
+
+		// List the first executions, failed ones first
+		final List<String> messages = new ArrayList<>(pendingFailedMessages);
+		messages.addAll(pendingLateMessages);
+		final StringBuilder text = new StringBuilder();
+		for (int i = 0; i < messages.size() && i < MAX_SUMMARY_LINES; i++) {
+
+			if (i > 0) {
+				text.append(System.lineSeparator());
+			}
+			text.append(messages.get(i));
+		}
+		if (messages.size() > MAX_SUMMARY_LINES) {
+			text.append(System.lineSeparator()).append(MORE_EXECUTIONS_PREFIX).append(messages.size() - MAX_SUMMARY_LINES).append(MORE_EXECUTIONS_SUFFIX);
+		}
+
+		final TrayIcon.MessageType messageType;
+		if (failedCount > 0) {
+			messageType = TrayIcon.MessageType.ERROR;
+		}
+		else {
+			messageType = TrayIcon.MessageType.WARNING;
+		}
+
+		pendingFailedMessages.clear();
+		pendingLateMessages.clear();
+
+		pendingMessageDisplay.displayMessage(title, text.toString(), messageType);
+	}
+
+	/**
+	 * Append a count and its label if the count is positive.
+	 *
+	 * @param titleBuilder title to complete
+	 * @param count count of executions
+	 * @param label singular label of the executions
+	 */
+	private static void appendCount(final StringBuilder titleBuilder, final int count, final String label) {
+
+		if (count <= 0) {
+			return;
+		}
+
+		titleBuilder.append(count).append(label);
+		if (count > 1) {
+			titleBuilder.append(PLURAL_SUFFIX);
+		}
+	}
+
+	/**
+	 * Display of the summary messages.
+	 *
+	 * @author Sylvain Bugat
+	 *
+	 */
+	interface MessageDisplay {
+
+		/**
+		 * Display a message.
+		 *
+		 * @param caption title of the message
+		 * @param text text of the message
+		 * @param messageType type of the message
+		 */
+		void displayMessage(final String caption, final String text, final TrayIcon.MessageType messageType);
+	}
+}
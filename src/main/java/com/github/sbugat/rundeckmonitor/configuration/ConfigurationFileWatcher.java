@@ -0,0 +1,283 @@
+package com.github.sbugat.rundeckmonitor.configuration;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.ext.XLogger;
+import org.slf4j.ext.XLoggerFactory;
+
+import com.github.sbugat.rundeckmonitor.tools.DaemonThreadFactory;
+
+/**
+ * Watcher of the configuration file changes.
+ *
+ * The directory of the file is registered to a {@link WatchService}, successive events of one save are merged into one change. If the file system does not support watching or the watch is lost, the last modification time of the file is polled instead.
+ *
+ * @author Sylvain Bugat
+ *
+ */
+public final class ConfigurationFileWatcher implements Closeable {
+
+	/** SLF4J XLogger. */
+	private static final XLogger LOG = XLoggerFactory.getXLogger(ConfigurationFileWatcher.class);
+
+	/** Quiet time after the last event of a change before signaling it. */
+	private static final long DEBOUNCE_DELAY_MILLISECONDS = 100L;
+
+	/** Delay between 2 checks of the last modification time in polling mode. */
+	private static final long POLLING_DELAY_MILLISECONDS = 1_000L;
+
+	/** Watched configuration file. */
+	private final Path configurationFile;
+
+	/** Watch service of the configuration file directory, null if the file system does not support it. */
+	private final WatchService watchService;
+
+	/** Polling mode flag, used if the watch service is not available. */
+	private volatile boolean polling;
+
+	/** Last modification time of the configuration file in polling mode, 0 if the file does not exist. */
+	private long lastModifiedTime;
+
+	/** Change detected and not consumed yet flag. */
+	private boolean changed;
+
+	/**
+	 * Start watching a configuration file, the file does not need to exist yet.
+	 *
+	 * @param configurationFileName name of the configuration file
+	 */
+	public ConfigurationFileWatcher(final String configurationFileName) {
+
+		configurationFile = Paths.get(configurationFileName).toAbsolutePath();
+		lastModifiedTime = readLastModifiedTime();
+
+		WatchService newWatchService = null;
+		try {
+			newWatchService = configurationFile.getFileSystem().newWatchService();
+			configurationFile.getParent().register(newWatchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+		}
+		catch (final IOException | UnsupportedOperationException e) {
+
+			LOG.warn("Configuration file watch unavailable, polling its modification time", e); //$NON-NLS-1$
+			closeWatchService(newWatchService);
+			newWatchService = null;
+			polling = true;
+		}
+		watchService = newWatchService;
+
+		if (null != watchService) {
+			new DaemonThreadFactory("RundeckMonitor-configuration").newThread(new Runnable() { //$NON-NLS-1$
+
+				@Override
+				@SuppressWarnings("synthetic-access")
+				public void run() {
+					watchEvents();
+				}
+			}).start();
+		}
+	}
+
+	/**
+	 * Wait for a change of the configuration file and consume it.
+	 *
+	 * @param timeoutMilliseconds maximum time to wait
+	 * @return true if the configuration file has changed since the last call
+	 * @throws InterruptedException if the waiting thread is interrupted
+	 */
+	public synchronized boolean awaitChange(final long timeoutMilliseconds) throws InterruptedException {
+
+		final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMilliseconds);
+
+		while (true) {
+
+			if (polling) {
+				changed |= pollLastModifiedTime();
+			}
+
+			if (changed) {
+				changed = false;
+				return true;
+			}
+
+			final long remainingMilliseconds = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+			if (remainingMilliseconds <= 0) {
+				return false;
+			}
+
+			if (polling) {
+				wait(Math.min(remainingMilliseconds, POLLING_DELAY_MILLISECONDS));
+			}
+			else {
+				wait(remainingMilliseconds);
+			}
+		}
+	}
+
+	/**
+	 * Discard the changes detected before the configuration file is loaded.
+	 */
+	public synchronized void discardChanges() {
+
+		changed = false;
+		lastModifiedTime = readLastModifiedTime();
+	}
+
+	/**
+	 * Stop watching the configuration file.
+	 */
+	@Override
+	public void close() {
+
+		closeWatchService(watchService);
+	}
+
+	/**
+	 * Watch service events loop, ends when the watch service is closed or the watch is lost.
+	 */
+	private void watchEvents() {
+
+		try {
+			while (true) {
+
+				final WatchKey watchKey = watchService.take();
+				boolean valid = true;
+				if (isConfigurationFileEvent(watchKey)) {
+
+					// Merge the events of the same change: wait until no more event is received during the debounce delay
+					valid = watchKey.reset();
+					WatchKey nextWatchKey = watchService.poll(DEBOUNCE_DELAY_MILLISECONDS, TimeUnit.MILLISECONDS);
+					while (null != nextWatchKey) {
+						isConfigurationFileEvent(nextWatchKey);
+						valid = nextWatchKey.reset();
+						nextWatchKey = watchService.poll(DEBOUNCE_DELAY_MILLISECONDS, TimeUnit.MILLISECONDS);
+					}
+
+					signalChange();
+				}
+				else {
+					valid = watchKey.reset();
+				}
+
+				// The directory is no longer accessible, fall back to polling
+				if (!valid) {
+
+					LOG.warn("Configuration file watch lost, polling its modification time"); //$NON-NLS-1$
+					switchToPolling();
+					return;
+				}
+			}
+		}
+		catch (final ClosedWatchServiceException e) {
+			LOG.debug("Configuration file watch closed", e); //$NON-NLS-1$
+		}
+		catch (final InterruptedException e) {
+
+			LOG.warn("Configuration file watch interrupted, polling its modification time", e); //$NON-NLS-1$
+			switchToPolling();
+		}
+	}
+
+	/**
+	 * Check if some events of a watch key concern the configuration file.
+	 *
+	 * @param watchKey signaled watch key
+	 * @return true if the configuration file may have changed
+	 */
+	private boolean isConfigurationFileEvent(final WatchKey watchKey) {
+
+		boolean configurationFileEvent = false;
+		for (final WatchEvent<?> watchEvent : watchKey.pollEvents()) {
+
+			// Some events may have been lost
+			if (StandardWatchEventKinds.OVERFLOW == watchEvent.kind() || configurationFile.getFileName().equals(watchEvent.context())) {
+				configurationFileEvent = true;
+			}
+		}
+
+		return configurationFileEvent;
+	}
+
+	/**
+	 * Signal a change to the waiting threads.
+	 */
+	private synchronized void signalChange() {
+
+		LOG.debug("Configuration file {} changed", configurationFile); //$NON-NLS-1$
+		changed = true;
+		notifyAll();
+	}
+
+	/**
+	 * Switch to polling mode and wake up the waiting threads.
+	 */
+	private synchronized void switchToPolling() {
+
+		lastModifiedTime = readLastModifiedTime();
+		polling = true;
+		closeWatchService(watchService);
+		notifyAll();
+	}
+
+	/**
+	 * Check the last modification time of the configuration file in polling mode.
+	 *
+	 * @return true if the configuration file has been modified or created since the last check
+	 */
+	private boolean pollLastModifiedTime() {
+
+		final long currentModifiedTime = readLastModifiedTime();
+		if (currentModifiedTime != lastModifiedTime) {
+
+			lastModifiedTime = currentModifiedTime;
+			return 0 != currentModifiedTime;
+		}
+
+		return false;
+	}
+
+	/**
+	 * Read the last modification time of the configuration file.
+	 *
+	 * @return last modification time or 0 if the file does not exist or can't be read
+	 */
+	private long readLastModifiedTime() {
+
+		try {
+			if (Files.exists(configurationFile)) {
+				return Files.getLastModifiedTime(configurationFile).toMillis();
+			}
+		}
+		catch (final IOException e) {
+			LOG.warn("Configuration file modification time error", e); //$NON-NLS-1$
+		}
+
+		return 0L;
+	}
+
+	/**
+	 * Close a watch service.
+	 *
+	 * @param watchServiceToClose watch service to close, can be null
+	 */
+	private static void closeWatchService(final WatchService watchServiceToClose) {
+
+		if (null != watchServiceToClose) {
+			try {
+				watchServiceToClose.close();
+			}
+			catch (final IOException e) {
+				LOG.warn("Configuration file watch close error", e); //$NON-NLS-1$
+			}
+		}
+	}
+}
@@ -9,7 +9,10 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
+import java.util.List;
 import java.util.Properties;
 
 import com.github.sbugat.rundeckmonitor.wizard.InterfaceType;
@@ -72,6 +75,84 @@ public final class RundeckMonitorConfiguration {
 	private static final String RUNDECK_MONITOR_PROPERTY_INTERFACE_TYPE = "rundeck.monitor.interface.type"; //$NON-NLS-1$
 	/** RunDeck monitor GUI type default value. */
 	private static final String RUNDECK_MONITOR_PROPERTY_INTERFACE_TYPE_DEFAULT_VALUE = InterfaceType.SWING.name();
+	/** RunDeck monitor incremental polling property name. */
+	private static final String RUNDECK_MONITOR_PROPERTY_INCREMENTAL_POLLING = "rundeck.monitor.incremental.polling"; //$NON-NLS-1$
+	/** RunDeck monitor incremental polling default value. */
+	private static final boolean RUNDECK_MONITOR_PROPERTY_INCREMENTAL_POLLING_DEFAULT_VALUE = true;
+	/** RunDeck monitor known executions retention property name. */
+	private static final String RUNDECK_MONITOR_PROPERTY_KNOWN_EXECUTION_RETENTION = "rundeck.monitor.known.execution.retention"; //$NON-NLS-1$
+	/** RunDeck monitor known executions retention default value. */
+	private static final int RUNDECK_MONITOR_PROPERTY_KNOWN_EXECUTION_RETENTION_DEFAULT_VALUE = 1000;
+	/** RunDeck monitor history retention property name. */
+	private static final String RUNDECK_MONITOR_PROPERTY_HISTORY_RETENTION = "rundeck.monitor.history.retention"; //$NON-NLS-1$
+	/** RunDeck monitor history retention default value. */
+	private static final int RUNDECK_MONITOR_PROPERTY_HISTORY_RETENTION_DEFAULT_VALUE = 90;
+	/** RunDeck monitor late quantile property name. */
+	private static final String RUNDECK_MONITOR_PROPERTY_LATE_QUANTILE = "rundeck.monitor.late.quantile"; //$NON-NLS-1$
+	/** RunDeck monitor late quantile default value. */
+	private static final int RUNDECK_MONITOR_PROPERTY_LATE_QUANTILE_DEFAULT_VALUE = 99;
+	/** RunDeck monitor late quantile maximum value. */
+	private static final int RUNDECK_MONITOR_PROPERTY_LATE_QUANTILE_MAXIMUM_VALUE = 100;
+	/** RunDeck monitor job cache time to live property name. */
+	private static final String RUNDECK_MONITOR_PROPERTY_JOB_CACHE_TTL = "rundeck.monitor.job.cache.ttl"; //$NON-NLS-1$
+	/** RunDeck monitor job cache time to live default value. */
+	private static final int RUNDECK_MONITOR_PROPERTY_JOB_CACHE_TTL_DEFAULT_VALUE = 600;
+	/** RunDeck monitor output tail size property name. */
+	private static final String RUNDECK_MONITOR_PROPERTY_OUTPUT_TAIL_SIZE = "rundeck.monitor.output.tail.size"; //$NON-NLS-1$
+	/** RunDeck monitor output tail size default value. */
+	private static final int RUNDECK_MONITOR_PROPERTY_OUTPUT_TAIL_SIZE_DEFAULT_VALUE = 0;
+	/** RunDeck monitor call deadline property name. */
+	private static final String RUNDECK_MONITOR_PROPERTY_CALL_DEADLINE = "rundeck.monitor.call.deadline"; //$NON-NLS-1$
+	/** RunDeck monitor call deadline default value. */
+	private static final int RUNDECK_MONITOR_PROPERTY_CALL_DEADLINE_DEFAULT_VALUE = 20;
+	/** RunDeck monitor worker threads property name. */
+	private static final String RUNDECK_MONITOR_PROPERTY_WORKER_THREADS = "rundeck.monitor.worker.threads"; //$NON-NLS-1$
+	/** RunDeck monitor worker threads default value. */
+	private static final int RUNDECK_MONITOR_PROPERTY_WORKER_THREADS_DEFAULT_VALUE = 4;
+	/** RunDeck monitor refresh delay while late executions exist property name. */
+	private static final String RUNDECK_MONITOR_PROPERTY_LATE_REFRESH_DELAY = "rundeck.monitor.late.refresh.delay"; //$NON-NLS-1$
+	/** RunDeck monitor refresh delay while late executions exist default value. */
+	private static final int RUNDECK_MONITOR_PROPERTY_LATE_REFRESH_DELAY_DEFAULT_VALUE = 15;
+	/** RunDeck monitor idle refresh delay property name. */
+	private static final String RUNDECK_MONITOR_PROPERTY_IDLE_REFRESH_DELAY = "rundeck.monitor.idle.refresh.delay"; //$NON-NLS-1$
+	/** RunDeck monitor idle refresh delay default value. */
+	private static final int RUNDECK_MONITOR_PROPERTY_IDLE_REFRESH_DELAY_DEFAULT_VALUE = 300;
+	/** RunDeck monitor idle threshold property name. */
+	private static final String RUNDECK_MONITOR_PROPERTY_IDLE_THRESHOLD = "rundeck.monitor.idle.threshold"; //$NON-NLS-1$
+	/** RunDeck monitor idle threshold default value. */
+	private static final int RUNDECK_MONITOR_PROPERTY_IDLE_THRESHOLD_DEFAULT_VALUE = 3600;
+	/** RunDeck monitor maximum backoff delay property name. */
+	private static final String RUNDECK_MONITOR_PROPERTY_MAXIMUM_BACKOFF_DELAY = "rundeck.monitor.maximum.backoff.delay"; //$NON-NLS-1$
+	/** RunDeck monitor maximum backoff delay default value. */
+	private static final int RUNDECK_MONITOR_PROPERTY_MAXIMUM_BACKOFF_DELAY_DEFAULT_VALUE = 900;
+	/** RunDeck monitor connect timeout property name. */
+	private static final String RUNDECK_MONITOR_PROPERTY_CONNECT_TIMEOUT = "rundeck.monitor.connect.timeout"; //$NON-NLS-1$
+	/** RunDeck monitor connect timeout default value. */
+	private static final int RUNDECK_MONITOR_PROPERTY_CONNECT_TIMEOUT_DEFAULT_VALUE = 5;
+	/** RunDeck monitor read timeout property name. */
+	private static final String RUNDECK_MONITOR_PROPERTY_READ_TIMEOUT = "rundeck.monitor.read.timeout"; //$NON-NLS-1$
+	/** RunDeck monitor read timeout default value. */
+	private static final int RUNDECK_MONITOR_PROPERTY_READ_TIMEOUT_DEFAULT_VALUE = 15;
+
+	/** RunDeck servers names property name. */
+	public static final String RUNDECK_MONITOR_PROPERTY_SERVERS = "rundeck.monitor.servers"; //$NON-NLS-1$
+	/** Prefix of the properties of a RunDeck server, followed by the server name and the property suffix. */
+	private static final String RUNDECK_MONITOR_PROPERTY_SERVER_PREFIX = "rundeck.monitor.server."; //$NON-NLS-1$
+	/** RunDeck server URL property suffix. */
+	private static final String RUNDECK_MONITOR_PROPERTY_SERVER_URL_SUFFIX = ".url"; //$NON-NLS-1$
+	/** RunDeck server API key property suffix. */
+	private static final String RUNDECK_MONITOR_PROPERTY_SERVER_API_KEY_SUFFIX = ".api.key"; //$NON-NLS-1$
+	/** RunDeck server login property suffix. */
+	private static final String RUNDECK_MONITOR_PROPERTY_SERVER_LOGIN_SUFFIX = ".login"; //$NON-NLS-1$
+	/** RunDeck server password property suffix. */
+	private static final String RUNDECK_MONITOR_PROPERTY_SERVER_PASSWORD_SUFFIX = ".password"; //$NON-NLS-1$
+	/** RunDeck server project property suffix. */
+	private static final String RUNDECK_MONITOR_PROPERTY_SERVER_PROJECT_SUFFIX = ".project"; //$NON-NLS-1$
+	/** RunDeck server API version property suffix. */
+	private static final String RUNDECK_MONITOR_PROPERTY_SERVER_API_VERSION_SUFFIX = ".api.version"; //$NON-NLS-1$
+
+	/** Separator of the RunDeck projects and servers names. */
+	private static final String RUNDECK_NAMES_SEPARATOR = ","; //$NON-NLS-1$
 
 	/** RunDeck URL. */
 	private String rundeckUrl;
@@ -115,6 +196,57 @@ public final class RundeckMonitorConfiguration {
 	/** Type of GUI interface used. */
 	private String interfaceType;
 
+	/** Incremental polling of failed jobs flag. */
+	private boolean incrementalPolling = RUNDECK_MONITOR_PROPERTY_INCREMENTAL_POLLING_DEFAULT_VALUE;
+
+	/** Number of known executions identifiers kept in addition to the displayed ones. */
+	private int knownExecutionRetention = RUNDECK_MONITOR_PROPERTY_KNOWN_EXECUTION_RETENTION_DEFAULT_VALUE;
+
+	/** Number of days of local execution history kept, 0 to disable the history. */
+	private int historyRetention = RUNDECK_MONITOR_PROPERTY_HISTORY_RETENTION_DEFAULT_VALUE;
+
+	/** Quantile of the durations of a job used as its late threshold in percent, 0 to only use the global late threshold. */
+	private int lateQuantile = RUNDECK_MONITOR_PROPERTY_LATE_QUANTILE_DEFAULT_VALUE;
+
+	/** Time to live of the job definitions of a project in seconds, 0 to never load the job lists. */
+	private int jobCacheTimeToLive = RUNDECK_MONITOR_PROPERTY_JOB_CACHE_TTL_DEFAULT_VALUE;
+
+	/** Number of KB of the end of the output displayed by the execution preview, 0 to open the executions in the browser. */
+	private int outputTailSize = RUNDECK_MONITOR_PROPERTY_OUTPUT_TAIL_SIZE_DEFAULT_VALUE;
+
+	/** Maximum time to wait for a Rundeck call during a refresh. */
+	private int callDeadline = RUNDECK_MONITOR_PROPERTY_CALL_DEADLINE_DEFAULT_VALUE;
+
+	/** Maximum number of threads calling Rundeck rest API. */
+	private int workerThreads = RUNDECK_MONITOR_PROPERTY_WORKER_THREADS_DEFAULT_VALUE;
+
+	/** Delay between 2 refresh while late executions exist. */
+	private int lateRefreshDelay = RUNDECK_MONITOR_PROPERTY_LATE_REFRESH_DELAY_DEFAULT_VALUE;
+
+	/** Delay between 2 refresh when no execution has run for the idle threshold. */
+	private int idleRefreshDelay = RUNDECK_MONITOR_PROPERTY_IDLE_REFRESH_DELAY_DEFAULT_VALUE;
+
+	/** Time without any running or new failed execution before using the idle refresh delay. */
+	private int idleThreshold = RUNDECK_MONITOR_PROPERTY_IDLE_THRESHOLD_DEFAULT_VALUE;
+
+	/** Maximum delay between 2 refresh while a RunDeck server is unreachable. */
+	private int maximumBackoffDelay = RUNDECK_MONITOR_PROPERTY_MAXIMUM_BACKOFF_DELAY_DEFAULT_VALUE;
+
+	/** Maximum time to establish a connection to a RunDeck server. */
+	private int connectTimeout = RUNDECK_MONITOR_PROPERTY_CONNECT_TIMEOUT_DEFAULT_VALUE;
+
+	/** Maximum time without any data received from a RunDeck server. */
+	private int readTimeout = RUNDECK_MONITOR_PROPERTY_READ_TIMEOUT_DEFAULT_VALUE;
+
+	/** Names of the RunDeck servers to monitor, empty to monitor only the RunDeck server of the main properties. */
+	private List<String> serverNames = Collections.emptyList();
+
+	/** Properties of the RunDeck servers, missing properties of a server use the main properties. */
+	private Properties serverProperties = new Properties();
+
+	/** Name of the RunDeck server of a server configuration, null for the main configuration. */
+	private String serverName;
+
 	/**
 	 * Default constructor.
 	 */
@@ -143,6 +275,23 @@ public final class RundeckMonitorConfiguration {
 		rundeckAPIversion = rundeckMonitorConfiguration.rundeckAPIversion;
 		jobTabRedirection = rundeckMonitorConfiguration.jobTabRedirection;
 		versionCheckerDisabled = rundeckMonitorConfiguration.versionCheckerDisabled;
+		incrementalPolling = rundeckMonitorConfiguration.incrementalPolling;
+		knownExecutionRetention = rundeckMonitorConfiguration.knownExecutionRetention;
+		historyRetention = rundeckMonitorConfiguration.historyRetention;
+		lateQuantile = rundeckMonitorConfiguration.lateQuantile;
+		jobCacheTimeToLive = rundeckMonitorConfiguration.jobCacheTimeToLive;
+		outputTailSize = rundeckMonitorConfiguration.outputTailSize;
+		callDeadline = rundeckMonitorConfiguration.callDeadline;
+		workerThreads = rundeckMonitorConfiguration.workerThreads;
+		lateRefreshDelay = rundeckMonitorConfiguration.lateRefreshDelay;
+		idleRefreshDelay = rundeckMonitorConfiguration.idleRefreshDelay;
+		idleThreshold = rundeckMonitorConfiguration.idleThreshold;
+		maximumBackoffDelay = rundeckMonitorConfiguration.maximumBackoffDelay;
+		connectTimeout = rundeckMonitorConfiguration.connectTimeout;
+		readTimeout = rundeckMonitorConfiguration.readTimeout;
+		serverNames = rundeckMonitorConfiguration.serverNames;
+		serverProperties = rundeckMonitorConfiguration.serverProperties;
+		serverName = rundeckMonitorConfiguration.serverName;
 	}
 
 	/**
@@ -182,6 +331,30 @@ public final class RundeckMonitorConfiguration {
 		jobTabRedirection = properties.getProperty(RUNDECK_MONITOR_PROPERTY_FAILED_JOB_REDIRECTION, RUNDECK_MONITOR_PROPERTY_FAILED_JOB_REDIRECTION_DEFAULT_VALUE);
 		versionCheckerDisabled = getBooleanProperty(properties, RUNDECK_MONITOR_PROPERTY_DISABLE_VERSION_CHECKER, RUNDECK_MONITOR_PROPERTY_DISABLE_VERSION_CHECKER_DEFAULT_VALUE);
 		interfaceType = properties.getProperty(RUNDECK_MONITOR_PROPERTY_INTERFACE_TYPE, RUNDECK_MONITOR_PROPERTY_INTERFACE_TYPE_DEFAULT_VALUE);
+		incrementalPolling = getBooleanProperty(properties, RUNDECK_MONITOR_PROPERTY_INCREMENTAL_POLLING, RUNDECK_MONITOR_PROPERTY_INCREMENTAL_POLLING_DEFAULT_VALUE);
+		knownExecutionRetention = getIntegerProperty(properties, RUNDECK_MONITOR_PROPERTY_KNOWN_EXECUTION_RETENTION, RUNDECK_MONITOR_PROPERTY_KNOWN_EXECUTION_RETENTION_DEFAULT_VALUE);
+		historyRetention = getIntegerProperty(properties, RUNDECK_MONITOR_PROPERTY_HISTORY_RETENTION, RUNDECK_MONITOR_PROPERTY_HISTORY_RETENTION_DEFAULT_VALUE);
+		lateQuantile = getIntegerProperty(properties, RUNDECK_MONITOR_PROPERTY_LATE_QUANTILE, RUNDECK_MONITOR_PROPERTY_LATE_QUANTILE_DEFAULT_VALUE);
+		jobCacheTimeToLive = getIntegerProperty(properties, RUNDECK_MONITOR_PROPERTY_JOB_CACHE_TTL, RUNDECK_MONITOR_PROPERTY_JOB_CACHE_TTL_DEFAULT_VALUE);
+		outputTailSize = getIntegerProperty(properties, RUNDECK_MONITOR_PROPERTY_OUTPUT_TAIL_SIZE, RUNDECK_MONITOR_PROPERTY_OUTPUT_TAIL_SIZE_DEFAULT_VALUE);
+		callDeadline = getIntegerProperty(properties, RUNDECK_MONITOR_PROPERTY_CALL_DEADLINE, RUNDECK_MONITOR_PROPERTY_CALL_DEADLINE_DEFAULT_VALUE);
+		workerThreads = getIntegerProperty(properties, RUNDECK_MONITOR_PROPERTY_WORKER_THREADS, RUNDECK_MONITOR_PROPERTY_WORKER_THREADS_DEFAULT_VALUE);
+		lateRefreshDelay = getIntegerProperty(properties, RUNDECK_MONITOR_PROPERTY_LATE_REFRESH_DELAY, RUNDECK_MONITOR_PROPERTY_LATE_REFRESH_DELAY_DEFAULT_VALUE);
+		idleRefreshDelay = getIntegerProperty(properties, RUNDECK_MONITOR_PROPERTY_IDLE_REFRESH_DELAY, RUNDECK_MONITOR_PROPERTY_IDLE_REFRESH_DELAY_DEFAULT_VALUE);
+		idleThreshold = getIntegerProperty(properties, RUNDECK_MONITOR_PROPERTY_IDLE_THRESHOLD, RUNDECK_MONITOR_PROPERTY_IDLE_THRESHOLD_DEFAULT_VALUE);
+		maximumBackoffDelay = getIntegerProperty(properties, RUNDECK_MONITOR_PROPERTY_MAXIMUM_BACKOFF_DELAY, RUNDECK_MONITOR_PROPERTY_MAXIMUM_BACKOFF_DELAY_DEFAULT_VALUE);
+		connectTimeout = getIntegerProperty(properties, RUNDECK_MONITOR_PROPERTY_CONNECT_TIMEOUT, RUNDECK_MONITOR_PROPERTY_CONNECT_TIMEOUT_DEFAULT_VALUE);
+		readTimeout = getIntegerProperty(properties, RUNDECK_MONITOR_PROPERTY_READ_TIMEOUT, RUNDECK_MONITOR_PROPERTY_READ_TIMEOUT_DEFAULT_VALUE);
+
+		// Keep the RunDeck servers properties as they are
+		serverNames = splitNames(properties.getProperty(RUNDECK_MONITOR_PROPERTY_SERVERS));
+		serverProperties = new Properties();
+		for (final String propertyName : properties.stringPropertyNames()) {
+
+			if (propertyName.startsWith(RUNDECK_MONITOR_PROPERTY_SERVER_PREFIX)) {
+				serverProperties.setProperty(propertyName, properties.getProperty(propertyName));
+			}
+		}
 	}
 
 	/**
@@ -194,8 +367,21 @@ public final class RundeckMonitorConfiguration {
 
 		// Configuration checking
 
-		checkMandatoryStringProperty(rundeckUrl, RUNDECK_MONITOR_PROPERTY_URL);
-		checkMandatoryStringProperty(rundeckProject, RUNDECK_MONITOR_PROPERTY_PROJECT);
+		if (null == serverName && !serverNames.isEmpty()) {
+
+			// Each server has its own connection properties
+			for (final RundeckMonitorConfiguration serverConfiguration : getServerConfigurations()) {
+				serverConfiguration.verifyConfiguration();
+			}
+		}
+		else {
+
+			checkMandatoryStringProperty(rundeckUrl, getServerPropertyName(RUNDECK_MONITOR_PROPERTY_URL, RUNDECK_MONITOR_PROPERTY_SERVER_URL_SUFFIX));
+			checkMandatoryStringProperty(rundeckProject, getServerPropertyName(RUNDECK_MONITOR_PROPERTY_PROJECT, RUNDECK_MONITOR_PROPERTY_SERVER_PROJECT_SUFFIX));
+			if (getRundeckProjects().isEmpty()) {
+				throw new InvalidPropertyException(getServerPropertyName(RUNDECK_MONITOR_PROPERTY_PROJECT, RUNDECK_MONITOR_PROPERTY_SERVER_PROJECT_SUFFIX), rundeckProject);
+			}
+		}
 
 		boolean missingAPIKey = false;
 		try {
@@ -218,6 +404,63 @@ public final class RundeckMonitorConfiguration {
 			dateFormat = RUNDECK_MONITOR_PROPERTY_DATE_FORMAT_DEFAULT_VALUE;
 		}
 
+		// Test the configured known executions retention
+		if (knownExecutionRetention < 0) {
+			knownExecutionRetention = RUNDECK_MONITOR_PROPERTY_KNOWN_EXECUTION_RETENTION_DEFAULT_VALUE;
+		}
+
+		// Test the configured history retention
+		if (historyRetention < 0) {
+			historyRetention = RUNDECK_MONITOR_PROPERTY_HISTORY_RETENTION_DEFAULT_VALUE;
+		}
+
+		// Test the configured late quantile
+		if (lateQuantile < 0 || lateQuantile > RUNDECK_MONITOR_PROPERTY_LATE_QUANTILE_MAXIMUM_VALUE) {
+			lateQuantile = RUNDECK_MONITOR_PROPERTY_LATE_QUANTILE_DEFAULT_VALUE;
+		}
+
+		// Test the configured job cache time to live
+		if (jobCacheTimeToLive < 0) {
+			jobCacheTimeToLive = RUNDECK_MONITOR_PROPERTY_JOB_CACHE_TTL_DEFAULT_VALUE;
+		}
+
+		// Test the configured output tail size
+		if (outputTailSize < 0) {
+			outputTailSize = RUNDECK_MONITOR_PROPERTY_OUTPUT_TAIL_SIZE_DEFAULT_VALUE;
+		}
+
+		// Test the configured call deadline
+		if (callDeadline <= 0) {
+			callDeadline = RUNDECK_MONITOR_PROPERTY_CALL_DEADLINE_DEFAULT_VALUE;
+		}
+
+		// Test the configured adaptive refresh delays
+		if (lateRefreshDelay <= 0) {
+			lateRefreshDelay = RUNDECK_MONITOR_PROPERTY_LATE_REFRESH_DELAY_DEFAULT_VALUE;
+		}
+		if (idleRefreshDelay <= 0) {
+			idleRefreshDelay = RUNDECK_MONITOR_PROPERTY_IDLE_REFRESH_DELAY_DEFAULT_VALUE;
+		}
+		if (idleThreshold <= 0) {
+			idleThreshold = RUNDECK_MONITOR_PROPERTY_IDLE_THRESHOLD_DEFAULT_VALUE;
+		}
+		if (maximumBackoffDelay <= 0) {
+			maximumBackoffDelay = RUNDECK_MONITOR_PROPERTY_MAXIMUM_BACKOFF_DELAY_DEFAULT_VALUE;
+		}
+
+		// Test the configured timeouts
+		if (connectTimeout <= 0) {
+			connectTimeout = RUNDECK_MONITOR_PROPERTY_CONNECT_TIMEOUT_DEFAULT_VALUE;
+		}
+		if (readTimeout <= 0) {
+			readTimeout = RUNDECK_MONITOR_PROPERTY_READ_TIMEOUT_DEFAULT_VALUE;
+		}
+
+		// Test the configured worker threads
+		if (workerThreads <= 0) {
+			workerThreads = RUNDECK_MONITOR_PROPERTY_WORKER_THREADS_DEFAULT_VALUE;
+		}
+
 		// Test the configured tab redirection
 		try {
 			JobTabRedirection.valueOf(jobTabRedirection);
@@ -228,6 +471,46 @@ public final class RundeckMonitorConfiguration {
 
 	}
 
+	/**
+	 * Get the name of a property of this configuration, the main property name or the property name of the RunDeck server.
+	 *
+	 * @param mainPropertyName main property name
+	 * @param serverPropertySuffix server property suffix
+	 * @return name of the property to check
+	 */
+	private String getServerPropertyName(final String mainPropertyName, final String serverPropertySuffix) {
+
+		if (null == serverName) {
+			return mainPropertyName;
+		}
+
+		return RUNDECK_MONITOR_PROPERTY_SERVER_PREFIX + serverName + serverPropertySuffix;
+	}
+
+	/**
+	 * Split a comma separated list of names.
+	 *
+	 * @param names comma separated names, can be null
+	 * @return names without duplicate
+	 */
+	private static List<String> splitNames(final String names) {
+
+		if (null == names) {
+			return Collections.emptyList();
+		}
+
+		final List<String> splittedNames = new ArrayList<>();
+		for (final String name : names.split(RUNDECK_NAMES_SEPARATOR)) {
+
+			final String trimmedName = name.trim();
+			if (!trimmedName.isEmpty() && !splittedNames.contains(trimmedName)) {
+				splittedNames.add(trimmedName);
+			}
+		}
+
+		return splittedNames;
+	}
+
 	/**
 	 * Check a property value.
 	 *
@@ -307,6 +590,34 @@ public final class RundeckMonitorConfiguration {
 		properties.put(RUNDECK_MONITOR_PROPERTY_FAILED_JOB_REDIRECTION, jobTabRedirection);
 		properties.put(RUNDECK_MONITOR_PROPERTY_DISABLE_VERSION_CHECKER, String.valueOf(versionCheckerDisabled));
 		properties.put(RUNDECK_MONITOR_PROPERTY_INTERFACE_TYPE, interfaceType);
+		properties.put(RUNDECK_MONITOR_PROPERTY_INCREMENTAL_POLLING, String.valueOf(incrementalPolling));
+		properties.put(RUNDECK_MONITOR_PROPERTY_KNOWN_EXECUTION_RETENTION, String.valueOf(knownExecutionRetention));
+		properties.put(RUNDECK_MONITOR_PROPERTY_HISTORY_RETENTION, String.valueOf(historyRetention));
+		properties.put(RUNDECK_MONITOR_PROPERTY_LATE_QUANTILE, String.valueOf(lateQuantile));
+		properties.put(RUNDECK_MONITOR_PROPERTY_JOB_CACHE_TTL, String.valueOf(jobCacheTimeToLive));
+		properties.put(RUNDECK_MONITOR_PROPERTY_OUTPUT_TAIL_SIZE, String.valueOf(outputTailSize));
+		properties.put(RUNDECK_MONITOR_PROPERTY_CALL_DEADLINE, String.valueOf(callDeadline));
+		properties.put(RUNDECK_MONITOR_PROPERTY_WORKER_THREADS, String.valueOf(workerThreads));
+		properties.put(RUNDECK_MONITOR_PROPERTY_LATE_REFRESH_DELAY, String.valueOf(lateRefreshDelay));
+		properties.put(RUNDECK_MONITOR_PROPERTY_IDLE_REFRESH_DELAY, String.valueOf(idleRefreshDelay));
+		properties.put(RUNDECK_MONITOR_PROPERTY_IDLE_THRESHOLD, String.valueOf(idleThreshold));
+		properties.put(RUNDECK_MONITOR_PROPERTY_MAXIMUM_BACKOFF_DELAY, String.valueOf(maximumBackoffDelay));
+		properties.put(RUNDECK_MONITOR_PROPERTY_CONNECT_TIMEOUT, String.valueOf(connectTimeout));
+		properties.put(RUNDECK_MONITOR_PROPERTY_READ_TIMEOUT, String.valueOf(readTimeout));
+
+		if (!serverNames.isEmpty()) {
+
+			final StringBuilder serverNamesStringBuilder = new StringBuilder();
+			for (final String name : serverNames) {
+
+				if (serverNamesStringBuilder.length() > 0) {
+					serverNamesStringBuilder.append(RUNDECK_NAMES_SEPARATOR);
+				}
+				serverNamesStringBuilder.append(name);
+			}
+			properties.put(RUNDECK_MONITOR_PROPERTY_SERVERS, serverNamesStringBuilder.toString());
+			properties.putAll(serverProperties);
+		}
 
 		// Comment header
 		final StringBuilder commentStringBuilder = new StringBuilder();
@@ -417,6 +728,55 @@ public final class RundeckMonitorConfiguration {
 		return rundeckProject;
 	}
 
+	/**
+	 * Return the RunDeck projects to monitor, the project property can contain several comma separated projects.
+	 *
+	 * @return RunDeck projects names without duplicate
+	 */
+	public List<String> getRundeckProjects() {
+
+		return splitNames(rundeckProject);
+	}
+
+	/**
+	 * Return the configurations of the RunDeck servers to monitor, a missing server property uses the main property value.
+	 *
+	 * @return configuration of each RunDeck server or only a copy of the main configuration if no server is defined
+	 */
+	public List<RundeckMonitorConfiguration> getServerConfigurations() {
+
+		if (serverNames.isEmpty()) {
+			return Collections.singletonList(new RundeckMonitorConfiguration(this));
+		}
+
+		final List<RundeckMonitorConfiguration> serverConfigurations = new ArrayList<>();
+		for (final String name : serverNames) {
+
+			final String serverPropertyPrefix = RUNDECK_MONITOR_PROPERTY_SERVER_PREFIX + name;
+
+			final RundeckMonitorConfiguration serverConfiguration = new RundeckMonitorConfiguration(this);
+			serverConfiguration.serverName = name;
+			serverConfiguration.rundeckUrl = serverProperties.getProperty(serverPropertyPrefix + RUNDECK_MONITOR_PROPERTY_SERVER_URL_SUFFIX);
+			serverConfiguration.rundeckAPIKey = serverProperties.getProperty(serverPropertyPrefix + RUNDECK_MONITOR_PROPERTY_SERVER_API_KEY_SUFFIX, rundeckAPIKey);
+			serverConfiguration.rundeckLogin = serverProperties.getProperty(serverPropertyPrefix + RUNDECK_MONITOR_PROPERTY_SERVER_LOGIN_SUFFIX, rundeckLogin);
+			serverConfiguration.rundeckPassword = serverProperties.getProperty(serverPropertyPrefix + RUNDECK_MONITOR_PROPERTY_SERVER_PASSWORD_SUFFIX, rundeckPassword);
+			serverConfiguration.rundeckProject = serverProperties.getProperty(serverPropertyPrefix + RUNDECK_MONITOR_PROPERTY_SERVER_PROJECT_SUFFIX, rundeckProject);
+			serverConfiguration.rundeckAPIversion = getIntegerProperty(serverProperties, serverPropertyPrefix + RUNDECK_MONITOR_PROPERTY_SERVER_API_VERSION_SUFFIX, rundeckAPIversion);
+			serverConfigurations.add(serverConfiguration);
+		}
+
+		return serverConfigurations;
+	}
+
+	/**
+	 * Return the name of the RunDeck server of this configuration.
+	 *
+	 * @return RunDeck server name or null for the main configuration
+	 */
+	public String getServerName() {
+		return serverName;
+	}
+
 	/**
 	 * Return the RunDeck monitor name.
 	 *
@@ -498,6 +858,132 @@ public final class RundeckMonitorConfiguration {
 		return !versionCheckerDisabled;
 	}
 
+	/**
+	 * Return the RunDeck monitor incremental polling flag.
+	 *
+	 * @return true if only new failed jobs are downloaded at each refresh
+	 */
+	public boolean isIncrementalPollingEnabled() {
+		return incrementalPolling;
+	}
+
+	/**
+	 * Return the RunDeck monitor number of known executions kept in addition to the displayed ones.
+	 *
+	 * @return RunDeck monitor known executions retention
+	 */
+	public int getKnownExecutionRetention() {
+		return knownExecutionRetention;
+	}
+
+	/**
+	 * Return the RunDeck monitor number of days of local execution history kept.
+	 *
+	 * @return RunDeck monitor history retention in days, 0 if the history is disabled
+	 */
+	public int getHistoryRetention() {
+		return historyRetention;
+	}
+
+	/**
+	 * Return the RunDeck monitor quantile of the durations of a job used as its late threshold.
+	 *
+	 * @return RunDeck monitor late quantile in percent, 0 if only the global late threshold is used
+	 */
+	public int getLateQuantile() {
+		return lateQuantile;
+	}
+
+	/**
+	 * Return the RunDeck monitor time to live of the job definitions of a project.
+	 *
+	 * @return RunDeck monitor job cache time to live in seconds, 0 if the job lists are never loaded
+	 */
+	public int getJobCacheTimeToLive() {
+		return jobCacheTimeToLive;
+	}
+
+	/**
+	 * Return the RunDeck monitor number of KB of the end of the output displayed by the execution preview.
+	 *
+	 * @return RunDeck monitor output tail size in KB, 0 if the executions are opened in the browser
+	 */
+	public int getOutputTailSize() {
+		return outputTailSize;
+	}
+
+	/**
+	 * Return the RunDeck monitor maximum time to wait for a Rundeck call during a refresh.
+	 *
+	 * @return RunDeck monitor call deadline in seconds
+	 */
+	public int getCallDeadline() {
+		return callDeadline;
+	}
+
+	/**
+	 * Return the RunDeck monitor maximum number of threads calling Rundeck rest API.
+	 *
+	 * @return RunDeck monitor worker threads
+	 */
+	public int getWorkerThreads() {
+		return workerThreads;
+	}
+
+	/**
+	 * Return the RunDeck monitor refresh delay while late executions exist.
+	 *
+	 * @return RunDeck monitor late refresh delay in seconds
+	 */
+	public int getLateRefreshDelay() {
+		return lateRefreshDelay;
+	}
+
+	/**
+	 * Return the RunDeck monitor refresh delay when no execution has run for a while.
+	 *
+	 * @return RunDeck monitor idle refresh delay in seconds
+	 */
+	public int getIdleRefreshDelay() {
+		return idleRefreshDelay;
+	}
+
+	/**
+	 * Return the RunDeck monitor time without any running or new failed execution before using the idle refresh delay.
+	 *
+	 * @return RunDeck monitor idle threshold in seconds
+	 */
+	public int getIdleThreshold() {
+		return idleThreshold;
+	}
+
+	/**
+	 * Return the RunDeck monitor maximum refresh delay while a RunDeck server is unreachable.
+	 *
+	 * @return RunDeck monitor maximum backoff delay in seconds
+	 */
+	public int getMaximumBackoffDelay() {
+		return maximumBackoffDelay;
+	}
+
+	/**
+	 * Return the RunDeck monitor maximum time to establish a connection to a RunDeck server.
+	 *
+	 * @return RunDeck monitor connect timeout in seconds
+	 */
+	public int getConnectTimeout() {
+		return connectTimeout;
+	}
+
+	/**
+	 * Return the RunDeck monitor maximum time without any data received from a RunDeck server.
+	 *
+	 * @return RunDeck monitor read timeout in seconds
+	 */
+	public int getReadTimeout() {
+		return readTimeout;
+	}
+
 	/**
 	 * Set the RunDeck URL.
 	 *
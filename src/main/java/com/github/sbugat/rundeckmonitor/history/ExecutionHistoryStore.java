@@ -0,0 +1,496 @@
+package com.github.sbugat.rundeckmonitor.history;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TimeZone;
+import java.util.TreeMap;
+
+import org.slf4j.ext.XLogger;
+import org.slf4j.ext.XLoggerFactory;
+
+/**
+ * Local history of the failed, succeeded and late executions, to query them without calling Rundeck.
+ *
+ * Records are appended to one segment file per day (UTC) of their time: the completion time of a failed or succeeded execution or the start time of a late execution. A segment is a header followed by length prefixed records, records of a refresh are written in one batch. A time-range query only opens the segments of the requested days and reads only the blocks of their sparse {@link SegmentIndex} overlapping the range, records are streamed to a {@link HistoryRecordVisitor}. Indexes are built by scanning a segment the first time it is used, only the indexes of the last used segments are kept in memory.
+ *
+ * Segments older than the retention are deleted at startup and at each day change. A history error only loses the records of a refresh, the monitor keeps working.
+ *
+ * @author Sylvain Bugat
+ *
+ */
+public final class ExecutionHistoryStore {
+
+	/** SLF4J XLogger. */
+	private static final XLogger LOG = XLoggerFactory.getXLogger(ExecutionHistoryStore.class);
+
+	/** Suffix of the segment files. */
+	private static final String SEGMENT_FILE_SUFFIX = ".segment"; //$NON-NLS-1$
+
+	/** Date format of the segment file names. */
+	private static final String SEGMENT_DATE_FORMAT = "yyyyMMdd"; //$NON-NLS-1$
+
+	/** Time zone of the segment days. */
+	private static final String SEGMENT_TIME_ZONE = "GMT"; //$NON-NLS-1$
+
+	/** Header of a segment: "RMH" and the format version 1. */
+	private static final int SEGMENT_HEADER = 0x524D4801;
+
+	/** Size of the header in bytes. */
+	private static final int HEADER_SIZE = Integer.SIZE / Byte.SIZE;
+
+	/** Size of the record length prefix in bytes. */
+	private static final int RECORD_LENGTH_SIZE = Integer.SIZE / Byte.SIZE;
+
+	/** Maximum length of a record, a longer length means a corrupted segment. */
+	private static final int MAXIMUM_RECORD_LENGTH = 262_144;
+
+	/** One day in milliseconds. */
+	private static final long ONE_DAY = 86_400_000L;
+
+	/** Maximum number of segment indexes kept in memory. */
+	private static final int MAX_CACHED_INDEXES = 31;
+
+	/** Load factor of the indexes cache. */
+	private static final float CACHE_LOAD_FACTOR = 0.75f;
+
+	/** Directory of the segment files. */
+	private final Path historyDirectory;
+
+	/** Formatter of the segment file names, only used with the store lock. */
+	private final SimpleDateFormat segmentDateFormat = new SimpleDateFormat(SEGMENT_DATE_FORMAT);
+
+	/** Indexes of the last used segments by day, least recently used first. */
+	private final Map<Long, SegmentIndex> segmentIndexes = new LinkedHashMap<Long, SegmentIndex>(MAX_CACHED_INDEXES, CACHE_LOAD_FACTOR, true) {
+
+		/** Serial version UID. */
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(final Map.Entry<Long, SegmentIndex> eldest) {
+			return size() > MAX_CACHED_INDEXES;
+		}
+	};
+
+	/** Records not written yet by day. */
+	private final Map<Long, ByteArrayOutputStream> pendingRecords = new TreeMap<>();
+
+	/** Number of days of history kept, 0 if the history is disabled. */
+	private int retentionDays;
+
+	/** Day of the last retention policy application. */
+	private long retentionDay;
+
+	/**
+	 * Initialize a disabled history store, it is enabled by setting its retention.
+	 *
+	 * @param historyDirectoryArg directory of the segment files, created with the first record
+	 */
+	public ExecutionHistoryStore(final Path historyDirectoryArg) {
+
+		historyDirectory = historyDirectoryArg;
+		segmentDateFormat.setTimeZone(TimeZone.getTimeZone(SEGMENT_TIME_ZONE));
+	}
+
+	/**
+	 * Change the retention of the history and delete the segments older than the retention.
+	 *
+	 * @param retentionDaysArg number of days of history kept, 0 to disable the history without deleting it
+	 */
+	public synchronized void setRetentionDays(final int retentionDaysArg) {
+
+		retentionDays = retentionDaysArg;
+		if (retentionDays > 0) {
+			applyRetention();
+		}
+		else {
+			pendingRecords.clear();
+		}
+	}
+
+	/**
+	 * Check if the history is enabled.
+	 *
+	 * @return true if the retention is set
+	 */
+	public synchronized boolean isEnabled() {
+		return retentionDays > 0;
+	}
+
+	/**
+	 * Add a record to the history, it is written by the next flush.
+	 *
+	 * @param historyRecord record to add, ignored if it is older than the retention
+	 */
+	public synchronized void record(final HistoryRecord historyRecord) {
+
+		final long day = historyRecord.getTime() / ONE_DAY;
+		if (retentionDays <= 0 || day <= currentDay() - retentionDays) {
+			return;
+		}
+
+		ByteArrayOutputStream dayRecords = pendingRecords.get(Long.valueOf(day));
+		if (null == dayRecords) {
+			dayRecords = new ByteArrayOutputStream();
+			pendingRecords.put(Long.valueOf(day), dayRecords);
+		}
+
+		try {
+			final byte[] encodedRecord = encode(historyRecord);
+			final DataOutputStream dayRecordsOutput = new DataOutputStream(dayRecords);
+			dayRecordsOutput.writeInt(encodedRecord.length);
+			dayRecordsOutput.write(encodedRecord);
+		}
+		catch (final IOException e) {
+			LOG.warn("History record of execution {} ignored", Long.valueOf(historyRecord.getExecutionId()), e); //$NON-NLS-1$
+		}
+	}
+
+	/**
+	 * Write the pending records in one batch per segment and apply the retention policy if the day has changed.
+	 */
+	public synchronized void flush() {
+
+		if (retentionDays <= 0) {
+			return;
+		}
+
+		if (currentDay() != retentionDay) {
+			applyRetention();
+		}
+
+		for (final Map.Entry<Long, ByteArrayOutputStream> dayRecords : pendingRecords.entrySet()) {
+
+			try {
+				appendToSegment(dayRecords.getKey().longValue(), dayRecords.getValue().toByteArray());
+			}
+			catch (final IOException | RuntimeException e) {
+
+				// Only the records of this refresh are lost
+				LOG.warn("History segment {} writing error", segmentFile(dayRecords.getKey().longValue()), e); //$NON-NLS-1$
+				segmentIndexes.remove(dayRecords.getKey());
+			}
+		}
+		pendingRecords.clear();
+	}
+
+	/**
+	 * Stream the records of a time range, oldest days first and in writing order within a day.
+	 *
+	 * @param fromTime start of the range in milliseconds, inclusive
+	 * @param toTime end of the range in milliseconds, inclusive
+	 * @param jobKey job identifier, or job name of ad-hoc executions, to find only the records of a job, null for all jobs
+	 * @param historyRecordVisitor visitor of the found records
+	 */
+	public synchronized void find(final long fromTime, final long toTime, final String jobKey, final HistoryRecordVisitor historyRecordVisitor) {
+
+		LOG.entry();
+
+		if (retentionDays <= 0) {
+			LOG.exit();
+			return;
+		}
+
+		flush();
+
+		long jobFilterBits = 0;
+		if (null != jobKey) {
+			jobFilterBits = SegmentIndex.jobFilterBits(jobKey);
+		}
+
+		// Only the days of the retention can have a segment
+		final long lastDay = Math.min(toTime / ONE_DAY, currentDay() + 1);
+		for (long day = Math.max(fromTime / ONE_DAY, currentDay() - retentionDays + 1); day <= lastDay; day++) {
+
+			final Path segmentFile = segmentFile(day);
+			if (!Files.exists(segmentFile)) {
+				continue;
+			}
+
+			try {
+				if (!findInSegment(day, fromTime, toTime, jobKey, jobFilterBits, historyRecordVisitor)) {
+					break;
+				}
+			}
+			catch (final IOException | RuntimeException e) {
+
+				// The other days are still found
+				LOG.warn("History segment {} reading error", segmentFile, e); //$NON-NLS-1$
+				segmentIndexes.remove(Long.valueOf(day));
+			}
+		}
+
+		LOG.exit();
+	}
+
+	/**
+	 * Stream the matching records of a segment.
+	 *
+	 * @param day day of the segment
+	 * @param fromTime start of the range, inclusive
+	 * @param toTime end of the range, inclusive
+	 * @param jobKey requested job or null for all jobs
+	 * @param jobFilterBits job filter bits of the requested job, 0 for all jobs
+	 * @param historyRecordVisitor visitor of the found records
+	 * @return false if the visitor has stopped the query
+	 * @throws IOException if the segment cannot be read
+	 */
+	private boolean findInSegment(final long day, final long fromTime, final long toTime, final String jobKey, final long jobFilterBits, final HistoryRecordVisitor historyRecordVisitor) throws IOException {
+
+		final SegmentIndex segmentIndex = getSegmentIndex(day);
+		try (final FileChannel segmentChannel = FileChannel.open(segmentFile(day), StandardOpenOption.READ)) {
+
+			for (int block = 0; block < segmentIndex.getBlockCount(); block++) {
+
+				if (!segmentIndex.mayContain(block, fromTime, toTime, jobFilterBits)) {
+					continue;
+				}
+
+				// Only this block is loaded in memory
+				final ByteBuffer blockContent = ByteBuffer.allocate((int) (segmentIndex.getBlockEnd(block) - segmentIndex.getBlockStart(block)));
+				while (blockContent.hasRemaining()) {
+					if (segmentChannel.read(blockContent, segmentIndex.getBlockStart(block) + blockContent.position()) < 0) {
+						throw new EOFException(segmentFile(day).toString());
+					}
+				}
+
+				final DataInputStream blockInput = new DataInputStream(new ByteArrayInputStream(blockContent.array()));
+				while (blockInput.available() > 0) {
+
+					final byte[] encodedRecord = new byte[blockInput.readInt()];
+					blockInput.readFully(encodedRecord);
+					final HistoryRecord historyRecord = decode(encodedRecord);
+					if (null != historyRecord && historyRecord.getTime() >= fromTime && historyRecord.getTime() <= toTime && (null == jobKey || jobKey.equals(historyRecord.getJobKey())) && !historyRecordVisitor.visit(historyRecord)) {
+						return false;
+					}
+				}
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * Append encoded records to a segment, the segment is created if needed and a truncated last record is dropped before appending.
+	 *
+	 * @param day day of the segment
+	 * @param encodedRecords length prefixed records
+	 * @throws IOException if the segment cannot be written
+	 */
+	private void appendToSegment(final long day, final byte[] encodedRecords) throws IOException {
+
+		final Path segmentFile = segmentFile(day);
+		if (!Files.exists(segmentFile)) {
+
+			Files.createDirectories(historyDirectory);
+			final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+			header.putInt(SEGMENT_HEADER).flip();
+			try (final FileChannel segmentChannel = FileChannel.open(segmentFile, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+				while (header.hasRemaining()) {
+					segmentChannel.write(header);
+				}
+			}
+		}
+
+		final SegmentIndex segmentIndex = getSegmentIndex(day);
+		try (final FileChannel segmentChannel = FileChannel.open(segmentFile, StandardOpenOption.WRITE)) {
+
+			if (segmentChannel.size() > segmentIndex.getLength()) {
+				segmentChannel.truncate(segmentIndex.getLength());
+			}
+			segmentChannel.position(segmentIndex.getLength());
+
+			final ByteBuffer recordsContent = ByteBuffer.wrap(encodedRecords);
+			while (recordsContent.hasRemaining()) {
+				segmentChannel.write(recordsContent);
+			}
+		}
+
+		// The index stays in sync with the appended records
+		indexRecords(segmentIndex, new ByteArrayInputStream(encodedRecords), segmentIndex.getLength());
+	}
+
+	/**
+	 * Get the index of a segment, the segment is scanned if its index is not in memory.
+	 *
+	 * @param day day of the segment
+	 * @return index of the segment
+	 * @throws IOException if the segment cannot be read
+	 */
+	private SegmentIndex getSegmentIndex(final long day) throws IOException {
+
+		SegmentIndex segmentIndex = segmentIndexes.get(Long.valueOf(day));
+		if (null != segmentIndex) {
+			return segmentIndex;
+		}
+
+		segmentIndex = new SegmentIndex();
+		try (final DataInputStream segmentInput = new DataInputStream(new BufferedInputStream(Files.newInputStream(segmentFile(day))))) {
+
+			if (SEGMENT_HEADER != segmentInput.readInt()) {
+				throw new IOException("Invalid history segment header"); //$NON-NLS-1$
+			}
+			indexRecords(segmentIndex, segmentInput, HEADER_SIZE);
+		}
+		segmentIndexes.put(Long.valueOf(day), segmentIndex);
+
+		LOG.debug("History segment {} indexed: {} blocks, {} bytes", segmentFile(day), Integer.valueOf(segmentIndex.getBlockCount()), Long.valueOf(segmentIndex.getLength())); //$NON-NLS-1$
+		return segmentIndex;
+	}
+
+	/**
+	 * Add records to an index, reading stops at the first truncated or corrupted record.
+	 *
+	 * @param segmentIndex index to complete
+	 * @param recordsInput length prefixed records
+	 * @param startOffset offset of the first record in the segment
+	 * @throws IOException if the records cannot be read
+	 */
+	private static void indexRecords(final SegmentIndex segmentIndex, final InputStream recordsInput, final long startOffset) throws IOException {
+
+		final DataInputStream recordsDataInput = new DataInputStream(recordsInput);
+		long offset = startOffset;
+		try {
+			while (true) {
+
+				final int recordLength = recordsDataInput.readInt();
+				if (recordLength <= 0 || recordLength > MAXIMUM_RECORD_LENGTH) {
+					LOG.warn("Corrupted history record at offset {}, next records ignored", Long.valueOf(offset)); //$NON-NLS-1$
+					break;
+				}
+
+				final byte[] encodedRecord = new byte[recordLength];
+				recordsDataInput.readFully(encodedRecord);
+				final HistoryRecord historyRecord = decode(encodedRecord);
+				if (null != historyRecord) {
+					segmentIndex.add(offset, historyRecord.getTime(), SegmentIndex.jobFilterBits(historyRecord.getJobKey()));
+				}
+				offset += RECORD_LENGTH_SIZE + recordLength;
+			}
+		}
+		catch (final EOFException e) {
+			// End of the records or truncated last record
+		}
+
+		segmentIndex.setLength(offset);
+	}
+
+	/**
+	 * Delete the segments older than the retention.
+	 */
+	private void applyRetention() {
+
+		retentionDay = currentDay();
+		if (!Files.isDirectory(historyDirectory)) {
+			return;
+		}
+
+		try (final DirectoryStream<Path> segmentFiles = Files.newDirectoryStream(historyDirectory, '*' + SEGMENT_FILE_SUFFIX)) {
+
+			for (final Path segmentFile : segmentFiles) {
+
+				final String fileName = segmentFile.getFileName().toString();
+				final long day;
+				try {
+					day = segmentDateFormat.parse(fileName.substring(0, fileName.length() - SEGMENT_FILE_SUFFIX.length())).getTime() / ONE_DAY;
+				}
+				catch (final ParseException e) {
+					LOG.debug("Unknown history file {} kept", segmentFile, e); //$NON-NLS-1$
+					continue;
+				}
+
+				if (day <= retentionDay - retentionDays) {
+					Files.delete(segmentFile);
+					segmentIndexes.remove(Long.valueOf(day));
+					LOG.info("History segment {} deleted by the retention policy", segmentFile); //$NON-NLS-1$
+				}
+			}
+		}
+		catch (final IOException e) {
+			LOG.warn("History retention error", e); //$NON-NLS-1$
+		}
+	}
+
+	/**
+	 * Get the segment file of a day.
+	 *
+	 * @param day number of days since the epoch
+	 * @return segment file path
+	 */
+	private Path segmentFile(final long day) {
+		return historyDirectory.resolve(segmentDateFormat.format(new Date(day * ONE_DAY)) + SEGMENT_FILE_SUFFIX);
+	}
+
+	/**
+	 * Get the current day.
+	 *
+	 * @return number of days since the epoch
+	 */
+	private static long currentDay() {
+		return System.currentTimeMillis() / ONE_DAY;
+	}
+
+	/**
+	 * Encode a record without its length prefix.
+	 *
+	 * @param historyRecord record to encode
+	 * @return encoded record
+	 * @throws IOException if a text of the record is too long
+	 */
+	private static byte[] encode(final HistoryRecord historyRecord) throws IOException {
+
+		final ByteArrayOutputStream encodedRecord = new ByteArrayOutputStream();
+		try (final DataOutputStream recordOutput = new DataOutputStream(encodedRecord)) {
+
+			recordOutput.writeByte(historyRecord.getType().getCode());
+			recordOutput.writeLong(historyRecord.getTime());
+			recordOutput.writeLong(historyRecord.getExecutionId());
+			recordOutput.writeUTF(historyRecord.getServerName());
+			recordOutput.writeUTF(historyRecord.getProject());
+			recordOutput.writeUTF(historyRecord.getJobId());
+			recordOutput.writeUTF(historyRecord.getJobName());
+		}
+
+		return encodedRecord.toByteArray();
+	}
+
+	/**
+	 * Decode a record.
+	 *
+	 * @param encodedRecord record without its length prefix
+	 * @return decoded record or null if its type is unknown
+	 * @throws IOException if the record is corrupted
+	 */
+	private static HistoryRecord decode(final byte[] encodedRecord) throws IOException {
+
+		final DataInputStream recordInput = new DataInputStream(new ByteArrayInputStream(encodedRecord));
+		final HistoryRecordType type = HistoryRecordType.fromCode(recordInput.readByte());
+		if (null == type) {
+			return null;
+		}
+
+		final long time = recordInput.readLong();
+		final long executionId = recordInput.readLong();
+		final String serverName = recordInput.readUTF();
+		final String project = recordInput.readUTF();
+		final String jobId = recordInput.readUTF();
+		final String jobName = recordInput.readUTF();
+		return new HistoryRecord(type, time, executionId, serverName, project, jobId, jobName);
+	}
+}
@@ -0,0 +1,145 @@
+package com.github.sbugat.rundeckmonitor.history;
+
+/**
+ * Immutable execution recorded in the local history.
+ *
+ * @author Sylvain Bugat
+ *
+ */
+public final class HistoryRecord {
+
+	/** Type of the record. */
+	private final HistoryRecordType type;
+
+	/** Time of the record: completion time of a failed or succeeded execution or start time of a late execution, in milliseconds. */
+	private final long time;
+
+	/** Rundeck execution identifier. */
+	private final long executionId;
+
+	/** Name of the server of the execution. */
+	private final String serverName;
+
+	/** Project of the execution. */
+	private final String project;
+
+	/** Job identifier, empty for an ad-hoc execution. */
+	private final String jobId;
+
+	/** Job name or description of an ad-hoc execution. */
+	private final String jobName;
+
+	/**
+	 * Copy all fields of the record.
+	 *
+	 * @param typeArg type of the record
+	 * @param timeArg completion time of a failed or succeeded execution or start time of a late execution
+	 * @param executionIdArg Rundeck execution identifier
+	 * @param serverNameArg name of the server of the execution
+	 * @param projectArg project of the execution
+	 * @param jobIdArg job identifier or null for an ad-hoc execution
+	 * @param jobNameArg job name or description of an ad-hoc execution
+	 */
+	public HistoryRecord(final HistoryRecordType typeArg, final long timeArg, final long executionIdArg, final String serverNameArg, final String projectArg, final String jobIdArg, final String jobNameArg) {
+
+		type = typeArg;
+		time = timeArg;
+		executionId = executionIdArg;
+		serverName = nullToEmpty(serverNameArg);
+		project = nullToEmpty(projectArg);
+		jobId = nullToEmpty(jobIdArg);
+		jobName = nullToEmpty(jobNameArg);
+	}
+
+	/**
+	 * Get the type of the record.
+	 *
+	 * @return failed or late execution type
+	 */
+	public HistoryRecordType getType() {
+		return type;
+	}
+
+	/**
+	 * Get the time of the record.
+	 *
+	 * @return completion time of a failed or succeeded execution or start time of a late execution in milliseconds
+	 */
+	public long getTime() {
+		return time;
+	}
+
+	/**
+	 * Get the Rundeck execution identifier.
+	 *
+	 * @return execution identifier
+	 */
+	public long getExecutionId() {
+		return executionId;
+	}
+
+	/**
+	 * Get the name of the server of the execution.
+	 *
+	 * @return server name
+	 */
+	public String getServerName() {
+		return serverName;
+	}
+
+	/**
+	 * Get the project of the execution.
+	 *
+	 * @return project name
+	 */
+	public String getProject() {
+		return project;
+	}
+
+	/**
+	 * Get the job identifier.
+	 *
+	 * @return job identifier, empty for an ad-hoc execution
+	 */
+	public String getJobId() {
+		return jobId;
+	}
+
+	/**
+	 * Get the job name.
+	 *
+	 * @return job name or description of an ad-hoc execution
+	 */
+	public String getJobName() {
+		return jobName;
+	}
+
+	/**
+	 * Get the key used by per-job queries.
+	 *
+	 * @return job identifier or job name for an ad-hoc execution
+	 */
+	public String getJobKey() {
+
+		if (jobId.isEmpty()) {
+			return jobName;
+		}
+
+		return jobId;
+	}
+
+	/**
+	 * Replace a null text by an empty text, null can't be written in the segment files.
+	 *
+	 * @param text text to check
+	 * @return the text or an empty text
+	 */
+	private static String nullToEmpty(final String text) {
+
+		if (null == text) {
+			return ""; //$NON-NLS-1$
+		}
+
+		return text;
+	}
+}
@@ -0,0 +1,55 @@
+package com.github.sbugat.rundeckmonitor.history;
+
+/**
+ * Type of an execution recorded in the history.
+ *
+ * @author Sylvain Bugat
+ *
+ */
+public enum HistoryRecordType {
+
+	/** Failed execution, recorded with its completion time. */
+	FAILED((byte) 1),
+	/** Late execution, recorded with its start time. */
+	LATE((byte) 2),
+	/** Succeeded execution, recorded with the time its completion was observed. */
+	SUCCEEDED((byte) 3);
+
+	/** Code of the type in the segment files. */
+	private final byte code;
+
+	/**
+	 * Set the code of a type.
+	 *
+	 * @param codeArg code of the type in the segment files
+	 */
+	private HistoryRecordType(final byte codeArg) {
+		code = codeArg;
+	}
+
+	/**
+	 * Get the code of the type in the segment files.
+	 *
+	 * @return code of the type
+	 */
+	public byte getCode() {
+		return code;
+	}
+
+	/**
+	 * Get a type from its code in the segment files.
+	 *
+	 * @param code code of the type
+	 * @return type of the code or null if the code is unknown
+	 */
+	public static HistoryRecordType fromCode(final byte code) {
+
+		for (final HistoryRecordType historyRecordType : values()) {
+			if (historyRecordType.code == code) {
+				return historyRecordType;
+			}
+		}
+
+		return null;
+	}
+}
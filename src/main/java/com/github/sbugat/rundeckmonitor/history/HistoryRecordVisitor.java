@@ -0,0 +1,18 @@
+package com.github.sbugat.rundeckmonitor.history;
+
+/**
+ * Visitor of the records found by a history query, records are streamed without being all loaded in memory.
+ *
+ * @author Sylvain Bugat
+ *
+ */
+public interface HistoryRecordVisitor {
+
+	/**
+	 * Visit a record matching the query.
+	 *
+	 * @param historyRecord record found
+	 * @return true to continue the query, false to stop it
+	 */
+	boolean visit(final HistoryRecord historyRecord);
+}
@@ -0,0 +1,161 @@
+package com.github.sbugat.rundeckmonitor.history;
+
+import java.util.Arrays;
+
+/**
+ * Sparse index of a segment file: one entry per block of records with its offset, its time range and a small job filter.
+ *
+ * Queries read only the blocks whose time range overlaps the requested range and whose job filter may contain the requested job. The job filter is a 64 bits Bloom filter: it can give false positives, never false negatives.
+ *
+ * @author Sylvain Bugat
+ *
+ */
+final class SegmentIndex {
+
+	/** Number of records in a block. */
+	private static final int BLOCK_RECORDS = 64;
+
+	/** Initial number of blocks allocated. */
+	private static final int INITIAL_BLOCKS = 16;
+
+	/** Multiplier used to spread the job key hashes (golden ratio). */
+	private static final long HASH_MULTIPLIER = 0x9E3779B97F4A7C15L;
+
+	/** Number of bits of a job filter bit index. */
+	private static final int FILTER_BIT_INDEX_BITS = 6;
+
+	/** Mask of a job filter bit index. */
+	private static final int FILTER_BIT_INDEX_MASK = Long.SIZE - 1;
+
+	/** Offset of the first record of each block. */
+	private long[] blockOffsets = new long[INITIAL_BLOCKS];
+
+	/** Minimum record time of each block. */
+	private long[] minimumTimes = new long[INITIAL_BLOCKS];
+
+	/** Maximum record time of each block. */
+	private long[] maximumTimes = new long[INITIAL_BLOCKS];
+
+	/** Job filter of each block. */
+	private long[] jobFilters = new long[INITIAL_BLOCKS];
+
+	/** Number of blocks. */
+	private int blockCount;
+
+	/** Number of records in the last block. */
+	private int lastBlockRecords;
+
+	/** Length of the valid part of the segment file, a truncated last record is not included. */
+	private long length;
+
+	/**
+	 * Compute the job filter bits of a job key.
+	 *
+	 * @param jobKey job identifier or name
+	 * @return filter with 2 bits set
+	 */
+	static long jobFilterBits(final String jobKey) {
+
+		final long hash = jobKey.hashCode() * HASH_MULTIPLIER;
+		return 1L << (hash & FILTER_BIT_INDEX_MASK) | 1L << (hash >>> FILTER_BIT_INDEX_BITS & FILTER_BIT_INDEX_MASK);
+	}
+
+	/**
+	 * Index a record appended to the segment.
+	 *
+	 * @param offset offset of the record in the segment file
+	 * @param time time of the record
+	 * @param jobFilterBitsArg job filter bits of the record
+	 */
+	void add(final long offset, final long time, final long jobFilterBitsArg) {
+
+		if (0 == blockCount || BLOCK_RECORDS == lastBlockRecords) {
+
+			if (blockCount == blockOffsets.length) {
+				blockOffsets = Arrays.copyOf(blockOffsets, blockCount * 2);
+				minimumTimes = Arrays.copyOf(minimumTimes, blockCount * 2);
+				maximumTimes = Arrays.copyOf(maximumTimes, blockCount * 2);
+				jobFilters = Arrays.copyOf(jobFilters, blockCount * 2);
+			}
+
+			blockOffsets[blockCount] = offset;
+			minimumTimes[blockCount] = time;
+			maximumTimes[blockCount] = time;
+			jobFilters[blockCount] = 0;
+			blockCount++;
+			lastBlockRecords = 0;
+		}
+
+		final int lastBlock = blockCount - 1;
+		minimumTimes[lastBlock] = Math.min(minimumTimes[lastBlock], time);
+		maximumTimes[lastBlock] = Math.max(maximumTimes[lastBlock], time);
+		jobFilters[lastBlock] |= jobFilterBitsArg;
+		lastBlockRecords++;
+	}
+
+	/**
+	 * Get the number of blocks.
+	 *
+	 * @return number of blocks
+	 */
+	int getBlockCount() {
+		return blockCount;
+	}
+
+	/**
+	 * Get the offset of the first record of a block.
+	 *
+	 * @param block block index
+	 * @return offset in the segment file
+	 */
+	long getBlockStart(final int block) {
+		return blockOffsets[block];
+	}
+
+	/**
+	 * Get the offset following the last record of a block.
+	 *
+	 * @param block block index
+	 * @return offset of the next block or valid length of the segment for the last block
+	 */
+	long getBlockEnd(final int block) {
+
+		if (block + 1 < blockCount) {
+			return blockOffsets[block + 1];
+		}
+
+		return length;
+	}
+
+	/**
+	 * Check if a block may contain records of a time range and of a job.
+	 *
+	 * @param block block index
+	 * @param fromTime start of the range, inclusive
+	 * @param toTime end of the range, inclusive
+	 * @param jobFilterBitsArg job filter bits of the requested job, 0 for all jobs
+	 * @return false if the block has no matching record
+	 */
+	boolean mayContain(final int block, final long fromTime, final long toTime, final long jobFilterBitsArg) {
+
+		return maximumTimes[block] >= fromTime && minimumTimes[block] <= toTime && (jobFilters[block] & jobFilterBitsArg) == jobFilterBitsArg;
+	}
+
+	/**
+	 * Get the length of the valid part of the segment file.
+	 *
+	 * @return offset following the last valid record
+	 */
+	long getLength() {
+		return length;
+	}
+
+	/**
+	 * Set the length of the valid part of the segment file.
+	 *
+	 * @param lengthArg offset following the last valid record
+	 */
+	void setLength(final long lengthArg) {
+		length = lengthArg;
+	}
+}
@@ -0,0 +1,7 @@
+/**
+ * RunDeck Monitor local execution history package.
+ *
+ * @author Sylvain Bugat
+ *
+ */
+package com.github.sbugat.rundeckmonitor.history;
@@ -0,0 +1,200 @@
+package com.github.sbugat.rundeckmonitor.statistics;
+
+import java.util.Arrays;
+
+/**
+ * Streaming quantile sketch of the durations of a job (merging t-digest).
+ *
+ * Durations are buffered then merged into a small sorted list of centroids, a mean and a weight. Centroids near the extreme quantiles are kept small, so high quantiles stay accurate with a few dozens of centroids whatever the number of durations.
+ *
+ * @author Sylvain Bugat
+ *
+ */
+final class DurationDigest {
+
+	/** Compression of the digest, the number of centroids is about the half of it. */
+	private static final double COMPRESSION = 100;
+
+	/** Number of durations buffered before a merge. */
+	private static final int BUFFER_SIZE = 32;
+
+	/** Centroid means sorted in increasing order. */
+	private double[] means = new double[0];
+
+	/** Centroid weights. */
+	private double[] weights = new double[0];
+
+	/** Durations not merged yet. */
+	private final double[] buffer = new double[BUFFER_SIZE];
+
+	/** Number of buffered durations. */
+	private int bufferCount;
+
+	/** Number of added durations. */
+	private long count;
+
+	/** Minimum added duration. */
+	private double minimum = Double.POSITIVE_INFINITY;
+
+	/** Maximum added duration. */
+	private double maximum = Double.NEGATIVE_INFINITY;
+
+	/**
+	 * Add a duration.
+	 *
+	 * @param duration duration in milliseconds
+	 */
+	void add(final double duration) {
+
+		buffer[bufferCount] = duration;
+		bufferCount++;
+		count++;
+		minimum = Math.min(minimum, duration);
+		maximum = Math.max(maximum, duration);
+
+		if (BUFFER_SIZE == bufferCount) {
+			merge();
+		}
+	}
+
+	/**
+	 * Get the number of added durations.
+	 *
+	 * @return number of durations
+	 */
+	long getCount() {
+		return count;
+	}
+
+	/**
+	 * Get the number of centroids after merging the buffered durations.
+	 *
+	 * @return number of centroids
+	 */
+	int getCentroidCount() {
+
+		merge();
+		return means.length;
+	}
+
+	/**
+	 * Estimate a quantile of the added durations.
+	 *
+	 * @param quantile quantile between 0 and 1
+	 * @return estimated duration in milliseconds, NaN if no duration has been added
+	 */
+	double getQuantile(final double quantile) {
+
+		merge();
+		if (0 == means.length) {
+			return Double.NaN;
+		}
+		if (1 == means.length) {
+			return means[0];
+		}
+
+		// Interpolate between the centers of the centroids, the extremes are the minimum and maximum durations
+		final double index = quantile * count;
+		final int lastCentroid = means.length - 1;
+		if (index < weights[0] / 2) {
+			return minimum + (means[0] - minimum) * index / (weights[0] / 2);
+		}
+
+		double weightSoFar = weights[0] / 2;
+		for (int i = 0; i < lastCentroid; i++) {
+
+			final double weightBetweenCenters = (weights[i] + weights[i + 1]) / 2;
+			if (weightSoFar + weightBetweenCenters > index) {
+				return means[i] + (means[i + 1] - means[i]) * (index - weightSoFar) / weightBetweenCenters;
+			}
+			weightSoFar += weightBetweenCenters;
+		}
+
+		return Math.min(maximum, means[lastCentroid] + (maximum - means[lastCentroid]) * (index - weightSoFar) / (weights[lastCentroid] / 2));
+	}
+
+	/**
+	 * Merge the buffered durations with the centroids and compress the centroids.
+	 */
+	private void merge() {
+
+		if (0 == bufferCount) {
+			return;
+		}
+
+		Arrays.sort(buffer, 0, bufferCount);
+
+		// Merge the sorted centroids and the sorted buffered durations
+		final int mergedCount = means.length + bufferCount;
+		final double[] mergedMeans = new double[mergedCount];
+		final double[] mergedWeights = new double[mergedCount];
+		int centroidIndex = 0;
+		int bufferIndex = 0;
+		for (int i = 0; i < mergedCount; i++) {
+
+			if (bufferIndex >= bufferCount || centroidIndex < means.length && means[centroidIndex] <= buffer[bufferIndex]) {
+				mergedMeans[i] = means[centroidIndex];
+				mergedWeights[i] = weights[centroidIndex];
+				centroidIndex++;
+			}
+			else {
+				mergedMeans[i] = buffer[bufferIndex];
+				mergedWeights[i] = 1;
+				bufferIndex++;
+			}
+		}
+		bufferCount = 0;
+
+		// Compress: neighbour centroids are merged while they stay within one unit of the scale function
+		final double totalWeight = count;
+		int compressedCount = 0;
+		double weightSoFar = 0;
+		double weightLimit = totalWeight * quantileFromScale(scaleFromQuantile(0) + 1);
+		for (int i = 1; i < mergedCount; i++) {
+
+			final double proposedWeight = mergedWeights[compressedCount] + mergedWeights[i];
+			if (weightSoFar + proposedWeight <= weightLimit) {
+
+				mergedMeans[compressedCount] += (mergedMeans[i] - mergedMeans[compressedCount]) * mergedWeights[i] / proposedWeight;
+				mergedWeights[compressedCount] = proposedWeight;
+			}
+			else {
+
+				weightSoFar += mergedWeights[compressedCount];
+				weightLimit = totalWeight * quantileFromScale(scaleFromQuantile(weightSoFar / totalWeight) + 1);
+				compressedCount++;
+				mergedMeans[compressedCount] = mergedMeans[i];
+				mergedWeights[compressedCount] = mergedWeights[i];
+			}
+		}
+		compressedCount++;
+
+		means = Arrays.copyOf(mergedMeans, compressedCount);
+		weights = Arrays.copyOf(mergedWeights, compressedCount);
+	}
+
+	/**
+	 * Scale function of the digest: small steps near the extreme quantiles.
+	 *
+	 * @param quantile quantile between 0 and 1
+	 * @return scale value
+	 */
+	private static double scaleFromQuantile(final double quantile) {
+		return COMPRESSION / (2 * Math.PI) * Math.asin(2 * quantile - 1);
+	}
+
+	/**
+	 * Inverse of the scale function.
+	 *
+	 * @param scale scale value
+	 * @return quantile between 0 and 1
+	 */
+	private static double quantileFromScale(final double scale) {
+
+		if (scale >= COMPRESSION / 2 / 2) {
+			return 1;
+		}
+
+		return (Math.sin(scale * (2 * Math.PI) / COMPRESSION) + 1) / 2;
+	}
+}
@@ -0,0 +1,153 @@
+package com.github.sbugat.rundeckmonitor.statistics;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Approximate most frequent keys of a stream with a fixed number of counters (Space-Saving algorithm).
+ *
+ * When all counters are used, a new key replaces the key with the lowest count and inherits its count: counts are over-estimated by at most the inherited count, any key more frequent than the stream size divided by the capacity is always kept. Keys are ranked by their guaranteed count, the count without the inherited part.
+ *
+ * @author Sylvain Bugat
+ *
+ */
+final class HeavyHitters {
+
+	/** Highest guaranteed counts first. */
+	private static final Comparator<Counter> HIGHEST_COUNT_FIRST_COMPARATOR = new Comparator<Counter>() {
+
+		@Override
+		public int compare(final Counter counter1, final Counter counter2) {
+			return Long.compare(counter2.getGuaranteedCount(), counter1.getGuaranteedCount());
+		}
+	};
+
+	/** Maximum number of counters. */
+	private final int capacity;
+
+	/** Counters by key. */
+	private final Map<String, Counter> counters = new HashMap<>();
+
+	/**
+	 * Initialize empty counters.
+	 *
+	 * @param capacityArg maximum number of counted keys
+	 */
+	HeavyHitters(final int capacityArg) {
+		capacity = capacityArg;
+	}
+
+	/**
+	 * Count an occurrence of a key.
+	 *
+	 * @param key counted key
+	 * @param label label displayed with the key
+	 */
+	void add(final String key, final String label) {
+
+		Counter counter = counters.get(key);
+		if (null == counter) {
+
+			long inheritedCount = 0;
+			if (counters.size() >= capacity) {
+
+				// Replace the least frequent key
+				Counter minimumCounter = null;
+				for (final Counter usedCounter : counters.values()) {
+					if (null == minimumCounter || usedCounter.count < minimumCounter.count) {
+						minimumCounter = usedCounter;
+					}
+				}
+				counters.remove(minimumCounter.key);
+				inheritedCount = minimumCounter.count;
+			}
+
+			counter = new Counter(key, inheritedCount);
+			counters.put(key, counter);
+		}
+
+		counter.label = label;
+		counter.count++;
+	}
+
+	/**
+	 * Get the most frequent keys.
+	 *
+	 * @param maximumKeys maximum number of returned keys
+	 * @return keys and counts, highest guaranteed count first
+	 */
+	List<Counter> getTop(final int maximumKeys) {
+
+		final List<Counter> topCounters = new ArrayList<>(counters.values());
+		Collections.sort(topCounters, HIGHEST_COUNT_FIRST_COMPARATOR);
+		if (topCounters.size() > maximumKeys) {
+			return topCounters.subList(0, maximumKeys);
+		}
+
+		return topCounters;
+	}
+
+	/**
+	 * Counter of a key.
+	 *
+	 * @author Sylvain Bugat
+	 *
+	 */
+	static final class Counter {
+
+		/** Counted key. */
+		private final String key;
+
+		/** Last label of the key. */
+		private String label;
+
+		/** Estimated count, including the count inherited from the replaced key. */
+		private long count;
+
+		/** Count inherited from the replaced key, maximum over-estimation of the count. */
+		private final long inheritedCount;
+
+		/**
+		 * Initialize a counter.
+		 *
+		 * @param keyArg counted key
+		 * @param inheritedCountArg count inherited from the replaced key
+		 */
+		Counter(final String keyArg, final long inheritedCountArg) {
+			key = keyArg;
+			count = inheritedCountArg;
+			inheritedCount = inheritedCountArg;
+		}
+
+		/**
+		 * Get the counted key.
+		 *
+		 * @return key
+		 */
+		String getKey() {
+			return key;
+		}
+
+		/**
+		 * Get the last label of the key.
+		 *
+		 * @return label
+		 */
+		String getLabel() {
+			return label;
+		}
+
+		/**
+		 * Get the guaranteed count.
+		 *
+		 * @return number of occurrences counted since the key was added, the real count can be higher by at most the inherited count
+		 */
+		long getGuaranteedCount() {
+			return count - inheritedCount;
+		}
+	}
+}
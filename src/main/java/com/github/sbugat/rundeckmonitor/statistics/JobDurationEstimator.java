@@ -0,0 +1,100 @@
+package com.github.sbugat.rundeckmonitor.statistics;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Late execution threshold of each job learned from the durations of its succeeded executions.
+ *
+ * A running execution is late when it exceeds the configured quantile of the durations of its job. Until enough durations are known, the threshold is based on the Rundeck average duration of the job, or is the global late threshold for an ad-hoc execution or a job never run. Only the duration sketches of the last observed jobs are kept.
+ *
+ * @author Sylvain Bugat
+ *
+ */
+public final class JobDurationEstimator {
+
+	/** Maximum number of jobs with a duration sketch, the least recently observed jobs are evicted. */
+	private static final int MAX_TRACKED_JOBS = 2_000;
+
+	/** Load factor of the sketches map. */
+	private static final float LOAD_FACTOR = 0.75f;
+
+	/** Number of durations needed before using the quantile of a job. */
+	private static final long MINIMUM_DURATIONS = 10;
+
+	/** Multiplier of the Rundeck average duration of a job used until enough durations are known. */
+	private static final int AVERAGE_DURATION_MULTIPLIER = 2;
+
+	/** Minimum late threshold in milliseconds, short jobs are not late after a few seconds. */
+	private static final long MINIMUM_LATE_THRESHOLD = 60_000L;
+
+	/** Percentage divisor. */
+	private static final double PERCENT = 100;
+
+	/** Duration sketches by job key, least recently observed first. */
+	private final Map<String, DurationDigest> durationDigests = new LinkedHashMap<String, DurationDigest>(MAX_TRACKED_JOBS, LOAD_FACTOR, true) {
+
+		/** Serial version UID. */
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(final Map.Entry<String, DurationDigest> eldest) {
+			return size() > MAX_TRACKED_JOBS;
+		}
+	};
+
+	/** Quantile of the durations used as late threshold in percent, 0 to only use the global late threshold. */
+	private int lateQuantile;
+
+	/**
+	 * Change the quantile used as late threshold.
+	 *
+	 * @param lateQuantileArg quantile in percent, 0 to only use the global late threshold
+	 */
+	public synchronized void setLateQuantile(final int lateQuantileArg) {
+		lateQuantile = lateQuantileArg;
+	}
+
+	/**
+	 * Add the duration of a succeeded execution.
+	 *
+	 * @param jobKey job identifier
+	 * @param duration duration of the execution in milliseconds
+	 */
+	public synchronized void recordDuration(final String jobKey, final long duration) {
+
+		DurationDigest durationDigest = durationDigests.get(jobKey);
+		if (null == durationDigest) {
+			durationDigest = new DurationDigest();
+			durationDigests.put(jobKey, durationDigest);
+		}
+		durationDigest.add(duration);
+	}
+
+	/**
+	 * Get the late threshold of a job.
+	 *
+	 * @param jobKey job identifier or null for an ad-hoc execution
+	 * @param averageDuration Rundeck average duration of the job in milliseconds, 0 if unknown
+	 * @param globalLateThreshold global late threshold in milliseconds
+	 * @return duration after which an execution of the job is late in milliseconds
+	 */
+	public synchronized long getLateThreshold(final String jobKey, final long averageDuration, final long globalLateThreshold) {
+
+		if (0 == lateQuantile || null == jobKey) {
+			return globalLateThreshold;
+		}
+
+		final DurationDigest durationDigest = durationDigests.get(jobKey);
+		if (null != durationDigest && durationDigest.getCount() >= MINIMUM_DURATIONS) {
+			return Math.max(MINIMUM_LATE_THRESHOLD, (long) durationDigest.getQuantile(lateQuantile / PERCENT));
+		}
+
+		// Cold start with the Rundeck statistics of the job
+		if (averageDuration > 0) {
+			return Math.max(MINIMUM_LATE_THRESHOLD, averageDuration * AVERAGE_DURATION_MULTIPLIER);
+		}
+
+		return globalLateThreshold;
+	}
+}
@@ -0,0 +1,181 @@
+package com.github.sbugat.rundeckmonitor.statistics;
+
+/**
+ * Immutable snapshot of the statistics of a job.
+ *
+ * Executions are counted as observed by the monitor: every failed execution is observed, a succeeded execution is only observed if it was running during a refresh.
+ *
+ * @author Sylvain Bugat
+ *
+ */
+public final class JobStatistics {
+
+	/** Percentage multiplier. */
+	private static final int PERCENT = 100;
+
+	/** Job identifier or job name of ad-hoc executions. */
+	private final String jobKey;
+
+	/** Last known job name. */
+	private final String jobName;
+
+	/** Number of failed executions. */
+	private final long failureCount;
+
+	/** Number of observed completed executions, 0 if the job statistics have been evicted. */
+	private final long executionCount;
+
+	/** Mean time between 2 failures in milliseconds, -1 if unknown. */
+	private final long meanTimeBetweenFailures;
+
+	/** Mean time between the first failure of a failure streak and the next success in milliseconds, -1 if unknown. */
+	private final long meanTimeToRecovery;
+
+	/** Flag indicating if the last observed execution failed. */
+	private final boolean failing;
+
+	/** Number of failed executions of the local history during the last day, -1 if unknown. */
+	private final long recentFailureCount;
+
+	/**
+	 * Copy all statistics.
+	 *
+	 * @param jobKeyArg job identifier or job name of ad-hoc executions
+	 * @param jobNameArg last known job name
+	 * @param failureCountArg number of failed executions
+	 * @param executionCountArg number of observed completed executions, 0 if unknown
+	 * @param meanTimeBetweenFailuresArg mean time between 2 failures in milliseconds, -1 if unknown
+	 * @param meanTimeToRecoveryArg mean time to recovery in milliseconds, -1 if unknown
+	 * @param failingArg true if the last observed execution failed
+	 */
+	public JobStatistics(final String jobKeyArg, final String jobNameArg, final long failureCountArg, final long executionCountArg, final long meanTimeBetweenFailuresArg, final long meanTimeToRecoveryArg, final boolean failingArg) {
+
+		jobKey = jobKeyArg;
+		jobName = jobNameArg;
+		failureCount = failureCountArg;
+		executionCount = executionCountArg;
+		meanTimeBetweenFailures = meanTimeBetweenFailuresArg;
+		meanTimeToRecovery = meanTimeToRecoveryArg;
+		failing = failingArg;
+		recentFailureCount = -1;
+	}
+
+	/**
+	 * Copy the statistics of a job with a number of recent failures.
+	 *
+	 * @param jobStatistics statistics to copy
+	 * @param recentFailureCountArg number of failed executions of the local history during the last day
+	 */
+	private JobStatistics(final JobStatistics jobStatistics, final long recentFailureCountArg) {
+
+		jobKey = jobStatistics.jobKey;
+		jobName = jobStatistics.jobName;
+		failureCount = jobStatistics.failureCount;
+		executionCount = jobStatistics.executionCount;
+		meanTimeBetweenFailures = jobStatistics.meanTimeBetweenFailures;
+		meanTimeToRecovery = jobStatistics.meanTimeToRecovery;
+		failing = jobStatistics.failing;
+		recentFailureCount = recentFailureCountArg;
+	}
+
+	/**
+	 * Get a copy of the statistics with a number of recent failures.
+	 *
+	 * @param recentFailureCountArg number of failed executions of the local history during the last day
+	 * @return statistics with the recent failures
+	 */
+	public JobStatistics withRecentFailureCount(final long recentFailureCountArg) {
+
+		if (recentFailureCount == recentFailureCountArg) {
+			return this;
+		}
+
+		return new JobStatistics(this, recentFailureCountArg);
+	}
+
+	/**
+	 * Get the job key.
+	 *
+	 * @return job identifier or job name of ad-hoc executions
+	 */
+	public String getJobKey() {
+		return jobKey;
+	}
+
+	/**
+	 * Get the job name.
+	 *
+	 * @return last known job name
+	 */
+	public String getJobName() {
+		return jobName;
+	}
+
+	/**
+	 * Get the number of failed executions.
+	 *
+	 * @return failure count
+	 */
+	public long getFailureCount() {
+		return failureCount;
+	}
+
+	/**
+	 * Get the number of observed completed executions.
+	 *
+	 * @return execution count, 0 if unknown
+	 */
+	public long getExecutionCount() {
+		return executionCount;
+	}
+
+	/**
+	 * Get the percentage of failed executions among the observed executions.
+	 *
+	 * @return failure rate in percent, -1 if unknown
+	 */
+	public int getFailureRate() {
+
+		if (executionCount <= 0) {
+			return -1;
+		}
+
+		return (int) (Math.min(failureCount, executionCount) * PERCENT / executionCount);
+	}
+
+	/**
+	 * Get the mean time between 2 failures.
+	 *
+	 * @return mean time in milliseconds, -1 if there are less than 2 failures
+	 */
+	public long getMeanTimeBetweenFailures() {
+		return meanTimeBetweenFailures;
+	}
+
+	/**
+	 * Get the mean time between the first failure of a failure streak and the next success.
+	 *
+	 * @return mean time in milliseconds, -1 if the job has never recovered
+	 */
+	public long getMeanTimeToRecovery() {
+		return meanTimeToRecovery;
+	}
+
+	/**
+	 * Check if the last observed execution failed.
+	 *
+	 * @return true if the job has not recovered yet
+	 */
+	public boolean isFailing() {
+		return failing;
+	}
+
+	/**
+	 * Get the number of failed executions of the local history during the last day.
+	 *
+	 * @return recent failure count, -1 if the history is disabled or not queried yet
+	 */
+	public long getRecentFailureCount() {
+		return recentFailureCount;
+	}
+}
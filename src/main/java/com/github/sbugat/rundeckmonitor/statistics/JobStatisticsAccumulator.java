@@ -0,0 +1,119 @@
+package com.github.sbugat.rundeckmonitor.statistics;
+
+/**
+ * Constant memory accumulator of the statistics of a job, updated by each observed execution.
+ *
+ * @author Sylvain Bugat
+ *
+ */
+final class JobStatisticsAccumulator {
+
+	/** Last known job name. */
+	private String jobName;
+
+	/** Number of observed completed executions. */
+	private long executionCount;
+
+	/** Number of failed executions. */
+	private long failureCount;
+
+	/** Completion time of the oldest failure. */
+	private long firstFailureTime;
+
+	/** Completion time of the newest failure. */
+	private long lastFailureTime;
+
+	/** Completion time of the first failure of the current failure streak, 0 if the last execution succeeded. */
+	private long failureStreakStart;
+
+	/** Number of recoveries after a failure streak. */
+	private long recoveryCount;
+
+	/** Sum of the recovery times in milliseconds. */
+	private long totalRecoveryTime;
+
+	/**
+	 * Initialize an empty accumulator.
+	 *
+	 * @param jobNameArg job name
+	 */
+	JobStatisticsAccumulator(final String jobNameArg) {
+		jobName = jobNameArg;
+	}
+
+	/**
+	 * Add a failed execution.
+	 *
+	 * @param jobNameArg current job name
+	 * @param completionTime completion time of the execution
+	 */
+	void addFailure(final String jobNameArg, final long completionTime) {
+
+		jobName = jobNameArg;
+		executionCount++;
+		failureCount++;
+
+		if (1 == failureCount) {
+			firstFailureTime = completionTime;
+			lastFailureTime = completionTime;
+		}
+		else {
+			firstFailureTime = Math.min(firstFailureTime, completionTime);
+			lastFailureTime = Math.max(lastFailureTime, completionTime);
+		}
+
+		if (0 == failureStreakStart) {
+			failureStreakStart = completionTime;
+		}
+	}
+
+	/**
+	 * Add a succeeded execution, it ends the current failure streak.
+	 *
+	 * @param jobNameArg current job name
+	 * @param completionTime completion time of the execution
+	 */
+	void addSuccess(final String jobNameArg, final long completionTime) {
+
+		jobName = jobNameArg;
+		executionCount++;
+
+		// A success observed before the failure does not end the streak
+		if (0 != failureStreakStart && completionTime >= failureStreakStart) {
+
+			recoveryCount++;
+			totalRecoveryTime += completionTime - failureStreakStart;
+			failureStreakStart = 0;
+		}
+	}
+
+	/**
+	 * Get the number of failed executions.
+	 *
+	 * @return failure count
+	 */
+	long getFailureCount() {
+		return failureCount;
+	}
+
+	/**
+	 * Build a snapshot of the statistics.
+	 *
+	 * @param jobKey job identifier or job name of ad-hoc executions
+	 * @return immutable statistics
+	 */
+	JobStatistics toJobStatistics(final String jobKey) {
+
+		long meanTimeBetweenFailures = -1;
+		if (failureCount > 1) {
+			meanTimeBetweenFailures = (lastFailureTime - firstFailureTime) / (failureCount - 1);
+		}
+
+		long meanTimeToRecovery = -1;
+		if (recoveryCount > 0) {
+			meanTimeToRecovery = totalRecoveryTime / recoveryCount;
+		}
+
+		return new JobStatistics(jobKey, jobName, failureCount, executionCount, meanTimeBetweenFailures, meanTimeToRecovery, 0 != failureStreakStart);
+	}
+}
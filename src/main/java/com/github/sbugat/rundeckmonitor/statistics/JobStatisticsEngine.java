@@ -0,0 +1,223 @@
+package com.github.sbugat.rundeckmonitor.statistics;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.ext.XLogger;
+import org.slf4j.ext.XLoggerFactory;
+
+import com.github.sbugat.rundeckmonitor.history.ExecutionHistoryStore;
+import com.github.sbugat.rundeckmonitor.history.HistoryRecord;
+import com.github.sbugat.rundeckmonitor.history.HistoryRecordType;
+import com.github.sbugat.rundeckmonitor.history.HistoryRecordVisitor;
+
+/**
+ * Incremental statistics of the jobs of all servers: failure rate, mean time between failures, mean time to recovery and top failing jobs.
+ *
+ * Each observed execution updates the constant memory accumulator of its job, statistics are never recomputed. Only the accumulators of the last observed jobs are kept, the top failing jobs are counted apart with a fixed number of counters: memory stays bounded whatever the number of jobs. At startup, statistics are initialized once from the local execution history. The failures of the last day of the top failing jobs are counted with per-job queries of the local history.
+ *
+ * @author Sylvain Bugat
+ *
+ */
+public final class JobStatisticsEngine {
+
+	/** SLF4J XLogger. */
+	private static final XLogger LOG = XLoggerFactory.getXLogger(JobStatisticsEngine.class);
+
+	/** Maximum number of jobs with statistics, the least recently observed jobs are evicted. */
+	private static final int MAX_TRACKED_JOBS = 10_000;
+
+	/** Number of counters of the top failing jobs. */
+	private static final int TOP_FAILING_JOBS_COUNTERS = 64;
+
+	/** Load factor of the accumulators map. */
+	private static final float LOAD_FACTOR = 0.75f;
+
+	/** Period of the recent failures in milliseconds: one day. */
+	private static final long RECENT_FAILURES_PERIOD = 86_400_000L;
+
+	/** Accumulators by job key, least recently observed first. */
+	private final Map<String, JobStatisticsAccumulator> accumulators = new LinkedHashMap<String, JobStatisticsAccumulator>(MAX_TRACKED_JOBS, LOAD_FACTOR, true) {
+
+		/** Serial version UID. */
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(final Map.Entry<String, JobStatisticsAccumulator> eldest) {
+			return size() > MAX_TRACKED_JOBS;
+		}
+	};
+
+	/** Approximate failure counts of the most failing jobs. */
+	private final HeavyHitters topFailingJobs = new HeavyHitters(TOP_FAILING_JOBS_COUNTERS);
+
+	/** Flag indicating if the history has already been replayed. */
+	private boolean historyReplayed;
+
+	/** Failures of the last day of the top failing jobs by job key, counted by the last history query. */
+	private Map<String, Long> recentFailureCounts = Collections.emptyMap();
+
+	/**
+	 * Add a failed execution.
+	 *
+	 * @param jobKey job identifier or job name of an ad-hoc execution
+	 * @param jobName job name
+	 * @param completionTime completion time of the execution
+	 */
+	public synchronized void recordFailure(final String jobKey, final String jobName, final long completionTime) {
+
+		getAccumulator(jobKey, jobName).addFailure(jobName, completionTime);
+		topFailingJobs.add(jobKey, jobName);
+	}
+
+	/**
+	 * Add a succeeded execution.
+	 *
+	 * @param jobKey job identifier or job name of an ad-hoc execution
+	 * @param jobName job name
+	 * @param completionTime completion time of the execution
+	 */
+	public synchronized void recordSuccess(final String jobKey, final String jobName, final long completionTime) {
+
+		getAccumulator(jobKey, jobName).addSuccess(jobName, completionTime);
+	}
+
+	/**
+	 * Get the statistics of the most failing jobs.
+	 *
+	 * @param maximumJobs maximum number of jobs
+	 * @return statistics of the jobs, most failing first
+	 */
+	public synchronized List<JobStatistics> getTopFailingJobs(final int maximumJobs) {
+
+		final List<JobStatistics> topFailingJobsStatistics = new ArrayList<>();
+		for (final HeavyHitters.Counter counter : topFailingJobs.getTop(maximumJobs)) {
+
+			// Displayed jobs stay in the tracked jobs
+			final JobStatisticsAccumulator accumulator = accumulators.get(counter.getKey());
+			final JobStatistics jobStatistics;
+			if (null != accumulator) {
+				jobStatistics = accumulator.toJobStatistics(counter.getKey());
+			}
+			else {
+				jobStatistics = new JobStatistics(counter.getKey(), counter.getLabel(), counter.getGuaranteedCount(), 0, -1, -1, false);
+			}
+
+			final Long recentFailureCount = recentFailureCounts.get(counter.getKey());
+			if (null != recentFailureCount) {
+				topFailingJobsStatistics.add(jobStatistics.withRecentFailureCount(recentFailureCount.longValue()));
+			}
+			else {
+				topFailingJobsStatistics.add(jobStatistics);
+			}
+		}
+
+		return topFailingJobsStatistics;
+	}
+
+	/**
+	 * Count the failures of the last day of the most failing jobs with one per-job query of the local history for each job, the history is read outside of the statistics lock.
+	 *
+	 * @param executionHistoryStore local history of the executions
+	 * @param maximumJobs maximum number of jobs
+	 * @param currentTime end of the last day in milliseconds
+	 */
+	public void updateRecentFailures(final ExecutionHistoryStore executionHistoryStore, final int maximumJobs, final long currentTime) {
+
+		LOG.entry();
+
+		final Map<String, Long> newRecentFailureCounts = new HashMap<>();
+		if (executionHistoryStore.isEnabled()) {
+
+			final List<HeavyHitters.Counter> counters;
+			synchronized (this) {
+				counters = topFailingJobs.getTop(maximumJobs);
+			}
+
+			for (final HeavyHitters.Counter counter : counters) {
+
+				final long[] failures = new long[1];
+				executionHistoryStore.find(currentTime - RECENT_FAILURES_PERIOD, currentTime, counter.getKey(), new HistoryRecordVisitor() {
+
+					@Override
+					public boolean visit(final HistoryRecord historyRecord) {
+
+						if (HistoryRecordType.FAILED == historyRecord.getType()) {
+							failures[0]++;
+						}
+						return true;
+					}
+				});
+				newRecentFailureCounts.put(counter.getKey(), Long.valueOf(failures[0]));
+			}
+		}
+
+		synchronized (this) {
+			recentFailureCounts = newRecentFailureCounts;
+		}
+
+		LOG.exit();
+	}
+
+	/**
+	 * Initialize the statistics with the succeeded and failed executions of the local history, only the first call replays the history.
+	 *
+	 * @param executionHistoryStore local history of the executions
+	 */
+	public void replayHistory(final ExecutionHistoryStore executionHistoryStore) {
+
+		LOG.entry();
+
+		synchronized (this) {
+			if (historyReplayed) {
+				LOG.exit();
+				return;
+			}
+			historyReplayed = true;
+		}
+
+		final long[] replayedRecords = new long[1];
+		executionHistoryStore.find(0, System.currentTimeMillis(), null, new HistoryRecordVisitor() {
+
+			@Override
+			@SuppressWarnings("synthetic-access")
+			public boolean visit(final HistoryRecord historyRecord) {
+
+				if (HistoryRecordType.FAILED == historyRecord.getType()) {
+					recordFailure(historyRecord.getJobKey(), historyRecord.getJobName(), historyRecord.getTime());
+					replayedRecords[0]++;
+				}
+				else if (HistoryRecordType.SUCCEEDED == historyRecord.getType()) {
+					recordSuccess(historyRecord.getJobKey(), historyRecord.getJobName(), historyRecord.getTime());
+					replayedRecords[0]++;
+				}
+				return true;
+			}
+		});
+
+		LOG.info("Job statistics initialized with {} executions of the local history", Long.valueOf(replayedRecords[0])); //$NON-NLS-1$
+		LOG.exit();
+	}
+
+	/**
+	 * Get the accumulator of a job, created if needed.
+	 *
+	 * @param jobKey job identifier or job name of an ad-hoc execution
+	 * @param jobName job name
+	 * @return accumulator of the job
+	 */
+	private JobStatisticsAccumulator getAccumulator(final String jobKey, final String jobName) {
+
+		JobStatisticsAccumulator accumulator = accumulators.get(jobKey);
+		if (null == accumulator) {
+			accumulator = new JobStatisticsAccumulator(jobName);
+			accumulators.put(jobKey, accumulator);
+		}
+
+		return accumulator;
+	}
+}
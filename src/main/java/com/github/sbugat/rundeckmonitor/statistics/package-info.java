@@ -0,0 +1,7 @@
+/**
+ * RunDeck Monitor job statistics package.
+ *
+ * @author Sylvain Bugat
+ *
+ */
+package com.github.sbugat.rundeckmonitor.statistics;
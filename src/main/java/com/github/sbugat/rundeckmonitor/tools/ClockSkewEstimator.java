@@ -0,0 +1,67 @@
+package com.github.sbugat.rundeckmonitor.tools;
+
+import org.slf4j.ext.XLogger;
+import org.slf4j.ext.XLoggerFactory;
+
+/**
+ * Estimation of the clock difference between a Rundeck server and the local machine.
+ *
+ * Each response date is compared to the middle of the request round trip, samples are smoothed with an exponential moving average. A sample far from the estimation is a clock jump (sleep, NTP synchronization) and replaces it.
+ *
+ * @author Sylvain Bugat
+ *
+ */
+public final class ClockSkewEstimator {
+
+	/** SLF4J XLogger. */
+	private static final XLogger LOG = XLoggerFactory.getXLogger(ClockSkewEstimator.class);
+
+	/** Weight of a new sample in the moving average. */
+	private static final double SMOOTHING_FACTOR = 0.2d;
+
+	/** Server dates are truncated to the second, the server time is in average half a second after the date. */
+	private static final long DATE_TRUNCATION_CORRECTION = 500L;
+
+	/** Difference between a sample and the estimation above which the clocks are considered to have jumped, in milliseconds. */
+	private static final long CLOCK_JUMP_THRESHOLD = 5_000L;
+
+	/** Estimated server time minus local time in milliseconds. */
+	private double skew;
+
+	/** Flag indicating if at least one sample has been added. */
+	private boolean estimated;
+
+	/**
+	 * Add a sample from a server response.
+	 *
+	 * @param serverTime server date of the response, truncated to the second
+	 * @param requestTime local time when the request has been sent
+	 * @param responseTime local time when the response has been received
+	 */
+	public synchronized void addSample(final long serverTime, final long requestTime, final long responseTime) {
+
+		// The server date has been generated around the middle of the round trip
+		final long sample = serverTime + DATE_TRUNCATION_CORRECTION - (requestTime + (responseTime - requestTime) / 2);
+
+		if (!estimated || Math.abs(sample - skew) > CLOCK_JUMP_THRESHOLD) {
+
+			if (estimated) {
+				LOG.info("Clock jump detected, server clock difference changed from {} ms to {} ms", Math.round(skew), sample); //$NON-NLS-1$
+			}
+			skew = sample;
+			estimated = true;
+		}
+		else {
+			skew += SMOOTHING_FACTOR * (sample - skew);
+		}
+	}
+
+	/**
+	 * Return the estimated clock difference.
+	 *
+	 * @return server time minus local time in milliseconds, 0 without any sample
+	 */
+	public synchronized long getSkew() {
+		return Math.round(skew);
+	}
+}
@@ -0,0 +1,37 @@
+package com.github.sbugat.rundeckmonitor.tools;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Thread factory creating named daemon threads, background tasks must never prevent the RunDeck Monitor from exiting.
+ *
+ * @author Sylvain Bugat
+ *
+ */
+public final class DaemonThreadFactory implements ThreadFactory {
+
+	/** Prefix of the created threads names. */
+	private final String threadNamePrefix;
+
+	/** Number of created threads. */
+	private final AtomicInteger threadNumber = new AtomicInteger();
+
+	/**
+	 * Copy the threads name prefix.
+	 *
+	 * @param threadNamePrefixArg prefix of the created threads names
+	 */
+	public DaemonThreadFactory(final String threadNamePrefixArg) {
+
+		threadNamePrefix = threadNamePrefixArg;
+	}
+
+	@Override
+	public Thread newThread(final Runnable runnable) {
+
+		final Thread thread = new Thread(runnable, threadNamePrefix + '-' + threadNumber.incrementAndGet());
+		thread.setDaemon(true);
+		return thread;
+	}
+}
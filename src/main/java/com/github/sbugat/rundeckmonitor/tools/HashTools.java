@@ -0,0 +1,76 @@
+package com.github.sbugat.rundeckmonitor.tools;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Tools class to build stable keys and file names from URLs and credentials without writing them.
+ *
+ * @author Sylvain Bugat
+ *
+ */
+public final class HashTools {
+
+	/** Hash algorithm, always available in the JRE. */
+	private static final String HASH_ALGORITHM = "SHA-256"; //$NON-NLS-1$
+
+	/** Hexadecimal digits of the hash. */
+	private static final char[] HEXADECIMAL_DIGITS = "0123456789abcdef".toCharArray(); //$NON-NLS-1$
+
+	/** Number of bits of an hexadecimal digit. */
+	private static final int HEXADECIMAL_DIGIT_BITS = 4;
+
+	/** Mask of an hexadecimal digit. */
+	private static final int HEXADECIMAL_DIGIT_MASK = 0xF;
+
+	/**
+	 * Private constructor to prevent Instantiating.
+	 */
+	private HashTools() {
+		throw new UnsupportedOperationException();
+	}
+
+	/**
+	 * Hash a text with SHA-256.
+	 *
+	 * @param text text to hash
+	 * @return lower case hexadecimal hash
+	 */
+	public static String sha256Hex(final String text) {
+
+		final StringBuilder hexadecimalHash = new StringBuilder();
+		for (final byte hashByte : sha256(text)) {
+			hexadecimalHash.append(HEXADECIMAL_DIGITS[hashByte >>> HEXADECIMAL_DIGIT_BITS & HEXADECIMAL_DIGIT_MASK]).append(HEXADECIMAL_DIGITS[hashByte & HEXADECIMAL_DIGIT_MASK]);
+		}
+
+		return hexadecimalHash.toString();
+	}
+
+	/**
+	 * Hash a text with SHA-256 and keep the first 64 bits.
+	 *
+	 * @param text text to hash
+	 * @return first 8 bytes of the hash
+	 */
+	public static long sha256Long(final String text) {
+		return ByteBuffer.wrap(sha256(text)).getLong();
+	}
+
+	/**
+	 * Hash a text with SHA-256.
+	 *
+	 * @param text text to hash
+	 * @return hash bytes
+	 */
+	private static byte[] sha256(final String text) {
+
+		try {
+			return MessageDigest.getInstance(HASH_ALGORITHM).digest(text.getBytes(StandardCharsets.UTF_8));
+		}
+		catch (final NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+}
@@ -54,7 +54,26 @@ public final class RundeckClientTools {
 		LOG.entry(rundeckMonitorConfiguration);
 
 		final RundeckClient minimalRundeckClient = buildRundeckClient(1, rundeckMonitorConfiguration);
-		final String rundeckVersion = minimalRundeckClient.getSystemInfo().getVersion();
+		final int rundeckAPIversion = negotiateRundeckAPIVersion(minimalRundeckClient.getSystemInfo().getVersion(), rundeckMonitorConfiguration);
+
+		final RundeckClient rundeckClient = buildRundeckClient(rundeckAPIversion, rundeckMonitorConfiguration);
+
+		// Everything is ok, return the final Rundeck client
+		LOG.exit(rundeckClient);
+		return rundeckClient;
+	}
+
+	/**
+	 * Get the API version to use with a Rundeck version: the configured API version within the API versions supported by this Rundeck version.
+	 *
+	 * @param rundeckVersion detected Rundeck version
+	 * @param rundeckMonitorConfiguration configuration to use
+	 * @return Rundeck API version number to use
+	 * @throws InvalidRundeckVersion if the Rundeck version don't support API version 5 (before version 1.4.4)
+	 */
+	public static int negotiateRundeckAPIVersion(final String rundeckVersion, final RundeckMonitorConfiguration rundeckMonitorConfiguration) throws InvalidRundeckVersion {
+
+		LOG.entry(rundeckVersion, rundeckMonitorConfiguration);
 
 		// Get the maximum supported Rundeck API version
 		RundeckAPIVersion maximumApiVersion = null;
@@ -92,21 +111,44 @@ public final class RundeckClientTools {
 			rundeckAPIversion = rundeckMonitorConfiguration.getRundeckAPIversion();
 		}
 
-		final RundeckClient rundeckClient = buildRundeckClient(rundeckAPIversion, rundeckMonitorConfiguration);
+		LOG.exit(rundeckAPIversion);
+		return rundeckAPIversion;
+	}
 
-		// Everything is ok, return the final Rundeck client
+	/**
+	 * Build a Rundeck client with the API version and configuration arguments.
+	 *
+	 * @param rundeckAPIVersion Rundeck API version to use
+	 * @param rundeckMonitorConfiguration configuration to use
+	 * @return built rundeck client
+	 */
+	public static RundeckClient buildRundeckClient(final int rundeckAPIVersion, final RundeckMonitorConfiguration rundeckMonitorConfiguration) {
+
+		LOG.entry(rundeckAPIVersion, rundeckMonitorConfiguration);
+
+		final RundeckClient rundeckClient = buildUncheckedRundeckClient(rundeckAPIVersion, rundeckMonitorConfiguration);
+
+		// Test connection and authentication credentials
+		LOG.debug("Test the connection to Rundeck"); //$NON-NLS-1$
+		rundeckClient.ping();
+		LOG.debug("Connection to RunDeck OK, test authentication"); //$NON-NLS-1$
+		rundeckClient.testAuth();
+		final String rundeckVersion = rundeckClient.getSystemInfo().getVersion();
+		LOG.info("Connection and authentication OK using API version {} to Rundeck version:{}", rundeckAPIVersion, rundeckVersion); //$NON-NLS-1$
+
+		// Everything is ok, return the client
 		LOG.exit(rundeckClient);
 		return rundeckClient;
 	}
 
 	/**
-	 * Build a Rundeck client with the API version and configuration arguments.
+	 * Build a Rundeck client with the API version and configuration arguments without testing the connection, the first call of the client checks it.
 	 *
 	 * @param rundeckAPIVersion Rundeck API version to use
 	 * @param rundeckMonitorConfiguration configuration to use
 	 * @return built rundeck client
 	 */
-	public static RundeckClient buildRundeckClient(final int rundeckAPIVersion, final RundeckMonitorConfiguration rundeckMonitorConfiguration) {
+	public static RundeckClient buildUncheckedRundeckClient(final int rundeckAPIVersion, final RundeckMonitorConfiguration rundeckMonitorConfiguration) {
 
 		LOG.entry(rundeckAPIVersion, rundeckMonitorConfiguration);
 
@@ -126,15 +168,7 @@ public final class RundeckClientTools {
 		// Initialize the rundeck client with the argument Rundeck API version
 		LOG.info("Generate a new Rundeck client using rundeck API version {}", rundeckAPIVersion); //$NON-NLS-1$
 		final RundeckClient rundeckClient = rundeckClientBuilder.version(rundeckAPIVersion).build();
-		// Test connection and authentication credentials
-		LOG.debug("Test the connection to Rundeck"); //$NON-NLS-1$
-		rundeckClient.ping();
-		LOG.debug("Connection to RunDeck OK, test authentication"); //$NON-NLS-1$
-		rundeckClient.testAuth();
-		final String rundeckVersion = rundeckClient.getSystemInfo().getVersion();
-		LOG.info("Connection and authentication OK using API version {} to Rundeck version:{}", rundeckAPIVersion, rundeckVersion); //$NON-NLS-1$
 
-		// Everything is ok, return the client
 		LOG.exit(rundeckClient);
 		return rundeckClient;
 	}
@@ -0,0 +1,64 @@
+package com.github.sbugat.rundeckmonitor.tools;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Result of a successful connection handshake with a Rundeck server: detected Rundeck version, negotiated API version and existing projects.
+ *
+ * @author Sylvain Bugat
+ *
+ */
+public final class RundeckHandshake {
+
+	/** Rundeck version detected during the handshake. */
+	private final String rundeckVersion;
+
+	/** API version negotiated with the Rundeck server. */
+	private final int rundeckAPIVersion;
+
+	/** Names of the projects existing on the Rundeck server. */
+	private final Set<String> existingProjects;
+
+	/**
+	 * Copy the handshake results.
+	 *
+	 * @param rundeckVersionArg detected Rundeck version
+	 * @param rundeckAPIVersionArg negotiated API version
+	 * @param existingProjectsArg names of the existing projects
+	 */
+	public RundeckHandshake(final String rundeckVersionArg, final int rundeckAPIVersionArg, final Set<String> existingProjectsArg) {
+
+		rundeckVersion = rundeckVersionArg;
+		rundeckAPIVersion = rundeckAPIVersionArg;
+		existingProjects = Collections.unmodifiableSet(new HashSet<>(existingProjectsArg));
+	}
+
+	/**
+	 * Return the Rundeck version detected during the handshake.
+	 *
+	 * @return Rundeck version
+	 */
+	public String getRundeckVersion() {
+		return rundeckVersion;
+	}
+
+	/**
+	 * Return the API version negotiated with the Rundeck server.
+	 *
+	 * @return Rundeck API version number
+	 */
+	public int getRundeckAPIVersion() {
+		return rundeckAPIVersion;
+	}
+
+	/**
+	 * Return the names of the projects existing on the Rundeck server.
+	 *
+	 * @return unmodifiable set of project names
+	 */
+	public Set<String> getExistingProjects() {
+		return existingProjects;
+	}
+}
@@ -0,0 +1,93 @@
+package com.github.sbugat.rundeckmonitor.tools;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.slf4j.ext.XLogger;
+import org.slf4j.ext.XLoggerFactory;
+
+import com.github.sbugat.rundeckmonitor.configuration.RundeckMonitorConfiguration;
+
+/**
+ * Cache of the successful handshakes with the Rundeck servers, kept across configuration reloads.
+ *
+ * Handshakes are keyed by the server URL, the authentication user or token and the configured API version. The credentials themselves are still checked by the first call of a cached connection, the cached handshake is only used if this call returns the same Rundeck version.
+ *
+ * @author Sylvain Bugat
+ *
+ */
+public final class RundeckHandshakeCache {
+
+	/** SLF4J XLogger. */
+	private static final XLogger LOG = XLoggerFactory.getXLogger(RundeckHandshakeCache.class);
+
+	/** Separator of the key parts, can't be used in an URL nor a login. */
+	private static final char KEY_SEPARATOR = '\n';
+
+	/** Successful handshakes by server key. */
+	private static final ConcurrentMap<String, RundeckHandshake> HANDSHAKES = new ConcurrentHashMap<>();
+
+	/**
+	 * Private constructor to prevent Instantiating.
+	 */
+	private RundeckHandshakeCache() {
+		throw new UnsupportedOperationException();
+	}
+
+	/**
+	 * Get the last successful handshake with the server of a configuration.
+	 *
+	 * @param rundeckMonitorConfiguration configuration of the server
+	 * @return cached handshake or null if there is none
+	 */
+	public static RundeckHandshake get(final RundeckMonitorConfiguration rundeckMonitorConfiguration) {
+
+		final RundeckHandshake rundeckHandshake = HANDSHAKES.get(key(rundeckMonitorConfiguration));
+		LOG.debug("Cached handshake with {} found: {}", rundeckMonitorConfiguration.getRundeckUrl(), Boolean.valueOf(null != rundeckHandshake)); //$NON-NLS-1$
+		return rundeckHandshake;
+	}
+
+	/**
+	 * Store a successful handshake with the server of a configuration.
+	 *
+	 * @param rundeckMonitorConfiguration configuration of the server
+	 * @param rundeckHandshake successful handshake
+	 */
+	public static void put(final RundeckMonitorConfiguration rundeckMonitorConfiguration, final RundeckHandshake rundeckHandshake) {
+
+		HANDSHAKES.put(key(rundeckMonitorConfiguration), rundeckHandshake);
+	}
+
+	/**
+	 * Remove the cached handshake with the server of a configuration, the next connection does a full handshake.
+	 *
+	 * @param rundeckMonitorConfiguration configuration of the server
+	 */
+	public static void invalidate(final RundeckMonitorConfiguration rundeckMonitorConfiguration) {
+
+		if (null != HANDSHAKES.remove(key(rundeckMonitorConfiguration))) {
+			LOG.info("Cached handshake with {} invalidated", rundeckMonitorConfiguration.getRundeckUrl()); //$NON-NLS-1$
+		}
+	}
+
+	/**
+	 * Build the cache key of the server of a configuration.
+	 *
+	 * @param rundeckMonitorConfiguration configuration of the server
+	 * @return cache key
+	 */
+	private static String key(final RundeckMonitorConfiguration rundeckMonitorConfiguration) {
+
+		final StringBuilder key = new StringBuilder();
+		key.append(rundeckMonitorConfiguration.getRundeckUrl()).append(KEY_SEPARATOR);
+		if (null != rundeckMonitorConfiguration.getRundeckAPIKey() && !rundeckMonitorConfiguration.getRundeckAPIKey().isEmpty()) {
+			key.append(rundeckMonitorConfiguration.getRundeckAPIKey());
+		}
+		else {
+			key.append(rundeckMonitorConfiguration.getRundeckLogin());
+		}
+		key.append(KEY_SEPARATOR).append(rundeckMonitorConfiguration.getRundeckAPIversion());
+
+		return key.toString();
+	}
+}
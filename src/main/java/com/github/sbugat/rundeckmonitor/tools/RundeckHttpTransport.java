@@ -0,0 +1,580 @@
+package com.github.sbugat.rundeckmonitor.tools;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.http.Header;
+import org.apache.http.HttpHeaders;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpStatus;
+import org.apache.http.NameValuePair;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.entity.UrlEncodedFormEntity;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.client.utils.DateUtils;
+import org.apache.http.client.utils.URIBuilder;
+import org.apache.http.config.ConnectionConfig;
+import org.apache.http.conn.HttpConnectionFactory;
+import org.apache.http.conn.ManagedHttpClientConnection;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.ManagedHttpClientConnectionFactory;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.message.BasicNameValuePair;
+import org.apache.http.util.EntityUtils;
+import org.dom4j.Document;
+import org.rundeck.api.RundeckApiException;
+import org.rundeck.api.RundeckApiException.RundeckApiHttpStatusException;
+import org.rundeck.api.RundeckApiException.RundeckApiLoginException;
+import org.rundeck.api.RundeckApiException.RundeckApiTokenException;
+import org.rundeck.api.domain.RundeckExecution;
+import org.rundeck.api.domain.RundeckJob;
+import org.rundeck.api.domain.RundeckOutput;
+import org.rundeck.api.domain.RundeckProject;
+import org.rundeck.api.domain.RundeckSystemInfo;
+import org.rundeck.api.parser.ExecutionParser;
+import org.rundeck.api.parser.JobParser;
+import org.rundeck.api.parser.ListParser;
+import org.rundeck.api.parser.OutputEntryParser;
+import org.rundeck.api.parser.OutputEntryParserV5;
+import org.rundeck.api.parser.OutputParser;
+import org.rundeck.api.parser.PagedResultParser;
+import org.rundeck.api.parser.ParserHelper;
+import org.rundeck.api.parser.ProjectParser;
+import org.rundeck.api.parser.ProjectParserV11;
+import org.rundeck.api.parser.SystemInfoParser;
+import org.rundeck.api.util.PagedResults;
+import org.slf4j.ext.XLogger;
+import org.slf4j.ext.XLoggerFactory;
+
+import com.github.sbugat.rundeckmonitor.configuration.RundeckMonitorConfiguration;
+
+/**
+ * HTTP transport of the Rundeck calls done by the connection handshake and at each refresh.
+ *
+ * The Rundeck client opens a new connection for each call without any timeout, this transport keeps the connections alive in a pool shared by the projects of a server and bounds the connection and read times. The number of opened connections and requests is counted to check the connections reuse.
+ *
+ * @author Sylvain Bugat
+ *
+ */
+public final class RundeckHttpTransport implements Closeable {
+
+	/** SLF4J XLogger. */
+	private static final XLogger LOG = XLoggerFactory.getXLogger(RundeckHttpTransport.class);
+
+	/** Path of the Rundeck API, followed by the API version. */
+	private static final String API_PATH = "/api/"; //$NON-NLS-1$
+
+	/** Path of the Rundeck login form. */
+	private static final String LOGIN_PATH = "/j_security_check"; //$NON-NLS-1$
+
+	/** Rundeck login error pages, a login redirection to one of these pages means that the login failed. */
+	private static final String[] LOGIN_ERROR_PATHS = { "/user/error", "/user/login" }; //$NON-NLS-1$ //$NON-NLS-2$
+
+	/** Header of the Rundeck API token. */
+	private static final String AUTH_TOKEN_HEADER = "X-Rundeck-Auth-Token"; //$NON-NLS-1$
+
+	/** Accepted content type of the Rundeck API responses. */
+	private static final String ACCEPTED_CONTENT_TYPE = "text/xml"; //$NON-NLS-1$
+
+	/** Date format of the Rundeck API query parameters. */
+	private static final String QUERY_DATE_FORMAT = "yyyy-MM-dd'T'HH:mm:ss'Z'"; //$NON-NLS-1$
+
+	/** Time zone of the Rundeck API query dates. */
+	private static final String QUERY_TIME_ZONE = "GMT"; //$NON-NLS-1$
+
+	/** First API version returning responses without the result element. */
+	private static final int FIRST_UNWRAPPED_API_VERSION = 11;
+
+	/** Last API version returning the output entries with the message as element text. */
+	private static final int LAST_TEXT_OUTPUT_ENTRY_API_VERSION = 5;
+
+	/** Number of simultaneous calls of a project: failed executions, running executions, completed executions and job list. */
+	private static final int CALLS_PER_PROJECT = 4;
+
+	/** Rundeck base URL without the trailing slash. */
+	private final String rundeckUrl;
+
+	/** API version used by the calls. */
+	private final int rundeckAPIVersion;
+
+	/** API token, null to use the login and password authentication. */
+	private final String rundeckAPIKey;
+
+	/** Login used to open a session if no API token is configured. */
+	private final String rundeckLogin;
+
+	/** Password used to open a session if no API token is configured. */
+	private final String rundeckPassword;
+
+	/** HTTP client using a pool of kept alive connections and keeping the session cookie. */
+	private final CloseableHttpClient httpClient;
+
+	/** Clock difference estimation of the server, updated by the date of each response. */
+	private final ClockSkewEstimator clockSkewEstimator;
+
+	/** Number of connections opened since the creation of this transport: TCP and TLS handshakes. */
+	private final AtomicLong openedConnections = new AtomicLong();
+
+	/** Number of requests sent since the creation of this transport. */
+	private final AtomicLong requests = new AtomicLong();
+
+	/** Flag indicating if a session is opened with the login and password. */
+	private volatile boolean loggedIn;
+
+	/**
+	 * Initialize the connections pool of a server.
+	 *
+	 * @param serverConfiguration configuration of the server
+	 * @param rundeckAPIVersionArg API version negotiated with the server
+	 * @param clockSkewEstimatorArg clock difference estimation of the server to update
+	 */
+	public RundeckHttpTransport(final RundeckMonitorConfiguration serverConfiguration, final int rundeckAPIVersionArg, final ClockSkewEstimator clockSkewEstimatorArg) {
+
+		String url = serverConfiguration.getRundeckUrl();
+		while (url.endsWith("/")) { //$NON-NLS-1$
+			url = url.substring(0, url.length() - 1);
+		}
+		rundeckUrl = url;
+		rundeckAPIVersion = rundeckAPIVersionArg;
+		clockSkewEstimator = clockSkewEstimatorArg;
+
+		if (null != serverConfiguration.getRundeckAPIKey() && !serverConfiguration.getRundeckAPIKey().isEmpty()) {
+			rundeckAPIKey = serverConfiguration.getRundeckAPIKey();
+		}
+		else {
+			rundeckAPIKey = null;
+		}
+		rundeckLogin = serverConfiguration.getRundeckLogin();
+		rundeckPassword = serverConfiguration.getRundeckPassword();
+
+		// Count the new connections created by the pool
+		final HttpConnectionFactory<HttpRoute, ManagedHttpClientConnection> countingConnectionFactory = new HttpConnectionFactory<HttpRoute, ManagedHttpClientConnection>() {
+
+			@Override
+			@SuppressWarnings("synthetic-access")
+			public ManagedHttpClientConnection create(final HttpRoute route, final ConnectionConfig connectionConfig) {
+
+				openedConnections.incrementAndGet();
+				return ManagedHttpClientConnectionFactory.INSTANCE.create(route, connectionConfig);
+			}
+		};
+
+		// All the calls of a refresh can be sent at the same time
+		final int maximumConnections = Math.max(1, serverConfiguration.getRundeckProjects().size() * CALLS_PER_PROJECT);
+		final PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager(countingConnectionFactory);
+		connectionManager.setMaxTotal(maximumConnections);
+		connectionManager.setDefaultMaxPerRoute(maximumConnections);
+
+		final int connectTimeout = (int) TimeUnit.SECONDS.toMillis(serverConfiguration.getConnectTimeout());
+		final int readTimeout = (int) TimeUnit.SECONDS.toMillis(serverConfiguration.getReadTimeout());
+		final RequestConfig requestConfig = RequestConfig.custom().setConnectTimeout(connectTimeout).setConnectionRequestTimeout(connectTimeout).setSocketTimeout(readTimeout).setRedirectsEnabled(false).build();
+
+		httpClient = HttpClients.custom().useSystemProperties().setConnectionManager(connectionManager).setDefaultRequestConfig(requestConfig).setKeepAliveStrategy(DefaultConnectionKeepAliveStrategy.INSTANCE).setUserAgent("RundeckMonitor").build(); //$NON-NLS-1$
+	}
+
+	/**
+	 * Get the system information of the server: Rundeck version and server date.
+	 *
+	 * @return system information
+	 */
+	public RundeckSystemInfo getSystemInfo() {
+
+		LOG.entry();
+
+		final Document document = get("/system/info", Collections.<NameValuePair> emptyList()); //$NON-NLS-1$
+		final RundeckSystemInfo systemInfo = new SystemInfoParser(rootXpath() + "/system").parseXmlNode(document); //$NON-NLS-1$
+
+		LOG.exit(systemInfo);
+		return systemInfo;
+	}
+
+	/**
+	 * Get all the projects of the server.
+	 *
+	 * @return existing projects
+	 */
+	public List<RundeckProject> getProjects() {
+
+		LOG.entry();
+
+		final ProjectParser projectParser;
+		if (rundeckAPIVersion < FIRST_UNWRAPPED_API_VERSION) {
+			projectParser = new ProjectParser();
+		}
+		else {
+			projectParser = new ProjectParserV11();
+		}
+
+		final Document document = get("/projects", Collections.<NameValuePair> emptyList()); //$NON-NLS-1$
+		final List<RundeckProject> rundeckProjects = new ListParser<>(projectParser, rootXpath() + "/projects/project").parseXmlNode(document); //$NON-NLS-1$
+
+		LOG.exit(rundeckProjects);
+		return rundeckProjects;
+	}
+
+	/**
+	 * Get the running executions of a project.
+	 *
+	 * @param project Rundeck project
+	 * @return running executions
+	 */
+	public List<RundeckExecution> getRunningExecutions(final String project) {
+
+		LOG.entry(project);
+
+		final List<NameValuePair> parameters = new ArrayList<>();
+		parameters.add(new BasicNameValuePair("project", project)); //$NON-NLS-1$
+
+		final Document document = get("/executions/running", parameters); //$NON-NLS-1$
+		final List<RundeckExecution> runningExecutions = new ListParser<>(new ExecutionParser(), rootXpath() + "/executions/execution").parseXmlNode(document); //$NON-NLS-1$
+
+		LOG.exit(runningExecutions);
+		return runningExecutions;
+	}
+
+	/**
+	 * Get the definitions of all the jobs of a project.
+	 *
+	 * @param project Rundeck project
+	 * @return jobs of the project
+	 */
+	public List<RundeckJob> getJobs(final String project) {
+
+		LOG.entry(project);
+
+		final List<NameValuePair> parameters = new ArrayList<>();
+		parameters.add(new BasicNameValuePair("project", project)); //$NON-NLS-1$
+
+		final Document document = get("/jobs", parameters); //$NON-NLS-1$
+		final List<RundeckJob> rundeckJobs = new ListParser<>(new JobParser(), rootXpath() + "/jobs/job").parseXmlNode(document); //$NON-NLS-1$
+
+		LOG.exit(rundeckJobs);
+		return rundeckJobs;
+	}
+
+	/**
+	 * Get the output entries of an execution from an offset of its log.
+	 *
+	 * @param executionId execution identifier
+	 * @param offset byte offset in the log of the first entry to get
+	 * @param maxLines maximum number of entries to get, 0 to get all the available entries
+	 * @return output entries with the offset of the next entries
+	 */
+	public RundeckOutput getExecutionOutput(final long executionId, final long offset, final int maxLines) {
+
+		LOG.entry(executionId, offset, maxLines);
+
+		final List<NameValuePair> parameters = new ArrayList<>();
+		parameters.add(new BasicNameValuePair("offset", String.valueOf(offset))); //$NON-NLS-1$
+		if (maxLines > 0) {
+			parameters.add(new BasicNameValuePair("maxlines", String.valueOf(maxLines))); //$NON-NLS-1$
+		}
+
+		final OutputEntryParser outputEntryParser;
+		if (rundeckAPIVersion <= LAST_TEXT_OUTPUT_ENTRY_API_VERSION) {
+			outputEntryParser = new OutputEntryParserV5();
+		}
+		else {
+			outputEntryParser = new OutputEntryParser();
+		}
+
+		final Document document = get("/execution/" + executionId + "/output", parameters); //$NON-NLS-1$ //$NON-NLS-2$
+		final RundeckOutput rundeckOutput = new OutputParser(rootXpath() + "/output", outputEntryParser).parseXmlNode(document); //$NON-NLS-1$
+
+		LOG.exit(rundeckOutput);
+		return rundeckOutput;
+	}
+
+	/**
+	 * Get a page of the failed executions of a project.
+	 *
+	 * @param project Rundeck project
+	 * @param begin minimum completion date of the executions, null to get the last failed executions
+	 * @param max maximum number of executions to get
+	 * @param offset offset of the page, null for the first page
+	 * @return page of failed executions, newest first
+	 */
+	public PagedResults<RundeckExecution> getFailedExecutions(final String project, final Date begin, final long max, final Long offset) {
+
+		LOG.entry(project, begin, max, offset);
+
+		final List<NameValuePair> parameters = new ArrayList<>();
+		parameters.add(new BasicNameValuePair("project", project)); //$NON-NLS-1$
+		parameters.add(new BasicNameValuePair("statusFilter", "failed")); //$NON-NLS-1$ //$NON-NLS-2$
+		if (null != begin) {
+			parameters.add(new BasicNameValuePair("begin", formatQueryDate(begin))); //$NON-NLS-1$
+		}
+		parameters.add(new BasicNameValuePair("max", String.valueOf(max))); //$NON-NLS-1$
+		if (null != offset) {
+			parameters.add(new BasicNameValuePair("offset", offset.toString())); //$NON-NLS-1$
+		}
+
+		final Document document = get("/executions", parameters); //$NON-NLS-1$
+		final PagedResults<RundeckExecution> failedExecutions = new PagedResultParser<>(new ListParser<>(new ExecutionParser(), "execution"), rootXpath() + "/executions").parseXmlNode(document); //$NON-NLS-1$ //$NON-NLS-2$
+
+		LOG.exit(failedExecutions);
+		return failedExecutions;
+	}
+
+	/**
+	 * Get the last executions of a project completed since a date, whatever their status.
+	 *
+	 * @param project Rundeck project
+	 * @param begin minimum completion date of the executions
+	 * @param max maximum number of executions to get
+	 * @return completed executions with their status and end date
+	 */
+	public List<RundeckExecution> getCompletedExecutions(final String project, final Date begin, final long max) {
+
+		LOG.entry(project, begin, max);
+
+		final List<NameValuePair> parameters = new ArrayList<>();
+		parameters.add(new BasicNameValuePair("project", project)); //$NON-NLS-1$
+		parameters.add(new BasicNameValuePair("begin", formatQueryDate(begin))); //$NON-NLS-1$
+		parameters.add(new BasicNameValuePair("max", String.valueOf(max))); //$NON-NLS-1$
+
+		final Document document = get("/executions", parameters); //$NON-NLS-1$
+		final List<RundeckExecution> completedExecutions = new PagedResultParser<>(new ListParser<>(new ExecutionParser(), "execution"), rootXpath() + "/executions").parseXmlNode(document).getResults(); //$NON-NLS-1$ //$NON-NLS-2$
+
+		LOG.exit(completedExecutions);
+		return completedExecutions;
+	}
+
+	/**
+	 * Return the number of requests sent since the creation of this transport.
+	 *
+	 * @return number of requests
+	 */
+	public long getRequestCount() {
+		return requests.get();
+	}
+
+	/**
+	 * Return the number of connections opened since the creation of this transport, each one costs a TCP and possibly a TLS handshake.
+	 *
+	 * @return number of opened connections
+	 */
+	public long getOpenedConnectionCount() {
+		return openedConnections.get();
+	}
+
+	/**
+	 * Return the number of requests sent on an already opened connection.
+	 *
+	 * @return number of reused connections
+	 */
+	public long getReusedConnectionCount() {
+		return Math.max(0L, requests.get() - openedConnections.get());
+	}
+
+	/**
+	 * Close all the pooled connections.
+	 */
+	@Override
+	public void close() {
+
+		LOG.info("Closing the connections to {}: {} requests sent, {} connections opened, {} reused", rundeckUrl, getRequestCount(), getOpenedConnectionCount(), getReusedConnectionCount()); //$NON-NLS-1$
+		try {
+			httpClient.close();
+		}
+		catch (final IOException e) {
+			LOG.warn("Error while closing the connections to {}", rundeckUrl, e); //$NON-NLS-1$
+		}
+	}
+
+	/**
+	 * Call the Rundeck API, open a session first if needed.
+	 *
+	 * @param path API path after the version
+	 * @param parameters query parameters
+	 * @return parsed XML response
+	 * @throws RundeckApiException if the call failed or timed out
+	 */
+	private Document get(final String path, final List<NameValuePair> parameters) {
+
+		final URI uri;
+		try {
+			final URIBuilder uriBuilder = new URIBuilder(rundeckUrl + API_PATH + rundeckAPIVersion + path);
+			for (final NameValuePair parameter : parameters) {
+				uriBuilder.addParameter(parameter.getName(), parameter.getValue());
+			}
+			uri = uriBuilder.build();
+		}
+		catch (final URISyntaxException e) {
+			throw new RundeckApiException("Invalid Rundeck URL " + rundeckUrl, e); //$NON-NLS-1$
+		}
+
+		if (null == rundeckAPIKey && !loggedIn) {
+			login();
+		}
+
+		Document document = execute(uri);
+
+		// The session has expired, open a new one and retry once
+		if (null == document && null == rundeckAPIKey) {
+
+			LOG.info("Rundeck session expired on {}, login again", rundeckUrl); //$NON-NLS-1$
+			loggedIn = false;
+			login();
+			document = execute(uri);
+		}
+
+		if (null == document) {
+			if (null == rundeckAPIKey) {
+				throw new RundeckApiLoginException("Invalid login or password for " + uri); //$NON-NLS-1$
+			}
+			throw new RundeckApiTokenException("Invalid token for " + uri); //$NON-NLS-1$
+		}
+
+		return document;
+	}
+
+	/**
+	 * Send a GET request and parse the response.
+	 *
+	 * @param uri URI to get
+	 * @return parsed XML response or null if the request is not authenticated
+	 * @throws RundeckApiException if the call failed, timed out or returned an unexpected status
+	 */
+	private Document execute(final URI uri) {
+
+		final HttpGet request = new HttpGet(uri);
+		request.setHeader("Accept", ACCEPTED_CONTENT_TYPE); //$NON-NLS-1$
+		if (null != rundeckAPIKey) {
+			request.setHeader(AUTH_TOKEN_HEADER, rundeckAPIKey);
+		}
+
+		requests.incrementAndGet();
+		final long requestTime = System.currentTimeMillis();
+		try (final CloseableHttpResponse response = httpClient.execute(request)) {
+
+			updateClockSkew(response, requestTime);
+
+			final int statusCode = response.getStatusLine().getStatusCode();
+			if (HttpStatus.SC_OK == statusCode) {
+
+				try (final InputStream content = response.getEntity().getContent()) {
+					return ParserHelper.loadDocument(content);
+				}
+			}
+
+			// Consume the response to keep the connection alive
+			EntityUtils.consume(response.getEntity());
+
+			if (HttpStatus.SC_MOVED_TEMPORARILY == statusCode || HttpStatus.SC_UNAUTHORIZED == statusCode || HttpStatus.SC_FORBIDDEN == statusCode) {
+				return null;
+			}
+
+			throw new RundeckApiHttpStatusException("Invalid HTTP response '" + response.getStatusLine() + "' for " + uri, statusCode); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+		catch (final IOException e) {
+			throw new RundeckApiException("Failed to execute an HTTP GET on url : " + uri, e); //$NON-NLS-1$
+		}
+	}
+
+	/**
+	 * Update the clock difference estimation with the date of a response, without any additional call.
+	 *
+	 * @param response received response
+	 * @param requestTime local time when the request has been sent
+	 */
+	private void updateClockSkew(final HttpResponse response, final long requestTime) {
+
+		final long responseTime = System.currentTimeMillis();
+		final Header dateHeader = response.getFirstHeader(HttpHeaders.DATE);
+		if (null != dateHeader) {
+
+			final Date serverDate = DateUtils.parseDate(dateHeader.getValue());
+			if (null != serverDate) {
+				clockSkewEstimator.addSample(serverDate.getTime(), requestTime, responseTime);
+			}
+		}
+	}
+
+	/**
+	 * Open a session with the login and password.
+	 *
+	 * @throws RundeckApiLoginException if the login failed
+	 */
+	private void login() {
+
+		final List<NameValuePair> loginForm = new ArrayList<>();
+		loginForm.add(new BasicNameValuePair("j_username", rundeckLogin)); //$NON-NLS-1$
+		loginForm.add(new BasicNameValuePair("j_password", rundeckPassword)); //$NON-NLS-1$
+		loginForm.add(new BasicNameValuePair("action", "login")); //$NON-NLS-1$ //$NON-NLS-2$
+
+		final HttpPost request = new HttpPost(rundeckUrl + LOGIN_PATH);
+		try {
+			request.setEntity(new UrlEncodedFormEntity(loginForm, "UTF-8")); //$NON-NLS-1$
+		}
+		catch (final UnsupportedEncodingException e) {
+			throw new RundeckApiLoginException("Unsupported encoding", e); //$NON-NLS-1$
+		}
+
+		requests.incrementAndGet();
+		try (final CloseableHttpResponse response = httpClient.execute(request)) {
+
+			EntityUtils.consume(response.getEntity());
+
+			// A successful login redirects to the home page
+			final Header location = response.getFirstHeader("Location"); //$NON-NLS-1$
+			if (null != location) {
+				for (final String loginErrorPath : LOGIN_ERROR_PATHS) {
+
+					if (location.getValue().contains(loginErrorPath)) {
+						throw new RundeckApiLoginException("Login failed for user " + rundeckLogin + " on " + rundeckUrl); //$NON-NLS-1$ //$NON-NLS-2$
+					}
+				}
+			}
+		}
+		catch (final IOException e) {
+			throw new RundeckApiLoginException("Failed to login on " + rundeckUrl, e); //$NON-NLS-1$
+		}
+
+		loggedIn = true;
+	}
+
+	/**
+	 * Format a date of the query parameters.
+	 *
+	 * @param date date to format
+	 * @return formatted GMT date
+	 */
+	private static String formatQueryDate(final Date date) {
+
+		final SimpleDateFormat queryDateFormat = new SimpleDateFormat(QUERY_DATE_FORMAT);
+		queryDateFormat.setTimeZone(TimeZone.getTimeZone(QUERY_TIME_ZONE));
+		return queryDateFormat.format(date);
+	}
+
+	/**
+	 * Get the root element of the responses of the API version.
+	 *
+	 * @return root XPath
+	 */
+	private String rootXpath() {
+
+		if (rundeckAPIVersion < FIRST_UNWRAPPED_API_VERSION) {
+			return "result"; //$NON-NLS-1$
+		}
+
+		return ""; //$NON-NLS-1$
+	}
+}
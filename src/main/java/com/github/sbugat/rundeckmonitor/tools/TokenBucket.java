@@ -0,0 +1,90 @@
+package com.github.sbugat.rundeckmonitor.tools;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token bucket rate limiter: a burst of up to the capacity is allowed, then one token is added at each refill period.
+ *
+ * @author Sylvain Bugat
+ *
+ */
+public final class TokenBucket {
+
+	/** Maximum number of tokens. */
+	private final int capacity;
+
+	/** Time to add one token in nanoseconds. */
+	private final long refillPeriodNanoseconds;
+
+	/** Available tokens. */
+	private int tokens;
+
+	/** Time when the last token was added in nanoseconds. */
+	private long lastRefillTime;
+
+	/**
+	 * Initialize a full bucket.
+	 *
+	 * @param capacityArg maximum number of tokens
+	 * @param refillPeriodMillisecondsArg time to add one token in milliseconds
+	 */
+	public TokenBucket(final int capacityArg, final long refillPeriodMillisecondsArg) {
+
+		capacity = capacityArg;
+		refillPeriodNanoseconds = TimeUnit.MILLISECONDS.toNanos(refillPeriodMillisecondsArg);
+		tokens = capacity;
+		lastRefillTime = System.nanoTime();
+	}
+
+	/**
+	 * Take one token if available.
+	 *
+	 * @return true if a token has been taken
+	 */
+	public synchronized boolean tryAcquire() {
+
+		refill();
+		if (tokens > 0) {
+			tokens--;
+			return true;
+		}
+
+		return false;
+	}
+
+	/**
+	 * Get the delay before a token is available.
+	 *
+	 * @return delay in milliseconds, 0 if a token is available
+	 */
+	public synchronized long getDelayUntilNextToken() {
+
+		refill();
+		if (tokens > 0) {
+			return 0L;
+		}
+
+		return TimeUnit.NANOSECONDS.toMillis(lastRefillTime + refillPeriodNanoseconds - System.nanoTime()) + 1;
+	}
+
+	/**
+	 * Add the tokens of the elapsed refill periods.
+	 */
+	private void refill() {
+
+		final long now = System.nanoTime();
+		final long periods = (now - lastRefillTime) / refillPeriodNanoseconds;
+		if (periods <= 0) {
+			return;
+		}
+
+		if (periods >= capacity - tokens) {
+			tokens = capacity;
+			lastRefillTime = now;
+		}
+		else {
+			tokens += (int) periods;
+			lastRefillTime += periods * refillPeriodNanoseconds;
+		}
+	}
+}
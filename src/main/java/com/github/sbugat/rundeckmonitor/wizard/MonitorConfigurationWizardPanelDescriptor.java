@@ -11,11 +11,8 @@ import javax.swing.JComboBox;
 import javax.swing.JLabel;
 import javax.swing.JTextField;
 
-import org.rundeck.api.RundeckClient;
-
 import com.github.sbugat.rundeckmonitor.configuration.RundeckMonitorConfiguration;
 import com.github.sbugat.rundeckmonitor.tools.EnvironmentTools;
-import com.github.sbugat.rundeckmonitor.tools.RundeckClientTools;
 
 /**
  * RunDeck monitor wizard panel.
@@ -49,9 +46,10 @@ public final class MonitorConfigurationWizardPanelDescriptor extends WizardPanel
 	 * @param backArg previous panel
 	 * @param nextArg next panel
 	 * @param rundeckMonitorConfigurationArg RunDeck monitor common configuration
+	 * @param rundeckServerCacheArg RunDeck server details shared by all panels
 	 */
-	public MonitorConfigurationWizardPanelDescriptor(final ConfigurationWizardStep backArg, final ConfigurationWizardStep nextArg, final RundeckMonitorConfiguration rundeckMonitorConfigurationArg) {
-		super(ConfigurationWizardStep.MONITOR_STEP, backArg, nextArg, rundeckMonitorConfigurationArg);
+	public MonitorConfigurationWizardPanelDescriptor(final ConfigurationWizardStep backArg, final ConfigurationWizardStep nextArg, final RundeckMonitorConfiguration rundeckMonitorConfigurationArg, final RundeckServerCache rundeckServerCacheArg) {
+		super(ConfigurationWizardStep.MONITOR_STEP, backArg, nextArg, rundeckMonitorConfigurationArg, rundeckServerCacheArg);
 
 		container.setLayout(new GridBagLayout());
 		final JLabel rundeckMonitorNameLabel = new JLabel("Tray-icon monitor name:"); //$NON-NLS-1$
@@ -241,16 +239,30 @@ public final class MonitorConfigurationWizardPanelDescriptor extends WizardPanel
 		return container;
 	}
 
+	/**
+	 * Load the Rundeck version, usually cached by the previous steps.
+	 *
+	 * @throws WizardValidationException if the Rundeck version cannot be loaded
+	 */
+	@Override
+	public void loadPanel() throws WizardValidationException {
+
+		try {
+			getRundeckServerCache().loadServerDetails(getRundeckMonitorConfiguration());
+		}
+		catch (final RuntimeException e) {
+			throw new WizardValidationException("RundeckMonitor wizard error", "Unable to load the Rundeck version," + System.lineSeparator() + "check the Rundeck URL and credentials."); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+		}
+	}
+
 	/**
 	 * Refresh the panel with possible values.
 	 */
 	@Override
 	public void aboutToDisplayPanel() {
 
-		// Initialize the rundeck client with the minimal rundeck version (1)
-		final RundeckClient rundeckClient = RundeckClientTools.buildMinimalRundeckClient(getRundeckMonitorConfiguration());
-
-		final String rundeckVersion = rundeckClient.getSystemInfo().getVersion();
+		// Rundeck version loaded by loadPanel
+		final String rundeckVersion = getRundeckServerCache().getServerDetails(getRundeckMonitorConfiguration()).getRundeckVersion();
 
 		JobTabRedirection oldJobTabRedirection = null;
 		rundeckMonitorJobTabRedirection.removeAllItems();
@@ -5,16 +5,17 @@ import java.awt.Container;
 import java.awt.GridBagConstraints;
 import java.awt.GridBagLayout;
 import java.awt.Insets;
+import java.util.concurrent.ExecutionException;
 
 import javax.swing.JComboBox;
 import javax.swing.JLabel;
 import javax.swing.JOptionPane;
+import javax.swing.SwingWorker;
 
-import org.rundeck.api.RundeckClient;
-import org.rundeck.api.domain.RundeckProject;
+import org.slf4j.ext.XLogger;
+import org.slf4j.ext.XLoggerFactory;
 
 import com.github.sbugat.rundeckmonitor.configuration.RundeckMonitorConfiguration;
-import com.github.sbugat.rundeckmonitor.tools.RundeckClientTools;
 
 /**
  * Project wizard panel.
@@ -24,24 +25,37 @@ import com.github.sbugat.rundeckmonitor.tools.RundeckClientTools;
  */
 public final class ProjectConfigurationWizardPanelDescriptor extends WizardPanelDescriptor {
 
+	/** SLF4J XLogger. */
+	private static final XLogger LOG = XLoggerFactory.getXLogger(ProjectConfigurationWizardPanelDescriptor.class);
+
+	/** Title of the wizard errors. */
+	private static final String WIZARD_ERROR_TITLE = "RundeckMonitor wizard error"; //$NON-NLS-1$
+
 	/** Main container. */
 	private final Container container = new Container();
 
-	/** Combo box for selecting the RunDeck project. */
-	private final JComboBox<String> rundeckProjectNameTextField = new JComboBox<>();
+	/** Type-ahead picker for selecting the RunDeck project. */
+	private final ProjectPicker rundeckProjectPicker = new ProjectPicker();
+
+	/** Flag indicating if a refresh of expired project names is running. */
+	private boolean projectNamesRefreshing;
 
 	/** Combo box for selecting the RunDeck API version. */
 	private final JComboBox<RundeckAPIVersion> rundeckRundeckAPIVersionTextField = new JComboBox<>();
 
+	/** RunDeck API version selected at the last validation. */
+	private RundeckAPIVersion selectedRundeckAPIVersion;
+
 	/**
 	 * Copy arguments and initialize the RunDeck project configuration wizard panel.
 	 *
 	 * @param backArg previous panel
 	 * @param nextArg next panel
 	 * @param rundeckMonitorConfigurationArg RunDeck monitor common configuration
+	 * @param rundeckServerCacheArg RunDeck server details shared by all panels
 	 */
-	public ProjectConfigurationWizardPanelDescriptor(final ConfigurationWizardStep backArg, final ConfigurationWizardStep nextArg, final RundeckMonitorConfiguration rundeckMonitorConfigurationArg) {
-		super(ConfigurationWizardStep.PROJECT_STEP, backArg, nextArg, rundeckMonitorConfigurationArg);
+	public ProjectConfigurationWizardPanelDescriptor(final ConfigurationWizardStep backArg, final ConfigurationWizardStep nextArg, final RundeckMonitorConfiguration rundeckMonitorConfigurationArg, final RundeckServerCache rundeckServerCacheArg) {
+		super(ConfigurationWizardStep.PROJECT_STEP, backArg, nextArg, rundeckMonitorConfigurationArg, rundeckServerCacheArg);
 
 		container.setLayout(new GridBagLayout());
 		final JLabel rundeckProjectlabel = new JLabel("Rundeck project:"); //$NON-NLS-1$
@@ -56,7 +70,7 @@ public final class ProjectConfigurationWizardPanelDescriptor extends WizardPanel
 		gridBagConstraits.gridy = 0;
 		container.add(rundeckProjectlabel, gridBagConstraits);
 		gridBagConstraits.gridx = 1;
-		container.add(rundeckProjectNameTextField, gridBagConstraits);
+		container.add(rundeckProjectPicker.getComponent(), gridBagConstraits);
 
 		gridBagConstraits.gridx = 0;
 		gridBagConstraits.gridy = 1;
@@ -72,31 +86,36 @@ public final class ProjectConfigurationWizardPanelDescriptor extends WizardPanel
 	}
 
 	@Override
-	public void aboutToDisplayPanel() {
+	public void loadPanel() throws WizardValidationException {
 
-		// Initialize the rundeck client with the minimal rundeck version (1)
-		final RundeckClient rundeckClient = RundeckClientTools.buildMinimalRundeckClient(getRundeckMonitorConfiguration());
-
-		rundeckProjectNameTextField.removeAllItems();
-		// Check if the configured project exists
-		boolean existingOldConfiguredProject = false;
-		for (final RundeckProject rundeckProject : rundeckClient.getProjects()) {
+		// Projects and version of the server, usually cached by the previous step
+		try {
+			getRundeckServerCache().loadServerDetails(getRundeckMonitorConfiguration());
+		}
+		catch (final RuntimeException e) {
+			throw new WizardValidationException(WIZARD_ERROR_TITLE, "Unable to load the Rundeck projects," + System.lineSeparator() + "check the Rundeck URL and credentials."); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+	}
 
-			final String currentProjectName = rundeckProject.getName();
-			rundeckProjectNameTextField.addItem(currentProjectName);
+	@Override
+	public void aboutToDisplayPanel() {
 
-			if (!currentProjectName.isEmpty() && currentProjectName.equals(getRundeckMonitorConfiguration().getRundeckProject())) {
+		// Server details loaded by loadPanel
+		final RundeckServerDetails rundeckServerDetails = getRundeckServerCache().getServerDetails(getRundeckMonitorConfiguration());
 
-				existingOldConfiguredProject = true;
-			}
+		// Keep the project selected before a Back, otherwise select the configured project
+		String selectedProject = rundeckProjectPicker.getSelectedProject();
+		if (null == selectedProject) {
+			selectedProject = getRundeckMonitorConfiguration().getRundeckProject();
 		}
+		rundeckProjectPicker.setProjectNames(rundeckServerDetails.getProjectNames(), selectedProject);
 
-		if (existingOldConfiguredProject) {
-			rundeckProjectNameTextField.setSelectedItem(getRundeckMonitorConfiguration().getRundeckProject());
+		// Expired names from the file cache are displayed until they are refreshed
+		if (rundeckServerDetails.isProjectNamesExpired()) {
+			refreshProjectNames();
 		}
 
-		final String rundeckVersion = rundeckClient.getSystemInfo().getVersion();
-
+		final String rundeckVersion = rundeckServerDetails.getRundeckVersion();
 		rundeckRundeckAPIVersionTextField.removeAllItems();
 		RundeckAPIVersion oldApiVersion = null;
 		for (final RundeckAPIVersion version : RundeckAPIVersion.values()) {
@@ -125,38 +144,66 @@ public final class ProjectConfigurationWizardPanelDescriptor extends WizardPanel
 	@Override
 	public boolean validate() {
 
-		// Initialize the rundeck client
-		final RundeckClient minimalRundeckClient = RundeckClientTools.buildMinimalRundeckClient(getRundeckMonitorConfiguration());
-
-		// Check if the configured project exists
-		boolean existingProject = false;
-		for (final RundeckProject rundeckProject : minimalRundeckClient.getProjects()) {
-
-			if (rundeckProjectNameTextField.getSelectedItem().equals(rundeckProject.getName())) {
-				existingProject = true;
-				break;
-			}
-		}
-
-		if (!existingProject) {
-			JOptionPane.showMessageDialog(null, "Unknown Rundeck project," + System.lineSeparator() + "check and change this project name:" + System.lineSeparator() + '"' + rundeckProjectNameTextField.getSelectedItem() + "\".", "RundeckMonitor wizard error", JOptionPane.ERROR_MESSAGE); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+		// Check if the configured project exists in the loaded projects
+		final RundeckServerDetails rundeckServerDetails = getRundeckServerCache().getServerDetails(getRundeckMonitorConfiguration());
+		final String selectedProject = rundeckProjectPicker.getSelectedProject();
+		if (null == rundeckServerDetails || !rundeckServerDetails.getProjectNames().contains(selectedProject)) {
+			JOptionPane.showMessageDialog(null, "Unknown Rundeck project," + System.lineSeparator() + "check and change this project name:" + System.lineSeparator() + '"' + selectedProject + "\".", WIZARD_ERROR_TITLE, JOptionPane.ERROR_MESSAGE); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
 			return false;
 		}
 
-		// Initialize the rundeck client
-		final int selectedRundeckAPIVersion = rundeckRundeckAPIVersionTextField.getItemAt(rundeckRundeckAPIVersionTextField.getSelectedIndex()).getVersion().getVersionNumber();
+		// The API version is checked by validateInBackground
+		selectedRundeckAPIVersion = rundeckRundeckAPIVersionTextField.getItemAt(rundeckRundeckAPIVersionTextField.getSelectedIndex());
+		getRundeckMonitorConfiguration().setRundeckProject(selectedProject);
+		getRundeckMonitorConfiguration().setRundeckAPIversion(selectedRundeckAPIVersion.getVersion().getVersionNumber());
 
+		return true;
+	}
+
+	@Override
+	public void validateInBackground() throws WizardValidationException {
+
+		// Initialize the rundeck client with the selected version
 		try {
-			RundeckClientTools.buildRundeckClient(selectedRundeckAPIVersion, getRundeckMonitorConfiguration());
+			getRundeckServerCache().checkAPIVersion(selectedRundeckAPIVersion.getVersion().getVersionNumber(), getRundeckMonitorConfiguration());
 		}
-		catch (final Exception exception) {
-			JOptionPane.showMessageDialog(null, "Invalid Rundeck API version," + System.lineSeparator() + "check and change the selected Rundeck API version:" + System.lineSeparator() + '"' + rundeckRundeckAPIVersionTextField.getSelectedItem() + "\".", "RundeckMonitor wizard error", JOptionPane.ERROR_MESSAGE); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
-			return false;
+		catch (final RuntimeException exception) {
+			throw new WizardValidationException(WIZARD_ERROR_TITLE, "Invalid Rundeck API version," + System.lineSeparator() + "check and change the selected Rundeck API version:" + System.lineSeparator() + '"' + selectedRundeckAPIVersion + "\"."); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
 		}
+	}
 
-		getRundeckMonitorConfiguration().setRundeckProject(rundeckProjectNameTextField.getItemAt(rundeckProjectNameTextField.getSelectedIndex()));
-		getRundeckMonitorConfiguration().setRundeckAPIversion(selectedRundeckAPIVersion);
+	/**
+	 * Refresh the expired project names in background, the picker is updated when the names are loaded.
+	 */
+	private void refreshProjectNames() {
 
-		return true;
+		if (projectNamesRefreshing) {
+			return;
+		}
+
+		projectNamesRefreshing = true;
+		new SwingWorker<RundeckServerDetails, Void>() {
+
+			@Override
+			@SuppressWarnings("synthetic-access")
+			protected RundeckServerDetails doInBackground() {
+				return getRundeckServerCache().refreshProjectNames(getRundeckMonitorConfiguration());
+			}
+
+			@Override
+			@SuppressWarnings("synthetic-access")
+			protected void done() {
+
+				projectNamesRefreshing = false;
+				try {
+					rundeckProjectPicker.setProjectNames(get().getProjectNames(), rundeckProjectPicker.getSelectedProject());
+				}
+				catch (final InterruptedException | ExecutionException e) {
+
+					// Expired names are still displayed and checked by the next steps
+					LOG.warn("Project names refresh error", e); //$NON-NLS-1$
+				}
+			}
+		}.execute();
 	}
 }
@@ -0,0 +1,131 @@
+package com.github.sbugat.rundeckmonitor.wizard;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Immutable case insensitive prefix index of project names.
+ *
+ * Names are sorted by their lower case key once, the names starting with a prefix are a contiguous range found by two binary searches.
+ *
+ * @author Sylvain Bugat
+ *
+ */
+public final class ProjectNameIndex {
+
+	/** Lower case keys, sorted. */
+	private final String[] keys;
+
+	/** Project names in the order of their keys. */
+	private final List<String> sortedNames;
+
+	/**
+	 * Sort and index project names.
+	 *
+	 * @param projectNames names to index
+	 */
+	public ProjectNameIndex(final Collection<String> projectNames) {
+
+		final String[][] entries = new String[projectNames.size()][];
+		int i = 0;
+		for (final String projectName : projectNames) {
+			entries[i] = new String[] { toKey(projectName), projectName };
+			i++;
+		}
+
+		Arrays.sort(entries, new KeyComparator());
+
+		keys = new String[entries.length];
+		final List<String> names = new ArrayList<>(entries.length);
+		for (i = 0; i < entries.length; i++) {
+			keys[i] = entries[i][0];
+			names.add(entries[i][1]);
+		}
+		sortedNames = Collections.unmodifiableList(names);
+	}
+
+	/**
+	 * Get all indexed names, sorted.
+	 *
+	 * @return unmodifiable sorted names
+	 */
+	public List<String> getSortedNames() {
+		return sortedNames;
+	}
+
+	/**
+	 * Find the names starting with a prefix, ignoring case.
+	 *
+	 * @param prefix searched prefix, an empty prefix matches all names
+	 * @return unmodifiable sorted view of the matching names
+	 */
+	public List<String> find(final String prefix) {
+
+		final String keyPrefix = toKey(prefix);
+		final int fromIndex = lowerBound(keyPrefix);
+
+		// Keys starting with the prefix are lower than the prefix followed by the maximum character
+		final int toIndex = lowerBound(keyPrefix + Character.MAX_VALUE);
+
+		return sortedNames.subList(fromIndex, toIndex);
+	}
+
+	/**
+	 * Find the index of the first key greater than or equal to a searched key.
+	 *
+	 * @param searchedKey searched key
+	 * @return index of the first key not lower than the searched key
+	 */
+	private int lowerBound(final String searchedKey) {
+
+		int low = 0;
+		int high = keys.length;
+		while (low < high) {
+
+			final int middle = (low + high) >>> 1;
+			if (keys[middle].compareTo(searchedKey) < 0) {
+				low = middle + 1;
+			}
+			else {
+				high = middle;
+			}
+		}
+
+		return low;
+	}
+
+	/**
+	 * Build the case insensitive key of a name.
+	 *
+	 * @param name project name or searched prefix
+	 * @return lower case key
+	 */
+	private static String toKey(final String name) {
+		return name.toLowerCase(Locale.ROOT);
+	}
+
+	/**
+	 * Comparator of the index entries by key then by name.
+	 *
+	 * @author Sylvain Bugat
+	 *
+	 */
+	private static final class KeyComparator implements Comparator<String[]> {
+
+		@Override
+		public int compare(final String[] entry1, final String[] entry2) {
+
+			final int keyComparison = entry1[0].compareTo(entry2[0]);
+			if (0 != keyComparison) {
+				return keyComparison;
+			}
+
+			return entry1[1].compareTo(entry2[1]);
+		}
+	}
+}
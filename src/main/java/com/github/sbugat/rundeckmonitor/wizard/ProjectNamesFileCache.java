@@ -0,0 +1,204 @@
+package com.github.sbugat.rundeckmonitor.wizard;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.slf4j.ext.XLogger;
+import org.slf4j.ext.XLoggerFactory;
+
+import com.github.sbugat.rundeckmonitor.configuration.RundeckMonitorConfiguration;
+import com.github.sbugat.rundeckmonitor.tools.HashTools;
+
+/**
+ * File cache of the project names of the last server used by the wizard, to display the projects without waiting for Rundeck when the wizard is reopened.
+ *
+ * The file contains a hash of the server URL and user, the saving time and one project name per line. Credentials are never written.
+ *
+ * @author Sylvain Bugat
+ *
+ */
+public final class ProjectNamesFileCache {
+
+	/** SLF4J XLogger. */
+	private static final XLogger LOG = XLoggerFactory.getXLogger(ProjectNamesFileCache.class);
+
+	/** Cache file, next to the configuration file. */
+	private static final String PROJECTS_CACHE_FILE = "rundeckMonitor.projects.cache"; //$NON-NLS-1$
+
+	/** Temporary file written before replacing the cache file. */
+	private static final String PROJECTS_CACHE_TEMPORARY_FILE = PROJECTS_CACHE_FILE + ".tmp"; //$NON-NLS-1$
+
+	/** Age after which the cached project names are refreshed in milliseconds. */
+	private static final long PROJECTS_CACHE_TTL = 3_600_000L;
+
+	/** Separator of the key parts, can't be used in an URL nor a login. */
+	private static final char KEY_SEPARATOR = '\n';
+
+	/**
+	 * Private constructor to prevent Instantiating.
+	 */
+	private ProjectNamesFileCache() {
+		throw new UnsupportedOperationException();
+	}
+
+	/**
+	 * Load the cached project names of the server of a configuration.
+	 *
+	 * @param rundeckMonitorConfiguration configuration of the server
+	 * @return cached project names, null if there is no cached names of this server or if the file cannot be read
+	 */
+	public static CachedProjectNames load(final RundeckMonitorConfiguration rundeckMonitorConfiguration) {
+
+		LOG.entry();
+
+		final Path cacheFile = Paths.get(PROJECTS_CACHE_FILE);
+		if (!Files.isReadable(cacheFile)) {
+			LOG.exit();
+			return null;
+		}
+
+		try (final BufferedReader cacheFileReader = Files.newBufferedReader(cacheFile, StandardCharsets.UTF_8)) {
+
+			// Names of another server or user
+			if (!key(rundeckMonitorConfiguration).equals(cacheFileReader.readLine())) {
+				LOG.exit();
+				return null;
+			}
+
+			final long savingTime = Long.parseLong(cacheFileReader.readLine());
+			final List<String> projectNames = new ArrayList<>();
+			String projectName = cacheFileReader.readLine();
+			while (null != projectName) {
+				projectNames.add(projectName);
+				projectName = cacheFileReader.readLine();
+			}
+
+			// A server without project is checked again
+			if (projectNames.isEmpty()) {
+				LOG.exit();
+				return null;
+			}
+
+			final boolean expired = System.currentTimeMillis() - savingTime > PROJECTS_CACHE_TTL;
+			LOG.debug("{} cached project names loaded, expired: {}", Integer.valueOf(projectNames.size()), Boolean.valueOf(expired)); //$NON-NLS-1$
+			final CachedProjectNames cachedProjectNames = new CachedProjectNames(projectNames, expired);
+			LOG.exit(cachedProjectNames);
+			return cachedProjectNames;
+		}
+		catch (final IOException | RuntimeException e) {
+
+			// The cache is ignored, project names are loaded from Rundeck
+			LOG.warn("Unreadable project names cache file", e); //$NON-NLS-1$
+			LOG.exit();
+			return null;
+		}
+	}
+
+	/**
+	 * Save the project names of the server of a configuration, replacing the cached names of any other server.
+	 *
+	 * @param rundeckMonitorConfiguration configuration of the server
+	 * @param projectNames project names to save
+	 */
+	public static void save(final RundeckMonitorConfiguration rundeckMonitorConfiguration, final List<String> projectNames) {
+
+		LOG.entry();
+
+		final Path temporaryFile = Paths.get(PROJECTS_CACHE_TEMPORARY_FILE);
+		try {
+			try (final BufferedWriter cacheFileWriter = Files.newBufferedWriter(temporaryFile, StandardCharsets.UTF_8)) {
+
+				cacheFileWriter.write(key(rundeckMonitorConfiguration));
+				cacheFileWriter.newLine();
+				cacheFileWriter.write(Long.toString(System.currentTimeMillis()));
+				cacheFileWriter.newLine();
+				for (final String projectName : projectNames) {
+					cacheFileWriter.write(projectName);
+					cacheFileWriter.newLine();
+				}
+			}
+
+			// Readers never see a partially written file
+			Files.move(temporaryFile, Paths.get(PROJECTS_CACHE_FILE), StandardCopyOption.REPLACE_EXISTING);
+		}
+		catch (final IOException e) {
+
+			// Only the next wizard display is slower
+			LOG.warn("Project names cache file writing error", e); //$NON-NLS-1$
+		}
+
+		LOG.exit();
+	}
+
+	/**
+	 * Build the hashed key of the server and user of a configuration.
+	 *
+	 * @param rundeckMonitorConfiguration configuration of the server
+	 * @return hexadecimal hash of the URL and of the token or login
+	 */
+	private static String key(final RundeckMonitorConfiguration rundeckMonitorConfiguration) {
+
+		final StringBuilder key = new StringBuilder();
+		key.append(rundeckMonitorConfiguration.getRundeckUrl()).append(KEY_SEPARATOR);
+		if (null != rundeckMonitorConfiguration.getRundeckAPIKey() && !rundeckMonitorConfiguration.getRundeckAPIKey().isEmpty()) {
+			key.append(rundeckMonitorConfiguration.getRundeckAPIKey());
+		}
+		else {
+			key.append(rundeckMonitorConfiguration.getRundeckLogin());
+		}
+
+		return HashTools.sha256Hex(key.toString());
+	}
+
+	/**
+	 * Project names read from the cache file.
+	 *
+	 * @author Sylvain Bugat
+	 *
+	 */
+	public static final class CachedProjectNames {
+
+		/** Cached project names. */
+		private final List<String> projectNames;
+
+		/** Flag indicating if the names must be refreshed. */
+		private final boolean expired;
+
+		/**
+		 * Copy the read names.
+		 *
+		 * @param projectNamesArg cached project names
+		 * @param expiredArg true if the names must be refreshed
+		 */
+		private CachedProjectNames(final List<String> projectNamesArg, final boolean expiredArg) {
+			projectNames = projectNamesArg;
+			expired = expiredArg;
+		}
+
+		/**
+		 * Get the cached project names.
+		 *
+		 * @return project names
+		 */
+		public List<String> getProjectNames() {
+			return projectNames;
+		}
+
+		/**
+		 * Check if the names are older than the cache time to live.
+		 *
+		 * @return true if the names must be refreshed
+		 */
+		public boolean isExpired() {
+			return expired;
+		}
+	}
+}
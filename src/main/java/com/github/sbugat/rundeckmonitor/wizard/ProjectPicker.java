@@ -0,0 +1,191 @@
+package com.github.sbugat.rundeckmonitor.wizard;
+
+import java.awt.BorderLayout;
+import java.awt.Component;
+import java.util.Collections;
+import java.util.List;
+
+import javax.swing.AbstractListModel;
+import javax.swing.JList;
+import javax.swing.JPanel;
+import javax.swing.JScrollPane;
+import javax.swing.JTextField;
+import javax.swing.ListSelectionModel;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+
+/**
+ * Project picker with type-ahead filtering, for servers with many projects.
+ *
+ * The typed text filters the displayed projects by prefix using a {@link ProjectNameIndex}, the exact match or the first displayed project is selected.
+ *
+ * @author Sylvain Bugat
+ *
+ */
+public final class ProjectPicker {
+
+	/** Number of columns of the filter input. */
+	private static final int FILTER_COLUMNS = 20;
+
+	/** Number of displayed projects without scrolling. */
+	private static final int VISIBLE_PROJECTS = 8;
+
+	/** Main panel. */
+	private final JPanel panel = new JPanel(new BorderLayout());
+
+	/** Filter input. */
+	private final JTextField filterTextField = new JTextField(FILTER_COLUMNS);
+
+	/** Projects matching the filter. */
+	private final MatchingProjectsModel matchingProjectsModel = new MatchingProjectsModel();
+
+	/** List of the projects matching the filter. */
+	private final JList<String> projectList = new JList<>(matchingProjectsModel);
+
+	/** Index of all projects. */
+	private ProjectNameIndex projectNameIndex = new ProjectNameIndex(Collections.<String> emptyList());
+
+	/**
+	 * Initialize an empty picker.
+	 */
+	public ProjectPicker() {
+
+		projectList.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+		projectList.setVisibleRowCount(VISIBLE_PROJECTS);
+
+		// Fixed height cells: only the visible rows are measured and rendered
+		projectList.setFixedCellHeight(projectList.getFontMetrics(projectList.getFont()).getHeight() + 2);
+
+		filterTextField.getDocument().addDocumentListener(new DocumentListener() {
+
+			@Override
+			@SuppressWarnings("synthetic-access")
+			public void insertUpdate(final DocumentEvent e) {
+				filter(null);
+			}
+
+			@Override
+			@SuppressWarnings("synthetic-access")
+			public void removeUpdate(final DocumentEvent e) {
+				filter(null);
+			}
+
+			@Override
+			@SuppressWarnings("synthetic-access")
+			public void changedUpdate(final DocumentEvent e) {
+				filter(null);
+			}
+		});
+
+		panel.add(filterTextField, BorderLayout.NORTH);
+		panel.add(new JScrollPane(projectList), BorderLayout.CENTER);
+	}
+
+	/**
+	 * Get the picker component.
+	 *
+	 * @return main panel
+	 */
+	public Component getComponent() {
+		return panel;
+	}
+
+	/**
+	 * Replace the projects of the picker, the current filter is kept.
+	 *
+	 * @param projectNames all project names
+	 * @param selectedProject project to select if it matches the filter, or null
+	 */
+	public void setProjectNames(final List<String> projectNames, final String selectedProject) {
+
+		projectNameIndex = new ProjectNameIndex(projectNames);
+		filter(selectedProject);
+	}
+
+	/**
+	 * Get the selected project.
+	 *
+	 * @return selected project name or null if no project is selected
+	 */
+	public String getSelectedProject() {
+		return projectList.getSelectedValue();
+	}
+
+	/**
+	 * Display the projects matching the filter and select a project.
+	 *
+	 * @param selectedProject project to select if it matches the filter, or null to select the exact match or the first project
+	 */
+	private void filter(final String selectedProject) {
+
+		final String filter = filterTextField.getText();
+		final List<String> matchingProjects = projectNameIndex.find(filter);
+		matchingProjectsModel.setProjects(matchingProjects);
+
+		int selectedIndex = -1;
+		if (null != selectedProject) {
+			selectedIndex = matchingProjects.indexOf(selectedProject);
+		}
+		if (selectedIndex < 0 && !matchingProjects.isEmpty()) {
+
+			selectedIndex = 0;
+			for (int i = 0; i < matchingProjects.size(); i++) {
+				if (matchingProjects.get(i).equalsIgnoreCase(filter)) {
+					selectedIndex = i;
+					break;
+				}
+			}
+		}
+
+		if (selectedIndex >= 0) {
+			projectList.setSelectedIndex(selectedIndex);
+			projectList.ensureIndexIsVisible(selectedIndex);
+		}
+		else {
+			projectList.clearSelection();
+		}
+	}
+
+	/**
+	 * List model of the projects matching the filter, replaced at each filtering.
+	 *
+	 * @author Sylvain Bugat
+	 *
+	 */
+	private static final class MatchingProjectsModel extends AbstractListModel<String> {
+
+		/** Serial version UID. */
+		private static final long serialVersionUID = 1L;
+
+		/** Displayed projects. */
+		private transient List<String> projects = Collections.emptyList();
+
+		@Override
+		public int getSize() {
+			return projects.size();
+		}
+
+		@Override
+		public String getElementAt(final int index) {
+			return projects.get(index);
+		}
+
+		/**
+		 * Replace the displayed projects.
+		 *
+		 * @param projectsArg projects to display
+		 */
+		private void setProjects(final List<String> projectsArg) {
+
+			final int oldSize = projects.size();
+			projects = projectsArg;
+
+			if (oldSize > 0) {
+				fireIntervalRemoved(this, 0, oldSize - 1);
+			}
+			if (!projects.isEmpty()) {
+				fireIntervalAdded(this, 0, projects.size() - 1);
+			}
+		}
+	}
+}
@@ -14,13 +14,10 @@ import javax.swing.JPasswordField;
 import javax.swing.JSeparator;
 import javax.swing.JTextField;
 
-import org.rundeck.api.RundeckApiException;
 import org.rundeck.api.RundeckApiException.RundeckApiLoginException;
 import org.rundeck.api.RundeckApiException.RundeckApiTokenException;
-import org.rundeck.api.RundeckClient;
 
 import com.github.sbugat.rundeckmonitor.configuration.RundeckMonitorConfiguration;
-import com.github.sbugat.rundeckmonitor.tools.RundeckClientTools;
 
 /**
  * RunDeck configuration wizard panel.
@@ -30,6 +27,9 @@ import com.github.sbugat.rundeckmonitor.tools.RundeckClientTools;
  */
 public final class RundeckConfigurationWizardPanelDescriptor extends WizardPanelDescriptor {
 
+	/** Title of the connection errors. */
+	private static final String CONFIGURATION_ERROR_TITLE = "Configuration error"; //$NON-NLS-1$
+
 	/** Main container of the panel. */
 	private final Container container = new Container();
 
@@ -49,9 +49,10 @@ public final class RundeckConfigurationWizardPanelDescriptor extends WizardPanel
 	 * @param backArg previous panel
 	 * @param nextArg next panel
 	 * @param rundeckMonitorConfigurationArg RunDeck monitor common configuration
+	 * @param rundeckServerCacheArg RunDeck server details shared by all panels
 	 */
-	public RundeckConfigurationWizardPanelDescriptor(final ConfigurationWizardStep backArg, final ConfigurationWizardStep nextArg, final RundeckMonitorConfiguration rundeckMonitorConfigurationArg) {
-		super(ConfigurationWizardStep.RUNDECK_STEP, backArg, nextArg, rundeckMonitorConfigurationArg);
+	public RundeckConfigurationWizardPanelDescriptor(final ConfigurationWizardStep backArg, final ConfigurationWizardStep nextArg, final RundeckMonitorConfiguration rundeckMonitorConfigurationArg, final RundeckServerCache rundeckServerCacheArg) {
+		super(ConfigurationWizardStep.RUNDECK_STEP, backArg, nextArg, rundeckMonitorConfigurationArg, rundeckServerCacheArg);
 
 		rundeckUrlTextField.setText(rundeckMonitorConfigurationArg.getRundeckUrl());
 		rundeckAPITokenTextField.setText(rundeckMonitorConfigurationArg.getRundeckAPIKey());
@@ -139,46 +140,33 @@ public final class RundeckConfigurationWizardPanelDescriptor extends WizardPanel
 		getRundeckMonitorConfiguration().setRundeckLogin(rundeckLoginTextField.getText());
 		getRundeckMonitorConfiguration().setRundeckPassword(rundeckPasswordTextField.getText());
 
-		// Test authentication credentials
-		final RundeckClient rundeckClient;
+		return true;
+	}
+
+	@Override
+	public void validateInBackground() throws WizardValidationException {
+
+		// Test authentication credentials, server details are cached for the next steps
+		final RundeckServerDetails rundeckServerDetails;
 		try {
-			// Initialize the rundeck client with minimal rundeck version (1)
-			rundeckClient = RundeckClientTools.buildMinimalRundeckClient(getRundeckMonitorConfiguration());
-			rundeckClient.ping();
-			rundeckClient.testAuth();
+			rundeckServerDetails = getRundeckServerCache().loadServerDetails(getRundeckMonitorConfiguration());
 		}
-		/*
-		 * catch( final RundeckApiException e ) { JOptionPane.showMessageDialog( null, "Unable to connect to the project URL," + System.lineSeparator() + "check and change this parameter.", "Configuration error", JOptionPane.ERROR_MESSAGE ); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ return false; }
-		 */
 		catch (final RundeckApiTokenException e) {
 
-			JOptionPane.showMessageDialog(null, "Invalid authentication token," + System.lineSeparator() + "check and change this parameter.", "Configuration error", JOptionPane.ERROR_MESSAGE); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
-			return false;
+			throw new WizardValidationException(CONFIGURATION_ERROR_TITLE, "Invalid authentication token," + System.lineSeparator() + "check and change this parameter."); //$NON-NLS-1$ //$NON-NLS-2$
 		}
 		catch (final RundeckApiLoginException e) {
 
-			JOptionPane.showMessageDialog(null, "Invalid login/password," + System.lineSeparator() + "check and change these parameters.", "Configuration error", JOptionPane.ERROR_MESSAGE); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
-			return false;
+			throw new WizardValidationException(CONFIGURATION_ERROR_TITLE, "Invalid login/password," + System.lineSeparator() + "check and change these parameters."); //$NON-NLS-1$ //$NON-NLS-2$
 		}
-		catch (final Exception e) {
+		catch (final RuntimeException e) {
 
-			JOptionPane.showMessageDialog(null, "Invalid project URL," + System.lineSeparator() + "check and change this parameter.", "Configuration error", JOptionPane.ERROR_MESSAGE); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
-			return false;
+			throw new WizardValidationException(CONFIGURATION_ERROR_TITLE, "Invalid project URL," + System.lineSeparator() + "check and change this parameter."); //$NON-NLS-1$ //$NON-NLS-2$
 		}
 
 		// Test existing projects
-		try {
-			if (rundeckClient.getProjects().isEmpty()) {
-				JOptionPane.showMessageDialog(null, "Configured rundeck has no project," + System.lineSeparator() + "check and change this rundeck instance.", "Configuration error", JOptionPane.ERROR_MESSAGE); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
-				return false;
-			}
+		if (rundeckServerDetails.getProjectNames().isEmpty()) {
+			throw new WizardValidationException(CONFIGURATION_ERROR_TITLE, "Configured rundeck has no project," + System.lineSeparator() + "check and change this rundeck instance."); //$NON-NLS-1$ //$NON-NLS-2$
 		}
-		catch (final RundeckApiException e) {
-
-			JOptionPane.showMessageDialog(null, "Configured rundeck has no project," + System.lineSeparator() + "check and change this rundeck instance.", "Configuration error", JOptionPane.ERROR_MESSAGE); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
-			return false;
-		}
-
-		return true;
 	}
 }
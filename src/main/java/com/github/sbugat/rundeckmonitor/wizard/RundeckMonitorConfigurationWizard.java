@@ -7,16 +7,25 @@ import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
 
 import javax.swing.Box;
 import javax.swing.BoxLayout;
 import javax.swing.JButton;
 import javax.swing.JFrame;
+import javax.swing.JLabel;
+import javax.swing.JOptionPane;
 import javax.swing.JPanel;
+import javax.swing.JProgressBar;
 import javax.swing.JSeparator;
+import javax.swing.SwingWorker;
 import javax.swing.WindowConstants;
 import javax.swing.border.EmptyBorder;
 
+import org.slf4j.ext.XLogger;
+import org.slf4j.ext.XLoggerFactory;
+
 import com.github.sbugat.rundeckmonitor.configuration.RundeckMonitorConfiguration;
 import com.github.sbugat.rundeckmonitor.tools.SystemTools;
 
@@ -28,6 +37,9 @@ import com.github.sbugat.rundeckmonitor.tools.SystemTools;
  */
 public final class RundeckMonitorConfigurationWizard {
 
+	/** SLF4J XLogger. */
+	private static final XLogger LOG = XLoggerFactory.getXLogger(RundeckMonitorConfigurationWizard.class);
+
 	/** Configuration wizard frame title. */
 	private static final String WIZARD_FRAME_TITLE = "RundeckMonitor configuration wizard"; //$NON-NLS-1$
 
@@ -39,6 +51,10 @@ public final class RundeckMonitorConfigurationWizard {
 	private static final String FINISH_BUTTON_LABEL = "Finish"; //$NON-NLS-1$
 	/** Next button label. */
 	private static final String NEXT_BUTTON_LABEL = "Next"; //$NON-NLS-1$
+	/** Label displayed while a step is checked or loaded. */
+	private static final String CHECKING_LABEL = "Connecting to Rundeck..."; //$NON-NLS-1$
+	/** Title of the unexpected step errors. */
+	private static final String WIZARD_ERROR_TITLE = "RundeckMonitor wizard error"; //$NON-NLS-1$
 
 	/** Wizard steps maps. */
 	private final Map<ConfigurationWizardStep, WizardPanelDescriptor> map = new HashMap<>();
@@ -58,6 +74,14 @@ public final class RundeckMonitorConfigurationWizard {
 	/** Next step button of the wizard. */
 	private JButton nextButton;
 
+	/** Progress of the running step check. */
+	private final JProgressBar checkingProgressBar = new JProgressBar();
+	/** Label of the running step check. */
+	private final JLabel checkingLabel = new JLabel(CHECKING_LABEL);
+
+	/** Running step check and load or null. */
+	private SwingWorker<Void, Void> stepWorker;
+
 	/**
 	 * Initialize a new configuration wizard.
 	 *
@@ -79,15 +103,16 @@ public final class RundeckMonitorConfigurationWizard {
 		// Initialize displayed components
 		initComponents(exitOnClose);
 
-		// Initialize steps and set the first step
-		final WizardPanelDescriptor wpd1 = new RundeckConfigurationWizardPanelDescriptor(null, ConfigurationWizardStep.PROJECT_STEP, rundeckMonitorConfiguration);
-		final WizardPanelDescriptor wpd2 = new ProjectConfigurationWizardPanelDescriptor(ConfigurationWizardStep.RUNDECK_STEP, ConfigurationWizardStep.MONITOR_STEP, rundeckMonitorConfiguration);
-		final WizardPanelDescriptor wpd3 = new MonitorConfigurationWizardPanelDescriptor(ConfigurationWizardStep.PROJECT_STEP, null, rundeckMonitorConfiguration);
+		// Initialize steps sharing the Rundeck server details and set the first step
+		final RundeckServerCache rundeckServerCache = new RundeckServerCache();
+		final WizardPanelDescriptor wpd1 = new RundeckConfigurationWizardPanelDescriptor(null, ConfigurationWizardStep.PROJECT_STEP, rundeckMonitorConfiguration, rundeckServerCache);
+		final WizardPanelDescriptor wpd2 = new ProjectConfigurationWizardPanelDescriptor(ConfigurationWizardStep.RUNDECK_STEP, ConfigurationWizardStep.MONITOR_STEP, rundeckMonitorConfiguration, rundeckServerCache);
+		final WizardPanelDescriptor wpd3 = new MonitorConfigurationWizardPanelDescriptor(ConfigurationWizardStep.PROJECT_STEP, null, rundeckMonitorConfiguration, rundeckServerCache);
 
 		registerWizardPanel(wpd1);
 		registerWizardPanel(wpd2);
 		registerWizardPanel(wpd3);
-		setCurrentPanel(ConfigurationWizardStep.RUNDECK_STEP, false);
+		displayPanel(ConfigurationWizardStep.RUNDECK_STEP);
 
 		// Resize the frame
 		wizardFrame.pack();
@@ -155,7 +180,11 @@ public final class RundeckMonitorConfigurationWizard {
 			@SuppressWarnings("synthetic-access")
 			public void actionPerformed(final ActionEvent e) {
 
-				if (exitOnClose) {
+				// Cancel the running check and stay on the current step
+				if (null != stepWorker) {
+					stepWorker.cancel(true);
+				}
+				else if (exitOnClose) {
 					SystemTools.exit(SystemTools.EXIT_CODE_OK);
 				}
 				else {
@@ -172,6 +201,18 @@ public final class RundeckMonitorConfigurationWizard {
 		buttonPanel.setLayout(new BorderLayout());
 		buttonPanel.add(new JSeparator(), BorderLayout.NORTH);
 
+		final Box checkingBox = new Box(BoxLayout.X_AXIS);
+		checkingBox.setBorder(new EmptyBorder(new Insets(5, 10, 5, 10)));
+		checkingProgressBar.setIndeterminate(true);
+		checkingBox.add(checkingProgressBar);
+		checkingBox.add(Box.createHorizontalStrut(10));
+		checkingBox.add(checkingLabel);
+		// Keep the space of the progress when it is hidden
+		checkingBox.setPreferredSize(checkingBox.getPreferredSize());
+		checkingProgressBar.setVisible(false);
+		checkingLabel.setVisible(false);
+		buttonPanel.add(checkingBox, BorderLayout.WEST);
+
 		buttonBox.setBorder(new EmptyBorder(new Insets(5, 10, 5, 10)));
 		buttonBox.add(backButton);
 		buttonBox.add(Box.createHorizontalStrut(10));
@@ -196,16 +237,89 @@ public final class RundeckMonitorConfigurationWizard {
 	/**
 	 * Change the current panel to a new one with validation of the current if needed.
 	 *
+	 * Checks and loads calling RunDeck are done by a background worker, the navigation is disabled until they end or are cancelled.
+	 *
 	 * @param id identifier or the targeted Wizard step
 	 * @param next indicate if it's a next step
 	 */
 	public void setCurrentPanel(final ConfigurationWizardStep id, final boolean next) {
 
-		// If going to the next panel, validate it and don't advance if validation failed
-		if (next && currentStep != null && !map.get(currentStep).validate()) {
+		// A check is already running
+		if (null != stepWorker) {
 			return;
 		}
 
+		// If going to the next panel, validate it and don't advance if validation failed
+		final WizardPanelDescriptor currentPanel;
+		if (next && currentStep != null) {
+
+			currentPanel = map.get(currentStep);
+			if (!currentPanel.validate()) {
+				return;
+			}
+		}
+		else {
+			currentPanel = null;
+		}
+
+		final WizardPanelDescriptor targetPanel = map.get(id);
+		stepWorker = new SwingWorker<Void, Void>() {
+
+			@Override
+			protected Void doInBackground() throws WizardValidationException {
+
+				if (null != currentPanel) {
+					currentPanel.validateInBackground();
+				}
+				if (!isCancelled()) {
+					targetPanel.loadPanel();
+				}
+
+				return null;
+			}
+
+			@Override
+			@SuppressWarnings("synthetic-access")
+			protected void done() {
+
+				stepWorker = null;
+				setChecking(false);
+
+				try {
+					get();
+					displayPanel(id);
+				}
+				catch (final CancellationException e) {
+					LOG.info("Wizard step check cancelled"); //$NON-NLS-1$
+				}
+				catch (final InterruptedException e) {
+					LOG.error("Wizard step check interrupted", e); //$NON-NLS-1$
+				}
+				catch (final ExecutionException e) {
+
+					if (e.getCause() instanceof WizardValidationException) {
+						final WizardValidationException validationException = (WizardValidationException) e.getCause();
+						JOptionPane.showMessageDialog(wizardFrame, validationException.getMessage(), validationException.getTitle(), JOptionPane.ERROR_MESSAGE);
+					}
+					else {
+						LOG.error("Wizard step check error", e); //$NON-NLS-1$
+						JOptionPane.showMessageDialog(wizardFrame, String.valueOf(e.getCause().getMessage()), WIZARD_ERROR_TITLE, JOptionPane.ERROR_MESSAGE);
+					}
+				}
+			}
+		};
+
+		setChecking(true);
+		stepWorker.execute();
+	}
+
+	/**
+	 * Display a loaded panel.
+	 *
+	 * @param id identifier or the displayed Wizard step
+	 */
+	private void displayPanel(final ConfigurationWizardStep id) {
+
 		currentStep = id;
 
 		map.get(id).aboutToDisplayPanel();
@@ -221,4 +335,17 @@ public final class RundeckMonitorConfigurationWizard {
 
 		cardLayout.show(cardPanel, id.toString());
 	}
+
+	/**
+	 * Show or hide the running check progress, the navigation is disabled during a check.
+	 *
+	 * @param checking true if a check is running
+	 */
+	private void setChecking(final boolean checking) {
+
+		checkingProgressBar.setVisible(checking);
+		checkingLabel.setVisible(checking);
+		backButton.setEnabled(!checking);
+		nextButton.setEnabled(!checking);
+	}
 }
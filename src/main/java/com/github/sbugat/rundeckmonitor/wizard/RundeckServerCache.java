@@ -0,0 +1,189 @@
+package com.github.sbugat.rundeckmonitor.wizard;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.rundeck.api.RundeckClient;
+import org.rundeck.api.domain.RundeckProject;
+import org.slf4j.ext.XLogger;
+import org.slf4j.ext.XLoggerFactory;
+
+import com.github.sbugat.rundeckmonitor.configuration.RundeckMonitorConfiguration;
+import com.github.sbugat.rundeckmonitor.tools.RundeckClientTools;
+
+/**
+ * Cache of the Rundeck server details shared by the wizard steps, the server is only queried again when the URL or the credentials change.
+ *
+ * Project names are also cached on disk: the names saved by a previous wizard are used directly, and refreshed with {@link #refreshProjectNames(RundeckMonitorConfiguration)} when they are expired.
+ *
+ * Loading methods call the Rundeck server and must not be called on the event dispatch thread.
+ *
+ * @author Sylvain Bugat
+ *
+ */
+public final class RundeckServerCache {
+
+	/** SLF4J XLogger. */
+	private static final XLogger LOG = XLoggerFactory.getXLogger(RundeckServerCache.class);
+
+	/** URL and credentials of the cached server. */
+	private List<String> connectionKey;
+
+	/** Details of the cached server. */
+	private RundeckServerDetails serverDetails;
+
+	/** API versions already checked on the cached server. */
+	private final Set<Integer> checkedAPIVersions = new HashSet<>();
+
+	/**
+	 * Get the cached details of the configured server without any call.
+	 *
+	 * @param rundeckMonitorConfiguration configuration with the server URL and credentials
+	 * @return cached details or null if they are not loaded
+	 */
+	public synchronized RundeckServerDetails getServerDetails(final RundeckMonitorConfiguration rundeckMonitorConfiguration) {
+
+		if (buildConnectionKey(rundeckMonitorConfiguration).equals(connectionKey)) {
+			return serverDetails;
+		}
+
+		return null;
+	}
+
+	/**
+	 * Get the details of the configured server, connect and authenticate to the server if they are not cached.
+	 *
+	 * @param rundeckMonitorConfiguration configuration with the server URL and credentials
+	 * @return details of the server
+	 */
+	public RundeckServerDetails loadServerDetails(final RundeckMonitorConfiguration rundeckMonitorConfiguration) {
+
+		LOG.entry();
+
+		final RundeckServerDetails cachedServerDetails = getServerDetails(rundeckMonitorConfiguration);
+		if (null != cachedServerDetails) {
+			LOG.exit(cachedServerDetails);
+			return cachedServerDetails;
+		}
+
+		// Initialize the rundeck client with minimal rundeck version (1) and test authentication credentials
+		final List<String> loadedConnectionKey = buildConnectionKey(rundeckMonitorConfiguration);
+		final RundeckClient rundeckClient = RundeckClientTools.buildMinimalRundeckClient(rundeckMonitorConfiguration);
+		final String rundeckVersion = rundeckClient.getSystemInfo().getVersion();
+
+		// Project names saved by a previous wizard are displayed directly, even expired
+		final RundeckServerDetails loadedServerDetails;
+		final ProjectNamesFileCache.CachedProjectNames cachedProjectNames = ProjectNamesFileCache.load(rundeckMonitorConfiguration);
+		if (null != cachedProjectNames) {
+			loadedServerDetails = new RundeckServerDetails(rundeckVersion, cachedProjectNames.getProjectNames(), cachedProjectNames.isExpired());
+		}
+		else {
+			loadedServerDetails = new RundeckServerDetails(rundeckVersion, loadProjectNames(rundeckClient, rundeckMonitorConfiguration), false);
+		}
+
+		synchronized (this) {
+			connectionKey = loadedConnectionKey;
+			serverDetails = loadedServerDetails;
+			checkedAPIVersions.clear();
+		}
+
+		LOG.exit(loadedServerDetails);
+		return loadedServerDetails;
+	}
+
+	/**
+	 * Load the project names of the configured server from Rundeck and replace the cached names.
+	 *
+	 * @param rundeckMonitorConfiguration configuration with the server URL and credentials
+	 * @return details of the server with the refreshed project names
+	 */
+	public RundeckServerDetails refreshProjectNames(final RundeckMonitorConfiguration rundeckMonitorConfiguration) {
+
+		LOG.entry();
+
+		final List<String> refreshedConnectionKey = buildConnectionKey(rundeckMonitorConfiguration);
+		final RundeckServerDetails cachedServerDetails = getServerDetails(rundeckMonitorConfiguration);
+
+		// The connection has been checked by the loading of the server details
+		final RundeckClient rundeckClient = RundeckClientTools.buildUncheckedRundeckClient(1, rundeckMonitorConfiguration);
+		final List<String> projectNames = loadProjectNames(rundeckClient, rundeckMonitorConfiguration);
+
+		final String rundeckVersion;
+		if (null != cachedServerDetails) {
+			rundeckVersion = cachedServerDetails.getRundeckVersion();
+		}
+		else {
+			rundeckVersion = rundeckClient.getSystemInfo().getVersion();
+		}
+		final RundeckServerDetails refreshedServerDetails = new RundeckServerDetails(rundeckVersion, projectNames, false);
+
+		synchronized (this) {
+			if (refreshedConnectionKey.equals(connectionKey)) {
+				serverDetails = refreshedServerDetails;
+			}
+		}
+
+		LOG.exit(refreshedServerDetails);
+		return refreshedServerDetails;
+	}
+
+	/**
+	 * Check an API version on the configured server if it has not been checked yet.
+	 *
+	 * @param rundeckAPIVersion Rundeck API version to check
+	 * @param rundeckMonitorConfiguration configuration with the server URL and credentials
+	 */
+	public void checkAPIVersion(final int rundeckAPIVersion, final RundeckMonitorConfiguration rundeckMonitorConfiguration) {
+
+		LOG.entry(rundeckAPIVersion);
+
+		final List<String> checkedConnectionKey = buildConnectionKey(rundeckMonitorConfiguration);
+		synchronized (this) {
+			if (checkedConnectionKey.equals(connectionKey) && checkedAPIVersions.contains(Integer.valueOf(rundeckAPIVersion))) {
+				LOG.exit();
+				return;
+			}
+		}
+
+		RundeckClientTools.buildRundeckClient(rundeckAPIVersion, rundeckMonitorConfiguration);
+
+		synchronized (this) {
+			if (checkedConnectionKey.equals(connectionKey)) {
+				checkedAPIVersions.add(Integer.valueOf(rundeckAPIVersion));
+			}
+		}
+
+		LOG.exit();
+	}
+
+	/**
+	 * Load the project names from Rundeck and save them in the file cache.
+	 *
+	 * @param rundeckClient client of the server
+	 * @param rundeckMonitorConfiguration configuration with the server URL and credentials
+	 * @return project names
+	 */
+	private static List<String> loadProjectNames(final RundeckClient rundeckClient, final RundeckMonitorConfiguration rundeckMonitorConfiguration) {
+
+		final List<String> projectNames = new ArrayList<>();
+		for (final RundeckProject rundeckProject : rundeckClient.getProjects()) {
+			projectNames.add(rundeckProject.getName());
+		}
+		ProjectNamesFileCache.save(rundeckMonitorConfiguration, projectNames);
+
+		return projectNames;
+	}
+
+	/**
+	 * Build the key of the server URL and credentials.
+	 *
+	 * @param rundeckMonitorConfiguration configuration with the server URL and credentials
+	 * @return connection key
+	 */
+	private static List<String> buildConnectionKey(final RundeckMonitorConfiguration rundeckMonitorConfiguration) {
+		return Arrays.asList(rundeckMonitorConfiguration.getRundeckUrl(), rundeckMonitorConfiguration.getRundeckAPIKey(), rundeckMonitorConfiguration.getRundeckLogin(), rundeckMonitorConfiguration.getRundeckPassword());
+	}
+}
@@ -0,0 +1,62 @@
+package com.github.sbugat.rundeckmonitor.wizard;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Immutable details of a Rundeck server used by the wizard steps.
+ *
+ * @author Sylvain Bugat
+ *
+ */
+public final class RundeckServerDetails {
+
+	/** Rundeck server version. */
+	private final String rundeckVersion;
+
+	/** Names of the projects of the server. */
+	private final List<String> projectNames;
+
+	/** Flag indicating if the names come from an expired cache and must be refreshed. */
+	private final boolean projectNamesExpired;
+
+	/**
+	 * Copy the details of a server.
+	 *
+	 * @param rundeckVersionArg Rundeck server version
+	 * @param projectNamesArg names of the projects of the server
+	 * @param projectNamesExpiredArg true if the names come from an expired cache
+	 */
+	public RundeckServerDetails(final String rundeckVersionArg, final List<String> projectNamesArg, final boolean projectNamesExpiredArg) {
+		rundeckVersion = rundeckVersionArg;
+		projectNames = Collections.unmodifiableList(projectNamesArg);
+		projectNamesExpired = projectNamesExpiredArg;
+	}
+
+	/**
+	 * Get the Rundeck server version.
+	 *
+	 * @return Rundeck version
+	 */
+	public String getRundeckVersion() {
+		return rundeckVersion;
+	}
+
+	/**
+	 * Get the names of the projects of the server.
+	 *
+	 * @return unmodifiable list of project names
+	 */
+	public List<String> getProjectNames() {
+		return projectNames;
+	}
+
+	/**
+	 * Check if the project names come from an expired cache.
+	 *
+	 * @return true if the project names must be refreshed
+	 */
+	public boolean isProjectNamesExpired() {
+		return projectNamesExpired;
+	}
+}
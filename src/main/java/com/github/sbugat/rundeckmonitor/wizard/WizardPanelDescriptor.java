@@ -24,6 +24,9 @@ public abstract class WizardPanelDescriptor {
 	/** RunDeck monitor configuration. */
 	private final RundeckMonitorConfiguration rundeckMonitorConfiguration;
 
+	/** RunDeck server details shared by all panels. */
+	private final RundeckServerCache rundeckServerCache;
+
 	/**
 	 * Copyr arguments to constants.
 	 *
@@ -31,12 +34,14 @@ public abstract class WizardPanelDescriptor {
 	 * @param backArg previous panel or null if none
 	 * @param nextArg next panel or null if none
 	 * @param rundeckMonitorConfigurationArg RunDeck monitor configuration shared by all panels
+	 * @param rundeckServerCacheArg RunDeck server details shared by all panels
 	 */
-	public WizardPanelDescriptor(final ConfigurationWizardStep panelIdentifierArg, final ConfigurationWizardStep backArg, final ConfigurationWizardStep nextArg, final RundeckMonitorConfiguration rundeckMonitorConfigurationArg) {
+	public WizardPanelDescriptor(final ConfigurationWizardStep panelIdentifierArg, final ConfigurationWizardStep backArg, final ConfigurationWizardStep nextArg, final RundeckMonitorConfiguration rundeckMonitorConfigurationArg, final RundeckServerCache rundeckServerCacheArg) {
 		panelIdentifier = panelIdentifierArg;
 		back = backArg;
 		next = nextArg;
 		rundeckMonitorConfiguration = rundeckMonitorConfigurationArg;
+		rundeckServerCache = rundeckServerCacheArg;
 	}
 
 	/**
@@ -64,6 +69,15 @@ public abstract class WizardPanelDescriptor {
 		return rundeckMonitorConfiguration;
 	}
 
+	/**
+	 * Get the RunDeck server details shared by all panels.
+	 *
+	 * @return server details cache
+	 */
+	public final RundeckServerCache getRundeckServerCache() {
+		return rundeckServerCache;
+	}
+
 	/**
 	 * Return the next wizard panel or null.
 	 *
@@ -83,7 +97,16 @@ public abstract class WizardPanelDescriptor {
 	}
 
 	/**
-	 * Method called before diplaying a panel for dynamic content update.
+	 * Method called by a background worker before diplaying a panel to load its dynamic content, must not update any component.
+	 *
+	 * @throws WizardValidationException if the content cannot be loaded
+	 */
+	public void loadPanel() throws WizardValidationException {
+		// Default: nothing to load
+	}
+
+	/**
+	 * Method called before diplaying a panel for dynamic content update, after {@link #loadPanel()}.
 	 */
 	public void aboutToDisplayPanel() {
 		// Default: nothing to do
@@ -95,4 +118,13 @@ public abstract class WizardPanelDescriptor {
 	 * @return true if valid, false otherwise
 	 */
 	public abstract boolean validate();
+
+	/**
+	 * Method called by a background worker after a successful {@link #validate()} for the checks calling RunDeck, must not update any component.
+	 *
+	 * @throws WizardValidationException if the checks failed
+	 */
+	public void validateInBackground() throws WizardValidationException {
+		// Default: nothing to check
+	}
 }
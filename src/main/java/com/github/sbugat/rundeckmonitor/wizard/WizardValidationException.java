@@ -0,0 +1,36 @@
+package com.github.sbugat.rundeckmonitor.wizard;
+
+/**
+ * Exception to use when a wizard step check done in background fails, the message is displayed to the user.
+ *
+ * @author Sylvain Bugat
+ *
+ */
+public final class WizardValidationException extends Exception {
+
+	/** Unique Serial ID. */
+	private static final long serialVersionUID = 4893170556284157431L;
+
+	/** Title of the displayed error. */
+	private final String title;
+
+	/**
+	 * Exception constructor of a wizard step error.
+	 *
+	 * @param titleArg title of the displayed error
+	 * @param messageArg displayed error message
+	 */
+	public WizardValidationException(final String titleArg, final String messageArg) {
+		super(messageArg);
+		title = titleArg;
+	}
+
+	/**
+	 * Get the title of the displayed error.
+	 *
+	 * @return error title
+	 */
+	public String getTitle() {
+		return title;
+	}
+}
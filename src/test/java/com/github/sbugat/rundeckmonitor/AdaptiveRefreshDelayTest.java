@@ -0,0 +1,127 @@
+package com.github.sbugat.rundeckmonitor;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests of the refresh delays: normal, late and idle modes, exponential backoff with jitter.
+ *
+ * @author Sylvain Bugat
+ *
+ */
+public final class AdaptiveRefreshDelayTest {
+
+	/** Normal refresh delay in milliseconds. */
+	private static final long REFRESH_DELAY = 10_000L;
+
+	/** Refresh delay while late executions exist in milliseconds. */
+	private static final long LATE_REFRESH_DELAY = 2_000L;
+
+	/** Refresh delay of an idle server in milliseconds. */
+	private static final long IDLE_REFRESH_DELAY = 60_000L;
+
+	/** Idle threshold never reached during a test in milliseconds. */
+	private static final long LONG_IDLE_THRESHOLD = 3_600_000L;
+
+	/** Idle threshold reached during a test in milliseconds. */
+	private static final long SHORT_IDLE_THRESHOLD = 50L;
+
+	/** Maximum backoff delay in milliseconds. */
+	private static final long MAXIMUM_BACKOFF_DELAY = 300_000L;
+
+	/** Number of random delays checked for each backoff. */
+	private static final int JITTER_SAMPLES = 1_000;
+
+	@Test
+	public void testNormalAndLateModes() {
+
+		final AdaptiveRefreshDelay adaptiveRefreshDelay = new AdaptiveRefreshDelay(REFRESH_DELAY, LATE_REFRESH_DELAY, IDLE_REFRESH_DELAY, LONG_IDLE_THRESHOLD, MAXIMUM_BACKOFF_DELAY);
+		Assert.assertEquals(REFRESH_DELAY, adaptiveRefreshDelay.getNextDelay(false));
+		Assert.assertEquals(LATE_REFRESH_DELAY, adaptiveRefreshDelay.getNextDelay(true));
+	}
+
+	@Test
+	public void testDelaysBoundedByTheRefreshDelay() {
+
+		// Late refresh slower and idle refresh faster than the normal refresh are ignored
+		final AdaptiveRefreshDelay adaptiveRefreshDelay = new AdaptiveRefreshDelay(REFRESH_DELAY, IDLE_REFRESH_DELAY, LATE_REFRESH_DELAY, SHORT_IDLE_THRESHOLD, LATE_REFRESH_DELAY);
+		Assert.assertEquals(REFRESH_DELAY, adaptiveRefreshDelay.getNextDelay(true));
+
+		adaptiveRefreshDelay.refreshFailed();
+		adaptiveRefreshDelay.refreshFailed();
+		Assert.assertTrue(adaptiveRefreshDelay.getNextDelay(false) <= REFRESH_DELAY);
+	}
+
+	@Test
+	public void testIdleMode() throws InterruptedException {
+
+		final AdaptiveRefreshDelay adaptiveRefreshDelay = new AdaptiveRefreshDelay(REFRESH_DELAY, LATE_REFRESH_DELAY, IDLE_REFRESH_DELAY, SHORT_IDLE_THRESHOLD, MAXIMUM_BACKOFF_DELAY);
+		adaptiveRefreshDelay.refreshSucceeded(true);
+		Assert.assertEquals(REFRESH_DELAY, adaptiveRefreshDelay.getNextDelay(false));
+
+		// No activity since the idle threshold
+		Thread.sleep(SHORT_IDLE_THRESHOLD * 2);
+		adaptiveRefreshDelay.refreshSucceeded(false);
+		Assert.assertEquals(IDLE_REFRESH_DELAY, adaptiveRefreshDelay.getNextDelay(false));
+
+		// Late executions have priority over the idle mode
+		Assert.assertEquals(LATE_REFRESH_DELAY, adaptiveRefreshDelay.getNextDelay(true));
+
+		// New activity
+		adaptiveRefreshDelay.refreshSucceeded(true);
+		Assert.assertEquals(REFRESH_DELAY, adaptiveRefreshDelay.getNextDelay(false));
+	}
+
+	@Test
+	public void testBackoffWithJitter() {
+
+		final AdaptiveRefreshDelay adaptiveRefreshDelay = new AdaptiveRefreshDelay(REFRESH_DELAY, LATE_REFRESH_DELAY, IDLE_REFRESH_DELAY, LONG_IDLE_THRESHOLD, MAXIMUM_BACKOFF_DELAY);
+		for (int failures = 1; failures <= 5; failures++) {
+
+			adaptiveRefreshDelay.refreshFailed();
+
+			// Between the half and the full backoff delay, spread over the whole range
+			final long backoffDelay = Math.min(MAXIMUM_BACKOFF_DELAY, REFRESH_DELAY << (failures - 1));
+			assertJitter(adaptiveRefreshDelay, backoffDelay);
+		}
+
+		// Recovery
+		adaptiveRefreshDelay.refreshSucceeded(true);
+		Assert.assertEquals(REFRESH_DELAY, adaptiveRefreshDelay.getNextDelay(false));
+	}
+
+	@Test
+	public void testMaximumBackoff() {
+
+		final AdaptiveRefreshDelay adaptiveRefreshDelay = new AdaptiveRefreshDelay(REFRESH_DELAY, LATE_REFRESH_DELAY, IDLE_REFRESH_DELAY, LONG_IDLE_THRESHOLD, MAXIMUM_BACKOFF_DELAY);
+
+		// Many failures never overflow the backoff delay
+		for (int failures = 0; failures < 100; failures++) {
+			adaptiveRefreshDelay.refreshFailed();
+		}
+		assertJitter(adaptiveRefreshDelay, MAXIMUM_BACKOFF_DELAY);
+	}
+
+	/**
+	 * Check that the random delays are between the half and the full backoff delay and use the whole range.
+	 *
+	 * @param adaptiveRefreshDelay refresh delay in backoff
+	 * @param backoffDelay expected backoff delay
+	 */
+	private static void assertJitter(final AdaptiveRefreshDelay adaptiveRefreshDelay, final long backoffDelay) {
+
+		long minimumDelay = Long.MAX_VALUE;
+		long maximumDelay = Long.MIN_VALUE;
+		for (int i = 0; i < JITTER_SAMPLES; i++) {
+
+			final long delay = adaptiveRefreshDelay.getNextDelay(true);
+			Assert.assertTrue(delay >= backoffDelay / 2);
+			Assert.assertTrue(delay <= backoffDelay);
+			minimumDelay = Math.min(minimumDelay, delay);
+			maximumDelay = Math.max(maximumDelay, delay);
+		}
+
+		Assert.assertTrue(minimumDelay < backoffDelay / 2 + backoffDelay / 10);
+		Assert.assertTrue(maximumDelay > backoffDelay - backoffDelay / 10);
+	}
+}
@@ -0,0 +1,230 @@
+package com.github.sbugat.rundeckmonitor;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests of the bounded execution identifiers set: hash table collisions around the table wrap, eviction order and constant memory usage.
+ *
+ * @author Sylvain Bugat
+ *
+ */
+public final class BoundedExecutionIdSetTest {
+
+	/** Capacity of the small sets, its hash table has 32 slots. */
+	private static final int SMALL_CAPACITY = 8;
+
+	/** Capacity of the soak test set. */
+	private static final int SOAK_CAPACITY = 1_000;
+
+	/** Number of identifiers added by the soak test. */
+	private static final long SOAK_EXECUTIONS = 5_000_000L;
+
+	/** Number of random operations compared with the reference set. */
+	private static final int RANDOM_OPERATIONS = 1_000_000;
+
+	/** Range of the random identifiers, small to get many collisions and duplicates. */
+	private static final int RANDOM_ID_RANGE = 64;
+
+	/** Seed of the random operations. */
+	private static final long RANDOM_SEED = 20_161_018L;
+
+	/** Number of identifiers colliding around the table wrap. */
+	private static final int WRAP_IDS = 6;
+
+	@Test
+	public void testAddContains() {
+
+		final BoundedExecutionIdSet boundedExecutionIdSet = new BoundedExecutionIdSet(SMALL_CAPACITY);
+
+		Assert.assertTrue(boundedExecutionIdSet.add(1));
+		Assert.assertFalse(boundedExecutionIdSet.add(1));
+		Assert.assertTrue(boundedExecutionIdSet.contains(1));
+		Assert.assertFalse(boundedExecutionIdSet.contains(2));
+		Assert.assertEquals(1, boundedExecutionIdSet.size());
+		Assert.assertEquals(SMALL_CAPACITY, boundedExecutionIdSet.capacity());
+	}
+
+	@Test
+	public void testEvictionOrder() {
+
+		final BoundedExecutionIdSet boundedExecutionIdSet = new BoundedExecutionIdSet(SMALL_CAPACITY);
+		for (long executionId = 1; executionId <= 2 * SMALL_CAPACITY; executionId++) {
+			boundedExecutionIdSet.add(executionId);
+		}
+
+		Assert.assertEquals(SMALL_CAPACITY, boundedExecutionIdSet.size());
+		for (long executionId = 1; executionId <= SMALL_CAPACITY; executionId++) {
+			Assert.assertFalse(boundedExecutionIdSet.contains(executionId));
+		}
+		final long[] executionIds = boundedExecutionIdSet.toArray();
+		for (int i = 0; i < SMALL_CAPACITY; i++) {
+			Assert.assertEquals(SMALL_CAPACITY + 1 + i, executionIds[i]);
+		}
+	}
+
+	@Test
+	public void testEvictionAcrossTableWrap() throws ReflectiveOperationException {
+
+		final BoundedExecutionIdSet boundedExecutionIdSet = new BoundedExecutionIdSet(WRAP_IDS);
+		final int tableLength = getTable(boundedExecutionIdSet).length;
+
+		// Identifiers whose natural slots are the 2 last slots and the first slot: their probe sequences cross the end of the table
+		final List<Long> wrapIds = new ArrayList<>();
+		final int[] naturalSlots = { tableLength - 2, tableLength - 2, tableLength - 1, tableLength - 1, 0, 0 };
+		for (final int naturalSlot : naturalSlots) {
+			wrapIds.add(Long.valueOf(findIdWithSlot(boundedExecutionIdSet, naturalSlot, wrapIds)));
+		}
+
+		for (final Long executionId : wrapIds) {
+			Assert.assertTrue(boundedExecutionIdSet.add(executionId.longValue()));
+		}
+		for (final Long executionId : wrapIds) {
+			Assert.assertTrue(boundedExecutionIdSet.contains(executionId.longValue()));
+		}
+
+		// Each new identifier evicts the oldest one, the shifted back identifiers stay reachable
+		long newId = 1;
+		for (int evicted = 0; evicted < WRAP_IDS; evicted++) {
+
+			while (wrapIds.contains(Long.valueOf(newId))) {
+				newId++;
+			}
+			Assert.assertTrue(boundedExecutionIdSet.add(newId));
+			newId++;
+
+			Assert.assertFalse(boundedExecutionIdSet.contains(wrapIds.get(evicted).longValue()));
+			for (int i = evicted + 1; i < WRAP_IDS; i++) {
+				Assert.assertTrue(boundedExecutionIdSet.contains(wrapIds.get(i).longValue()));
+			}
+		}
+		Assert.assertEquals(WRAP_IDS, boundedExecutionIdSet.size());
+	}
+
+	@Test
+	public void testRandomOperationsAgainstReference() {
+
+		final BoundedExecutionIdSet boundedExecutionIdSet = new BoundedExecutionIdSet(SMALL_CAPACITY);
+		final Set<Long> reference = new LinkedHashSet<>();
+		final Random random = new Random(RANDOM_SEED);
+
+		for (int i = 0; i < RANDOM_OPERATIONS; i++) {
+
+			final long executionId = random.nextInt(RANDOM_ID_RANGE);
+			final boolean added = reference.add(Long.valueOf(executionId));
+			if (added && reference.size() > SMALL_CAPACITY) {
+				reference.remove(reference.iterator().next());
+			}
+
+			Assert.assertEquals(added, boundedExecutionIdSet.add(executionId));
+			Assert.assertEquals(reference.size(), boundedExecutionIdSet.size());
+		}
+
+		for (long executionId = 0; executionId < RANDOM_ID_RANGE; executionId++) {
+			Assert.assertEquals(reference.contains(Long.valueOf(executionId)), boundedExecutionIdSet.contains(executionId));
+		}
+	}
+
+	@Test
+	public void testResizeKeepsNewest() {
+
+		final BoundedExecutionIdSet boundedExecutionIdSet = new BoundedExecutionIdSet(SMALL_CAPACITY);
+		for (long executionId = 1; executionId <= SMALL_CAPACITY; executionId++) {
+			boundedExecutionIdSet.add(executionId);
+		}
+
+		boundedExecutionIdSet.resize(2);
+		Assert.assertArrayEquals(new long[] { SMALL_CAPACITY - 1, SMALL_CAPACITY }, boundedExecutionIdSet.toArray());
+		Assert.assertFalse(boundedExecutionIdSet.contains(1));
+	}
+
+	@Test
+	public void testSoakConstantMemory() throws ReflectiveOperationException {
+
+		final BoundedExecutionIdSet boundedExecutionIdSet = new BoundedExecutionIdSet(SOAK_CAPACITY);
+		final long[] ring = getArray(boundedExecutionIdSet, "ring"); //$NON-NLS-1$
+		final long[] table = getTable(boundedExecutionIdSet);
+
+		for (long executionId = 1; executionId <= SOAK_EXECUTIONS; executionId++) {
+
+			Assert.assertTrue(boundedExecutionIdSet.add(executionId));
+			if (executionId >= SOAK_CAPACITY) {
+				Assert.assertEquals(SOAK_CAPACITY, boundedExecutionIdSet.size());
+			}
+		}
+
+		// Same backing arrays: nothing has been reallocated
+		Assert.assertSame(ring, getArray(boundedExecutionIdSet, "ring")); //$NON-NLS-1$
+		Assert.assertSame(table, getTable(boundedExecutionIdSet));
+
+		for (long executionId = SOAK_EXECUTIONS - SOAK_CAPACITY + 1; executionId <= SOAK_EXECUTIONS; executionId++) {
+			Assert.assertTrue(boundedExecutionIdSet.contains(executionId));
+		}
+		Assert.assertFalse(boundedExecutionIdSet.contains(SOAK_EXECUTIONS - SOAK_CAPACITY));
+
+		// Only the kept identifiers are in the table
+		int usedSlots = 0;
+		for (final long slot : table) {
+			if (Long.MIN_VALUE != slot) {
+				usedSlots++;
+			}
+		}
+		Assert.assertEquals(SOAK_CAPACITY, usedSlots);
+	}
+
+	/**
+	 * Find an identifier with a natural slot in the hash table.
+	 *
+	 * @param boundedExecutionIdSet set computing the slots
+	 * @param naturalSlot slot to find
+	 * @param excludedIds identifiers already found
+	 * @return new identifier with this natural slot
+	 * @throws ReflectiveOperationException if the slot method is not accessible
+	 */
+	private static long findIdWithSlot(final BoundedExecutionIdSet boundedExecutionIdSet, final int naturalSlot, final List<Long> excludedIds) throws ReflectiveOperationException {
+
+		final Method slotMethod = BoundedExecutionIdSet.class.getDeclaredMethod("slot", long.class); //$NON-NLS-1$
+		slotMethod.setAccessible(true);
+
+		long executionId = 1;
+		while (naturalSlot != ((Integer) slotMethod.invoke(boundedExecutionIdSet, Long.valueOf(executionId))).intValue() || excludedIds.contains(Long.valueOf(executionId))) {
+			executionId++;
+		}
+
+		return executionId;
+	}
+
+	/**
+	 * Get the hash table of a set.
+	 *
+	 * @param boundedExecutionIdSet set to inspect
+	 * @return hash table array
+	 * @throws ReflectiveOperationException if the field is not accessible
+	 */
+	private static long[] getTable(final BoundedExecutionIdSet boundedExecutionIdSet) throws ReflectiveOperationException {
+		return getArray(boundedExecutionIdSet, "table"); //$NON-NLS-1$
+	}
+
+	/**
+	 * Get a backing array of a set.
+	 *
+	 * @param boundedExecutionIdSet set to inspect
+	 * @param fieldName name of the array field
+	 * @return backing array
+	 * @throws ReflectiveOperationException if the field is not accessible
+	 */
+	private static long[] getArray(final BoundedExecutionIdSet boundedExecutionIdSet, final String fieldName) throws ReflectiveOperationException {
+
+		final Field field = BoundedExecutionIdSet.class.getDeclaredField(fieldName);
+		field.setAccessible(true);
+		return (long[]) field.get(boundedExecutionIdSet);
+	}
+}
@@ -0,0 +1,269 @@
+package com.github.sbugat.rundeckmonitor;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Date;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests of the execution journal: records round trip, compaction, previous format and corrupted journals.
+ *
+ * @author Sylvain Bugat
+ *
+ */
+public final class ExecutionJournalTest {
+
+	/** Capacity of the known executions sets. */
+	private static final int CAPACITY = 10;
+
+	/** Header of the current journal format. */
+	private static final int JOURNAL_HEADER = 0x524D4A02;
+
+	/** Header of the journal format without the project high-water marks. */
+	private static final int LEGACY_JOURNAL_HEADER = 0x524D4A01;
+
+	/** Size of the header in bytes. */
+	private static final int HEADER_SIZE = 4;
+
+	/** Size of a record in bytes. */
+	private static final int RECORD_SIZE = 9;
+
+	/** Record type of a known failed execution. */
+	private static final byte FAILED_EXECUTION_RECORD = 1;
+
+	/** Record type of a known late execution. */
+	private static final byte LATE_EXECUTION_RECORD = 2;
+
+	/** First project. */
+	private static final String PROJECT = "project"; //$NON-NLS-1$
+
+	/** Second project. */
+	private static final String OTHER_PROJECT = "other project"; //$NON-NLS-1$
+
+	/** Temporary folder of the journals. */
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	/** Journal file of the test. */
+	private Path journalFile;
+
+	/** Known failed executions of the last opened journal. */
+	private BoundedExecutionIdSet knownFailedExecutionIds;
+
+	/** Known late executions of the last opened journal. */
+	private BoundedExecutionIdSet knownLateExecutionIds;
+
+	@Before
+	public void setUp() throws IOException {
+		journalFile = temporaryFolder.newFolder().toPath().resolve("server.journal"); //$NON-NLS-1$
+	}
+
+	@Test
+	public void testNewJournal() throws IOException {
+
+		final ExecutionJournal executionJournal = openJournal();
+		Assert.assertFalse(executionJournal.isResumed());
+		Assert.assertEquals(0, executionJournal.getWatermark());
+		Assert.assertNull(executionJournal.getProjectHighWaterMark(PROJECT));
+		executionJournal.close();
+
+		Assert.assertEquals(HEADER_SIZE, Files.size(journalFile));
+	}
+
+	@Test
+	public void testRoundTrip() throws IOException {
+
+		ExecutionJournal executionJournal = openJournal();
+		knownFailedExecutionIds.add(1);
+		executionJournal.addFailedExecution(1);
+		knownFailedExecutionIds.add(2);
+		executionJournal.addFailedExecution(2);
+		knownLateExecutionIds.add(3);
+		executionJournal.addLateExecution(3);
+		executionJournal.updateWatermark(2_000);
+		executionJournal.updateWatermark(1_000);
+		executionJournal.updateProjectHighWaterMark(PROJECT, new Date(1_500));
+		executionJournal.updateProjectHighWaterMark(OTHER_PROJECT, new Date(2_000));
+
+		// Older high-water marks are not written
+		executionJournal.updateProjectHighWaterMark(PROJECT, new Date(1_200));
+		executionJournal.flush();
+		executionJournal.close();
+
+		// 2 failed, 1 late, 1 watermark and 2 project high-water marks of 2 records
+		Assert.assertEquals(HEADER_SIZE + 8 * RECORD_SIZE, Files.size(journalFile));
+
+		executionJournal = openJournal();
+		Assert.assertTrue(executionJournal.isResumed());
+		Assert.assertArrayEquals(new long[] { 1, 2 }, knownFailedExecutionIds.toArray());
+		Assert.assertArrayEquals(new long[] { 3 }, knownLateExecutionIds.toArray());
+		Assert.assertEquals(2_000, executionJournal.getWatermark());
+		Assert.assertEquals(1_500, executionJournal.getProjectHighWaterMark(PROJECT).getTime());
+		Assert.assertEquals(2_000, executionJournal.getProjectHighWaterMark(OTHER_PROJECT).getTime());
+		Assert.assertNull(executionJournal.getProjectHighWaterMark("unknown project")); //$NON-NLS-1$
+
+		// New records are appended after the replayed ones
+		knownFailedExecutionIds.add(4);
+		executionJournal.addFailedExecution(4);
+		executionJournal.updateProjectHighWaterMark(PROJECT, new Date(3_000));
+		executionJournal.close();
+
+		executionJournal = openJournal();
+		Assert.assertArrayEquals(new long[] { 1, 2, 4 }, knownFailedExecutionIds.toArray());
+		Assert.assertEquals(3_000, executionJournal.getProjectHighWaterMark(PROJECT).getTime());
+		executionJournal.close();
+	}
+
+	@Test
+	public void testCompaction() throws IOException {
+
+		ExecutionJournal executionJournal = openJournal();
+
+		// Many more records than the known executions capacities
+		final int executions = 100 * CAPACITY;
+		for (long executionId = 1; executionId <= executions; executionId++) {
+
+			knownFailedExecutionIds.add(executionId);
+			executionJournal.addFailedExecution(executionId);
+			executionJournal.updateWatermark(executionId);
+			executionJournal.updateProjectHighWaterMark(PROJECT, new Date(executionId));
+			executionJournal.flush();
+		}
+		executionJournal.close();
+
+		// The journal never holds much more records than the compaction threshold
+		final long maximumRecords = 4L * 2 * CAPACITY + 5L;
+		Assert.assertTrue(Files.size(journalFile) <= HEADER_SIZE + maximumRecords * RECORD_SIZE);
+
+		executionJournal = openJournal();
+		final long[] expectedExecutionIds = new long[CAPACITY];
+		for (int i = 0; i < CAPACITY; i++) {
+			expectedExecutionIds[i] = executions - CAPACITY + 1 + i;
+		}
+		Assert.assertArrayEquals(expectedExecutionIds, knownFailedExecutionIds.toArray());
+		Assert.assertEquals(executions, executionJournal.getWatermark());
+		Assert.assertEquals(executions, executionJournal.getProjectHighWaterMark(PROJECT).getTime());
+		executionJournal.close();
+	}
+
+	@Test
+	public void testLegacyJournal() throws IOException {
+
+		final ByteBuffer legacyJournal = ByteBuffer.allocate(HEADER_SIZE + 2 * RECORD_SIZE);
+		legacyJournal.putInt(LEGACY_JOURNAL_HEADER);
+		legacyJournal.put(FAILED_EXECUTION_RECORD).putLong(77);
+		legacyJournal.put(LATE_EXECUTION_RECORD).putLong(78);
+		Files.write(journalFile, legacyJournal.array());
+
+		ExecutionJournal executionJournal = openJournal();
+		Assert.assertTrue(executionJournal.isResumed());
+		Assert.assertArrayEquals(new long[] { 77 }, knownFailedExecutionIds.toArray());
+		Assert.assertArrayEquals(new long[] { 78 }, knownLateExecutionIds.toArray());
+		Assert.assertNull(executionJournal.getProjectHighWaterMark(PROJECT));
+		executionJournal.updateProjectHighWaterMark(PROJECT, new Date(5));
+		executionJournal.close();
+
+		// The journal is rewritten with the current header
+		Assert.assertEquals(JOURNAL_HEADER, ByteBuffer.wrap(Files.readAllBytes(journalFile)).getInt());
+
+		executionJournal = openJournal();
+		Assert.assertArrayEquals(new long[] { 77 }, knownFailedExecutionIds.toArray());
+		Assert.assertArrayEquals(new long[] { 78 }, knownLateExecutionIds.toArray());
+		Assert.assertEquals(5, executionJournal.getProjectHighWaterMark(PROJECT).getTime());
+		executionJournal.close();
+	}
+
+	@Test
+	public void testTruncatedLastRecord() throws IOException {
+
+		ExecutionJournal executionJournal = openJournal();
+		executionJournal.addFailedExecution(1);
+		executionJournal.addFailedExecution(2);
+		executionJournal.close();
+
+		// Crash while writing the last record
+		final byte[] content = Files.readAllBytes(journalFile);
+		Files.write(journalFile, Arrays.copyOf(content, content.length - RECORD_SIZE / 2));
+
+		executionJournal = openJournal();
+		Assert.assertArrayEquals(new long[] { 1 }, knownFailedExecutionIds.toArray());
+		Assert.assertEquals(HEADER_SIZE + RECORD_SIZE, Files.size(journalFile));
+
+		// The next records are appended after the last complete record
+		executionJournal.addFailedExecution(3);
+		executionJournal.close();
+
+		executionJournal = openJournal();
+		Assert.assertArrayEquals(new long[] { 1, 3 }, knownFailedExecutionIds.toArray());
+		executionJournal.close();
+	}
+
+	@Test
+	public void testTruncatedProjectHighWaterMark() throws IOException {
+
+		ExecutionJournal executionJournal = openJournal();
+		executionJournal.updateProjectHighWaterMark(PROJECT, new Date(1_000));
+		executionJournal.updateProjectHighWaterMark(PROJECT, new Date(2_000));
+		executionJournal.close();
+
+		// Only the project record of the last high-water mark is written
+		final byte[] content = Files.readAllBytes(journalFile);
+		Files.write(journalFile, Arrays.copyOf(content, content.length - RECORD_SIZE));
+
+		executionJournal = openJournal();
+		Assert.assertEquals(1_000, executionJournal.getProjectHighWaterMark(PROJECT).getTime());
+		executionJournal.close();
+	}
+
+	@Test
+	public void testCorruptedRecord() throws IOException {
+
+		ExecutionJournal executionJournal = openJournal();
+		executionJournal.addFailedExecution(1);
+		executionJournal.addFailedExecution(2);
+		executionJournal.close();
+
+		// Unknown type of the last record: the end of the journal is dropped
+		final byte[] content = Files.readAllBytes(journalFile);
+		content[HEADER_SIZE + RECORD_SIZE] = Byte.MAX_VALUE;
+		Files.write(journalFile, content);
+
+		executionJournal = openJournal();
+		Assert.assertArrayEquals(new long[] { 1 }, knownFailedExecutionIds.toArray());
+		executionJournal.close();
+		Assert.assertEquals(HEADER_SIZE + RECORD_SIZE, Files.size(journalFile));
+	}
+
+	@Test
+	public void testInvalidHeader() throws IOException {
+
+		Files.write(journalFile, new byte[] { 1, 2, 3, 4, 5, 6, 7, 8, 9, 10 });
+
+		final ExecutionJournal executionJournal = openJournal();
+		Assert.assertFalse(executionJournal.isResumed());
+		Assert.assertEquals(0, knownFailedExecutionIds.size());
+		executionJournal.close();
+
+		Assert.assertEquals(JOURNAL_HEADER, ByteBuffer.wrap(Files.readAllBytes(journalFile)).getInt());
+	}
+
+	/**
+	 * Open the journal of the test with new known executions sets.
+	 *
+	 * @return opened journal
+	 */
+	private ExecutionJournal openJournal() {
+
+		knownFailedExecutionIds = new BoundedExecutionIdSet(CAPACITY);
+		knownLateExecutionIds = new BoundedExecutionIdSet(CAPACITY);
+		return new ExecutionJournal(journalFile, knownFailedExecutionIds, knownLateExecutionIds);
+	}
+}
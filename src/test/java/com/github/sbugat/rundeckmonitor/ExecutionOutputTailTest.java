@@ -0,0 +1,267 @@
+package com.github.sbugat.rundeckmonitor;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.rundeck.api.domain.RundeckOutput;
+import org.rundeck.api.domain.RundeckOutputEntry;
+
+/**
+ * Tests of the execution output tail: start offset, incremental reads, bounded buffer and stalled logs.
+ *
+ * @author Sylvain Bugat
+ *
+ */
+public final class ExecutionOutputTailTest {
+
+	/** Tail size larger than the test outputs. */
+	private static final int LARGE_TAIL_SIZE = 100_000;
+
+	/** Tail size of a few lines. */
+	private static final int SMALL_TAIL_SIZE = 55;
+
+	/** Maximum number of entries downloaded by a call. */
+	private static final int MAX_LINES_PER_CALL = 500;
+
+	/** Displayed execution. */
+	private static final JobExecutionInfo JOB_EXECUTION_INFO = new JobExecutionInfo(Long.valueOf(1), new Date(0), "http://localhost", null, "job", false, false); //$NON-NLS-1$ //$NON-NLS-2$
+
+	@Test
+	public void testWholeOutput() {
+
+		final FakeOutputSource fakeOutputSource = new FakeOutputSource();
+		fakeOutputSource.addLines(3);
+		fakeOutputSource.completed = true;
+
+		final ExecutionOutputTail executionOutputTail = new ExecutionOutputTail(fakeOutputSource, JOB_EXECUTION_INFO, LARGE_TAIL_SIZE);
+		Assert.assertFalse(executionOutputTail.read());
+		Assert.assertTrue(executionOutputTail.isCompleted());
+		Assert.assertFalse(executionOutputTail.isTruncated());
+		Assert.assertEquals("line 00000\nline 00001\nline 00002\n", executionOutputTail.getText()); //$NON-NLS-1$
+
+		// Nothing more to download
+		final int calls = fakeOutputSource.calls;
+		Assert.assertFalse(executionOutputTail.read());
+		Assert.assertEquals(calls, fakeOutputSource.calls);
+	}
+
+	@Test
+	public void testStartNearTheEndOfTheLog() {
+
+		final FakeOutputSource fakeOutputSource = new FakeOutputSource();
+		fakeOutputSource.addLines(100);
+		fakeOutputSource.completed = true;
+
+		final ExecutionOutputTail executionOutputTail = new ExecutionOutputTail(fakeOutputSource, JOB_EXECUTION_INFO, SMALL_TAIL_SIZE);
+		Assert.assertFalse(executionOutputTail.read());
+
+		// Only the entries of the last bytes are downloaded
+		Assert.assertEquals(fakeOutputSource.getTotalSize() - SMALL_TAIL_SIZE, fakeOutputSource.lastOffset);
+		Assert.assertTrue(executionOutputTail.isTruncated());
+		Assert.assertEquals("line 00095\nline 00096\nline 00097\nline 00098\nline 00099\n", executionOutputTail.getText()); //$NON-NLS-1$
+	}
+
+	@Test
+	public void testIncrementalReads() {
+
+		final FakeOutputSource fakeOutputSource = new FakeOutputSource();
+		fakeOutputSource.addLines(MAX_LINES_PER_CALL + 100);
+
+		final ExecutionOutputTail executionOutputTail = new ExecutionOutputTail(fakeOutputSource, JOB_EXECUTION_INFO, LARGE_TAIL_SIZE);
+
+		// More entries than a call: the next read can start immediately
+		Assert.assertTrue(executionOutputTail.read());
+		Assert.assertFalse(executionOutputTail.read());
+		Assert.assertEquals(MAX_LINES_PER_CALL + 100, countLines(executionOutputTail.getText()));
+
+		// Only the new entries are downloaded
+		fakeOutputSource.addLines(2);
+		fakeOutputSource.completed = true;
+		Assert.assertFalse(executionOutputTail.read());
+		Assert.assertTrue(executionOutputTail.isCompleted());
+		Assert.assertEquals(MAX_LINES_PER_CALL + 102, countLines(executionOutputTail.getText()));
+		Assert.assertTrue(executionOutputTail.getText().endsWith("line 00600\nline 00601\n")); //$NON-NLS-1$
+		Assert.assertFalse(executionOutputTail.isTruncated());
+	}
+
+	@Test
+	public void testBoundedBuffer() {
+
+		final FakeOutputSource fakeOutputSource = new FakeOutputSource();
+		final ExecutionOutputTail executionOutputTail = new ExecutionOutputTail(fakeOutputSource, JOB_EXECUTION_INFO, SMALL_TAIL_SIZE);
+		Assert.assertFalse(executionOutputTail.read());
+		Assert.assertEquals("", executionOutputTail.getText()); //$NON-NLS-1$
+
+		// A running execution followed for a long time keeps only its last lines
+		for (int i = 0; i < 50; i++) {
+
+			fakeOutputSource.addLines(3);
+			executionOutputTail.read();
+			Assert.assertTrue(executionOutputTail.getText().length() <= SMALL_TAIL_SIZE);
+		}
+		Assert.assertTrue(executionOutputTail.isTruncated());
+		Assert.assertEquals("line 00145\nline 00146\nline 00147\nline 00148\nline 00149\n", executionOutputTail.getText()); //$NON-NLS-1$
+	}
+
+	@Test
+	public void testLongLine() {
+
+		final StringBuilder longMessage = new StringBuilder();
+		for (int i = 0; i < SMALL_TAIL_SIZE; i++) {
+			longMessage.append((char) ('a' + i % 26));
+		}
+
+		final FakeOutputSource fakeOutputSource = new FakeOutputSource();
+		fakeOutputSource.addLine("12:00:00", longMessage.toString()); //$NON-NLS-1$
+		fakeOutputSource.completed = true;
+
+		// The whole line with its time is kept by a large tail
+		final ExecutionOutputTail executionOutputTail = new ExecutionOutputTail(fakeOutputSource, JOB_EXECUTION_INFO, LARGE_TAIL_SIZE);
+		executionOutputTail.read();
+		Assert.assertEquals("12:00:00 " + longMessage + '\n', executionOutputTail.getText()); //$NON-NLS-1$
+
+		// Only the end of a line longer than a small tail is kept
+		final FakeOutputSource runningOutputSource = new FakeOutputSource();
+		final ExecutionOutputTail smallExecutionOutputTail = new ExecutionOutputTail(runningOutputSource, JOB_EXECUTION_INFO, SMALL_TAIL_SIZE);
+		smallExecutionOutputTail.read();
+		runningOutputSource.addLine(null, longMessage.toString());
+		smallExecutionOutputTail.read();
+		Assert.assertEquals(longMessage.substring(longMessage.length() - SMALL_TAIL_SIZE + 1) + '\n', smallExecutionOutputTail.getText());
+		Assert.assertTrue(smallExecutionOutputTail.isTruncated());
+	}
+
+	@Test
+	public void testStalledOffset() {
+
+		// The log size includes entries not readable yet: the same offset is returned
+		final FakeOutputSource fakeOutputSource = new FakeOutputSource();
+		fakeOutputSource.addLines(2);
+		fakeOutputSource.unreadableSize = 100;
+
+		final ExecutionOutputTail executionOutputTail = new ExecutionOutputTail(fakeOutputSource, JOB_EXECUTION_INFO, LARGE_TAIL_SIZE);
+		Assert.assertTrue(executionOutputTail.read());
+		Assert.assertEquals(2, countLines(executionOutputTail.getText()));
+
+		// Same offset: the next read must wait the tail delay instead of starting immediately
+		Assert.assertFalse(executionOutputTail.read());
+		Assert.assertEquals(fakeOutputSource.lastOffset, fakeOutputSource.getTotalSize() - 100);
+		Assert.assertFalse(executionOutputTail.isCompleted());
+
+		// Offset advanced again
+		fakeOutputSource.addLines(MAX_LINES_PER_CALL + 1);
+		Assert.assertTrue(executionOutputTail.read());
+	}
+
+	/**
+	 * Count the lines of a text.
+	 *
+	 * @param text text to count
+	 * @return number of new lines
+	 */
+	private static int countLines(final String text) {
+
+		int lines = 0;
+		for (int i = 0; i < text.length(); i++) {
+			if ('\n' == text.charAt(i)) {
+				lines++;
+			}
+		}
+
+		return lines;
+	}
+
+	/**
+	 * Output source of one execution, each entry uses its message length and a new line in the log.
+	 *
+	 * @author Sylvain Bugat
+	 *
+	 */
+	private static final class FakeOutputSource implements ExecutionOutputSource {
+
+		/** Entries of the log. */
+		private final List<RundeckOutputEntry> entries = new ArrayList<>();
+
+		/** Offset of each entry in the log. */
+		private final List<Integer> entryOffsets = new ArrayList<>();
+
+		/** Size of the written entries. */
+		private int writtenSize;
+
+		/** Size of the entries written at the end of the log but not readable yet. */
+		int unreadableSize;
+
+		/** Flag indicating if the execution is completed. */
+		boolean completed;
+
+		/** Number of calls. */
+		int calls;
+
+		/** Offset of the last call. */
+		long lastOffset;
+
+		/**
+		 * Add numbered lines at the end of the log.
+		 *
+		 * @param lines number of lines to add
+		 */
+		void addLines(final int lines) {
+
+			for (int i = 0; i < lines; i++) {
+				addLine(null, String.format("line %05d", Integer.valueOf(entries.size()))); //$NON-NLS-1$
+			}
+		}
+
+		/**
+		 * Add an entry at the end of the log.
+		 *
+		 * @param time time of the entry or null
+		 * @param message message of the entry
+		 */
+		void addLine(final String time, final String message) {
+
+			final RundeckOutputEntry rundeckOutputEntry = new RundeckOutputEntry();
+			rundeckOutputEntry.setTime(time);
+			rundeckOutputEntry.setMessage(message);
+			entries.add(rundeckOutputEntry);
+			entryOffsets.add(Integer.valueOf(writtenSize));
+			writtenSize += message.length() + 1;
+		}
+
+		/**
+		 * Get the size of the log.
+		 *
+		 * @return size of the written entries
+		 */
+		int getTotalSize() {
+			return writtenSize + unreadableSize;
+		}
+
+		@Override
+		public RundeckOutput getExecutionOutput(final JobExecutionInfo jobExecutionInfo, final long offset, final int maxLines) {
+
+			calls++;
+			lastOffset = offset;
+
+			// Entries starting from the offset
+			final List<RundeckOutputEntry> logEntries = new ArrayList<>();
+			int nextOffset = (int) offset;
+			for (int i = 0; i < entries.size() && logEntries.size() < maxLines; i++) {
+				if (entryOffsets.get(i).intValue() >= offset) {
+
+					logEntries.add(entries.get(i));
+					nextOffset = entryOffsets.get(i).intValue() + entries.get(i).getMessage().length() + 1;
+				}
+			}
+
+			final RundeckOutput rundeckOutput = new RundeckOutput();
+			rundeckOutput.setLogEntries(logEntries);
+			rundeckOutput.setOffset(nextOffset);
+			rundeckOutput.setTotalSize(getTotalSize());
+			rundeckOutput.setCompleted(Boolean.valueOf(completed && nextOffset >= writtenSize));
+			return rundeckOutput;
+		}
+	}
+}
@@ -0,0 +1,265 @@
+package com.github.sbugat.rundeckmonitor;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import javax.swing.SwingUtilities;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests of the failed executions of several projects merged newest first and loaded page by page.
+ *
+ * @author Sylvain Bugat
+ *
+ */
+public final class FailedExecutionsListModelTest {
+
+	/** Number of rows loaded at each request. */
+	private static final int PAGE_SIZE = 4;
+
+	/** Number of failed executions of all projects. */
+	private static final int EXECUTIONS = 23;
+
+	/** Starting date of the newest execution in milliseconds. */
+	private static final long NEWEST_START_TIME = 1_500_000_000_000L;
+
+	/** Seed of the executions distribution in the projects. */
+	private static final long SEED = 42L;
+
+	/** Maximum wait of a load in milliseconds. */
+	private static final long LOAD_TIMEOUT = 5_000L;
+
+	/** Error message of a failing project. */
+	private static final String LOADING_ERROR = "Rundeck unavailable"; //$NON-NLS-1$
+
+	/** Notifications of the finished loads. */
+	private final BlockingQueue<Boolean> loads = new LinkedBlockingQueue<>();
+
+	/** Listener recording the finished loads. */
+	private final Runnable loadListener = new Runnable() {
+
+		@Override
+		@SuppressWarnings("synthetic-access")
+		public void run() {
+			loads.add(Boolean.valueOf(SwingUtilities.isEventDispatchThread()));
+		}
+	};
+
+	@Test
+	public void testThreeProjectsMerge() throws InterruptedException, InvocationTargetException {
+
+		final List<FakeFailedExecutionsSource> projects = distributeExecutions(-1);
+		final FailedExecutionsListModel failedExecutionsListModel = new FailedExecutionsListModel(new ArrayList<FailedExecutionsSource>(projects), PAGE_SIZE, loadListener);
+
+		// Full pages until the last one, all projects downloaded one page at a time
+		for (int loaded = PAGE_SIZE; loaded < EXECUTIONS; loaded += PAGE_SIZE) {
+
+			load(failedExecutionsListModel);
+			Assert.assertEquals(loaded, failedExecutionsListModel.getSize());
+			Assert.assertFalse(failedExecutionsListModel.isComplete());
+			Assert.assertNull(failedExecutionsListModel.getLoadingError());
+			assertBufferedPages(projects, failedExecutionsListModel);
+		}
+
+		load(failedExecutionsListModel);
+		Assert.assertEquals(EXECUTIONS, failedExecutionsListModel.getSize());
+		Assert.assertTrue(failedExecutionsListModel.isComplete());
+		assertNewestFirst(projects, failedExecutionsListModel);
+
+		// Nothing more is loaded
+		final int calls = projects.get(0).calls + projects.get(1).calls + projects.get(2).calls;
+		failedExecutionsListModel.loadMore();
+		Assert.assertNull(loads.poll(PAGE_SIZE, TimeUnit.MILLISECONDS));
+		Assert.assertEquals(calls, projects.get(0).calls + projects.get(1).calls + projects.get(2).calls);
+	}
+
+	@Test
+	public void testEmptyProjects() throws InterruptedException, InvocationTargetException {
+
+		final FakeFailedExecutionsSource emptyProject = new FakeFailedExecutionsSource(Collections.<JobExecutionInfo> emptyList(), -1);
+		final FailedExecutionsListModel failedExecutionsListModel = new FailedExecutionsListModel(Arrays.<FailedExecutionsSource> asList(emptyProject, emptyProject), PAGE_SIZE, loadListener);
+
+		load(failedExecutionsListModel);
+		Assert.assertEquals(0, failedExecutionsListModel.getSize());
+		Assert.assertTrue(failedExecutionsListModel.isComplete());
+	}
+
+	@Test
+	public void testLoadingError() throws InterruptedException, InvocationTargetException {
+
+		// The second call of the second project fails once
+		final List<FakeFailedExecutionsSource> projects = distributeExecutions(1);
+		final FailedExecutionsListModel failedExecutionsListModel = new FailedExecutionsListModel(new ArrayList<FailedExecutionsSource>(projects), PAGE_SIZE, loadListener);
+
+		int errors = 0;
+		while (!failedExecutionsListModel.isComplete()) {
+
+			final int size = failedExecutionsListModel.getSize();
+			load(failedExecutionsListModel);
+			if (null != failedExecutionsListModel.getLoadingError()) {
+
+				// Rows merged before the error are kept
+				Assert.assertEquals(LOADING_ERROR, failedExecutionsListModel.getLoadingError());
+				Assert.assertTrue(failedExecutionsListModel.getSize() - size < PAGE_SIZE);
+				errors++;
+			}
+			Assert.assertTrue(errors <= 1);
+		}
+
+		// The failed page is requested again, without duplicate or missing execution
+		Assert.assertEquals(1, errors);
+		Assert.assertEquals(EXECUTIONS, failedExecutionsListModel.getSize());
+		assertNewestFirst(projects, failedExecutionsListModel);
+	}
+
+	/**
+	 * Distribute the executions in three projects of different sizes with interleaved starting dates.
+	 *
+	 * @param failingCall call of the second project failing once, -1 for no failure
+	 * @return sources of the projects
+	 */
+	private static List<FakeFailedExecutionsSource> distributeExecutions(final int failingCall) {
+
+		final List<List<JobExecutionInfo>> executions = new ArrayList<>();
+		for (int project = 0; project < 3; project++) {
+			executions.add(new ArrayList<JobExecutionInfo>());
+		}
+
+		// Half of the executions in the first project, a third in the second one
+		final Random random = new Random(SEED);
+		for (int i = 0; i < EXECUTIONS; i++) {
+
+			final int project = Math.min(2, random.nextInt(6) / 2 + random.nextInt(2));
+			executions.get(project).add(new JobExecutionInfo(Long.valueOf(i), new Date(NEWEST_START_TIME - i * 1_000L), null, "project " + project, "job " + i, false, false)); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+
+		final List<FakeFailedExecutionsSource> projects = new ArrayList<>();
+		projects.add(new FakeFailedExecutionsSource(executions.get(0), -1));
+		projects.add(new FakeFailedExecutionsSource(executions.get(1), failingCall));
+		projects.add(new FakeFailedExecutionsSource(executions.get(2), -1));
+
+		// Each project covers more than one page
+		for (final FakeFailedExecutionsSource project : projects) {
+			Assert.assertTrue(project.executions.size() > PAGE_SIZE);
+		}
+
+		return projects;
+	}
+
+	/**
+	 * Load the next page on the event dispatch thread and wait for the end of the load.
+	 *
+	 * @param failedExecutionsListModel model to load
+	 * @throws InterruptedException if the test is interrupted
+	 * @throws InvocationTargetException if the load cannot be started
+	 */
+	private void load(final FailedExecutionsListModel failedExecutionsListModel) throws InterruptedException, InvocationTargetException {
+
+		SwingUtilities.invokeAndWait(new Runnable() {
+
+			@Override
+			public void run() {
+				failedExecutionsListModel.loadMore();
+			}
+		});
+
+		Assert.assertEquals(Boolean.TRUE, loads.poll(LOAD_TIMEOUT, TimeUnit.MILLISECONDS));
+		Assert.assertFalse(failedExecutionsListModel.isLoading());
+	}
+
+	/**
+	 * Check that at most one page of each project is downloaded and not merged yet.
+	 *
+	 * @param projects sources of the projects
+	 * @param failedExecutionsListModel loaded model
+	 */
+	private static void assertBufferedPages(final List<FakeFailedExecutionsSource> projects, final FailedExecutionsListModel failedExecutionsListModel) {
+
+		for (final FakeFailedExecutionsSource project : projects) {
+
+			int merged = 0;
+			for (int i = 0; i < failedExecutionsListModel.getSize(); i++) {
+				if (project.executions.contains(failedExecutionsListModel.getElementAt(i))) {
+					merged++;
+				}
+			}
+			Assert.assertTrue(project.downloaded >= merged);
+			Assert.assertTrue(project.downloaded <= merged + PAGE_SIZE);
+		}
+	}
+
+	/**
+	 * Check that the model contains all executions of all projects, newest first.
+	 *
+	 * @param projects sources of the projects
+	 * @param failedExecutionsListModel loaded model
+	 */
+	private static void assertNewestFirst(final List<FakeFailedExecutionsSource> projects, final FailedExecutionsListModel failedExecutionsListModel) {
+
+		for (int i = 0; i < failedExecutionsListModel.getSize(); i++) {
+			Assert.assertEquals(Long.valueOf(i), failedExecutionsListModel.getElementAt(i).getExecutionId());
+		}
+
+		for (final FakeFailedExecutionsSource project : projects) {
+			Assert.assertEquals(project.executions.size(), project.downloaded);
+		}
+	}
+
+	/**
+	 * Project with a list of failed executions, newest first.
+	 *
+	 * @author Sylvain Bugat
+	 *
+	 */
+	private static final class FakeFailedExecutionsSource implements FailedExecutionsSource {
+
+		/** Failed executions of the project. */
+		final List<JobExecutionInfo> executions;
+
+		/** Call failing once, -1 for no failure. */
+		private final int failingCall;
+
+		/** Number of calls. */
+		int calls;
+
+		/** Number of returned executions. */
+		int downloaded;
+
+		/**
+		 * Copy the executions of the project.
+		 *
+		 * @param executionsArg failed executions of the project, newest first
+		 * @param failingCallArg call failing once, -1 for no failure
+		 */
+		FakeFailedExecutionsSource(final List<JobExecutionInfo> executionsArg, final int failingCallArg) {
+
+			executions = executionsArg;
+			failingCall = failingCallArg;
+		}
+
+		@Override
+		public List<JobExecutionInfo> getFailedExecutions(final long offset, final int max) {
+
+			final int call = calls;
+			calls++;
+			if (call == failingCall) {
+				throw new IllegalStateException(LOADING_ERROR);
+			}
+
+			Assert.assertEquals(downloaded, offset);
+			final List<JobExecutionInfo> page = new ArrayList<>(executions.subList((int) offset, Math.min(executions.size(), (int) offset + max)));
+			downloaded += page.size();
+			return page;
+		}
+	}
+}
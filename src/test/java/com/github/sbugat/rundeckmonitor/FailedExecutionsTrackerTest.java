@@ -0,0 +1,130 @@
+package com.github.sbugat.rundeckmonitor;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Date;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.rundeck.api.domain.RundeckExecution;
+
+import com.github.sbugat.rundeckmonitor.tools.RundeckHttpTransport;
+
+/**
+ * Tests of the failed executions tracker: full first download after a restart and incremental downloads from the high-water mark.
+ *
+ * @author Sylvain Bugat
+ *
+ */
+public final class FailedExecutionsTrackerTest {
+
+	/** Number of failed executions kept. */
+	private static final int MAXIMUM_EXECUTIONS = 10;
+
+	/** Capacity of the known executions sets. */
+	private static final int KNOWN_EXECUTIONS_CAPACITY = 100;
+
+	/** Completion time of the newest failed execution seen by the previous run. */
+	private static final long PREVIOUS_HIGH_WATER_MARK = 5_000L;
+
+	/** Completion time newer than all the failed executions, their details have been purged from Rundeck. */
+	private static final long PURGED_HIGH_WATER_MARK = 9_000L;
+
+	/** Query parameter of the incremental downloads. */
+	private static final String BEGIN_PARAMETER = "begin="; //$NON-NLS-1$
+
+	/** Temporary folder of the journals. */
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	@Test
+	public void testRestartFirstDownloadFillsTheWindow() throws IOException {
+
+		final Date replayedHighWaterMark = replayHighWaterMark(PREVIOUS_HIGH_WATER_MARK);
+		Assert.assertEquals(PREVIOUS_HIGH_WATER_MARK, replayedHighWaterMark.getTime());
+
+		try (final FakeRundeckServer fakeRundeckServer = new FakeRundeckServer(); final RundeckHttpTransport rundeckHttpTransport = fakeRundeckServer.newTransport()) {
+
+			// Failed executions seen by the previous run
+			fakeRundeckServer.addExecution(1, "failed", 0, 1_000); //$NON-NLS-1$
+			fakeRundeckServer.addExecution(2, "failed", 0, 3_000); //$NON-NLS-1$
+			fakeRundeckServer.addExecution(3, "failed", 0, PREVIOUS_HIGH_WATER_MARK); //$NON-NLS-1$
+
+			final FailedExecutionsTracker failedExecutionsTracker = new FailedExecutionsTracker(FakeRundeckServer.PROJECT, MAXIMUM_EXECUTIONS, true, replayedHighWaterMark);
+
+			// The first result is the whole window, not only the failed executions completed since the restart
+			final List<RundeckExecution> firstResult = failedExecutionsTracker.update(rundeckHttpTransport);
+			Assert.assertEquals(3, firstResult.size());
+			Assert.assertEquals(Long.valueOf(3), firstResult.get(0).getId());
+			Assert.assertEquals(Long.valueOf(1), firstResult.get(2).getId());
+			Assert.assertFalse(fakeRundeckServer.getRequests().get(0).getQuery().contains(BEGIN_PARAMETER));
+
+			// Next downloads are incremental from the high-water mark
+			fakeRundeckServer.addExecution(4, "failed", 0, 7_000); //$NON-NLS-1$
+			final List<RundeckExecution> secondResult = failedExecutionsTracker.update(rundeckHttpTransport);
+			Assert.assertEquals(4, secondResult.size());
+			Assert.assertEquals(Long.valueOf(4), secondResult.get(0).getId());
+			Assert.assertTrue(fakeRundeckServer.getRequests().get(1).getQuery().contains(BEGIN_PARAMETER + "1970-01-01T00:00:05Z")); //$NON-NLS-1$
+			Assert.assertEquals(7_000L, failedExecutionsTracker.getLastCompletionDate().getTime());
+		}
+	}
+
+	@Test
+	public void testQuietRestartKeepsTheWindowAndTheHighWaterMark() throws IOException {
+
+		final Date replayedHighWaterMark = replayHighWaterMark(PURGED_HIGH_WATER_MARK);
+
+		try (final FakeRundeckServer fakeRundeckServer = new FakeRundeckServer(); final RundeckHttpTransport rundeckHttpTransport = fakeRundeckServer.newTransport()) {
+
+			fakeRundeckServer.addExecution(1, "failed", 0, 1_000); //$NON-NLS-1$
+
+			final FailedExecutionsTracker failedExecutionsTracker = new FailedExecutionsTracker(FakeRundeckServer.PROJECT, MAXIMUM_EXECUTIONS, true, replayedHighWaterMark);
+			Assert.assertEquals(1, failedExecutionsTracker.update(rundeckHttpTransport).size());
+
+			// The high-water mark of the previous run is newer than the downloaded executions
+			Assert.assertEquals(PURGED_HIGH_WATER_MARK, failedExecutionsTracker.getLastCompletionDate().getTime());
+			Assert.assertEquals(1, failedExecutionsTracker.update(rundeckHttpTransport).size());
+			Assert.assertTrue(fakeRundeckServer.getRequests().get(1).getQuery().contains(BEGIN_PARAMETER + "1970-01-01T00:00:09Z")); //$NON-NLS-1$
+		}
+	}
+
+	@Test
+	public void testFirstRunWithoutHighWaterMark() throws IOException {
+
+		try (final FakeRundeckServer fakeRundeckServer = new FakeRundeckServer(); final RundeckHttpTransport rundeckHttpTransport = fakeRundeckServer.newTransport()) {
+
+			final FailedExecutionsTracker failedExecutionsTracker = new FailedExecutionsTracker(FakeRundeckServer.PROJECT, MAXIMUM_EXECUTIONS, true, null);
+			Assert.assertTrue(failedExecutionsTracker.update(rundeckHttpTransport).isEmpty());
+
+			// No failed execution at all: the incremental mode starts from the epoch
+			Assert.assertEquals(0L, failedExecutionsTracker.getLastCompletionDate().getTime());
+		}
+	}
+
+	/**
+	 * Write a project high-water mark in a journal, close it and replay it like a restart.
+	 *
+	 * @param highWaterMark high-water mark to write
+	 * @return high-water mark replayed from the journal
+	 * @throws IOException if the temporary folder cannot be created
+	 */
+	private Date replayHighWaterMark(final long highWaterMark) throws IOException {
+
+		final Path journalFile = temporaryFolder.newFolder().toPath().resolve("tracker.journal"); //$NON-NLS-1$
+
+		final ExecutionJournal executionJournal = new ExecutionJournal(journalFile, new BoundedExecutionIdSet(KNOWN_EXECUTIONS_CAPACITY), new BoundedExecutionIdSet(KNOWN_EXECUTIONS_CAPACITY));
+		executionJournal.updateProjectHighWaterMark(FakeRundeckServer.PROJECT, new Date(highWaterMark));
+		executionJournal.flush();
+		executionJournal.close();
+
+		final ExecutionJournal replayedExecutionJournal = new ExecutionJournal(journalFile, new BoundedExecutionIdSet(KNOWN_EXECUTIONS_CAPACITY), new BoundedExecutionIdSet(KNOWN_EXECUTIONS_CAPACITY));
+		Assert.assertTrue(replayedExecutionJournal.isResumed());
+		final Date replayedHighWaterMark = replayedExecutionJournal.getProjectHighWaterMark(FakeRundeckServer.PROJECT);
+		replayedExecutionJournal.close();
+
+		return replayedHighWaterMark;
+	}
+}
@@ -0,0 +1,122 @@
+package com.github.sbugat.rundeckmonitor;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import com.github.sbugat.rundeckmonitor.configuration.RundeckMonitorConfiguration;
+import com.github.sbugat.rundeckmonitor.tools.ClockSkewEstimator;
+import com.github.sbugat.rundeckmonitor.tools.RundeckHttpTransport;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Local HTTP server answering the Rundeck executions calls with a fixed list of executions, the requests are recorded.
+ *
+ * @author Sylvain Bugat
+ *
+ */
+final class FakeRundeckServer implements AutoCloseable {
+
+	/** API version of the transports, responses without the result element. */
+	private static final int API_VERSION = 14;
+
+	/** Project of the executions. */
+	static final String PROJECT = "project"; //$NON-NLS-1$
+
+	/** HTTP server. */
+	private final HttpServer httpServer;
+
+	/** Executions returned by the executions calls. */
+	private final List<String> executions = Collections.synchronizedList(new ArrayList<String>());
+
+	/** Received requests. */
+	private final List<URI> requests = Collections.synchronizedList(new ArrayList<URI>());
+
+	/**
+	 * Start a server on a free local port.
+	 *
+	 * @throws IOException if the server cannot be started
+	 */
+	FakeRundeckServer() throws IOException {
+
+		httpServer = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0); //$NON-NLS-1$
+		httpServer.createContext("/", new HttpHandler() { //$NON-NLS-1$
+
+			@Override
+			@SuppressWarnings("synthetic-access")
+			public void handle(final HttpExchange httpExchange) throws IOException {
+
+				requests.add(httpExchange.getRequestURI());
+				final StringBuilder response = new StringBuilder();
+				synchronized (executions) {
+					response.append("<executions count='").append(executions.size()).append("' total='").append(executions.size()).append("' offset='0' max='").append(executions.size()).append("'>"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+					for (final String execution : executions) {
+						response.append(execution);
+					}
+				}
+				response.append("</executions>"); //$NON-NLS-1$
+
+				final byte[] content = response.toString().getBytes(StandardCharsets.UTF_8);
+				httpExchange.getResponseHeaders().add("Content-Type", "text/xml"); //$NON-NLS-1$ //$NON-NLS-2$
+				httpExchange.sendResponseHeaders(200, content.length);
+				try (final OutputStream responseBody = httpExchange.getResponseBody()) {
+					responseBody.write(content);
+				}
+			}
+		});
+		httpServer.start();
+	}
+
+	/**
+	 * Add an execution returned by the next calls.
+	 *
+	 * @param executionId execution identifier
+	 * @param status Rundeck status of the execution
+	 * @param startedAt start time in milliseconds
+	 * @param endedAt end time in milliseconds
+	 */
+	void addExecution(final long executionId, final String status, final long startedAt, final long endedAt) {
+
+		executions.add("<execution id='" + executionId + "' status='" + status + "' project='" + PROJECT + "'><user>user</user>" //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+				+ "<date-started unixtime='" + startedAt + "'>1970-01-01T00:00:00Z</date-started><date-ended unixtime='" + endedAt + "'>1970-01-01T00:00:00Z</date-ended>" //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+				+ "<description>execution " + executionId + "</description></execution>"); //$NON-NLS-1$ //$NON-NLS-2$
+	}
+
+	/**
+	 * Get the received requests.
+	 *
+	 * @return requests URI, oldest first
+	 */
+	List<URI> getRequests() {
+
+		synchronized (requests) {
+			return new ArrayList<>(requests);
+		}
+	}
+
+	/**
+	 * Create a transport calling this server with a token.
+	 *
+	 * @return new transport
+	 */
+	RundeckHttpTransport newTransport() {
+
+		final RundeckMonitorConfiguration rundeckMonitorConfiguration = new RundeckMonitorConfiguration();
+		rundeckMonitorConfiguration.setRundeckUrl("http://127.0.0.1:" + httpServer.getAddress().getPort()); //$NON-NLS-1$
+		rundeckMonitorConfiguration.setRundeckAPIKey("token"); //$NON-NLS-1$
+		rundeckMonitorConfiguration.setRundeckProject(PROJECT);
+		return new RundeckHttpTransport(rundeckMonitorConfiguration, API_VERSION, new ClockSkewEstimator());
+	}
+
+	@Override
+	public void close() {
+		httpServer.stop(0);
+	}
+}
@@ -0,0 +1,63 @@
+package com.github.sbugat.rundeckmonitor;
+
+import java.util.Date;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.rundeck.api.domain.RundeckExecution;
+import org.rundeck.api.domain.RundeckExecution.ExecutionStatus;
+
+/**
+ * Tests of the server monitor: only the confirmed successes are recorded in the statistics.
+ *
+ * @author Sylvain Bugat
+ *
+ */
+public final class RundeckServerMonitorTest {
+
+	/** Start time of the executions. */
+	private static final long STARTED_AT = 1_000L;
+
+	/** End time of the executions. */
+	private static final long ENDED_AT = 61_000L;
+
+	@Test
+	public void testConfirmedSuccess() {
+
+		Assert.assertTrue(RundeckServerMonitor.isConfirmedSuccess(newExecution(ExecutionStatus.SUCCEEDED, new Date(STARTED_AT), new Date(ENDED_AT))));
+	}
+
+	@Test
+	public void testUnconfirmedSuccesses() {
+
+		// Status not downloaded
+		Assert.assertFalse(RundeckServerMonitor.isConfirmedSuccess(null));
+
+		// No longer running but not succeeded
+		Assert.assertFalse(RundeckServerMonitor.isConfirmedSuccess(newExecution(ExecutionStatus.FAILED, new Date(STARTED_AT), new Date(ENDED_AT))));
+		Assert.assertFalse(RundeckServerMonitor.isConfirmedSuccess(newExecution(ExecutionStatus.ABORTED, new Date(STARTED_AT), new Date(ENDED_AT))));
+		Assert.assertFalse(RundeckServerMonitor.isConfirmedSuccess(newExecution(ExecutionStatus.RUNNING, new Date(STARTED_AT), null)));
+
+		// Succeeded without a known duration
+		Assert.assertFalse(RundeckServerMonitor.isConfirmedSuccess(newExecution(ExecutionStatus.SUCCEEDED, new Date(STARTED_AT), null)));
+		Assert.assertFalse(RundeckServerMonitor.isConfirmedSuccess(newExecution(ExecutionStatus.SUCCEEDED, null, new Date(ENDED_AT))));
+	}
+
+	/**
+	 * Create a completed execution.
+	 *
+	 * @param executionStatus status of the execution
+	 * @param startedAt start date or null
+	 * @param endedAt end date or null
+	 * @return new execution
+	 */
+	private static RundeckExecution newExecution(final ExecutionStatus executionStatus, final Date startedAt, final Date endedAt) {
+
+		final RundeckExecution rundeckExecution = new RundeckExecution();
+		rundeckExecution.setId(Long.valueOf(1));
+		rundeckExecution.setStatus(executionStatus);
+		rundeckExecution.setStartedAt(startedAt);
+		rundeckExecution.setEndedAt(endedAt);
+		return rundeckExecution;
+	}
+}
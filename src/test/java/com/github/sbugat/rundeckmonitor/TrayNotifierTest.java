@@ -0,0 +1,166 @@
+package com.github.sbugat.rundeckmonitor;
+
+import java.awt.TrayIcon;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests of the notifications: one summary per update and rate limited summaries grouping the delayed executions.
+ *
+ * @author Sylvain Bugat
+ *
+ */
+public final class TrayNotifierTest {
+
+	/** Maximum wait of a displayed message in milliseconds. */
+	private static final long MESSAGE_TIMEOUT = 5_000L;
+
+	/** Wait of a message not displayed in milliseconds. */
+	private static final long NO_MESSAGE_WAIT = 100L;
+
+	/** Maximum number of messages displayed in a row. */
+	private static final int BURST = 2;
+
+	/** Time to allow a new message after a burst in milliseconds. */
+	private static final long REFILL_PERIOD = 500L;
+
+	/** Burst without rate limit for the summaries checks. */
+	private static final int UNLIMITED_BURST = 100;
+
+	/** Notifier of the test. */
+	private TrayNotifier trayNotifier;
+
+	/** Displayed messages. */
+	private final BlockingQueue<Message> messages = new LinkedBlockingQueue<>();
+
+	/** Display recording the messages. */
+	private final TrayNotifier.MessageDisplay messageDisplay = new TrayNotifier.MessageDisplay() {
+
+		@Override
+		@SuppressWarnings("synthetic-access")
+		public void displayMessage(final String caption, final String text, final TrayIcon.MessageType messageType) {
+			messages.add(new Message(caption, text, messageType));
+		}
+	};
+
+	@After
+	public void tearDown() {
+		trayNotifier.close();
+	}
+
+	@Test
+	public void testSingleExecutions() throws InterruptedException {
+
+		trayNotifier = new TrayNotifier(UNLIMITED_BURST, REFILL_PERIOD);
+		trayNotifier.notify(messageDisplay, Collections.<String> emptyList(), Collections.<String> emptyList());
+		trayNotifier.notify(messageDisplay, Arrays.asList("failed job"), Collections.<String> emptyList()); //$NON-NLS-1$
+		trayNotifier.notify(messageDisplay, Collections.<String> emptyList(), Arrays.asList("late job")); //$NON-NLS-1$
+
+		// No message without new execution, the original alerts for a single execution
+		assertMessage(RundeckMonitorTrayIcon.NEW_FAILED_JOB_ALERT, "failed job", TrayIcon.MessageType.ERROR); //$NON-NLS-1$
+		assertMessage(RundeckMonitorTrayIcon.NEW_LONG_EXECUTION_ALERT, "late job", TrayIcon.MessageType.WARNING); //$NON-NLS-1$
+		assertNoMessage();
+	}
+
+	@Test
+	public void testSummary() throws InterruptedException {
+
+		trayNotifier = new TrayNotifier(UNLIMITED_BURST, REFILL_PERIOD);
+		trayNotifier.notify(messageDisplay, Arrays.asList("failed 1", "failed 2", "failed 3", "failed 4"), Arrays.asList("late 1", "late 2", "late 3")); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$ //$NON-NLS-6$ //$NON-NLS-7$
+
+		// One message, failed executions first, only the first 5 executions listed
+		final String newLine = System.lineSeparator();
+		assertMessage("4 new failed jobs, 3 new long executions", "failed 1" + newLine + "failed 2" + newLine + "failed 3" + newLine + "failed 4" + newLine + "late 1" + newLine + "... and 2 more", TrayIcon.MessageType.ERROR); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$ //$NON-NLS-6$ //$NON-NLS-7$ //$NON-NLS-8$
+
+		trayNotifier.notify(messageDisplay, Collections.<String> emptyList(), Arrays.asList("late 1", "late 2")); //$NON-NLS-1$ //$NON-NLS-2$
+		assertMessage("2 new long executions", "late 1" + newLine + "late 2", TrayIcon.MessageType.WARNING); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+		assertNoMessage();
+	}
+
+	@Test
+	public void testRateLimit() throws InterruptedException {
+
+		trayNotifier = new TrayNotifier(BURST, REFILL_PERIOD);
+		final long startTime = System.nanoTime();
+		for (int i = 1; i <= BURST + 3; i++) {
+			trayNotifier.notify(messageDisplay, Arrays.asList("failed " + i), Collections.<String> emptyList()); //$NON-NLS-1$
+		}
+
+		// The burst is displayed at once
+		assertMessage(RundeckMonitorTrayIcon.NEW_FAILED_JOB_ALERT, "failed 1", TrayIcon.MessageType.ERROR); //$NON-NLS-1$
+		assertMessage(RundeckMonitorTrayIcon.NEW_FAILED_JOB_ALERT, "failed 2", TrayIcon.MessageType.ERROR); //$NON-NLS-1$
+		assertNoMessage();
+
+		// The next executions are grouped in one summary displayed with the next token
+		final String newLine = System.lineSeparator();
+		assertMessage("3 new failed jobs", "failed 3" + newLine + "failed 4" + newLine + "failed 5", TrayIcon.MessageType.ERROR); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+		Assert.assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime) >= REFILL_PERIOD);
+		assertNoMessage();
+	}
+
+	/**
+	 * Wait for the next displayed message and check it.
+	 *
+	 * @param expectedCaption expected title
+	 * @param expectedText expected text
+	 * @param expectedMessageType expected type
+	 * @throws InterruptedException if the test is interrupted
+	 */
+	private void assertMessage(final String expectedCaption, final String expectedText, final TrayIcon.MessageType expectedMessageType) throws InterruptedException {
+
+		final Message message = messages.poll(MESSAGE_TIMEOUT, TimeUnit.MILLISECONDS);
+		Assert.assertNotNull(message);
+		Assert.assertEquals(expectedCaption, message.caption);
+		Assert.assertEquals(expectedText, message.text);
+		Assert.assertEquals(expectedMessageType, message.messageType);
+	}
+
+	/**
+	 * Check that no message is displayed.
+	 *
+	 * @throws InterruptedException if the test is interrupted
+	 */
+	private void assertNoMessage() throws InterruptedException {
+		Assert.assertNull(messages.poll(NO_MESSAGE_WAIT, TimeUnit.MILLISECONDS));
+	}
+
+	/**
+	 * Displayed message.
+	 *
+	 * @author Sylvain Bugat
+	 *
+	 */
+	private static final class Message {
+
+		/** Title of the message. */
+		final String caption;
+
+		/** Text of the message. */
+		final String text;
+
+		/** Type of the message. */
+		final TrayIcon.MessageType messageType;
+
+		/**
+		 * Copy all fields of the message.
+		 *
+		 * @param captionArg title of the message
+		 * @param textArg text of the message
+		 * @param messageTypeArg type of the message
+		 */
+		Message(final String captionArg, final String textArg, final TrayIcon.MessageType messageTypeArg) {
+
+			caption = captionArg;
+			text = textArg;
+			messageType = messageTypeArg;
+		}
+	}
+}
@@ -0,0 +1,312 @@
+package com.github.sbugat.rundeckmonitor.history;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.TimeZone;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests of the history store: one segment per day, retention purge, time-range and per-job queries and truncated segments.
+ *
+ * @author Sylvain Bugat
+ *
+ */
+public final class ExecutionHistoryStoreTest {
+
+	/** One day in milliseconds. */
+	private static final long ONE_DAY = 86_400_000L;
+
+	/** One second in milliseconds. */
+	private static final long ONE_SECOND = 1_000L;
+
+	/** Number of days of history kept. */
+	private static final int RETENTION_DAYS = 10;
+
+	/** Number of records of the index queries, many blocks of the sparse index. */
+	private static final int MANY_RECORDS = 1_000;
+
+	/** Number of distinct jobs of the per-job queries. */
+	private static final int JOBS = 97;
+
+	/** Server of the records. */
+	private static final String SERVER = "server"; //$NON-NLS-1$
+
+	/** Project of the records. */
+	private static final String PROJECT = "project"; //$NON-NLS-1$
+
+	/** Temporary folder of the history. */
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	/** History directory of the test. */
+	private Path historyDirectory;
+
+	/** Start of the current day in milliseconds. */
+	private long today;
+
+	@Before
+	public void setUp() throws IOException {
+
+		historyDirectory = temporaryFolder.newFolder().toPath().resolve("history"); //$NON-NLS-1$
+		today = System.currentTimeMillis() / ONE_DAY * ONE_DAY;
+	}
+
+	@Test
+	public void testDisabledHistory() {
+
+		final ExecutionHistoryStore executionHistoryStore = new ExecutionHistoryStore(historyDirectory);
+		Assert.assertFalse(executionHistoryStore.isEnabled());
+		executionHistoryStore.record(newRecord(HistoryRecordType.FAILED, today, 1, "job")); //$NON-NLS-1$
+		executionHistoryStore.flush();
+
+		Assert.assertTrue(findExecutionIds(executionHistoryStore, 0, Long.MAX_VALUE, null).isEmpty());
+		Assert.assertFalse(Files.exists(historyDirectory));
+	}
+
+	@Test
+	public void testSegmentRollover() throws IOException {
+
+		ExecutionHistoryStore executionHistoryStore = newStore();
+		executionHistoryStore.record(newRecord(HistoryRecordType.FAILED, today + ONE_SECOND, 1, "job")); //$NON-NLS-1$
+		executionHistoryStore.record(newRecord(HistoryRecordType.SUCCEEDED, today - ONE_DAY + ONE_SECOND, 2, "job")); //$NON-NLS-1$
+		executionHistoryStore.record(newRecord(HistoryRecordType.LATE, today - 3 * ONE_DAY, 3, "job")); //$NON-NLS-1$
+		executionHistoryStore.flush();
+
+		// One segment per day of the records
+		Assert.assertTrue(Files.exists(segmentFile(today)));
+		Assert.assertTrue(Files.exists(segmentFile(today - ONE_DAY)));
+		Assert.assertTrue(Files.exists(segmentFile(today - 3 * ONE_DAY)));
+		Assert.assertFalse(Files.exists(segmentFile(today - 2 * ONE_DAY)));
+
+		// Next records are appended to the segment of their day
+		executionHistoryStore.record(newRecord(HistoryRecordType.FAILED, today, 4, "job")); //$NON-NLS-1$
+		executionHistoryStore.flush();
+
+		// Oldest days first, writing order within a day
+		final List<Long> expectedExecutionIds = executionIds(3, 2, 1, 4);
+		Assert.assertEquals(expectedExecutionIds, findExecutionIds(executionHistoryStore, 0, Long.MAX_VALUE, null));
+		Assert.assertEquals(executionIds(2), findExecutionIds(executionHistoryStore, today - ONE_DAY, today - 1, null));
+
+		// Segments are indexed again after a restart
+		executionHistoryStore = newStore();
+		Assert.assertEquals(expectedExecutionIds, findExecutionIds(executionHistoryStore, 0, Long.MAX_VALUE, null));
+	}
+
+	@Test
+	public void testRetentionPurge() throws IOException {
+
+		ExecutionHistoryStore executionHistoryStore = newStore();
+		executionHistoryStore.record(newRecord(HistoryRecordType.FAILED, today - 5 * ONE_DAY, 1, "job")); //$NON-NLS-1$
+		executionHistoryStore.record(newRecord(HistoryRecordType.FAILED, today - ONE_DAY, 2, "job")); //$NON-NLS-1$
+		executionHistoryStore.record(newRecord(HistoryRecordType.FAILED, today, 3, "job")); //$NON-NLS-1$
+
+		// Older than the retention: never written
+		executionHistoryStore.record(newRecord(HistoryRecordType.FAILED, today - RETENTION_DAYS * ONE_DAY, 4, "job")); //$NON-NLS-1$
+		executionHistoryStore.flush();
+		Assert.assertFalse(Files.exists(segmentFile(today - RETENTION_DAYS * ONE_DAY)));
+
+		final Path unknownFile = historyDirectory.resolve("unknown.segment"); //$NON-NLS-1$
+		Files.createFile(unknownFile);
+
+		// Segments older than the new retention are deleted
+		executionHistoryStore.setRetentionDays(3);
+		Assert.assertFalse(Files.exists(segmentFile(today - 5 * ONE_DAY)));
+		Assert.assertTrue(Files.exists(segmentFile(today - ONE_DAY)));
+		Assert.assertTrue(Files.exists(segmentFile(today)));
+		Assert.assertTrue(Files.exists(unknownFile));
+		Assert.assertEquals(executionIds(2, 3), findExecutionIds(executionHistoryStore, 0, Long.MAX_VALUE, null));
+
+		// Purge at startup
+		executionHistoryStore = new ExecutionHistoryStore(historyDirectory);
+		executionHistoryStore.setRetentionDays(1);
+		Assert.assertFalse(Files.exists(segmentFile(today - ONE_DAY)));
+		Assert.assertEquals(executionIds(3), findExecutionIds(executionHistoryStore, 0, Long.MAX_VALUE, null));
+	}
+
+	@Test
+	public void testIndexSeek() {
+
+		final ExecutionHistoryStore executionHistoryStore = newStore();
+		for (int i = 0; i < MANY_RECORDS; i++) {
+			executionHistoryStore.record(newRecord(HistoryRecordType.FAILED, today + i * ONE_SECOND, i, "job" + i % JOBS)); //$NON-NLS-1$
+		}
+		executionHistoryStore.flush();
+
+		// Range in the middle of a block and range across 2 blocks
+		final List<Long> expectedExecutionIds = new ArrayList<>();
+		for (long i = 300; i <= 310; i++) {
+			expectedExecutionIds.add(Long.valueOf(i));
+		}
+		Assert.assertEquals(expectedExecutionIds, findExecutionIds(executionHistoryStore, today + 300 * ONE_SECOND, today + 310 * ONE_SECOND, null));
+		Assert.assertEquals(executionIds(63, 64), findExecutionIds(executionHistoryStore, today + 63 * ONE_SECOND, today + 64 * ONE_SECOND, null));
+
+		// Bounds are inclusive
+		Assert.assertEquals(executionIds(0), findExecutionIds(executionHistoryStore, today - ONE_DAY, today, null));
+		Assert.assertEquals(executionIds(MANY_RECORDS - 1), findExecutionIds(executionHistoryStore, today + (MANY_RECORDS - 1) * ONE_SECOND, today + ONE_DAY, null));
+		Assert.assertTrue(findExecutionIds(executionHistoryStore, today + MANY_RECORDS * ONE_SECOND, today + ONE_DAY, null).isEmpty());
+	}
+
+	@Test
+	public void testJobQueryWithoutFalseNegatives() {
+
+		final ExecutionHistoryStore executionHistoryStore = newStore();
+		for (int i = 0; i < MANY_RECORDS; i++) {
+			executionHistoryStore.record(newRecord(HistoryRecordType.FAILED, today - i % 2 * ONE_DAY + i * ONE_SECOND, i, "job" + i % JOBS)); //$NON-NLS-1$
+		}
+
+		// Ad-hoc execution: the job key is its name
+		executionHistoryStore.record(new HistoryRecord(HistoryRecordType.FAILED, today, MANY_RECORDS, SERVER, PROJECT, null, "ad-hoc")); //$NON-NLS-1$
+		executionHistoryStore.flush();
+
+		// Every record of each job is found
+		for (int job = 0; job < JOBS; job++) {
+
+			final List<Long> expectedExecutionIds = new ArrayList<>();
+			for (int i = 0; i < MANY_RECORDS; i++) {
+				if (i % JOBS == job && i % 2 == 1) {
+					expectedExecutionIds.add(Long.valueOf(i));
+				}
+			}
+			for (int i = 0; i < MANY_RECORDS; i++) {
+				if (i % JOBS == job && i % 2 == 0) {
+					expectedExecutionIds.add(Long.valueOf(i));
+				}
+			}
+			Assert.assertEquals(expectedExecutionIds, findExecutionIds(executionHistoryStore, 0, Long.MAX_VALUE, "job" + job)); //$NON-NLS-1$
+		}
+
+		Assert.assertEquals(executionIds(MANY_RECORDS), findExecutionIds(executionHistoryStore, 0, Long.MAX_VALUE, "ad-hoc")); //$NON-NLS-1$
+		Assert.assertTrue(findExecutionIds(executionHistoryStore, 0, Long.MAX_VALUE, "unknown job").isEmpty()); //$NON-NLS-1$
+	}
+
+	@Test
+	public void testStoppedQuery() {
+
+		final ExecutionHistoryStore executionHistoryStore = newStore();
+		for (int i = 0; i < MANY_RECORDS; i++) {
+			executionHistoryStore.record(newRecord(HistoryRecordType.FAILED, today + i * ONE_SECOND, i, "job")); //$NON-NLS-1$
+		}
+
+		final List<Long> foundExecutionIds = new ArrayList<>();
+		executionHistoryStore.find(0, Long.MAX_VALUE, null, new HistoryRecordVisitor() {
+
+			@Override
+			public boolean visit(final HistoryRecord historyRecord) {
+
+				foundExecutionIds.add(Long.valueOf(historyRecord.getExecutionId()));
+				return foundExecutionIds.size() < 3;
+			}
+		});
+		Assert.assertEquals(executionIds(0, 1, 2), foundExecutionIds);
+	}
+
+	@Test
+	public void testTruncatedSegment() throws IOException {
+
+		ExecutionHistoryStore executionHistoryStore = newStore();
+		executionHistoryStore.record(newRecord(HistoryRecordType.FAILED, today, 1, "job")); //$NON-NLS-1$
+		executionHistoryStore.flush();
+
+		// Crash while writing a record
+		Files.write(segmentFile(today), new byte[] { 0, 0, 0, 50, 1, 2 }, StandardOpenOption.APPEND);
+
+		executionHistoryStore = newStore();
+		Assert.assertEquals(executionIds(1), findExecutionIds(executionHistoryStore, 0, Long.MAX_VALUE, null));
+
+		// The truncated record is replaced by the next records
+		executionHistoryStore.record(newRecord(HistoryRecordType.FAILED, today, 2, "job")); //$NON-NLS-1$
+		executionHistoryStore.flush();
+		executionHistoryStore = newStore();
+		Assert.assertEquals(executionIds(1, 2), findExecutionIds(executionHistoryStore, 0, Long.MAX_VALUE, null));
+	}
+
+	/**
+	 * Create a store on the history directory of the test with the test retention.
+	 *
+	 * @return enabled store
+	 */
+	private ExecutionHistoryStore newStore() {
+
+		final ExecutionHistoryStore executionHistoryStore = new ExecutionHistoryStore(historyDirectory);
+		executionHistoryStore.setRetentionDays(RETENTION_DAYS);
+		return executionHistoryStore;
+	}
+
+	/**
+	 * Get the segment file of a day.
+	 *
+	 * @param time time of the day in milliseconds
+	 * @return segment file path
+	 */
+	private Path segmentFile(final long time) {
+
+		final SimpleDateFormat segmentDateFormat = new SimpleDateFormat("yyyyMMdd"); //$NON-NLS-1$
+		segmentDateFormat.setTimeZone(TimeZone.getTimeZone("GMT")); //$NON-NLS-1$
+		return historyDirectory.resolve(segmentDateFormat.format(new Date(time)) + ".segment"); //$NON-NLS-1$
+	}
+
+	/**
+	 * Create a record of the test server and project.
+	 *
+	 * @param historyRecordType type of the record
+	 * @param time time of the record
+	 * @param executionId execution identifier
+	 * @param jobId job identifier
+	 * @return new record
+	 */
+	private static HistoryRecord newRecord(final HistoryRecordType historyRecordType, final long time, final long executionId, final String jobId) {
+		return new HistoryRecord(historyRecordType, time, executionId, SERVER, PROJECT, jobId, jobId + " name"); //$NON-NLS-1$
+	}
+
+	/**
+	 * Find the execution identifiers of the records of a query.
+	 *
+	 * @param executionHistoryStore store to query
+	 * @param fromTime start of the range, inclusive
+	 * @param toTime end of the range, inclusive
+	 * @param jobKey job to find or null for all jobs
+	 * @return execution identifiers in the query order
+	 */
+	private static List<Long> findExecutionIds(final ExecutionHistoryStore executionHistoryStore, final long fromTime, final long toTime, final String jobKey) {
+
+		final List<Long> foundExecutionIds = new ArrayList<>();
+		executionHistoryStore.find(fromTime, toTime, jobKey, new HistoryRecordVisitor() {
+
+			@Override
+			public boolean visit(final HistoryRecord historyRecord) {
+
+				foundExecutionIds.add(Long.valueOf(historyRecord.getExecutionId()));
+				return true;
+			}
+		});
+
+		return foundExecutionIds;
+	}
+
+	/**
+	 * Build a list of execution identifiers.
+	 *
+	 * @param executionIds execution identifiers
+	 * @return list of the identifiers
+	 */
+	private static List<Long> executionIds(final long... executionIds) {
+
+		final List<Long> executionIdsList = new ArrayList<>();
+		for (final long executionId : executionIds) {
+			executionIdsList.add(Long.valueOf(executionId));
+		}
+
+		return executionIdsList;
+	}
+}
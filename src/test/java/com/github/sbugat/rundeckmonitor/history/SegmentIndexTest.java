@@ -0,0 +1,118 @@
+package com.github.sbugat.rundeckmonitor.history;
+
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests of the sparse index of a segment: blocks, time ranges and job filters.
+ *
+ * @author Sylvain Bugat
+ *
+ */
+public final class SegmentIndexTest {
+
+	/** Number of records in a block. */
+	private static final int BLOCK_RECORDS = 64;
+
+	/** Number of indexed records. */
+	private static final int RECORDS = 1_000;
+
+	/** Size of each indexed record. */
+	private static final int RECORD_SIZE = 10;
+
+	/** Offset of the first record. */
+	private static final int FIRST_OFFSET = 4;
+
+	/** Number of distinct job keys of the job filter checks. */
+	private static final int JOB_KEYS = 10_000;
+
+	/** Seed of the random job keys. */
+	private static final long SEED = 42L;
+
+	@Test
+	public void testBlocks() {
+
+		final SegmentIndex segmentIndex = newIndex();
+
+		Assert.assertEquals((RECORDS + BLOCK_RECORDS - 1) / BLOCK_RECORDS, segmentIndex.getBlockCount());
+		Assert.assertEquals(FIRST_OFFSET, segmentIndex.getBlockStart(0));
+		Assert.assertEquals(FIRST_OFFSET + BLOCK_RECORDS * RECORD_SIZE, segmentIndex.getBlockEnd(0));
+		Assert.assertEquals(segmentIndex.getBlockEnd(0), segmentIndex.getBlockStart(1));
+
+		// The last block ends at the valid length
+		Assert.assertEquals(FIRST_OFFSET + RECORDS * RECORD_SIZE, segmentIndex.getBlockEnd(segmentIndex.getBlockCount() - 1));
+	}
+
+	@Test
+	public void testTimeRangeSeek() {
+
+		final SegmentIndex segmentIndex = newIndex();
+
+		// Only the block of the range is read
+		final long time = 3 * BLOCK_RECORDS + BLOCK_RECORDS / 2;
+		for (int block = 0; block < segmentIndex.getBlockCount(); block++) {
+			Assert.assertEquals(3 == block, segmentIndex.mayContain(block, time, time + 1, 0));
+		}
+
+		// Range across 2 blocks
+		for (int block = 0; block < segmentIndex.getBlockCount(); block++) {
+			Assert.assertEquals(0 == block || 1 == block, segmentIndex.mayContain(block, BLOCK_RECORDS - 1, BLOCK_RECORDS, 0));
+		}
+
+		// Range after all records
+		for (int block = 0; block < segmentIndex.getBlockCount(); block++) {
+			Assert.assertFalse(segmentIndex.mayContain(block, RECORDS, Long.MAX_VALUE, 0));
+		}
+	}
+
+	@Test
+	public void testJobFilterWithoutFalseNegatives() {
+
+		final Random random = new Random(SEED);
+		final String[] jobKeys = new String[JOB_KEYS];
+		final SegmentIndex segmentIndex = new SegmentIndex();
+		for (int i = 0; i < JOB_KEYS; i++) {
+
+			jobKeys[i] = Long.toHexString(random.nextLong());
+			segmentIndex.add(FIRST_OFFSET + (long) i * RECORD_SIZE, i, SegmentIndex.jobFilterBits(jobKeys[i]));
+		}
+
+		// Each job is found in its block, the other blocks may give false positives
+		for (int i = 0; i < JOB_KEYS; i++) {
+			Assert.assertTrue(jobKeys[i], segmentIndex.mayContain(i / BLOCK_RECORDS, 0, Long.MAX_VALUE, SegmentIndex.jobFilterBits(jobKeys[i])));
+		}
+	}
+
+	@Test
+	public void testJobFilterBits() {
+
+		final Random random = new Random(SEED);
+		for (int i = 0; i < JOB_KEYS; i++) {
+
+			final String jobKey = Long.toHexString(random.nextLong());
+			final long jobFilterBits = SegmentIndex.jobFilterBits(jobKey);
+
+			// Same bits for the same job, 1 or 2 bits set
+			Assert.assertEquals(jobFilterBits, SegmentIndex.jobFilterBits(new String(jobKey)));
+			Assert.assertTrue(Long.bitCount(jobFilterBits) >= 1 && Long.bitCount(jobFilterBits) <= 2);
+		}
+	}
+
+	/**
+	 * Create an index of records with increasing times, one record per millisecond.
+	 *
+	 * @return index of the records
+	 */
+	private static SegmentIndex newIndex() {
+
+		final SegmentIndex segmentIndex = new SegmentIndex();
+		for (int i = 0; i < RECORDS; i++) {
+			segmentIndex.add(FIRST_OFFSET + (long) i * RECORD_SIZE, i, SegmentIndex.jobFilterBits("job" + i)); //$NON-NLS-1$
+		}
+		segmentIndex.setLength(FIRST_OFFSET + RECORDS * RECORD_SIZE);
+
+		return segmentIndex;
+	}
+}
@@ -0,0 +1,185 @@
+package com.github.sbugat.rundeckmonitor.statistics;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests of the durations quantile sketch against the quantiles of the sorted durations.
+ *
+ * @author Sylvain Bugat
+ *
+ */
+public final class DurationDigestTest {
+
+	/** Number of durations of the accuracy checks. */
+	private static final int DURATIONS = 100_000;
+
+	/** Median of the random durations: one minute. */
+	private static final double MEDIAN_DURATION = 60_000;
+
+	/** Maximum number of centroids: the compression of the digest. */
+	private static final int MAXIMUM_CENTROIDS = 100;
+
+	/** Maximum rank error of the central quantiles. */
+	private static final double MAXIMUM_RANK_ERROR = 0.005;
+
+	/** Maximum rank error of the high quantiles used as late thresholds. */
+	private static final double MAXIMUM_TAIL_RANK_ERROR = 0.001;
+
+	/** Central quantiles checked. */
+	private static final double[] QUANTILES = { 0.01, 0.1, 0.25, 0.5, 0.75, 0.9 };
+
+	/** High quantiles checked. */
+	private static final double[] TAIL_QUANTILES = { 0.95, 0.99, 0.999 };
+
+	/** Seed of the random durations. */
+	private static final long SEED = 42L;
+
+	@Test
+	public void testEmptyDigest() {
+
+		final DurationDigest durationDigest = new DurationDigest();
+		Assert.assertEquals(0, durationDigest.getCount());
+		Assert.assertTrue(Double.isNaN(durationDigest.getQuantile(0.5)));
+	}
+
+	@Test
+	public void testSingleDuration() {
+
+		final DurationDigest durationDigest = new DurationDigest();
+		durationDigest.add(MEDIAN_DURATION);
+		Assert.assertEquals(1, durationDigest.getCount());
+		Assert.assertEquals(MEDIAN_DURATION, durationDigest.getQuantile(0), 0);
+		Assert.assertEquals(MEDIAN_DURATION, durationDigest.getQuantile(0.99), 0);
+	}
+
+	@Test
+	public void testExtremeQuantiles() {
+
+		final double[] durations = randomDurations();
+		final DurationDigest durationDigest = newDigest(durations);
+		Arrays.sort(durations);
+
+		Assert.assertEquals(DURATIONS, durationDigest.getCount());
+		Assert.assertEquals(durations[0], durationDigest.getQuantile(0), 0);
+		Assert.assertEquals(durations[DURATIONS - 1], durationDigest.getQuantile(1), 0);
+	}
+
+	@Test
+	public void testAccuracyAndCompression() {
+
+		final double[] durations = randomDurations();
+		final DurationDigest durationDigest = newDigest(durations);
+		Arrays.sort(durations);
+
+		Assert.assertTrue(durationDigest.getCentroidCount() <= MAXIMUM_CENTROIDS);
+		assertQuantiles(durationDigest, durations);
+	}
+
+	@Test
+	public void testMergeOrder() {
+
+		// Buffered durations merged in increasing order, in decreasing order and in random order give the same accuracy
+		final double[] durations = randomDurations();
+		Arrays.sort(durations);
+
+		final DurationDigest increasingDigest = newDigest(durations);
+		final DurationDigest decreasingDigest = new DurationDigest();
+		for (int i = DURATIONS - 1; i >= 0; i--) {
+			decreasingDigest.add(durations[i]);
+		}
+
+		Assert.assertTrue(increasingDigest.getCentroidCount() <= MAXIMUM_CENTROIDS);
+		Assert.assertTrue(decreasingDigest.getCentroidCount() <= MAXIMUM_CENTROIDS);
+		assertQuantiles(increasingDigest, durations);
+		assertQuantiles(decreasingDigest, durations);
+	}
+
+	@Test
+	public void testIncrementalMerges() {
+
+		// Quantiles requested between the additions merge partial buffers
+		final double[] durations = randomDurations();
+		final DurationDigest durationDigest = new DurationDigest();
+		for (int i = 0; i < DURATIONS; i++) {
+
+			durationDigest.add(durations[i]);
+			if (0 == i % 7) {
+				durationDigest.getQuantile(0.99);
+			}
+		}
+		Arrays.sort(durations);
+
+		Assert.assertEquals(DURATIONS, durationDigest.getCount());
+		Assert.assertTrue(durationDigest.getCentroidCount() <= MAXIMUM_CENTROIDS);
+		assertQuantiles(durationDigest, durations);
+	}
+
+	/**
+	 * Check the rank error of the quantiles of a digest.
+	 *
+	 * @param durationDigest digest to check
+	 * @param sortedDurations reference durations sorted
+	 */
+	private static void assertQuantiles(final DurationDigest durationDigest, final double[] sortedDurations) {
+
+		for (final double quantile : QUANTILES) {
+			Assert.assertEquals(quantile, rank(sortedDurations, durationDigest.getQuantile(quantile)), MAXIMUM_RANK_ERROR);
+		}
+		for (final double quantile : TAIL_QUANTILES) {
+			Assert.assertEquals(quantile, rank(sortedDurations, durationDigest.getQuantile(quantile)), MAXIMUM_TAIL_RANK_ERROR);
+		}
+	}
+
+	/**
+	 * Get the rank of a duration among sorted durations.
+	 *
+	 * @param sortedDurations reference durations sorted
+	 * @param duration duration to rank
+	 * @return fraction of the durations lower than the duration
+	 */
+	private static double rank(final double[] sortedDurations, final double duration) {
+
+		int index = Arrays.binarySearch(sortedDurations, duration);
+		if (index < 0) {
+			index = -index - 1;
+		}
+
+		return (double) index / sortedDurations.length;
+	}
+
+	/**
+	 * Generate log-normal durations, typical of the job durations: most executions near the median and a long tail.
+	 *
+	 * @return random durations in milliseconds
+	 */
+	private static double[] randomDurations() {
+
+		final Random random = new Random(SEED);
+		final double[] durations = new double[DURATIONS];
+		for (int i = 0; i < DURATIONS; i++) {
+			durations[i] = MEDIAN_DURATION * Math.exp(random.nextGaussian());
+		}
+
+		return durations;
+	}
+
+	/**
+	 * Create a digest of durations added in order.
+	 *
+	 * @param durations durations to add
+	 * @return digest of the durations
+	 */
+	private static DurationDigest newDigest(final double[] durations) {
+
+		final DurationDigest durationDigest = new DurationDigest();
+		for (final double duration : durations) {
+			durationDigest.add(duration);
+		}
+
+		return durationDigest;
+	}
+}
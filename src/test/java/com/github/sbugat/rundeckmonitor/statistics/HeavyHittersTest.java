@@ -0,0 +1,173 @@
+package com.github.sbugat.rundeckmonitor.statistics;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests of the Space-Saving top keys: exact counts, eviction of the least frequent key, error bounds and ordering.
+ *
+ * @author Sylvain Bugat
+ *
+ */
+public final class HeavyHittersTest {
+
+	/** Number of counters of the error bounds checks. */
+	private static final int CAPACITY = 20;
+
+	/** Number of occurrences of the error bounds checks. */
+	private static final int STREAM_SIZE = 100_000;
+
+	/** Number of distinct keys of the error bounds checks. */
+	private static final int KEYS = 1_000;
+
+	/** Seed of the random stream. */
+	private static final long SEED = 42L;
+
+	@Test
+	public void testExactCountsWithoutEviction() {
+
+		final HeavyHitters heavyHitters = new HeavyHitters(CAPACITY);
+		add(heavyHitters, "job1", 3); //$NON-NLS-1$
+		add(heavyHitters, "job2", 5); //$NON-NLS-1$
+		add(heavyHitters, "job3", 1); //$NON-NLS-1$
+		heavyHitters.add("job1", "renamed job1"); //$NON-NLS-1$ //$NON-NLS-2$
+
+		final List<HeavyHitters.Counter> top = heavyHitters.getTop(CAPACITY);
+		Assert.assertEquals(3, top.size());
+		assertCounter(top.get(0), "job2", 5); //$NON-NLS-1$
+		assertCounter(top.get(1), "job1", 4); //$NON-NLS-1$
+		assertCounter(top.get(2), "job3", 1); //$NON-NLS-1$
+
+		// Last label of the key
+		Assert.assertEquals("renamed job1", top.get(1).getLabel()); //$NON-NLS-1$
+	}
+
+	@Test
+	public void testTopOrdering() {
+
+		final HeavyHitters heavyHitters = new HeavyHitters(CAPACITY);
+		for (int i = 1; i <= CAPACITY; i++) {
+			add(heavyHitters, "job" + i, i); //$NON-NLS-1$
+		}
+
+		final List<HeavyHitters.Counter> top = heavyHitters.getTop(3);
+		Assert.assertEquals(3, top.size());
+		assertCounter(top.get(0), "job" + CAPACITY, CAPACITY); //$NON-NLS-1$
+		assertCounter(top.get(1), "job" + (CAPACITY - 1), CAPACITY - 1); //$NON-NLS-1$
+		assertCounter(top.get(2), "job" + (CAPACITY - 2), CAPACITY - 2); //$NON-NLS-1$
+	}
+
+	@Test
+	public void testEvictionOfTheLeastFrequentKey() {
+
+		final HeavyHitters heavyHitters = new HeavyHitters(2);
+		add(heavyHitters, "job1", 3); //$NON-NLS-1$
+		add(heavyHitters, "job2", 1); //$NON-NLS-1$
+
+		// The new key replaces job2 and inherits its count, only its own occurrence is guaranteed
+		heavyHitters.add("job3", "job3"); //$NON-NLS-1$ //$NON-NLS-2$
+		List<HeavyHitters.Counter> top = heavyHitters.getTop(2);
+		assertCounter(top.get(0), "job1", 3); //$NON-NLS-1$
+		assertCounter(top.get(1), "job3", 1); //$NON-NLS-1$
+
+		// job3 has an estimated count of 2: job1 is never evicted by a new key
+		heavyHitters.add("job4", "job4"); //$NON-NLS-1$ //$NON-NLS-2$
+		top = heavyHitters.getTop(2);
+		assertCounter(top.get(0), "job1", 3); //$NON-NLS-1$
+		assertCounter(top.get(1), "job4", 1); //$NON-NLS-1$
+	}
+
+	@Test
+	public void testErrorBounds() {
+
+		// Skewed stream: low keys are much more frequent
+		final Random random = new Random(SEED);
+		final HeavyHitters heavyHitters = new HeavyHitters(CAPACITY);
+		final Map<String, Long> realCounts = new HashMap<>();
+		for (int i = 0; i < STREAM_SIZE; i++) {
+
+			final String key = "job" + (int) (KEYS * Math.pow(random.nextDouble(), 4)); //$NON-NLS-1$
+			heavyHitters.add(key, key);
+			final Long realCount = realCounts.get(key);
+			if (null == realCount) {
+				realCounts.put(key, Long.valueOf(1));
+			}
+			else {
+				realCounts.put(key, Long.valueOf(realCount.longValue() + 1));
+			}
+		}
+
+		final long maximumError = STREAM_SIZE / CAPACITY;
+		final List<HeavyHitters.Counter> top = heavyHitters.getTop(CAPACITY);
+		Assert.assertEquals(CAPACITY, top.size());
+		for (final HeavyHitters.Counter counter : top) {
+
+			// The guaranteed count is never over-estimated and under-estimated by at most the stream size divided by the capacity
+			final long realCount = realCounts.get(counter.getKey()).longValue();
+			Assert.assertTrue(counter.getKey(), counter.getGuaranteedCount() <= realCount);
+			Assert.assertTrue(counter.getKey(), counter.getGuaranteedCount() >= realCount - maximumError);
+		}
+
+		// Every key more frequent than the stream size divided by the capacity is kept
+		for (final Map.Entry<String, Long> realCount : realCounts.entrySet()) {
+			if (realCount.getValue().longValue() > maximumError) {
+				Assert.assertTrue(realCount.getKey(), containsKey(top, realCount.getKey()));
+			}
+		}
+
+		// Highest guaranteed counts first
+		for (int i = 1; i < top.size(); i++) {
+			Assert.assertTrue(top.get(i - 1).getGuaranteedCount() >= top.get(i).getGuaranteedCount());
+		}
+	}
+
+	/**
+	 * Count several occurrences of a key labelled with the key.
+	 *
+	 * @param heavyHitters counters to update
+	 * @param key counted key
+	 * @param occurrences number of occurrences
+	 */
+	private static void add(final HeavyHitters heavyHitters, final String key, final int occurrences) {
+
+		for (int i = 0; i < occurrences; i++) {
+			heavyHitters.add(key, key);
+		}
+	}
+
+	/**
+	 * Check the key and the guaranteed count of a counter.
+	 *
+	 * @param counter counter to check
+	 * @param expectedKey expected key
+	 * @param expectedCount expected guaranteed count
+	 */
+	private static void assertCounter(final HeavyHitters.Counter counter, final String expectedKey, final long expectedCount) {
+
+		Assert.assertEquals(expectedKey, counter.getKey());
+		Assert.assertEquals(expectedCount, counter.getGuaranteedCount());
+	}
+
+	/**
+	 * Check if a key is counted.
+	 *
+	 * @param counters counters to search
+	 * @param key key to find
+	 * @return true if a counter has the key
+	 */
+	private static boolean containsKey(final List<HeavyHitters.Counter> counters, final String key) {
+
+		for (final HeavyHitters.Counter counter : counters) {
+			if (key.equals(counter.getKey())) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+}
@@ -0,0 +1,104 @@
+package com.github.sbugat.rundeckmonitor.statistics;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests of the late thresholds: cold start with the Rundeck average duration, learned quantile and unknown jobs.
+ *
+ * @author Sylvain Bugat
+ *
+ */
+public final class JobDurationEstimatorTest {
+
+	/** Configured quantile of the late thresholds. */
+	private static final int LATE_QUANTILE = 99;
+
+	/** Number of durations needed before using the quantile of a job. */
+	private static final int MINIMUM_DURATIONS = 10;
+
+	/** Minimum late threshold in milliseconds. */
+	private static final long MINIMUM_LATE_THRESHOLD = 60_000L;
+
+	/** Global late threshold in milliseconds. */
+	private static final long GLOBAL_LATE_THRESHOLD = 1_800_000L;
+
+	/** Rundeck average duration of the job in milliseconds. */
+	private static final long AVERAGE_DURATION = 300_000L;
+
+	/** Job of the thresholds. */
+	private static final String JOB = "job"; //$NON-NLS-1$
+
+	/** Estimator of the tests. */
+	private JobDurationEstimator jobDurationEstimator;
+
+	@Before
+	public void setUp() {
+
+		jobDurationEstimator = new JobDurationEstimator();
+		jobDurationEstimator.setLateQuantile(LATE_QUANTILE);
+	}
+
+	@Test
+	public void testColdStart() {
+
+		// Twice the Rundeck average duration until enough durations are known
+		Assert.assertEquals(2 * AVERAGE_DURATION, jobDurationEstimator.getLateThreshold(JOB, AVERAGE_DURATION, GLOBAL_LATE_THRESHOLD));
+		for (int i = 1; i < MINIMUM_DURATIONS; i++) {
+			jobDurationEstimator.recordDuration(JOB, i * 1_000L);
+		}
+		Assert.assertEquals(2 * AVERAGE_DURATION, jobDurationEstimator.getLateThreshold(JOB, AVERAGE_DURATION, GLOBAL_LATE_THRESHOLD));
+
+		// Short jobs are not late after a few seconds
+		Assert.assertEquals(MINIMUM_LATE_THRESHOLD, jobDurationEstimator.getLateThreshold(JOB, 1_000L, GLOBAL_LATE_THRESHOLD));
+	}
+
+	@Test
+	public void testLearnedQuantile() {
+
+		// Durations from 1 to 100 minutes
+		for (int minutes = 1; minutes <= 100; minutes++) {
+			jobDurationEstimator.recordDuration(JOB, minutes * MINIMUM_LATE_THRESHOLD);
+		}
+
+		// The 99th percentile replaces the Rundeck average duration
+		final long lateThreshold = jobDurationEstimator.getLateThreshold(JOB, AVERAGE_DURATION, GLOBAL_LATE_THRESHOLD);
+		Assert.assertTrue(lateThreshold >= 98 * MINIMUM_LATE_THRESHOLD);
+		Assert.assertTrue(lateThreshold <= 100 * MINIMUM_LATE_THRESHOLD);
+
+		// Lower quantile
+		jobDurationEstimator.setLateQuantile(50);
+		final long medianThreshold = jobDurationEstimator.getLateThreshold(JOB, AVERAGE_DURATION, GLOBAL_LATE_THRESHOLD);
+		Assert.assertTrue(medianThreshold >= 49 * MINIMUM_LATE_THRESHOLD);
+		Assert.assertTrue(medianThreshold <= 52 * MINIMUM_LATE_THRESHOLD);
+	}
+
+	@Test
+	public void testMinimumThresholdOfShortJobs() {
+
+		for (int i = 0; i < MINIMUM_DURATIONS; i++) {
+			jobDurationEstimator.recordDuration(JOB, 1_000L);
+		}
+		Assert.assertEquals(MINIMUM_LATE_THRESHOLD, jobDurationEstimator.getLateThreshold(JOB, AVERAGE_DURATION, GLOBAL_LATE_THRESHOLD));
+	}
+
+	@Test
+	public void testUnknownJobs() {
+
+		// Job never run and ad-hoc execution
+		Assert.assertEquals(GLOBAL_LATE_THRESHOLD, jobDurationEstimator.getLateThreshold("unknown job", 0, GLOBAL_LATE_THRESHOLD)); //$NON-NLS-1$
+		Assert.assertEquals(GLOBAL_LATE_THRESHOLD, jobDurationEstimator.getLateThreshold(null, AVERAGE_DURATION, GLOBAL_LATE_THRESHOLD));
+	}
+
+	@Test
+	public void testDisabledQuantile() {
+
+		for (int i = 0; i < MINIMUM_DURATIONS; i++) {
+			jobDurationEstimator.recordDuration(JOB, AVERAGE_DURATION);
+		}
+
+		jobDurationEstimator.setLateQuantile(0);
+		Assert.assertEquals(GLOBAL_LATE_THRESHOLD, jobDurationEstimator.getLateThreshold(JOB, AVERAGE_DURATION, GLOBAL_LATE_THRESHOLD));
+	}
+}
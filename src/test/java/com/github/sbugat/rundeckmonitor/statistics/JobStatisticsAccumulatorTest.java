@@ -0,0 +1,99 @@
+package com.github.sbugat.rundeckmonitor.statistics;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests of the statistics of a job on scripted failure and success sequences.
+ *
+ * @author Sylvain Bugat
+ *
+ */
+public final class JobStatisticsAccumulatorTest {
+
+	/** Job key of the statistics. */
+	private static final String JOB_KEY = "job"; //$NON-NLS-1$
+
+	/** Job name of the statistics. */
+	private static final String JOB_NAME = "job name"; //$NON-NLS-1$
+
+	@Test
+	public void testEmptyStatistics() {
+
+		final JobStatistics jobStatistics = new JobStatisticsAccumulator(JOB_NAME).toJobStatistics(JOB_KEY);
+		Assert.assertEquals(JOB_KEY, jobStatistics.getJobKey());
+		Assert.assertEquals(JOB_NAME, jobStatistics.getJobName());
+		Assert.assertEquals(0, jobStatistics.getFailureCount());
+		Assert.assertEquals(-1, jobStatistics.getFailureRate());
+		Assert.assertEquals(-1, jobStatistics.getMeanTimeBetweenFailures());
+		Assert.assertEquals(-1, jobStatistics.getMeanTimeToRecovery());
+		Assert.assertFalse(jobStatistics.isFailing());
+	}
+
+	@Test
+	public void testFailureAndRecoverySequence() {
+
+		final JobStatisticsAccumulator accumulator = new JobStatisticsAccumulator(JOB_NAME);
+
+		// First failure streak of 2 failures, recovered after 3 seconds
+		accumulator.addFailure(JOB_NAME, 1_000);
+		accumulator.addFailure(JOB_NAME, 3_000);
+		Assert.assertTrue(accumulator.toJobStatistics(JOB_KEY).isFailing());
+		Assert.assertEquals(2_000, accumulator.toJobStatistics(JOB_KEY).getMeanTimeBetweenFailures());
+		Assert.assertEquals(-1, accumulator.toJobStatistics(JOB_KEY).getMeanTimeToRecovery());
+		accumulator.addSuccess(JOB_NAME, 4_000);
+		accumulator.addSuccess(JOB_NAME, 5_000);
+
+		// Second failure streak recovered after 3 seconds
+		accumulator.addFailure(JOB_NAME, 9_000);
+		accumulator.addFailure(JOB_NAME, 10_000);
+		accumulator.addSuccess("renamed job", 12_000); //$NON-NLS-1$
+
+		JobStatistics jobStatistics = accumulator.toJobStatistics(JOB_KEY);
+		Assert.assertEquals("renamed job", jobStatistics.getJobName()); //$NON-NLS-1$
+		Assert.assertEquals(4, jobStatistics.getFailureCount());
+		Assert.assertEquals(7, jobStatistics.getExecutionCount());
+		Assert.assertEquals(4 * 100 / 7, jobStatistics.getFailureRate());
+		Assert.assertEquals((10_000 - 1_000) / 3, jobStatistics.getMeanTimeBetweenFailures());
+		Assert.assertEquals(3_000, jobStatistics.getMeanTimeToRecovery());
+		Assert.assertFalse(jobStatistics.isFailing());
+
+		// New failure streak
+		accumulator.addFailure(JOB_NAME, 15_000);
+		jobStatistics = accumulator.toJobStatistics(JOB_KEY);
+		Assert.assertTrue(jobStatistics.isFailing());
+		Assert.assertEquals((15_000 - 1_000) / 4, jobStatistics.getMeanTimeBetweenFailures());
+	}
+
+	@Test
+	public void testSuccessBeforeTheFailureStreak() {
+
+		final JobStatisticsAccumulator accumulator = new JobStatisticsAccumulator(JOB_NAME);
+		accumulator.addFailure(JOB_NAME, 10_000);
+
+		// A success completed before the failure, observed after it, does not end the streak
+		accumulator.addSuccess(JOB_NAME, 8_000);
+		JobStatistics jobStatistics = accumulator.toJobStatistics(JOB_KEY);
+		Assert.assertTrue(jobStatistics.isFailing());
+		Assert.assertEquals(-1, jobStatistics.getMeanTimeToRecovery());
+		Assert.assertEquals(50, jobStatistics.getFailureRate());
+
+		accumulator.addSuccess(JOB_NAME, 16_000);
+		jobStatistics = accumulator.toJobStatistics(JOB_KEY);
+		Assert.assertFalse(jobStatistics.isFailing());
+		Assert.assertEquals(6_000, jobStatistics.getMeanTimeToRecovery());
+	}
+
+	@Test
+	public void testFailuresObservedOutOfOrder() {
+
+		final JobStatisticsAccumulator accumulator = new JobStatisticsAccumulator(JOB_NAME);
+		accumulator.addFailure(JOB_NAME, 5_000);
+		accumulator.addFailure(JOB_NAME, 1_000);
+		accumulator.addFailure(JOB_NAME, 3_000);
+
+		// The mean time between failures uses the oldest and newest failures
+		Assert.assertEquals(2_000, accumulator.toJobStatistics(JOB_KEY).getMeanTimeBetweenFailures());
+		Assert.assertEquals(100, accumulator.toJobStatistics(JOB_KEY).getFailureRate());
+	}
+}
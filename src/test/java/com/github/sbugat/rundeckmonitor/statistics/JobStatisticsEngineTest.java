@@ -0,0 +1,118 @@
+package com.github.sbugat.rundeckmonitor.statistics;
+
+import java.io.IOException;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.github.sbugat.rundeckmonitor.history.ExecutionHistoryStore;
+import com.github.sbugat.rundeckmonitor.history.HistoryRecord;
+import com.github.sbugat.rundeckmonitor.history.HistoryRecordType;
+
+/**
+ * Tests of the job statistics engine: top failing jobs, history replay and recent failures.
+ *
+ * @author Sylvain Bugat
+ *
+ */
+public final class JobStatisticsEngineTest {
+
+	/** One hour in milliseconds. */
+	private static final long ONE_HOUR = 3_600_000L;
+
+	/** Number of days of history kept. */
+	private static final int RETENTION_DAYS = 10;
+
+	/** Maximum number of top failing jobs. */
+	private static final int TOP_JOBS = 10;
+
+	/** Temporary folder of the history. */
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	@Test
+	public void testTopFailingJobs() {
+
+		final JobStatisticsEngine jobStatisticsEngine = new JobStatisticsEngine();
+		jobStatisticsEngine.recordFailure("job1", "job1 name", 1_000); //$NON-NLS-1$ //$NON-NLS-2$
+		jobStatisticsEngine.recordFailure("job2", "job2 name", 2_000); //$NON-NLS-1$ //$NON-NLS-2$
+		jobStatisticsEngine.recordFailure("job2", "job2 name", 4_000); //$NON-NLS-1$ //$NON-NLS-2$
+		jobStatisticsEngine.recordSuccess("job2", "job2 name", 5_000); //$NON-NLS-1$ //$NON-NLS-2$
+		jobStatisticsEngine.recordSuccess("job3", "job3 name", 6_000); //$NON-NLS-1$ //$NON-NLS-2$
+
+		// Jobs without failure are not in the top failing jobs
+		final List<JobStatistics> topFailingJobs = jobStatisticsEngine.getTopFailingJobs(TOP_JOBS);
+		Assert.assertEquals(2, topFailingJobs.size());
+
+		final JobStatistics job2Statistics = topFailingJobs.get(0);
+		Assert.assertEquals("job2", job2Statistics.getJobKey()); //$NON-NLS-1$
+		Assert.assertEquals(2, job2Statistics.getFailureCount());
+		Assert.assertEquals(2 * 100 / 3, job2Statistics.getFailureRate());
+		Assert.assertEquals(2_000, job2Statistics.getMeanTimeBetweenFailures());
+		Assert.assertEquals(3_000, job2Statistics.getMeanTimeToRecovery());
+		Assert.assertFalse(job2Statistics.isFailing());
+
+		final JobStatistics job1Statistics = topFailingJobs.get(1);
+		Assert.assertEquals("job1", job1Statistics.getJobKey()); //$NON-NLS-1$
+		Assert.assertEquals(100, job1Statistics.getFailureRate());
+		Assert.assertTrue(job1Statistics.isFailing());
+
+		Assert.assertEquals(1, jobStatisticsEngine.getTopFailingJobs(1).size());
+	}
+
+	@Test
+	public void testRecentFailures() throws IOException {
+
+		final long now = System.currentTimeMillis();
+		final ExecutionHistoryStore executionHistoryStore = new ExecutionHistoryStore(temporaryFolder.newFolder().toPath());
+		executionHistoryStore.setRetentionDays(RETENTION_DAYS);
+
+		// 2 failures of the first job 3 days ago, 3 failures and 1 success during the last day
+		recordFailure(executionHistoryStore, now - 72 * ONE_HOUR, 1, "job1"); //$NON-NLS-1$
+		recordFailure(executionHistoryStore, now - 71 * ONE_HOUR, 2, "job1"); //$NON-NLS-1$
+		recordFailure(executionHistoryStore, now - 23 * ONE_HOUR, 3, "job1"); //$NON-NLS-1$
+		recordFailure(executionHistoryStore, now - 2 * ONE_HOUR, 4, "job1"); //$NON-NLS-1$
+		executionHistoryStore.record(new HistoryRecord(HistoryRecordType.SUCCEEDED, now - ONE_HOUR, 5, "server", "project", "job1", "job1 name")); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+		recordFailure(executionHistoryStore, now - ONE_HOUR / 2, 6, "job1"); //$NON-NLS-1$
+
+		// 1 failure of the second job 2 days ago
+		recordFailure(executionHistoryStore, now - 48 * ONE_HOUR, 7, "job2"); //$NON-NLS-1$
+		executionHistoryStore.flush();
+
+		final JobStatisticsEngine jobStatisticsEngine = new JobStatisticsEngine();
+		jobStatisticsEngine.replayHistory(executionHistoryStore);
+
+		// Unknown until the history is queried
+		List<JobStatistics> topFailingJobs = jobStatisticsEngine.getTopFailingJobs(TOP_JOBS);
+		Assert.assertEquals(2, topFailingJobs.size());
+		Assert.assertEquals(-1, topFailingJobs.get(0).getRecentFailureCount());
+
+		jobStatisticsEngine.updateRecentFailures(executionHistoryStore, TOP_JOBS, now);
+		topFailingJobs = jobStatisticsEngine.getTopFailingJobs(TOP_JOBS);
+		Assert.assertEquals("job1", topFailingJobs.get(0).getJobKey()); //$NON-NLS-1$
+		Assert.assertEquals(5, topFailingJobs.get(0).getFailureCount());
+		Assert.assertEquals(3, topFailingJobs.get(0).getRecentFailureCount());
+		Assert.assertEquals("job2", topFailingJobs.get(1).getJobKey()); //$NON-NLS-1$
+		Assert.assertEquals(0, topFailingJobs.get(1).getRecentFailureCount());
+
+		// Disabled history: recent failures are unknown again
+		executionHistoryStore.setRetentionDays(0);
+		jobStatisticsEngine.updateRecentFailures(executionHistoryStore, TOP_JOBS, now);
+		Assert.assertEquals(-1, jobStatisticsEngine.getTopFailingJobs(TOP_JOBS).get(0).getRecentFailureCount());
+	}
+
+	/**
+	 * Record a failed execution in the history.
+	 *
+	 * @param executionHistoryStore history of the executions
+	 * @param completionTime completion time of the execution
+	 * @param executionId execution identifier
+	 * @param jobId job identifier
+	 */
+	private static void recordFailure(final ExecutionHistoryStore executionHistoryStore, final long completionTime, final long executionId, final String jobId) {
+		executionHistoryStore.record(new HistoryRecord(HistoryRecordType.FAILED, completionTime, executionId, "server", "project", jobId, jobId + " name")); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+	}
+}
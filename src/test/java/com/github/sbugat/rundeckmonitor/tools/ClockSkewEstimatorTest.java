@@ -0,0 +1,90 @@
+package com.github.sbugat.rundeckmonitor.tools;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests of the clock skew estimation: first sample, smoothing, convergence and clock jumps.
+ *
+ * @author Sylvain Bugat
+ *
+ */
+public final class ClockSkewEstimatorTest {
+
+	/** Local time of the first request. */
+	private static final long REQUEST_TIME = 1_000_000L;
+
+	/** Round trip time of the requests. */
+	private static final long ROUND_TRIP = 200L;
+
+	/** Number of samples to converge. */
+	private static final int SAMPLES = 50;
+
+	@Test
+	public void testWithoutSample() {
+		Assert.assertEquals(0, new ClockSkewEstimator().getSkew());
+	}
+
+	@Test
+	public void testFirstSample() {
+
+		// Server date truncated to the second, compared to the middle of the round trip
+		final ClockSkewEstimator clockSkewEstimator = new ClockSkewEstimator();
+		clockSkewEstimator.addSample(REQUEST_TIME + 10_000L, REQUEST_TIME, REQUEST_TIME + ROUND_TRIP);
+		Assert.assertEquals(10_000L + 500L - ROUND_TRIP / 2, clockSkewEstimator.getSkew());
+	}
+
+	@Test
+	public void testNegativeSkew() {
+
+		final ClockSkewEstimator clockSkewEstimator = new ClockSkewEstimator();
+		clockSkewEstimator.addSample(REQUEST_TIME - 3_000L, REQUEST_TIME, REQUEST_TIME + ROUND_TRIP);
+		Assert.assertEquals(-3_000L + 500L - ROUND_TRIP / 2, clockSkewEstimator.getSkew());
+	}
+
+	@Test
+	public void testSmoothing() {
+
+		final ClockSkewEstimator clockSkewEstimator = new ClockSkewEstimator();
+		clockSkewEstimator.addSample(REQUEST_TIME, REQUEST_TIME - 500L, REQUEST_TIME + 500L);
+		Assert.assertEquals(500L, clockSkewEstimator.getSkew());
+
+		// A sample near the estimation moves it by a fifth of the difference
+		clockSkewEstimator.addSample(REQUEST_TIME + 1_000L, REQUEST_TIME - 500L, REQUEST_TIME + 500L);
+		Assert.assertEquals(500L + 1_000L / 5, clockSkewEstimator.getSkew());
+	}
+
+	@Test
+	public void testConvergence() {
+
+		// Server dates truncated to the second: the samples vary around the real skew
+		final long realSkew = 2_345L;
+		final ClockSkewEstimator clockSkewEstimator = new ClockSkewEstimator();
+		for (int i = 0; i < SAMPLES; i++) {
+
+			final long requestTime = REQUEST_TIME + i * 7_777L;
+			final long serverTime = (requestTime + ROUND_TRIP / 2 + realSkew) / 1_000L * 1_000L;
+			clockSkewEstimator.addSample(serverTime, requestTime, requestTime + ROUND_TRIP);
+		}
+
+		Assert.assertEquals(realSkew, clockSkewEstimator.getSkew(), 500L);
+	}
+
+	@Test
+	public void testClockJump() {
+
+		final ClockSkewEstimator clockSkewEstimator = new ClockSkewEstimator();
+		for (int i = 0; i < SAMPLES; i++) {
+			clockSkewEstimator.addSample(REQUEST_TIME + 500L, REQUEST_TIME, REQUEST_TIME + 1_000L);
+		}
+		Assert.assertEquals(500L, clockSkewEstimator.getSkew());
+
+		// Local clock set back by one hour: the estimation is replaced, not smoothed
+		clockSkewEstimator.addSample(REQUEST_TIME + 500L, REQUEST_TIME - 3_600_000L, REQUEST_TIME - 3_600_000L + 1_000L);
+		Assert.assertEquals(3_600_000L + 500L, clockSkewEstimator.getSkew());
+
+		// A difference under the jump threshold is smoothed
+		clockSkewEstimator.addSample(REQUEST_TIME + 500L + 4_000L, REQUEST_TIME - 3_600_000L, REQUEST_TIME - 3_600_000L + 1_000L);
+		Assert.assertEquals(3_600_000L + 500L + 4_000L / 5, clockSkewEstimator.getSkew());
+	}
+}
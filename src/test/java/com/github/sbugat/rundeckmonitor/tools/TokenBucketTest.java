@@ -0,0 +1,68 @@
+package com.github.sbugat.rundeckmonitor.tools;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests of the token bucket: burst, delay until the next token and refill up to the capacity.
+ *
+ * @author Sylvain Bugat
+ *
+ */
+public final class TokenBucketTest {
+
+	/** Capacity of the bucket. */
+	private static final int CAPACITY = 3;
+
+	/** Time to add one token in milliseconds. */
+	private static final long REFILL_PERIOD = 200L;
+
+	/** Long refill period not elapsed during a test, in milliseconds. */
+	private static final long LONG_REFILL_PERIOD = 60_000L;
+
+	@Test
+	public void testBurst() {
+
+		final TokenBucket tokenBucket = new TokenBucket(CAPACITY, LONG_REFILL_PERIOD);
+		for (int i = 0; i < CAPACITY; i++) {
+
+			Assert.assertEquals(0, tokenBucket.getDelayUntilNextToken());
+			Assert.assertTrue(tokenBucket.tryAcquire());
+		}
+
+		// Empty bucket until the next refill
+		Assert.assertFalse(tokenBucket.tryAcquire());
+		final long delay = tokenBucket.getDelayUntilNextToken();
+		Assert.assertTrue(delay > LONG_REFILL_PERIOD - 1_000L);
+		Assert.assertTrue(delay <= LONG_REFILL_PERIOD + 1);
+	}
+
+	@Test
+	public void testRefill() throws InterruptedException {
+
+		final TokenBucket tokenBucket = new TokenBucket(CAPACITY, REFILL_PERIOD);
+		for (int i = 0; i < CAPACITY; i++) {
+			Assert.assertTrue(tokenBucket.tryAcquire());
+		}
+		Assert.assertFalse(tokenBucket.tryAcquire());
+
+		// One token after the announced delay
+		Thread.sleep(tokenBucket.getDelayUntilNextToken());
+		Assert.assertTrue(tokenBucket.tryAcquire());
+		Assert.assertFalse(tokenBucket.tryAcquire());
+	}
+
+	@Test
+	public void testRefillUpToTheCapacity() throws InterruptedException {
+
+		final TokenBucket tokenBucket = new TokenBucket(CAPACITY, REFILL_PERIOD);
+		Assert.assertTrue(tokenBucket.tryAcquire());
+
+		// Many refill periods only fill the bucket
+		Thread.sleep(REFILL_PERIOD * (CAPACITY + 2));
+		for (int i = 0; i < CAPACITY; i++) {
+			Assert.assertTrue(tokenBucket.tryAcquire());
+		}
+		Assert.assertFalse(tokenBucket.tryAcquire());
+	}
+}
@@ -0,0 +1,123 @@
+package com.github.sbugat.rundeckmonitor.wizard;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests of the project names prefix index against a linear search.
+ *
+ * @author Sylvain Bugat
+ *
+ */
+public final class ProjectNameIndexTest {
+
+	/** Number of random project names. */
+	private static final int PROJECTS = 2_000;
+
+	/** Characters of the random project names. */
+	private static final String NAME_CHARACTERS = "abAB-_1"; //$NON-NLS-1$
+
+	/** Seed of the random project names. */
+	private static final long SEED = 42L;
+
+	@Test
+	public void testSortedNames() {
+
+		final ProjectNameIndex projectNameIndex = new ProjectNameIndex(Arrays.asList("beta", "Alpha", "alpha", "gamma", "ALPHA-2")); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$
+
+		// Case insensitive order, same keys in name order
+		Assert.assertEquals(Arrays.asList("Alpha", "alpha", "ALPHA-2", "beta", "gamma"), projectNameIndex.getSortedNames()); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$
+	}
+
+	@Test
+	public void testFind() {
+
+		final ProjectNameIndex projectNameIndex = new ProjectNameIndex(Arrays.asList("beta", "Alpha", "alphabet", "gamma", "ALPHA-2", "al")); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$ //$NON-NLS-6$
+
+		Assert.assertEquals(Arrays.asList("Alpha", "ALPHA-2", "alphabet"), projectNameIndex.find("ALPH")); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+		Assert.assertEquals(Arrays.asList("al", "Alpha", "ALPHA-2", "alphabet"), projectNameIndex.find("al")); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$
+		Assert.assertEquals(Arrays.asList("alphabet"), projectNameIndex.find("alphab")); //$NON-NLS-1$ //$NON-NLS-2$
+		Assert.assertEquals(Arrays.asList("gamma"), projectNameIndex.find("gamma")); //$NON-NLS-1$ //$NON-NLS-2$
+
+		// Empty prefix and unknown prefixes
+		Assert.assertEquals(projectNameIndex.getSortedNames(), projectNameIndex.find("")); //$NON-NLS-1$
+		Assert.assertTrue(projectNameIndex.find("delta").isEmpty()); //$NON-NLS-1$
+		Assert.assertTrue(projectNameIndex.find("zzz").isEmpty()); //$NON-NLS-1$
+		Assert.assertTrue(projectNameIndex.find("0").isEmpty()); //$NON-NLS-1$
+		Assert.assertTrue(projectNameIndex.find("gammas").isEmpty()); //$NON-NLS-1$
+	}
+
+	@Test
+	public void testEmptyIndex() {
+
+		final ProjectNameIndex projectNameIndex = new ProjectNameIndex(Collections.<String> emptyList());
+		Assert.assertTrue(projectNameIndex.getSortedNames().isEmpty());
+		Assert.assertTrue(projectNameIndex.find("").isEmpty()); //$NON-NLS-1$
+		Assert.assertTrue(projectNameIndex.find("a").isEmpty()); //$NON-NLS-1$
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void testUnmodifiableResult() {
+		new ProjectNameIndex(Arrays.asList("alpha")).find("a").clear(); //$NON-NLS-1$ //$NON-NLS-2$
+	}
+
+	@Test
+	public void testFindLikeALinearSearch() {
+
+		final Random random = new Random(SEED);
+		final List<String> projectNames = new ArrayList<>();
+		for (int i = 0; i < PROJECTS; i++) {
+			projectNames.add(randomName(random, 1 + random.nextInt(6)));
+		}
+		final ProjectNameIndex projectNameIndex = new ProjectNameIndex(projectNames);
+
+		// Every prefix of up to 3 characters gives the names found by a linear search
+		final List<String> prefixes = new ArrayList<>();
+		prefixes.add(""); //$NON-NLS-1$
+		for (int i = 0; i < NAME_CHARACTERS.length(); i++) {
+
+			final String prefix = NAME_CHARACTERS.substring(i, i + 1);
+			prefixes.add(prefix);
+			for (int j = 0; j < NAME_CHARACTERS.length(); j++) {
+
+				prefixes.add(prefix + NAME_CHARACTERS.charAt(j));
+				prefixes.add(prefix + NAME_CHARACTERS.charAt(j) + NAME_CHARACTERS.charAt(i));
+			}
+		}
+
+		for (final String prefix : prefixes) {
+
+			final List<String> expectedNames = new ArrayList<>();
+			for (final String projectName : projectNameIndex.getSortedNames()) {
+				if (projectName.toLowerCase(Locale.ROOT).startsWith(prefix.toLowerCase(Locale.ROOT))) {
+					expectedNames.add(projectName);
+				}
+			}
+			Assert.assertEquals(prefix, expectedNames, projectNameIndex.find(prefix));
+		}
+	}
+
+	/**
+	 * Generate a random project name.
+	 *
+	 * @param random random generator
+	 * @param length length of the name
+	 * @return random name
+	 */
+	private static String randomName(final Random random, final int length) {
+
+		final StringBuilder name = new StringBuilder(length);
+		for (int i = 0; i < length; i++) {
+			name.append(NAME_CHARACTERS.charAt(random.nextInt(NAME_CHARACTERS.length())));
+		}
+
+		return name.toString();
+	}
+}